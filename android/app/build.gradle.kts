@@ -51,6 +51,8 @@ android {
     testOptions {
         unitTests {
             isIncludeAndroidResources = true
+            // Timing benchmarks are skipped unless run with -Pbenchmarks
+            all { it.systemProperty("benchmarks", project.hasProperty("benchmarks")) }
         }
     }
 }
@@ -11,7 +11,7 @@ import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.lotterysystemproject.R;
-import com.example.lotterysystemproject.models.Event;
+import com.example.lotterysystemproject.models.EventSummary;
 
 import java.text.DateFormat;
 import java.util.List;
@@ -22,18 +22,18 @@ import java.util.List;
 public class CategoryEventAdapter extends RecyclerView.Adapter<CategoryEventAdapter.ViewHolder> {
 
     public interface OnEventClick {
-        void onClick(Event event);
+        void onClick(EventSummary event);
     }
 
-    private List<Event> items;
+    private List<EventSummary> items;
     private final OnEventClick callback;
 
-    public CategoryEventAdapter(List<Event> items, OnEventClick callback) {
+    public CategoryEventAdapter(List<EventSummary> items, OnEventClick callback) {
         this.items = items;
         this.callback = callback;
     }
 
-    public void update(List<Event> newItems) {
+    public void update(List<EventSummary> newItems) {
         this.items = newItems;
         notifyDataSetChanged();
     }
@@ -48,7 +48,7 @@ public class CategoryEventAdapter extends RecyclerView.Adapter<CategoryEventAdap
 
     @Override
     public void onBindViewHolder(@NonNull CategoryEventAdapter.ViewHolder holder, int position) {
-        Event e = items.get(position);
+        EventSummary e = items.get(position);
         holder.title.setText(e.getName());
         holder.host.setText(e.getHostName() != null ? e.getHostName() : "");
         if (e.getEventDate() != null) {
@@ -42,6 +42,13 @@ public class EntrantAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder
          * @param entrant The entrant being replaced.
          */
         void onDrawReplacement(Entrant entrant);
+
+        /**
+         * Called when the organizer opens the door ticket of an enrolled entrant.
+         *
+         * @param entrant The enrolled entrant.
+         */
+        default void onShowTicket(Entrant entrant) {}
     }
 
     /**
@@ -130,7 +137,7 @@ public class EntrantAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder
      */
     static class SelectedViewHolder extends RecyclerView.ViewHolder {
         TextView nameText, emailText, statusText, timeText;
-        Button cancelButton, replacementButton;
+        Button cancelButton, replacementButton, ticketButton;
 
         SelectedViewHolder(View itemView) {
             super(itemView);
@@ -140,6 +147,7 @@ public class EntrantAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder
             timeText = itemView.findViewById(R.id.status_time);
             cancelButton = itemView.findViewById(R.id.cancel_button);
             replacementButton = itemView.findViewById(R.id.replacement_button);
+            ticketButton = itemView.findViewById(R.id.ticket_button);
         }
 
         /**
@@ -152,7 +160,16 @@ public class EntrantAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder
             nameText.setText(getStatusIcon(entrant.getStatus()) + " " + entrant.getName());
             emailText.setText(entrant.getEmail());
             statusText.setText("Status: " + getStatusText(entrant.getStatus()));
-            timeText.setText(entrant.getTimeAgo());
+            timeText.setText(entrant.isCheckedIn() ? "Checked in" : entrant.getTimeAgo());
+
+            if (entrant.getStatus() == Entrant.Status.ENROLLED) {
+                ticketButton.setVisibility(View.VISIBLE);
+                ticketButton.setOnClickListener(v -> {
+                    if (listener != null) listener.onShowTicket(entrant);
+                });
+            } else {
+                ticketButton.setVisibility(View.GONE);
+            }
 
             if (entrant.getStatus() == Entrant.Status.INVITED) {
                 cancelButton.setVisibility(View.VISIBLE);
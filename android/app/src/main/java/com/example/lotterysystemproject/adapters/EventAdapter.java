@@ -98,7 +98,7 @@ public class EventAdapter extends RecyclerView.Adapter<EventAdapter.EventViewHol
             eventName.setText(getEmoji(event.getName()) + " " + event.getName());
 
             SimpleDateFormat dateFormat = new SimpleDateFormat("MMM d, yyyy • h:mm a", Locale.US);
-            eventDateTime.setText(dateFormat.format(event.getEventDate()));
+            eventDateTime.setText(event.getEventDate() != null ? dateFormat.format(event.getEventDate()) : "Date TBD");
             enrollmentCount.setText("👥 " + event.getCurrentEnrolled() + "/" + event.getMaxCapacity() + " enrolled");
 
             if (event.getStatus().equals("open")) {
@@ -6,6 +6,7 @@ import android.text.TextWatcher;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
+import android.widget.Toast;
 
 import androidx.annotation.NonNull;
 import androidx.fragment.app.Fragment;
@@ -28,6 +29,8 @@ public class AdminBrowseEvents extends Fragment {
     private final List<Event> eventAdminList = new ArrayList<>();
     private final List<Event> allEvents = new ArrayList<>();
     private AdminRepository adminRepository;
+    /** Number of event removals currently running; progress stays visible until all finish. */
+    private int runningDeletes = 0;
 
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, ViewGroup container,
@@ -81,11 +84,31 @@ public class AdminBrowseEvents extends Fragment {
         // Fetch events
         fetchEvents();
 
+        // Removal is confirmed in AdminEventsDialog and carried out here so progress stays visible
+        requireActivity().getSupportFragmentManager().setFragmentResultListener(
+                AdminEventsDialog.REQUEST_DELETE_EVENT, getViewLifecycleOwner(),
+                (requestKey, result) -> deleteEvent(result.getString(AdminEventsDialog.RESULT_EVENT_ID)));
+
+        // Finish removals that were interrupted earlier
+        runningDeletes++;
+        adminRepository.resumeEventDeletions(this::showDeleteProgress, new AdminRepository.AdminCallback() {
+            @Override
+            public void onSuccess() {
+                hideDeleteProgress();
+            }
+
+            @Override
+            public void onError(Exception e) {
+                hideDeleteProgress();
+                e.printStackTrace();
+            }
+        });
+
 
     }
 
     private void fetchEvents() {
-        adminRepository.listenToAllEvents(events -> {
+        adminRepository.listenToAllEvents(getViewLifecycleOwner(), events -> {
             allEvents.clear();
             allEvents.addAll(events);
 
@@ -99,6 +122,46 @@ public class AdminBrowseEvents extends Fragment {
     }
 
 
+    /**
+     * Deletes an event with its entrants and notifications, showing how many
+     * related records have been removed so far.
+     *
+     * @param eventId ID of the event to remove
+     */
+    private void deleteEvent(String eventId) {
+        runningDeletes++;
+        showDeleteProgress(0);
+        adminRepository.deleteEvent(eventId, this::showDeleteProgress, new AdminRepository.AdminCallback() {
+            @Override
+            public void onSuccess() {
+                hideDeleteProgress();
+                if (getContext() != null) {
+                    Toast.makeText(getContext(), "Event removed successfully", Toast.LENGTH_SHORT).show();
+                }
+            }
+
+            @Override
+            public void onError(Exception e) {
+                hideDeleteProgress();
+                if (getContext() != null) {
+                    Toast.makeText(getContext(), "Error: " + e.getMessage(), Toast.LENGTH_SHORT).show();
+                }
+            }
+        });
+    }
+
+    private void showDeleteProgress(int deletedRecords) {
+        if (binding == null) return;
+        binding.deleteProgressContainer.setVisibility(View.VISIBLE);
+        binding.deleteProgressText.setText("Removing event... " + deletedRecords + " related records deleted");
+    }
+
+    private void hideDeleteProgress() {
+        runningDeletes--;
+        if (binding == null || runningDeletes > 0) return;
+        binding.deleteProgressContainer.setVisibility(View.GONE);
+    }
+
     private void addSampleEventsToFirebase() {
         // Use existing instance
         // Create a few example events
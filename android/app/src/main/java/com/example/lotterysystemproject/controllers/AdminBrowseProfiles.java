@@ -11,6 +11,7 @@ import androidx.fragment.app.Fragment;
 import androidx.navigation.fragment.NavHostFragment;
 import androidx.recyclerview.widget.LinearLayoutManager;
 
+import com.example.lotterysystemproject.firebasemanager.FirestoreUsage;
 import com.example.lotterysystemproject.models.User;
 import com.example.lotterysystemproject.databinding.AdminBrowseProfilesBinding;
 import com.google.firebase.firestore.DocumentSnapshot;
@@ -127,11 +128,13 @@ public class AdminBrowseProfiles extends Fragment {
      *
      */
     private void loadProfiles() {
+        String screen = FirestoreUsage.currentScreen();
         db.collection("users").addSnapshotListener((queryDocumentSnapshots, e) -> {
             if (e != null) {
                 Log.e("FirestoreError", "Listen failed", e);
                 return;
             }
+            FirestoreUsage.countSnapshot(screen, queryDocumentSnapshots);
             if (queryDocumentSnapshots != null) {
                 userList.clear();
                 allUsers.clear();
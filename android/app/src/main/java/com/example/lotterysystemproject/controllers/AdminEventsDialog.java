@@ -8,15 +8,11 @@ import android.view.View;
 import android.widget.Button;
 import android.widget.ImageView;
 import android.widget.TextView;
-import android.widget.Toast;
 
 import androidx.annotation.NonNull;
-import androidx.annotation.Nullable;
 import androidx.fragment.app.DialogFragment;
 
 import com.bumptech.glide.Glide;
-import com.example.lotterysystemproject.firebasemanager.AdminRepository;
-import com.example.lotterysystemproject.firebasemanager.RepositoryProvider;
 import com.example.lotterysystemproject.models.Event;
 import com.example.lotterysystemproject.R;
 
@@ -24,19 +20,17 @@ import java.text.DateFormat;
 import java.util.Locale;
 
 public class AdminEventsDialog extends DialogFragment {
+    /** Fragment result key sent when the admin confirms removing the event. */
+    public static final String REQUEST_DELETE_EVENT = "admin_delete_event";
+    /** Result bundle key holding the ID of the event to remove. */
+    public static final String RESULT_EVENT_ID = "eventId";
+
     private final Event event;
-    private AdminRepository adminRepository;
 
     public AdminEventsDialog(Event event) {
         this.event = event;
     }
 
-    @Override
-    public void onCreate(@Nullable Bundle savedInstanceState) {
-        super.onCreate(savedInstanceState);
-        adminRepository = RepositoryProvider.getAdminRepository();
-    }
-
 
     @NonNull
     @Override
@@ -90,25 +84,11 @@ public class AdminEventsDialog extends DialogFragment {
                     .setTitle("Remove Event")
                     .setMessage("Are you sure you want to remove \"" + event.getName() + "\"?")
                     .setPositiveButton("Remove", (dialog, which) -> {
-                        adminRepository.deleteEvent(event.getId(),
-                                new AdminRepository.AdminCallback() {
-                                    @Override
-                                    public void onSuccess() {
-                                        Toast.makeText(requireContext(), "Event removed successfully",
-                                                Toast.LENGTH_SHORT).show();
-                                        // Dismiss this dialog
-                                        if (getDialog() != null && getDialog().isShowing()) {
-                                            dismiss();
-                                        }
-                                    }
-
-                                    @Override
-                                    public void onError(Exception e) {
-                                        Toast.makeText(requireContext(),
-                                                "Error: " + e.getMessage(), Toast.LENGTH_SHORT).show();
-
-                                    }
-                                });
+                        // The browse screen runs the cascading delete and shows its progress
+                        Bundle result = new Bundle();
+                        result.putString(RESULT_EVENT_ID, event.getId());
+                        getParentFragmentManager().setFragmentResult(REQUEST_DELETE_EVENT, result);
+                        dismiss();
                     })
                     .setNegativeButton("Cancel", null)
                     .show();
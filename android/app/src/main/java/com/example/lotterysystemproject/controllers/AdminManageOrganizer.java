@@ -83,7 +83,7 @@ public class AdminManageOrganizer extends Fragment {
     }
 
     private void listenToOrganizers() {
-        adminRepository.listenToAllOrganizers(organizers -> {
+        adminRepository.listenToAllOrganizers(getViewLifecycleOwner(), organizers -> {
             allOrganizers.clear();
             organizerList.clear();
             allOrganizers.addAll(organizers);
@@ -1,6 +1,7 @@
 package com.example.lotterysystemproject.firebasemanager;
 
 import androidx.annotation.Nullable;
+import androidx.lifecycle.LifecycleOwner;
 
 import com.example.lotterysystemproject.models.Event;
 import com.example.lotterysystemproject.models.User;
@@ -29,6 +30,17 @@ public interface AdminRepository {
         void onError(Exception e);
     }
 
+    /**
+     * Receives progress updates while an event and its related records are deleted.
+     */
+    interface DeleteProgressListener {
+        /**
+         * Called after each committed batch.
+         * @param deletedRecords Number of related records removed so far.
+         */
+        void onProgress(int deletedRecords);
+    }
+
     // ===================== ACCESSORS =====================
 
     /**
@@ -63,10 +75,12 @@ public interface AdminRepository {
 
     /**
      * Listens for real-time updates to all events for admin browsing.
+     * The listener is detached while the owner is stopped and resumes when it starts again.
+     * @param owner The screen whose lifecycle bounds the listener.
      * @param onSuccess A consumer for the list of Event objects when updated.
      * @param onError A consumer for any exception that occurs.
      */
-    void listenToAllEvents(Consumer<List<Event>> onSuccess, Consumer<Exception> onError);
+    void listenToAllEvents(LifecycleOwner owner, Consumer<List<Event>> onSuccess, Consumer<Exception> onError);
 
     /**
      * Deletes an event from the repository.
@@ -75,6 +89,22 @@ public interface AdminRepository {
      */
     void deleteEvent(String eventId, AdminCallback callback);
 
+    /**
+     * Deletes an event along with its entrant records and notifications.
+     * Related records are removed in batches; the event document is deleted last.
+     * @param eventId The ID of the event to delete.
+     * @param progress Optional listener for the number of records removed so far.
+     * @param callback The callback to handle success or failure.
+     */
+    void deleteEvent(String eventId, @Nullable DeleteProgressListener progress, AdminCallback callback);
+
+    /**
+     * Finishes any event deletions that were interrupted before completing.
+     * @param progress Optional listener for the number of records removed so far.
+     * @param callback The callback to handle success or failure.
+     */
+    void resumeEventDeletions(@Nullable DeleteProgressListener progress, AdminCallback callback);
+
     // ===================== USER OPERATIONS =====================
 
     /**
@@ -96,7 +126,8 @@ public interface AdminRepository {
 
 
     /**
-     * Deletes a single image from storage.
+     * Deletes a single image from storage. Posters are shared between events that
+     * uploaded the same image, so every event still showing it loses its poster first.
      * @param imageUrl The URL of the image to delete.
      * @param callback The callback to handle success or failure.
      */
@@ -111,5 +142,12 @@ public interface AdminRepository {
 
     void getAllOrganizers(Consumer<List<User>> onSuccess, Consumer<Exception> onError);
 
-    void listenToAllOrganizers(Consumer<List<User>> onSuccess, Consumer<Exception> onError);
+    /**
+     * Listens for real-time updates to all organizers.
+     * The listener is detached while the owner is stopped and resumes when it starts again.
+     * @param owner The screen whose lifecycle bounds the listener.
+     * @param onSuccess A consumer for the list of organizers when updated.
+     * @param onError A consumer for any exception that occurs.
+     */
+    void listenToAllOrganizers(LifecycleOwner owner, Consumer<List<User>> onSuccess, Consumer<Exception> onError);
 }
\ No newline at end of file
@@ -0,0 +1,244 @@
+package com.example.lotterysystemproject.firebasemanager;
+
+import androidx.annotation.Nullable;
+import androidx.lifecycle.LiveData;
+
+import com.example.lotterysystemproject.models.Event;
+import com.example.lotterysystemproject.models.EventSummary;
+import com.example.lotterysystemproject.models.OrganizerStats;
+import com.example.lotterysystemproject.models.User;
+import com.example.lotterysystemproject.utils.TtlLruCache;
+import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.storage.FirebaseStorage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * EventRepository decorator that serves the browse queries (active, recent and
+ * per-category event and summary lists) from in-memory {@link TtlLruCache}s, so
+ * reopening the entrant screens does not re-read the events collection every time.
+ * Writes are passed through and drop the cached lists.
+ */
+class CachedEventRepository implements EventRepository {
+
+    private static final int MAX_LISTS = 32;
+    private static final long LIST_TTL_MS = 60 * 1000L;
+    private static final long LIST_STALE_MS = 10 * 60 * 1000L;
+
+    private static final String KEY_ACTIVE = "active";
+    private static final String KEY_RECENT = "recent:";
+    private static final String KEY_CATEGORY = "category:";
+
+    private final EventRepository delegate;
+    private final TtlLruCache<String, List<Event>> lists =
+            new TtlLruCache<>("event lists", MAX_LISTS, LIST_TTL_MS, LIST_STALE_MS);
+    private final TtlLruCache<String, List<EventSummary>> summaries =
+            new TtlLruCache<>("event summaries", MAX_LISTS, LIST_TTL_MS, LIST_STALE_MS);
+
+    CachedEventRepository(EventRepository delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * @return hit and miss counters of the event and summary list caches
+     */
+    List<TtlLruCache.Stats> getCacheStats() {
+        return Arrays.asList(lists.getStats(), summaries.getStats());
+    }
+
+    // ===================== ACCESSORS =====================
+
+    @Nullable
+    @Override
+    public FirebaseFirestore getDatabase() {
+        return delegate.getDatabase();
+    }
+
+    @Nullable
+    @Override
+    public FirebaseStorage getStorage() {
+        return delegate.getStorage();
+    }
+
+    @Override
+    public CollectionReference getCollection(String name) {
+        return delegate.getCollection(name);
+    }
+
+    // ===================== USER OPERATIONS =====================
+
+    @Override
+    public void addUser(User user, RepositoryCallback callback) {
+        delegate.addUser(user, callback);
+    }
+
+    @Override
+    public void updateUser(String userId, Map<String, Object> updates, RepositoryCallback callback) {
+        delegate.updateUser(userId, updates, callback);
+    }
+
+    @Override
+    public void getUser(String userId, Consumer<User> onSuccess, Consumer<Exception> onError) {
+        delegate.getUser(userId, onSuccess, onError);
+    }
+
+    @Override
+    public void deleteUser(String userId, RepositoryCallback callback) {
+        delegate.deleteUser(userId, callback);
+    }
+
+    @Override
+    public void updateUserRoleToOrganizer(String userId, RepositoryCallback callback) {
+        delegate.updateUserRoleToOrganizer(userId, callback);
+    }
+
+    // ===================== EVENT OPERATIONS =====================
+
+    @Override
+    public LiveData<List<Event>> getAllEvents() {
+        return delegate.getAllEvents();
+    }
+
+    @Override
+    public void addEvent(Event event, Consumer<Exception> onError) {
+        // Firestore applies the write locally first, so the next read already sees it
+        lists.invalidateAll();
+        summaries.invalidateAll();
+        delegate.addEvent(event, onError);
+    }
+
+    @Override
+    public void invalidateEvent(String eventId) {
+        lists.invalidateAll();
+        summaries.invalidateAll();
+        delegate.invalidateEvent(eventId);
+    }
+
+    @Override
+    public void getEventsByCategory(String category, Consumer<List<Event>> onSuccess, Consumer<Exception> onError) {
+        loadList(KEY_CATEGORY + category,
+                (ok, err) -> delegate.getEventsByCategory(category, ok, err), onSuccess, onError);
+    }
+
+    @Override
+    public void getActiveEvents(Consumer<List<Event>> onSuccess, Consumer<Exception> onError) {
+        loadList(KEY_ACTIVE, delegate::getActiveEvents, onSuccess, onError);
+    }
+
+    @Override
+    public void getRecentEvents(int limit, Consumer<List<Event>> onSuccess, Consumer<Exception> onError) {
+        loadList(KEY_RECENT + limit,
+                (ok, err) -> delegate.getRecentEvents(limit, ok, err), onSuccess, onError);
+    }
+
+    @Override
+    public void getRandomEvents(int count, Consumer<List<Event>> onSuccess, Consumer<Exception> onError) {
+        // Every call should draw a new sample, so this is not cached
+        delegate.getRandomEvents(count, onSuccess, onError);
+    }
+
+    @Override
+    public void getLiveEventIds(Collection<String> eventIds, Consumer<Set<String>> onSuccess, Consumer<Exception> onError) {
+        delegate.getLiveEventIds(eventIds, onSuccess, onError);
+    }
+
+    @Override
+    public void getEventsByHost(String hostId, @Nullable Event after, int limit,
+                                Consumer<List<Event>> onSuccess, Consumer<Exception> onError) {
+        // Organizers expect their own edits to show up immediately, so this is not cached
+        delegate.getEventsByHost(hostId, after, limit, onSuccess, onError);
+    }
+
+    @Override
+    public void getOrganizerStats(String hostId, Consumer<OrganizerStats> onSuccess, Consumer<Exception> onError) {
+        delegate.getOrganizerStats(hostId, onSuccess, onError);
+    }
+
+    // ===================== EVENT SUMMARY OPERATIONS =====================
+
+    @Override
+    public LiveData<List<EventSummary>> getActiveEventSummaries() {
+        return delegate.getActiveEventSummaries();
+    }
+
+    @Override
+    public void getActiveEventSummaries(Consumer<List<EventSummary>> onSuccess, Consumer<Exception> onError) {
+        loadSummaries(KEY_ACTIVE, delegate::getActiveEventSummaries, onSuccess, onError);
+    }
+
+    @Override
+    public void getEventSummariesByCategory(String category, Consumer<List<EventSummary>> onSuccess,
+                                            Consumer<Exception> onError) {
+        loadSummaries(KEY_CATEGORY + category,
+                (ok, err) -> delegate.getEventSummariesByCategory(category, ok, err), onSuccess, onError);
+    }
+
+    // ===================== WAITING LIST OPERATIONS =====================
+
+    @Override
+    public void joinWaitingList(String eventId, String userId, RepositoryCallback callback) {
+        delegate.joinWaitingList(eventId, userId, invalidatingListsOn(callback));
+    }
+
+    @Override
+    public void leaveWaitingList(String eventId, String userId, RepositoryCallback callback) {
+        delegate.leaveWaitingList(eventId, userId, invalidatingListsOn(callback));
+    }
+
+    // ===================== HELPERS =====================
+
+    /**
+     * Serves a list through the cache. Callers get their own copy because
+     * several screens sort or filter the list they receive in place.
+     */
+    private void loadList(String key, TtlLruCache.Loader<List<Event>> loader,
+                          Consumer<List<Event>> onSuccess, Consumer<Exception> onError) {
+        lists.load(key, loader,
+                events -> {
+                    if (onSuccess != null) onSuccess.accept(events != null ? new ArrayList<>(events) : new ArrayList<>());
+                },
+                e -> {
+                    if (onError != null) onError.accept(e);
+                });
+    }
+
+    /**
+     * Same as {@link #loadList} for summary lists.
+     */
+    private void loadSummaries(String key, TtlLruCache.Loader<List<EventSummary>> loader,
+                               Consumer<List<EventSummary>> onSuccess, Consumer<Exception> onError) {
+        summaries.load(key, loader,
+                items -> {
+                    if (onSuccess != null) onSuccess.accept(items != null ? new ArrayList<>(items) : new ArrayList<>());
+                },
+                e -> {
+                    if (onError != null) onError.accept(e);
+                });
+    }
+
+    /**
+     * Waiting counts are part of the cached events and summaries, so drop the lists once a join or leave lands.
+     */
+    private RepositoryCallback invalidatingListsOn(RepositoryCallback callback) {
+        return new RepositoryCallback() {
+            @Override
+            public void onSuccess() {
+                lists.invalidateAll();
+                summaries.invalidateAll();
+                if (callback != null) callback.onSuccess();
+            }
+
+            @Override
+            public void onError(Exception e) {
+                if (callback != null) callback.onError(e);
+            }
+        };
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.lotterysystemproject.firebasemanager;
+
+import com.example.lotterysystemproject.models.NotificationItem;
+import com.example.lotterysystemproject.utils.TtlLruCache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * NotificationRepository decorator that serves per-user notification lists and
+ * the admin notification log from an in-memory {@link TtlLruCache}.
+ * Lists are kept short-lived because notifications for a user are written by
+ * other devices; an active {@link #listenUserNotifications} keeps them current.
+ */
+class CachedNotificationRepository implements NotificationRepository {
+
+    private static final int MAX_LISTS = 50;
+    private static final long LIST_TTL_MS = 30 * 1000L;
+    private static final long LIST_STALE_MS = 5 * 60 * 1000L;
+
+    /** Key of the admin log; user ids are never empty. */
+    private static final String KEY_ALL = "";
+
+    private final NotificationRepository delegate;
+    private final TtlLruCache<String, List<NotificationItem>> lists =
+            new TtlLruCache<>("notifications", MAX_LISTS, LIST_TTL_MS, LIST_STALE_MS);
+
+    CachedNotificationRepository(NotificationRepository delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * @return hit and miss counters of the notification cache
+     */
+    TtlLruCache.Stats getCacheStats() {
+        return lists.getStats();
+    }
+
+    @Override
+    public void createNotification(String userId, NotificationItem item, RepositoryCallback<Void> callback) {
+        delegate.createNotification(userId, item, invalidating(userId, callback));
+    }
+
+    @Override
+    public void getNotificationsForUser(String userId, RepositoryCallback<List<NotificationItem>> callback) {
+        load(userId, cb -> delegate.getNotificationsForUser(userId, cb), callback);
+    }
+
+    @Override
+    public void listenUserNotifications(String userId, RepositoryListener<List<NotificationItem>> listener) {
+        delegate.listenUserNotifications(userId, new RepositoryListener<List<NotificationItem>>() {
+            @Override
+            public void onDataChanged(List<NotificationItem> data) {
+                lists.put(userId, data != null ? new ArrayList<>(data) : null);
+                if (listener != null) listener.onDataChanged(data);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                if (listener != null) listener.onError(e);
+            }
+        });
+    }
+
+    @Override
+    public void deleteNotification(String userId, String notificationId, RepositoryCallback<Void> callback) {
+        delegate.deleteNotification(userId, notificationId, invalidating(userId, callback));
+    }
+
+    @Override
+    public void stopListeningUserNotifications() {
+        delegate.stopListeningUserNotifications();
+    }
+
+    @Override
+    public void getAllNotifications(RepositoryCallback<List<NotificationItem>> callback) {
+        load(KEY_ALL, delegate::getAllNotifications, callback);
+    }
+
+    /**
+     * Serves a list through the cache, handing each caller its own copy.
+     */
+    private void load(String key,
+                      Consumer<RepositoryCallback<List<NotificationItem>>> fetch,
+                      RepositoryCallback<List<NotificationItem>> callback) {
+        lists.load(key,
+                (ok, err) -> fetch.accept(new RepositoryCallback<List<NotificationItem>>() {
+                    @Override
+                    public void onSuccess(List<NotificationItem> result) {
+                        ok.accept(result);
+                    }
+
+                    @Override
+                    public void onFailure(Exception e) {
+                        err.accept(e);
+                    }
+                }),
+                items -> {
+                    if (callback != null) {
+                        callback.onSuccess(items != null ? new ArrayList<>(items) : new ArrayList<>());
+                    }
+                },
+                e -> {
+                    if (callback != null) callback.onFailure(e);
+                });
+    }
+
+    /**
+     * Drops the user's list and the admin log once a write has finished.
+     */
+    private RepositoryCallback<Void> invalidating(String userId, RepositoryCallback<Void> callback) {
+        return new RepositoryCallback<Void>() {
+            @Override
+            public void onSuccess(Void result) {
+                invalidate(userId);
+                if (callback != null) callback.onSuccess(result);
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                invalidate(userId);
+                if (callback != null) callback.onFailure(e);
+            }
+        };
+    }
+
+    private void invalidate(String userId) {
+        if (userId != null) lists.invalidate(userId);
+        lists.invalidate(KEY_ALL);
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.lotterysystemproject.firebasemanager;
+
+import android.net.Uri;
+
+import com.example.lotterysystemproject.models.User;
+
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * UserRepository decorator that serves {@link #getUserById} from the shared
+ * {@link UserProfileCache}. Every write for a user drops that user's entry, and
+ * {@link #listenToUser} refreshes it with each snapshot.
+ */
+class CachedUserRepository implements UserRepository {
+
+    private final UserRepository delegate;
+
+    CachedUserRepository(UserRepository delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void createOrUpdateUser(User user, RepositoryCallback<Void> callback) {
+        delegate.createOrUpdateUser(user, invalidating(user != null ? user.getId() : null, callback));
+    }
+
+    @Override
+    public void getUserById(String userId, RepositoryCallback<User> callback) {
+        UserProfileCache.get(userId,
+                (ok, err) -> delegate.getUserById(userId, new RepositoryCallback<User>() {
+                    @Override
+                    public void onSuccess(User result) {
+                        ok.accept(result);
+                    }
+
+                    @Override
+                    public void onFailure(Exception e) {
+                        err.accept(e);
+                    }
+                }),
+                user -> {
+                    if (callback != null) callback.onSuccess(user);
+                },
+                e -> {
+                    if (callback != null) callback.onFailure(e);
+                });
+    }
+
+    @Override
+    public void deleteUser(String userId, RepositoryCallback<Void> callback) {
+        delegate.deleteUser(userId, invalidating(userId, callback));
+    }
+
+    @Override
+    public void getAllUsers(RepositoryCallback<List<User>> callback) {
+        delegate.getAllUsers(callback);
+    }
+
+    @Override
+    public void updateNotificationPreferences(String userId, boolean enabled,
+                                              RepositoryCallback<Void> callback) {
+        delegate.updateNotificationPreferences(userId, enabled, invalidating(userId, callback));
+    }
+
+    @Override
+    public void uploadProfilePicture(String userId, Uri imageUri,
+                                     RepositoryCallback<String> callback) {
+        delegate.uploadProfilePicture(userId, imageUri, invalidating(userId, callback));
+    }
+
+    @Override
+    public void deleteProfilePicture(String userId, RepositoryCallback<Void> callback) {
+        delegate.deleteProfilePicture(userId, invalidating(userId, callback));
+    }
+
+    @Override
+    public void searchUsers(String query, RepositoryCallback<List<User>> callback) {
+        delegate.searchUsers(query, callback);
+    }
+
+    @Override
+    public void listenToUser(String userId, RepositoryListener<User> listener) {
+        delegate.listenToUser(userId, new RepositoryListener<User>() {
+            @Override
+            public void onDataChanged(User data) {
+                UserProfileCache.put(userId, data);
+                if (listener != null) listener.onDataChanged(data);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                if (listener != null) listener.onError(e);
+            }
+        });
+    }
+
+    @Override
+    public void deactivateAccount(String userId, RepositoryCallback<Void> callback) {
+        UserProfileCache.invalidate(userId);
+        delegate.deactivateAccount(userId, invalidating(userId, callback));
+    }
+
+    @Override
+    public void resumePendingDeactivation(RepositoryCallback<String> callback) {
+        delegate.resumePendingDeactivation(new RepositoryCallback<String>() {
+            @Override
+            public void onSuccess(String result) {
+                UserProfileCache.invalidate(result);
+                if (callback != null) callback.onSuccess(result);
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                if (callback != null) callback.onFailure(e);
+            }
+        });
+    }
+
+    @Override
+    public void exportUserData(String userId, OutputStream out, RepositoryCallback<Integer> callback) {
+        delegate.exportUserData(userId, out, callback);
+    }
+
+    /**
+     * Drops the user's cache entry once a write has finished, successful or not,
+     * since a failed write may still have been partially applied.
+     */
+    private <T> RepositoryCallback<T> invalidating(String userId, RepositoryCallback<T> callback) {
+        return new RepositoryCallback<T>() {
+            @Override
+            public void onSuccess(T result) {
+                UserProfileCache.invalidate(userId);
+                if (callback != null) callback.onSuccess(result);
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                UserProfileCache.invalidate(userId);
+                if (callback != null) callback.onFailure(e);
+            }
+        };
+    }
+}
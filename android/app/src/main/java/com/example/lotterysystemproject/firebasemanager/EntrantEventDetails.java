@@ -0,0 +1,111 @@
+package com.example.lotterysystemproject.firebasemanager;
+
+import android.util.Log;
+
+import com.example.lotterysystemproject.models.Event;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Copies an event's name and date onto its entrant records, so a user's
+ * registration history renders from the entrants query alone.
+ * <p>
+ * New entrants get the fields when they join. Records created before that are
+ * filled in by {@link #backfill} the first time they are shown: their events
+ * are looked up in batches and the fields are written back, so each record
+ * costs an event lookup only once.
+ * </p>
+ */
+public final class EntrantEventDetails {
+
+    private static final String TAG = "EntrantEventDetails";
+    static final String FIELD_EVENT_NAME = "eventName";
+    static final String FIELD_EVENT_DATE = "eventDate";
+
+    /** Private constructor to prevent instantiation. */
+    private EntrantEventDetails() {}
+
+    /**
+     * Adds the event fields to a new entrant record.
+     *
+     * @param entrantData entrant fields about to be written
+     * @param event       the event being joined
+     */
+    static void put(Map<String, Object> entrantData, Event event) {
+        entrantData.put(FIELD_EVENT_NAME, event.getName());
+        entrantData.put(FIELD_EVENT_DATE, event.getEventDate());
+    }
+
+    /**
+     * Checks whether an entrant record already carries the event fields. A record
+     * whose event was deleted carries them too, with null values.
+     *
+     * @param entrantDoc entrant document
+     * @return true if no event lookup is needed for this record
+     */
+    public static boolean isFilled(DocumentSnapshot entrantDoc) {
+        return entrantDoc.contains(FIELD_EVENT_NAME);
+    }
+
+    /**
+     * Looks up the events of entrant records that lack the event fields and writes
+     * the fields back. The lookup goes through {@link EventMetadataCache#getAll},
+     * so it costs one read per 30 uncached events. The write-back is best effort.
+     *
+     * @param db         Firestore instance
+     * @param entrantDocs entrant documents, filled ones are skipped
+     * @param onSuccess  receives event ID to event name, null for deleted or unnamed events
+     * @param onError    receives the lookup failure
+     */
+    public static void backfill(FirebaseFirestore db, List<DocumentSnapshot> entrantDocs,
+                                Consumer<Map<String, String>> onSuccess, Consumer<Exception> onError) {
+        List<DocumentSnapshot> unfilled = new ArrayList<>();
+        List<String> eventIds = new ArrayList<>();
+        for (DocumentSnapshot doc : entrantDocs) {
+            String eventId = doc.getString("eventId");
+            if (eventId == null || eventId.isEmpty() || isFilled(doc)) continue;
+            unfilled.add(doc);
+            eventIds.add(eventId);
+        }
+
+        if (unfilled.isEmpty()) {
+            onSuccess.accept(new HashMap<>());
+            return;
+        }
+
+        EventMetadataCache.getAll(db, eventIds, metadata -> {
+            Map<String, String> names = new HashMap<>();
+            WriteBatch batch = db.batch();
+            int writes = 0;
+            for (DocumentSnapshot doc : unfilled) {
+                String eventId = doc.getString("eventId");
+                EventMetadataCache.Metadata event = metadata.get(eventId);
+                if (event == null) continue;
+                names.put(eventId, event.name);
+
+                batch.update(doc.getReference(), FIELD_EVENT_NAME, event.name, FIELD_EVENT_DATE, event.eventDate);
+                if (++writes == FirestoreLimits.MAX_BATCH_WRITES) {
+                    commit(batch, writes);
+                    batch = db.batch();
+                    writes = 0;
+                }
+            }
+            if (writes > 0) commit(batch, writes);
+
+            onSuccess.accept(names);
+        }, onError);
+    }
+
+    private static void commit(WriteBatch batch, int writes) {
+        batch.commit()
+                .addOnSuccessListener(FirestoreUsage.writes(writes))
+                .addOnFailureListener(e -> Log.w(TAG, "Entrant event backfill failed", e));
+    }
+}
@@ -1,9 +1,12 @@
 package com.example.lotterysystemproject.firebasemanager;
 
+import androidx.annotation.Nullable;
 import androidx.lifecycle.LiveData;
 import com.example.lotterysystemproject.models.Entrant;
+import com.example.lotterysystemproject.models.GeoBucket;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Repository interface for managing entrant data and lottery operations.
@@ -36,6 +39,29 @@ public interface EntrantRepository {
         void onFailure(String error);
     }
 
+    /**
+     * Callback for one page of entrants.
+     */
+    interface OnEntrantPageListener {
+        /**
+         * @param page entrants in this page, ordered by entrant ID
+         * @param nextCursor cursor for the following page, or null if this was the last one
+         */
+        void onPage(List<Entrant> page, @Nullable String nextCursor);
+        void onFailure(String error);
+    }
+
+    /**
+     * Callback for the location counts of a map viewport.
+     */
+    interface OnLocationBucketsListener {
+        /**
+         * @param buckets non-empty geohash cells inside the viewport, all of one precision
+         */
+        void onSuccess(List<GeoBucket> buckets);
+        void onFailure(String error);
+    }
+
     interface OnUserInfoListener {
         void onSuccess(String hostId, String hostName, String role);
         void onFailure(String error);
@@ -46,10 +72,52 @@ public interface EntrantRepository {
     /**
      * Returns LiveData list of entrants for the given event ID.
      * @param eventId ID of the event to fetch entrants for.
-     * @return LiveData containing list of entrants.
+     * @return LiveData containing list of entrants, set to null if the listener fails.
      */
     LiveData<List<Entrant>> getEntrants(String eventId);
 
+    /**
+     * Returns LiveData of at most {@code limit} entrants of an event, for screens that
+     * only show small events in full.
+     * @param eventId ID of the event to fetch entrants for.
+     * @param limit Maximum number of entrants to listen to.
+     * @return LiveData containing list of entrants.
+     */
+    LiveData<List<Entrant>> getEntrants(String eventId, int limit);
+
+    /**
+     * Fetches one page of an event's entrants, ordered by entrant ID, for bulk
+     * work such as exports that must not hold the whole roster in memory.
+     * @param eventId ID of the event.
+     * @param statuses Statuses to include, or null for every status.
+     * @param cursor Cursor returned with the previous page, or null for the first page.
+     * @param limit Maximum number of entrants in the page.
+     * @param listener Callback receiving the page and the next cursor.
+     */
+    void getEntrantsPage(String eventId, @Nullable List<Entrant.Status> statuses, @Nullable String cursor,
+                         int limit, OnEntrantPageListener listener);
+
+    /**
+     * Fetches how many entrants joined from each geohash cell inside a viewport.
+     * The cell size follows the viewport, so any zoom level loads in a few reads.
+     * @param eventId ID of the event.
+     * @param south Southern edge of the viewport in degrees.
+     * @param west Western edge of the viewport; greater than {@code east} across the antimeridian.
+     * @param north Northern edge of the viewport in degrees.
+     * @param east Eastern edge of the viewport in degrees.
+     * @param listener Callback receiving the cells.
+     */
+    void getLocationBuckets(String eventId, double south, double west, double north, double east,
+                            OnLocationBucketsListener listener);
+
+    /**
+     * Fetches the entrant counts of an event in its coarsest geohash cells, which add
+     * up to the number of entrants with a location.
+     * @param eventId ID of the event.
+     * @param listener Callback receiving the cells.
+     */
+    void getLocationOverview(String eventId, OnLocationBucketsListener listener);
+
     /**
      * Performs a random lottery draw to select entrants.
      * @param eventId ID of the event for lottery draw.
@@ -72,6 +140,15 @@ public interface EntrantRepository {
      */
     void drawReplacement(String eventId, OnReplacementDrawnListener listener);
 
+    /**
+     * Marks entrants as checked in at the event door.
+     * Writes are grouped into batches so a large offline queue syncs in a few commits.
+     * Entrants deleted since they were checked in are skipped rather than failing the sync.
+     * @param checkIns entrant ID mapped to the check-in time in milliseconds.
+     * @param listener Callback to signal success or failure.
+     */
+    void checkInEntrants(Map<String, Long> checkIns, OnActionCompleteListener listener);
+
     /**
      * gets the current user info
      * @param deviceId
@@ -0,0 +1,176 @@
+package com.example.lotterysystemproject.firebasemanager;
+
+import androidx.annotation.Nullable;
+
+import com.example.lotterysystemproject.models.Event;
+import com.example.lotterysystemproject.utils.TtlLruCache;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.QuerySnapshot;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Process-wide cache of the few event fields that notifications need (name,
+ * host and date), and whether the event is still listed, keyed by event document ID.
+ * <p>
+ * Every event read in the repositories stores its metadata here, so composing
+ * lottery, replacement and cancellation notifications rarely needs an extra
+ * events/{id} get. Concurrent lookups for an uncached event share one read,
+ * which keeps a bulk cancellation at a single event read.
+ * </p>
+ */
+final class EventMetadataCache {
+
+    private static final int MAX_EVENTS = 100;
+    private static final long EVENT_TTL_MS = 10 * 60 * 1000L;
+    private static final long EVENT_STALE_MS = 60 * 60 * 1000L;
+
+    private static final TtlLruCache<String, Metadata> events =
+            new TtlLruCache<>("event metadata", MAX_EVENTS, EVENT_TTL_MS, EVENT_STALE_MS);
+
+    /**
+     * Immutable subset of an event's fields.
+     */
+    static final class Metadata {
+        @Nullable final String name;
+        @Nullable final String hostId;
+        @Nullable final Date eventDate;
+        /** False once the event is deleted, being deleted or deactivated. */
+        final boolean live;
+
+        Metadata(@Nullable String name, @Nullable String hostId, @Nullable Date eventDate, boolean live) {
+            this.name = name;
+            this.hostId = hostId;
+            this.eventDate = eventDate;
+            this.live = live;
+        }
+
+        /**
+         * @param fallback text to use when the event has no name
+         * @return the event name for notification text
+         */
+        String displayName(String fallback) {
+            return name == null || name.trim().isEmpty() ? fallback : name;
+        }
+    }
+
+    /** Private constructor to prevent instantiation. */
+    private EventMetadataCache() {}
+
+    /**
+     * Stores the metadata of an event that was just read.
+     *
+     * @param eventId event document ID
+     * @param event   the parsed event
+     */
+    static void put(String eventId, @Nullable Event event) {
+        if (eventId == null || event == null) return;
+        events.put(eventId, new Metadata(event.getName(), event.getHostId(), event.getEventDate(), event.isActive()));
+    }
+
+    /**
+     * Serves an event's metadata from memory, or reads the event document.
+     * A missing event yields metadata with every field null that is not live.
+     *
+     * @param db        Firestore instance to read from on a miss
+     * @param eventId   event document ID
+     * @param onSuccess receives the metadata
+     * @param onError   receives the read failure
+     */
+    static void get(FirebaseFirestore db, String eventId,
+                    Consumer<Metadata> onSuccess, Consumer<Exception> onError) {
+        if (eventId == null) {
+            onSuccess.accept(new Metadata(null, null, null, false));
+            return;
+        }
+        events.load(eventId,
+                (ok, err) -> SingleFlight.get(db.collection("events").document(eventId))
+                        .addOnSuccessListener(doc -> ok.accept(fromDoc(doc)))
+                        .addOnFailureListener(err::accept),
+                onSuccess, onError);
+    }
+
+    /**
+     * Serves the metadata of many events at once. Fresh entries come from memory;
+     * the rest are read with document-id "in" queries, 30 events per read, instead
+     * of one get per event. Events that no longer exist map to metadata with every
+     * field null.
+     *
+     * @param db        Firestore instance to read from
+     * @param eventIds  event document IDs, duplicates allowed
+     * @param onSuccess receives a map holding an entry for every requested ID
+     * @param onError   receives the first read failure
+     */
+    static void getAll(FirebaseFirestore db, Collection<String> eventIds,
+                       Consumer<Map<String, Metadata>> onSuccess, Consumer<Exception> onError) {
+        Map<String, Metadata> found = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String eventId : new LinkedHashSet<>(eventIds)) {
+            if (eventId == null) continue;
+            Metadata cached = events.getIfFresh(eventId);
+            if (cached != null) {
+                found.put(eventId, cached);
+            } else {
+                missing.add(eventId);
+            }
+        }
+
+        if (missing.isEmpty()) {
+            onSuccess.accept(found);
+            return;
+        }
+
+        long startedAt = events.generation();
+        List<Task<QuerySnapshot>> lookups = new ArrayList<>();
+        for (List<String> chunk : FirestoreLimits.inQueryChunks(missing)) {
+            lookups.add(SingleFlight.get(db.collection("events").whereIn(FieldPath.documentId(), chunk)));
+        }
+
+        Tasks.whenAllSuccess(lookups)
+                .addOnSuccessListener(results -> {
+                    for (Object result : results) {
+                        for (DocumentSnapshot doc : ((QuerySnapshot) result).getDocuments()) {
+                            found.put(doc.getId(), fromDoc(doc));
+                        }
+                    }
+                    for (String eventId : missing) {
+                        if (!found.containsKey(eventId)) found.put(eventId, new Metadata(null, null, null, false));
+                        events.put(eventId, found.get(eventId), startedAt);
+                    }
+                    onSuccess.accept(found);
+                })
+                .addOnFailureListener(onError::accept);
+    }
+
+    /**
+     * Drops an event's metadata after it was edited or deleted.
+     */
+    static void invalidate(String eventId) {
+        if (eventId != null) events.invalidate(eventId);
+    }
+
+    /**
+     * @return hit and miss counters of the metadata cache
+     */
+    static TtlLruCache.Stats getStats() {
+        return events.getStats();
+    }
+
+    private static Metadata fromDoc(DocumentSnapshot doc) {
+        boolean live = doc.exists()
+                && !Boolean.FALSE.equals(doc.getBoolean("active"))
+                && !Boolean.TRUE.equals(doc.getBoolean("deleting"));
+        return new Metadata(doc.getString("name"), doc.getString("hostId"), doc.getDate("eventDate"), live);
+    }
+}
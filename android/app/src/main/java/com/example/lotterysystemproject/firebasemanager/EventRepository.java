@@ -4,13 +4,17 @@ import androidx.annotation.Nullable;
 import androidx.lifecycle.LiveData;
 
 import com.example.lotterysystemproject.models.Event;
+import com.example.lotterysystemproject.models.EventSummary;
+import com.example.lotterysystemproject.models.OrganizerStats;
 import com.example.lotterysystemproject.models.User;
 import com.google.firebase.firestore.CollectionReference;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.storage.FirebaseStorage;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Consumer;
 
 /**
@@ -109,6 +113,13 @@ public interface EventRepository {
      */
     void addEvent(Event event, Consumer<Exception> onError);
 
+    /**
+     * Drops everything cached about an event after it was edited or hidden outside
+     * the repository, so the next read sees the change.
+     * @param eventId ID of the event that changed.
+     */
+    void invalidateEvent(String eventId);
+
     /**
      * Retrieves events matching the provided category.
      * @param category the category to filter by (exact match string)
@@ -132,6 +143,68 @@ public interface EventRepository {
      */
     void getRecentEvents(int limit, Consumer<List<Event>> onSuccess, Consumer<Exception> onError);
 
+    /**
+     * Gets a random sample of active events using their random sort key, so the
+     * cost is one document read per event returned whatever the catalogue size.
+     * @param count maximum number of events to return
+     * @param onSuccess consumer receiving the sampled events
+     * @param onError consumer receiving any exception
+     */
+    void getRandomEvents(int count, Consumer<List<Event>> onSuccess, Consumer<Exception> onError);
+
+    /**
+     * Checks which of the given events still exist and are active, from the event
+     * metadata cache where it is fresh and with batched reads otherwise.
+     * @param eventIds event document IDs to check
+     * @param onSuccess consumer receiving the IDs of the events that are still listed
+     * @param onError consumer receiving any exception
+     */
+    void getLiveEventIds(Collection<String> eventIds, Consumer<Set<String>> onSuccess, Consumer<Exception> onError);
+
+    /**
+     * Gets one page of the events hosted by an organizer, ordered by event date.
+     * @param hostId the organizer's user ID
+     * @param after the last event of the previous page, or null for the first page
+     * @param limit maximum number of events to return
+     * @param onSuccess consumer receiving the page of events
+     * @param onError consumer receiving any exception
+     */
+    void getEventsByHost(String hostId, @Nullable Event after, int limit,
+                         Consumer<List<Event>> onSuccess, Consumer<Exception> onError);
+
+    /**
+     * Gets the event counters maintained for an organizer.
+     * @param hostId the organizer's user ID
+     * @param onSuccess consumer receiving the stats, empty if the organizer has no events
+     * @param onError consumer receiving any exception
+     */
+    void getOrganizerStats(String hostId, Consumer<OrganizerStats> onSuccess, Consumer<Exception> onError);
+
+    // ===================== EVENT SUMMARY OPERATIONS =====================
+
+    /**
+     * Retrieves the summaries of all active events, kept up to date.
+     * Summaries omit the entrant lists, so use these for list screens.
+     * @return LiveData containing list of active EventSummary objects, or null after an error.
+     */
+    LiveData<List<EventSummary>> getActiveEventSummaries();
+
+    /**
+     * Retrieves the summaries of all active events once.
+     * @param onSuccess consumer receiving the list of summaries
+     * @param onError consumer receiving any exception
+     */
+    void getActiveEventSummaries(Consumer<List<EventSummary>> onSuccess, Consumer<Exception> onError);
+
+    /**
+     * Retrieves the summaries of active events matching the provided category.
+     * @param category the category to filter by (exact match string)
+     * @param onSuccess consumer receiving the list of matching summaries
+     * @param onError consumer receiving any exception
+     */
+    void getEventSummariesByCategory(String category, Consumer<List<EventSummary>> onSuccess,
+                                     Consumer<Exception> onError);
+
     // ===================== WAITING LIST OPERATIONS =====================
 
     /**
@@ -0,0 +1,118 @@
+package com.example.lotterysystemproject.firebasemanager;
+
+import com.example.lotterysystemproject.models.Event;
+import com.example.lotterysystemproject.models.EventSummary;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the {@code event_summaries} projection next to the event it describes.
+ * <p>
+ * Every helper adds its write to the batch that changes the event, so a summary
+ * never disagrees with its event. Partial updates use merge writes, which keeps
+ * the batch from failing for events whose summary has not been backfilled yet.
+ * Events created before summaries existed are projected once by {@link #backfillOnce}.
+ * </p>
+ */
+public final class EventSummaries {
+
+    private static final String TAG = "EventSummaries";
+    static final String COLLECTION = "event_summaries";
+    /** Two writes per event (summary and version stamp) keeps a page under the 500-write batch limit. */
+    private static final int BACKFILL_PAGE_SIZE = 200;
+
+    private static final PagedMigration backfill =
+            new PagedMigration(TAG, COLLECTION, EventSummary.VERSION, "events", BACKFILL_PAGE_SIZE);
+
+    /** Private constructor to prevent instantiation. */
+    private EventSummaries() {}
+
+    /**
+     * Gets the summary document of an event.
+     *
+     * @param db      Firestore instance
+     * @param eventId event document ID
+     * @return reference to {@code event_summaries/{eventId}}
+     */
+    public static DocumentReference ref(FirebaseFirestore db, String eventId) {
+        return db.collection(COLLECTION).document(eventId);
+    }
+
+    /**
+     * Writes the full summary of an event, replacing any previous one.
+     */
+    static void set(WriteBatch batch, FirebaseFirestore db, String eventId, Event event) {
+        batch.set(ref(db, eventId), EventSummary.from(eventId, event));
+    }
+
+    /**
+     * Merges changed fields into an event's summary. Keys use the event's field names.
+     *
+     * @param batch   batch carrying the event update
+     * @param eventId event document ID
+     * @param fields  changed summary fields
+     */
+    public static void merge(WriteBatch batch, FirebaseFirestore db, String eventId, Map<String, Object> fields) {
+        batch.set(ref(db, eventId), fields, SetOptions.merge());
+    }
+
+    /**
+     * Merges a single changed field into an event's summary.
+     */
+    public static void merge(WriteBatch batch, FirebaseFirestore db, String eventId, String field, Object value) {
+        Map<String, Object> fields = new HashMap<>();
+        fields.put(field, value);
+        merge(batch, db, eventId, fields);
+    }
+
+    /**
+     * Deletes an event's summary along with the event.
+     */
+    static void delete(WriteBatch batch, FirebaseFirestore db, String eventId) {
+        batch.delete(ref(db, eventId));
+    }
+
+    // ===================== BACKFILL =====================
+
+    /**
+     * Projects every event that lacks a current summary, once per process. A marker
+     * in {@code migrations/event_summaries} records the finished version, so after
+     * the first complete run this costs a single document read.
+     *
+     * @param db Firestore instance
+     */
+    static void backfillOnce(FirebaseFirestore db) {
+        backfill.runOnce(db, () -> (docs, onDone) -> backfillPage(db, docs, onDone));
+    }
+
+    /**
+     * Projects one page of events.
+     */
+    private static void backfillPage(FirebaseFirestore db, List<DocumentSnapshot> docs, Runnable onDone) {
+        WriteBatch batch = db.batch();
+        int writes = 0;
+        for (DocumentSnapshot doc : docs) {
+            Long version = doc.getLong("summaryVersion");
+            if (version != null && version >= EventSummary.VERSION) continue;
+            // Events being cascade-deleted must not get their summary back
+            if (Boolean.TRUE.equals(doc.getBoolean("deleting"))) continue;
+            Event event = doc.toObject(Event.class);
+            if (event == null) continue;
+            set(batch, db, doc.getId(), event);
+            batch.update(doc.getReference(), "summaryVersion", EventSummary.VERSION);
+            writes += 2;
+        }
+
+        batch.commit()
+                .addOnSuccessListener(FirestoreUsage.writes(writes))
+                .addOnSuccessListener(v -> onDone.run())
+                .addOnFailureListener(e -> backfill.fail("Summary backfill batch failed", e));
+    }
+}
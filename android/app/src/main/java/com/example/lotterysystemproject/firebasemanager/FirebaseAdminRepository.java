@@ -1,16 +1,27 @@
 package com.example.lotterysystemproject.firebasemanager;
 
 import androidx.annotation.Nullable;
+import androidx.lifecycle.LifecycleOwner;
 
 import com.example.lotterysystemproject.models.User;
 import com.example.lotterysystemproject.models.Event;
+import com.example.lotterysystemproject.models.EventSummary;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentReference;
 import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.WriteBatch;
 import com.google.firebase.storage.FirebaseStorage;
 import com.google.firebase.storage.StorageReference;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
@@ -20,6 +31,13 @@ import java.util.function.Consumer;
  */
 public class FirebaseAdminRepository implements AdminRepository {
 
+    /** Documents deleted per batch during a cascading event delete (Firestore allows 500). */
+    private static final int CASCADE_PAGE_SIZE = 450;
+    /** Entrants deleted per batch; each also deletes its user's membership entry. */
+    private static final int ENTRANT_CASCADE_PAGE_SIZE = 225;
+    /** Batches committed at the same time during a cascading event delete. */
+    private static final int CASCADE_MAX_IN_FLIGHT = 3;
+
     // ===================== FIREBASE INSTANCES =====================
     private final FirebaseFirestore db;
     private final FirebaseStorage storage;
@@ -57,8 +75,13 @@ public class FirebaseAdminRepository implements AdminRepository {
             return;
         }
 
-        db.collection("events").document(eventAdmin.getId())
-                .set(eventAdmin)
+        eventAdmin.setSummaryVersion(EventSummary.VERSION);
+        WriteBatch batch = db.batch();
+        batch.set(db.collection("events").document(eventAdmin.getId()), eventAdmin);
+        EventSummaries.set(batch, db, eventAdmin.getId(), eventAdmin);
+
+        batch.commit()
+                .addOnSuccessListener(FirestoreUsage.writes(2))
                 .addOnSuccessListener(aVoid -> {
                     if (callback != null) callback.onSuccess();
                 })
@@ -71,12 +94,14 @@ public class FirebaseAdminRepository implements AdminRepository {
     public void getAllEvents(Consumer<List<Event>> onSuccess, Consumer<Exception> onError) {
         db.collection("events")
                 .get()
+                .addOnSuccessListener(FirestoreUsage.reads())
                 .addOnSuccessListener(queryDocumentSnapshots -> {
                     List<Event> eventAdminList = new ArrayList<>();
                     for (DocumentSnapshot doc : queryDocumentSnapshots.getDocuments()) {
                         Event eventAdmin = doc.toObject(Event.class);
                         if (eventAdmin != null) {
                             eventAdmin.setId(doc.getId());
+                            EventMetadataCache.put(doc.getId(), eventAdmin);
                             eventAdminList.add(eventAdmin);
                         }
                     }
@@ -92,30 +117,41 @@ public class FirebaseAdminRepository implements AdminRepository {
     }
 
     @Override
-    public void listenToAllEvents(Consumer<List<Event>> onSuccess, Consumer<Exception> onError) {
-        db.collection("events").addSnapshotListener((queryDocumentSnapshots, e) -> {
-            if (e != null) {
-                if (onError != null) onError.accept(e);
-                return;
-            }
-
-            List<Event> eventAdminList = new ArrayList<>();
-            if (queryDocumentSnapshots != null) {
-                for (DocumentSnapshot doc : queryDocumentSnapshots) {
+    public void listenToAllEvents(LifecycleOwner owner, Consumer<List<Event>> onSuccess, Consumer<Exception> onError) {
+        new SnapshotLiveData<Event>("admin-events", db.collection("events"), doc -> {
+                    // Events being cascade-deleted are already gone from the admin's point of view
+                    if (Boolean.TRUE.equals(doc.getBoolean("deleting"))) return null;
                     Event eventAdmin = doc.toObject(Event.class);
                     if (eventAdmin != null) {
                         eventAdmin.setId(doc.getId());
-                        eventAdminList.add(eventAdmin);
+                        EventMetadataCache.put(doc.getId(), eventAdmin);
                     }
-                }
-            }
-
-            if (onSuccess != null) onSuccess.accept(eventAdminList);
-        });
+                    return eventAdmin;
+                })
+                .onError(e -> {
+                    if (onError != null) onError.accept(e);
+                })
+                .observe(owner, eventAdminList -> {
+                    if (onSuccess != null) onSuccess.accept(eventAdminList);
+                });
     }
 
     @Override
     public void deleteEvent(String eventId, AdminCallback callback) {
+        deleteEvent(eventId, null, callback);
+    }
+
+    /**
+     * Deletes an event together with its entrant records and notifications.
+     * <p>
+     * The event is first flagged as {@code deleting} and hidden, then related
+     * documents are removed in pages with a few batches committing in parallel,
+     * and the event document is deleted last. If the app dies part way, the flag
+     * stays set and {@link #resumeEventDeletions} finishes the job.
+     * </p>
+     */
+    @Override
+    public void deleteEvent(String eventId, @Nullable DeleteProgressListener progress, AdminCallback callback) {
         if (eventId == null || eventId.isEmpty()) {
             if (callback != null) {
                 callback.onError(new IllegalArgumentException("Event ID cannot be null or empty"));
@@ -123,9 +159,139 @@ public class FirebaseAdminRepository implements AdminRepository {
             return;
         }
 
-        db.collection("events").document(eventId)
-                .delete()
+        DocumentReference eventRef = db.collection("events").document(eventId);
+        eventRef.get()
+                .addOnSuccessListener(FirestoreUsage.reads())
+                .addOnSuccessListener(eventDoc -> {
+                    String hostId = eventDoc.exists() ? eventDoc.getString("hostId") : null;
+                    if (!eventDoc.exists()) {
+                        // Already deleted; still sweep any related records left behind
+                        deleteEventRecords(eventId, null, progress, callback);
+                        return;
+                    }
+
+                    // Hide the event from every list before its records are removed
+                    WriteBatch hide = db.batch();
+                    hide.update(eventRef, "deleting", true, "active", false);
+                    EventSummaries.merge(hide, db, eventId, "active", false);
+                    hide.commit()
+                            .addOnSuccessListener(FirestoreUsage.writes(2))
+                            .addOnSuccessListener(aVoid -> {
+                                RepositoryProvider.getEventRepository().invalidateEvent(eventId);
+                                deleteEventRecords(eventId, hostId, progress, callback);
+                            })
+                            .addOnFailureListener(e -> {
+                                if (callback != null) callback.onError(e);
+                            });
+                })
+                .addOnFailureListener(e -> {
+                    if (callback != null) callback.onError(e);
+                });
+    }
+
+    @Override
+    public void resumeEventDeletions(@Nullable DeleteProgressListener progress, AdminCallback callback) {
+        db.collection("events")
+                .whereEqualTo("deleting", true)
+                .get()
+                .addOnSuccessListener(FirestoreUsage.reads())
+                .addOnSuccessListener(snapshot -> {
+                    List<String> eventIds = new ArrayList<>();
+                    for (DocumentSnapshot doc : snapshot.getDocuments()) {
+                        eventIds.add(doc.getId());
+                    }
+                    deleteEventsInOrder(eventIds, 0, progress, callback);
+                })
+                .addOnFailureListener(e -> {
+                    if (callback != null) callback.onError(e);
+                });
+    }
+
+    /**
+     * Deletes the given events one after another.
+     */
+    private void deleteEventsInOrder(List<String> eventIds, int index,
+                                     @Nullable DeleteProgressListener progress, AdminCallback callback) {
+        if (index >= eventIds.size()) {
+            if (callback != null) callback.onSuccess();
+            return;
+        }
+
+        deleteEvent(eventIds.get(index), progress, new AdminCallback() {
+            @Override
+            public void onSuccess() {
+                deleteEventsInOrder(eventIds, index + 1, progress, callback);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                if (callback != null) callback.onError(e);
+            }
+        });
+    }
+
+    /**
+     * Removes the event's entrants with their users' membership entries, then its
+     * notifications and location counts, then the event itself.
+     * Notification ids are always prefixed with "eventId:", so they are matched by id range.
+     */
+    private void deleteEventRecords(String eventId, @Nullable String hostId,
+                                    @Nullable DeleteProgressListener progress, AdminCallback callback) {
+        Consumer<Exception> onError = e -> {
+            if (callback != null) callback.onError(e);
+        };
+
+        Query entrants = db.collection("entrants").whereEqualTo("eventId", eventId);
+        Query notifications = db.collection("notifications")
+                .whereGreaterThanOrEqualTo(FieldPath.documentId(), eventId + ":")
+                .whereLessThan(FieldPath.documentId(), eventId + ";");
+
+        int[] entrantTotal = new int[1];
+        new PagedQueryDeleter(db, entrants, ENTRANT_CASCADE_PAGE_SIZE, CASCADE_MAX_IN_FLIGHT)
+                .alsoDelete(doc -> MembershipIndex.refFor(db, doc))
+                .run(
+                deletedEntrants -> {
+                    entrantTotal[0] = deletedEntrants;
+                    if (progress != null) progress.onProgress(deletedEntrants);
+                },
+                () -> {
+                    new PagedQueryDeleter(db, notifications, CASCADE_PAGE_SIZE, CASCADE_MAX_IN_FLIGHT).run(
+                            deletedNotifications -> {
+                                if (progress != null) progress.onProgress(entrantTotal[0] + deletedNotifications);
+                            },
+                            () -> new PagedQueryDeleter(db, GeoBuckets.collection(db, eventId),
+                                    CASCADE_PAGE_SIZE, CASCADE_MAX_IN_FLIGHT).run(
+                                    deletedBuckets -> { },
+                                    () -> deleteEventDocument(eventId, hostId, callback),
+                                    onError),
+                            onError);
+                },
+                onError);
+    }
+
+    /**
+     * Deletes the event document and its summary, and drops it from its organizer's dashboard counters.
+     */
+    private void deleteEventDocument(String eventId, @Nullable String hostId, AdminCallback callback) {
+        WriteBatch batch = db.batch();
+        batch.delete(db.collection("events").document(eventId));
+        EventSummaries.delete(batch, db, eventId);
+        int writes = 2;
+
+        if (hostId != null && !hostId.isEmpty()) {
+            Map<String, Object> dates = new HashMap<>();
+            dates.put(eventId, FieldValue.delete());
+
+            Map<String, Object> stats = new HashMap<>();
+            stats.put("eventDates", dates);
+            batch.set(db.collection("organizer_stats").document(hostId), stats, SetOptions.merge());
+            writes++;
+        }
+
+        batch.commit()
+                .addOnSuccessListener(FirestoreUsage.writes(writes))
                 .addOnSuccessListener(aVoid -> {
+                    RepositoryProvider.getEventRepository().invalidateEvent(eventId);
                     if (callback != null) callback.onSuccess();
                 })
                 .addOnFailureListener(e -> {
@@ -144,14 +310,21 @@ public class FirebaseAdminRepository implements AdminRepository {
             return;
         }
 
-        db.collection("users").document(userId)
-                .delete()
-                .addOnSuccessListener(aVoid -> {
-                    if (callback != null) callback.onSuccess();
-                })
-                .addOnFailureListener(e -> {
-                    if (callback != null) callback.onError(e);
-                });
+        UserProfileCache.invalidate(userId);
+        Consumer<Exception> onError = e -> {
+            if (callback != null) callback.onError(e);
+        };
+        // Membership entries first, so a profile re-created on the same device starts clean
+        new PagedQueryDeleter(db, MembershipIndex.collection(db, userId), CASCADE_PAGE_SIZE, CASCADE_MAX_IN_FLIGHT).run(
+                deleted -> { },
+                () -> db.collection("users").document(userId)
+                        .delete()
+                        .addOnSuccessListener(FirestoreUsage.writes(1))
+                        .addOnSuccessListener(aVoid -> {
+                            if (callback != null) callback.onSuccess();
+                        })
+                        .addOnFailureListener(onError::accept),
+                onError);
     }
 
     // ===================== IMAGE OPERATIONS =====================
@@ -185,20 +358,47 @@ public class FirebaseAdminRepository implements AdminRepository {
                 });
     }
 
+    /**
+     * Clears the poster of every event using the image, then deletes the stored file.
+     * Posters are stored by content hash, so one file can back several events; clearing
+     * them first leaves those events without a poster instead of with a broken link.
+     */
     @Override
     public void deleteImage(String imageUrl, AdminCallback callback) {
+        StorageReference imageRef;
         try {
-            StorageReference imageRef = storage.getReferenceFromUrl(imageUrl);
-            imageRef.delete()
-                    .addOnSuccessListener(aVoid -> {
-                        if (callback != null) callback.onSuccess();
-                    })
-                    .addOnFailureListener(e -> {
-                        if (callback != null) callback.onError(e);
-                    });
+            imageRef = storage.getReferenceFromUrl(imageUrl);
         } catch (Exception e) {
             if (callback != null) callback.onError(e);
+            return;
         }
+
+        db.collection("events")
+                .whereEqualTo("posterImageUrl", imageUrl)
+                .get()
+                .addOnSuccessListener(FirestoreUsage.reads())
+                .onSuccessTask(snapshot -> {
+                    if (snapshot.isEmpty()) return Tasks.<Void>forResult(null);
+                    WriteBatch batch = db.batch();
+                    for (DocumentSnapshot doc : snapshot.getDocuments()) {
+                        batch.update(doc.getReference(), "posterImageUrl", null);
+                        EventSummaries.merge(batch, db, doc.getId(), "posterImageUrl", null);
+                    }
+                    return batch.commit()
+                            .addOnSuccessListener(FirestoreUsage.writes(2 * snapshot.size()))
+                            .addOnSuccessListener(aVoid -> {
+                                for (DocumentSnapshot doc : snapshot.getDocuments()) {
+                                    RepositoryProvider.getEventRepository().invalidateEvent(doc.getId());
+                                }
+                            });
+                })
+                .onSuccessTask(aVoid -> imageRef.delete())
+                .addOnSuccessListener(aVoid -> {
+                    if (callback != null) callback.onSuccess();
+                })
+                .addOnFailureListener(e -> {
+                    if (callback != null) callback.onError(e);
+                });
     }
 
     @Override
@@ -231,6 +431,7 @@ public class FirebaseAdminRepository implements AdminRepository {
         db.collection("users")
                 .whereEqualTo("role", "organizer")
                 .get()
+                .addOnSuccessListener(FirestoreUsage.reads())
                 .addOnSuccessListener(queryDocumentSnapshots -> {
                     List<User> organizers = new ArrayList<>();
                     for (DocumentSnapshot doc: queryDocumentSnapshots) {
@@ -245,22 +446,14 @@ public class FirebaseAdminRepository implements AdminRepository {
     }
 
     @Override
-    public void listenToAllOrganizers(Consumer<List<User>> onSuccess, Consumer<Exception> onError) {
-        db.collection("users")
-                .whereEqualTo("role", "organizer")
-                .addSnapshotListener((queryDocumentSnapshots, e) -> {
-                    if (e != null) {
-                        if (onError != null) onError.accept(e);
-                        return;
-                    }
-
-                    List<User> organizers = new ArrayList<>();
-                    if (queryDocumentSnapshots != null) {
-                        for (DocumentSnapshot doc: queryDocumentSnapshots) {
-                            User user = doc.toObject(User.class);
-                            if (user != null) organizers.add(user);
-                        }
-                    }
+    public void listenToAllOrganizers(LifecycleOwner owner, Consumer<List<User>> onSuccess, Consumer<Exception> onError) {
+        new SnapshotLiveData<User>("admin-organizers",
+                db.collection("users").whereEqualTo("role", "organizer"),
+                doc -> doc.toObject(User.class))
+                .onError(e -> {
+                    if (onError != null) onError.accept(e);
+                })
+                .observe(owner, organizers -> {
                     if (onSuccess != null) onSuccess.accept(organizers);
                 });
     }
@@ -2,21 +2,28 @@ package com.example.lotterysystemproject.firebasemanager;
 
 import android.util.Log;
 
+import androidx.annotation.Nullable;
 import androidx.lifecycle.LiveData;
-import androidx.lifecycle.MutableLiveData;
 
 import com.example.lotterysystemproject.models.Entrant;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.FirebaseFirestoreException;
 import com.example.lotterysystemproject.firebasemanager.NotificationRepository;
 import com.example.lotterysystemproject.firebasemanager.RepositoryProvider;
 import com.example.lotterysystemproject.firebasemanager.RepositoryCallback;
 import com.example.lotterysystemproject.models.NotificationItem;
 import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.WriteBatch;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -26,52 +33,73 @@ import java.util.Set;
  * Connects to real Firestore backend for entrant and lottery operations.
  */
 public class FirebaseEntrantRepository implements EntrantRepository {
+
+    /** Live entrant lists kept for events whose screens are closed. */
+    private static final int MAX_CACHED_EVENT_LISTS = 4;
+
     private final FirebaseFirestore db;
-    private final MutableLiveData<List<Entrant>> entrantsLiveData;
+    /**
+     * One live list per event, so switching events never shows another event's entrants.
+     * Least recently requested lists nobody observes are dropped along with their models.
+     */
+    private final Map<String, LiveData<List<Entrant>>> entrantsByEvent =
+            new LinkedHashMap<String, LiveData<List<Entrant>>>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, LiveData<List<Entrant>>> eldest) {
+                    return size() > MAX_CACHED_EVENT_LISTS && !eldest.getValue().hasObservers();
+                }
+            };
 
     /**
      * Initializes Firebase instances.
      */
     public FirebaseEntrantRepository() {
         this.db = FirebaseFirestore.getInstance();
-        this.entrantsLiveData = new MutableLiveData<>();
     }
 
     /**
      * Returns LiveData list of entrants for the given event ID.
-     * Sets up real-time Firestore listener.
+     * The real-time Firestore listener runs only while the LiveData is observed by a
+     * started screen. Bursts of snapshots, such as one per winner during a draw, are
+     * emitted at most once per frame.
      * @param eventId ID of the event to fetch entrants for.
      * @return LiveData containing list of entrants.
      */
     @Override
     public LiveData<List<Entrant>> getEntrants(String eventId) {
-        db.collection("entrants")
-                .whereEqualTo("eventId", eventId)
-                .addSnapshotListener((snapshots, error) -> {
-                    if (error != null) {
-                        entrantsLiveData.setValue(new ArrayList<>());
-                        return;
-                    }
-
-                    List<Entrant> entrants = new ArrayList<>();
-                    if (snapshots != null) {
-                        Log.d("EntrantsRepo", "snapshot size = " + snapshots.size());
-                        for (DocumentSnapshot doc : snapshots.getDocuments()) {
-                            Log.d("EntrantsRepo", "doc " + doc.getId()
-                                    + " eventId=" + doc.getString("eventId")
-                                    + " status=" + doc.getString("status"));
-                            Entrant entrant = doc.toObject(Entrant.class);
-                            if (entrant != null) {
-                                // Preserve document ID
-                                entrant.setId(doc.getId());
-                                entrants.add(entrant);
-                            }
-                        }
-                    }
-                    entrantsLiveData.setValue(entrants);
-                });
+        LiveData<List<Entrant>> live = entrantsByEvent.get(eventId);
+        if (live == null) {
+            live = new SnapshotLiveData<Entrant>("entrants",
+                    db.collection("entrants").whereEqualTo("eventId", eventId), doc -> {
+                        Entrant entrant = doc.toObject(Entrant.class);
+                        // Preserve document ID
+                        if (entrant != null) entrant.setId(doc.getId());
+                        return entrant;
+                    })
+                    .onSnapshot(snapshots -> Log.d("EntrantsRepo", "snapshot size = " + snapshots.size()))
+                    // Null rather than an empty list, so a failed listener never reads as "no entrants"
+                    .valueOnError(null);
+            entrantsByEvent.put(eventId, live);
+        }
+        return live;
+    }
 
-        return entrantsLiveData;
+    /**
+     * Returns LiveData of at most {@code limit} entrants of an event. Each call starts
+     * its own listener while observed; the list is not shared like {@link #getEntrants(String)}.
+     * @param eventId ID of the event to fetch entrants for.
+     * @param limit Maximum number of entrants to listen to.
+     * @return LiveData containing list of entrants.
+     */
+    @Override
+    public LiveData<List<Entrant>> getEntrants(String eventId, int limit) {
+        return new SnapshotLiveData<Entrant>("entrants-limited",
+                db.collection("entrants").whereEqualTo("eventId", eventId).limit(limit), doc -> {
+                    Entrant entrant = doc.toObject(Entrant.class);
+                    if (entrant != null) entrant.setId(doc.getId());
+                    return entrant;
+                })
+                .onError(e -> Log.w("EntrantsRepo", "Limited entrant listener failed", e));
     }
 
     /**
@@ -82,24 +110,18 @@ public class FirebaseEntrantRepository implements EntrantRepository {
      */
     @Override
     public void drawLottery(String eventId, int count, OnLotteryCompleteListener listener) {
-        // Fetch event to get name
-        db.collection("events").document(eventId).get()
-                .addOnSuccessListener(eventDoc -> {
+        // Event name for the notification text, usually already cached
+        EventMetadataCache.get(db, eventId, event -> {
 
                     // Wrap eventName so it can be used inside lambdas
-                    final String[] eventNameHolder = new String[1];
-                    String rawName = eventDoc.getString("name");
-                    if (rawName == null || rawName.trim().isEmpty()) {
-                        eventNameHolder[0] = "this";
-                    } else {
-                        eventNameHolder[0] = rawName;
-                    }
+                    final String[] eventNameHolder = {event.displayName("this")};
 
                     // Fetch all WAITING entrants for this event
                     db.collection("entrants")
                             .whereEqualTo("eventId", eventId)
                             .whereEqualTo("status", "WAITING")
                             .get()
+                            .addOnSuccessListener(FirestoreUsage.reads())
                             .addOnSuccessListener(querySnapshot -> {
                                 List<Entrant> waitingList = new ArrayList<>();
                                 Map<String, String> entrantToUserId = new HashMap<>();
@@ -142,7 +164,13 @@ public class FirebaseEntrantRepository implements EntrantRepository {
                                     updates.put("status", newStatus);
                                     updates.put("statusTimestamp", System.currentTimeMillis());
 
-                                    db.collection("entrants").document(winner.getId()).update(updates);
+                                    WriteBatch batch = db.batch();
+                                    batch.update(db.collection("entrants").document(winner.getId()), updates);
+                                    int writes = 1 + GeoBuckets.move(batch, db, eventId,
+                                            winner.getLatitude(), winner.getLongitude(), "WAITING", newStatus);
+                                    batch.commit().addOnSuccessListener(FirestoreUsage.writes(writes));
+                                    MembershipIndex.record(db, entrantToUserId.get(winner.getId()),
+                                            eventId, newStatus, now);
 
                                     winner.setStatus(Entrant.Status.valueOf(newStatus));
                                     winners.add(winner);
@@ -215,8 +243,7 @@ public class FirebaseEntrantRepository implements EntrantRepository {
                                 }
                             })
                             .addOnFailureListener(e -> listener.onFailure(e.getMessage()));
-                })
-                .addOnFailureListener(e -> {
+                }, e -> {
                     if (listener != null) listener.onFailure(e.getMessage());
                 });
 
@@ -233,6 +260,7 @@ public class FirebaseEntrantRepository implements EntrantRepository {
         db.collection("entrants")
                 .document(entrantId)
                 .get()
+                .addOnSuccessListener(FirestoreUsage.reads())
                 .addOnSuccessListener(doc -> {
                     if (!doc.exists()) {
                         if (listener != null) {
@@ -254,27 +282,24 @@ public class FirebaseEntrantRepository implements EntrantRepository {
                     updates.put("status", "CANCELLED");
                     updates.put("statusTimestamp", now);
 
-                    // Update entrant status to CANCELLED
-                    db.collection("entrants").document(entrantId)
-                            .update(updates)
-                            .addOnSuccessListener(aVoid -> {
-
-                                if (finalUserId != null) {
+                    // Update entrant status to CANCELLED, moving it between location counts
+                    WriteBatch batch = db.batch();
+                    batch.update(doc.getReference(), updates);
+                    int writes = 1 + GeoBuckets.move(batch, db, doc, "CANCELLED");
 
-                                    // Fetch event name for notification text
-                                    final String[] eventNameHolder = new String[1];
+                    // Event name for notification text, read while the write is in flight;
+                    // bulk cancellations share one read
+                    ListenableFuture<EventMetadataCache.Metadata> eventRead = finalUserId != null
+                            ? RepositoryFutures.fromConsumers((ok, err) -> EventMetadataCache.get(db, finalEventId, ok, err))
+                            : null;
 
-                                    db.collection("events")
-                                            .document(finalEventId)
-                                            .get()
-                                            .addOnSuccessListener(eventDoc -> {
-                                                String eventName = eventDoc.getString("name");
-                                                if (eventName == null || eventName.trim().isEmpty()) {
-                                                    eventNameHolder[0] = "this";
-                                                } else {
-                                                    eventNameHolder[0] = eventName;
-                                                }
+                    batch.commit()
+                            .addOnSuccessListener(FirestoreUsage.writes(writes))
+                            .addOnSuccessListener(aVoid -> {
+                                MembershipIndex.record(db, finalUserId, finalEventId, "CANCELLED", now);
 
+                                if (eventRead != null) {
+                                    RepositoryFutures.deliver(eventRead, event -> {
                                                 NotificationRepository notifRepo =
                                                         RepositoryProvider.getNotificationRepository();
 
@@ -282,7 +307,8 @@ public class FirebaseEntrantRepository implements EntrantRepository {
                                                         (finalEventId != null ? finalEventId : "event")
                                                                 + ":" + entrantId;
 
-                                                String title = "Your registration for " + eventNameHolder[0] + " event was cancelled.";
+                                                String title = "Your registration for " + event.displayName("this")
+                                                        + " event was cancelled.";
                                                 String message = "Your spot for this event has been cancelled.";
 
                                                 NotificationItem item = new NotificationItem(
@@ -308,7 +334,7 @@ public class FirebaseEntrantRepository implements EntrantRepository {
                                                             }
                                                         }
                                                 );
-                                            });
+                                            }, e -> Log.w("EntrantsRepo", "No event name for cancellation notice", e));
                                 }
                                 if (listener != null) listener.onSuccess();
                             })
@@ -334,6 +360,7 @@ public class FirebaseEntrantRepository implements EntrantRepository {
                 .whereEqualTo("eventId", eventId)
                 .whereEqualTo("status", "WAITING")
                 .get()
+                .addOnSuccessListener(FirestoreUsage.reads())
                 .addOnSuccessListener(querySnapshot -> {
                     List<Entrant> waitingList = new ArrayList<>();
                     Map<String, String> entrantToUserId = new HashMap<>();
@@ -367,29 +394,28 @@ public class FirebaseEntrantRepository implements EntrantRepository {
                     updates.put("status", "INVITED");
                     updates.put("statusTimestamp", now);
 
-                    db.collection("entrants").document(replacement.getId())
-                            .update(updates)
+                    WriteBatch batch = db.batch();
+                    batch.update(db.collection("entrants").document(replacement.getId()), updates);
+                    int writes = 1 + GeoBuckets.move(batch, db, eventId,
+                            replacement.getLatitude(), replacement.getLongitude(), "WAITING", "INVITED");
+
+                    batch.commit()
+                            .addOnSuccessListener(FirestoreUsage.writes(writes))
                             .addOnSuccessListener(aVoid -> {
                                 try {
                                     replacement.setStatus(Entrant.Status.INVITED);
                                 } catch (IllegalArgumentException e) {
                                     // ignore if enum doesn't match
                                 }
+                                MembershipIndex.record(db, entrantToUserId.get(replacement.getId()),
+                                        eventId, "INVITED", now);
 
                                 // Lookup event name before sending the notification
                                 final String[] eventNameHolder = new String[1];
 
-                                db.collection("events")
-                                        .document(eventId)
-                                        .get()
-                                        .addOnSuccessListener(eventDoc -> {
+                                EventMetadataCache.get(db, eventId, event -> {
 
-                                            String raw = eventDoc.getString("name");
-                                            if (raw == null || raw.trim().isEmpty()) {
-                                                eventNameHolder[0] = "this event";
-                                            } else {
-                                                eventNameHolder[0] = raw;
-                                            }
+                                            eventNameHolder[0] = event.displayName("this event");
 
                                             // US 01.05.01 – notify second chance invitee
                                             String uid = entrantToUserId.get(replacement.getId());
@@ -427,8 +453,7 @@ public class FirebaseEntrantRepository implements EntrantRepository {
                                             if (listener != null) {
                                                 listener.onSuccess(replacement);
                                             }
-                                        })
-                                        .addOnFailureListener(e -> {
+                                        }, e -> {
                                             if (listener != null) {
                                                 listener.onFailure(e.getMessage());
                                             }
@@ -443,28 +468,150 @@ public class FirebaseEntrantRepository implements EntrantRepository {
     }
 
     /**
-     * Helper that looks up the current user document by id field
-     *
-     * @param deviceId device/user identifier to look up.
-     * @param listener callback with id, name, and role if found.
+     * Fetches one page of entrants ordered by document ID, starting after {@code cursor}.
      */
     @Override
-    public void getCurrentUserInfo(String deviceId, OnUserInfoListener listener) {
-        db.collection("users")
-                .whereEqualTo("id", deviceId)
-                .limit(1)
+    public void getEntrantsPage(String eventId, @Nullable List<Entrant.Status> statuses, @Nullable String cursor,
+                                int limit, OnEntrantPageListener listener) {
+        Query query = db.collection("entrants").whereEqualTo("eventId", eventId);
+        if (statuses != null && !statuses.isEmpty()) {
+            List<String> names = new ArrayList<>();
+            for (Entrant.Status status : statuses) {
+                names.add(status.name());
+            }
+            query = query.whereIn("status", names);
+        }
+        query = query.orderBy(FieldPath.documentId());
+        if (cursor != null) {
+            query = query.startAfter(cursor);
+        }
+
+        query.limit(limit)
                 .get()
-                .addOnSuccessListener(querySnapshot -> {
-                    if (!querySnapshot.isEmpty()) {
-                        DocumentSnapshot userDoc = querySnapshot.getDocuments().get(0);
-                        String hostId = userDoc.getString("id");
-                        String hostName = userDoc.getString("name");
-                        String role = userDoc.getString("role");
-                        listener.onSuccess(hostId, hostName, role);
-                    } else {
-                        listener.onFailure("User not found");
+                .addOnSuccessListener(FirestoreUsage.reads())
+                .addOnSuccessListener(snapshot -> {
+                    List<Entrant> page = new ArrayList<>();
+                    for (DocumentSnapshot doc : snapshot.getDocuments()) {
+                        Entrant entrant = doc.toObject(Entrant.class);
+                        if (entrant != null) {
+                            entrant.setId(doc.getId());
+                            page.add(entrant);
+                        }
                     }
+
+                    List<DocumentSnapshot> docs = snapshot.getDocuments();
+                    String nextCursor = docs.size() < limit ? null : docs.get(docs.size() - 1).getId();
+                    listener.onPage(page, nextCursor);
                 })
                 .addOnFailureListener(e -> listener.onFailure(e.getMessage()));
     }
+
+    /**
+     * Writes check-in timestamps to entrant documents in batches of {@link FirestoreLimits#MAX_BATCH_WRITES}.
+     * Batches are committed one after another so a failure stops the remaining writes.
+     * Entrants deleted since they were checked in are skipped.
+     * @param checkIns entrant ID mapped to the check-in time in milliseconds.
+     * @param listener Callback to signal success or failure.
+     */
+    @Override
+    public void checkInEntrants(Map<String, Long> checkIns, OnActionCompleteListener listener) {
+        List<Map.Entry<String, Long>> entries = new ArrayList<>(checkIns.entrySet());
+        commitCheckInBatch(entries, 0, listener);
+    }
+
+    /**
+     * Commits the batch starting at {@code start} and chains the next one on success.
+     */
+    private void commitCheckInBatch(List<Map.Entry<String, Long>> entries, int start,
+                                    OnActionCompleteListener listener) {
+        if (start >= entries.size()) {
+            if (listener != null) listener.onSuccess();
+            return;
+        }
+
+        int end = Math.min(start + FirestoreLimits.MAX_BATCH_WRITES, entries.size());
+        WriteBatch batch = db.batch();
+        for (Map.Entry<String, Long> entry : entries.subList(start, end)) {
+            batch.update(db.collection("entrants").document(entry.getKey()),
+                    "checkedInTimestamp", entry.getValue());
+        }
+
+        batch.commit()
+                .addOnSuccessListener(FirestoreUsage.writes(end - start))
+                .addOnSuccessListener(aVoid -> commitCheckInBatch(entries, end, listener))
+                .addOnFailureListener(e -> {
+                    if (isNotFound(e)) {
+                        // One missing entrant fails the whole batch; find it by writing one at a time
+                        commitCheckInsSingly(entries, start, end, listener);
+                        return;
+                    }
+                    if (listener != null) listener.onFailure(e.getMessage());
+                });
+    }
+
+    /**
+     * Writes the check-ins from {@code start} to {@code end} one document at a time,
+     * treating deleted entrants as done, then chains the next batch.
+     */
+    private void commitCheckInsSingly(List<Map.Entry<String, Long>> entries, int start, int end,
+                                      OnActionCompleteListener listener) {
+        List<Task<Void>> writes = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : entries.subList(start, end)) {
+            writes.add(db.collection("entrants").document(entry.getKey())
+                    .update("checkedInTimestamp", entry.getValue())
+                    .addOnSuccessListener(FirestoreUsage.writes(1)));
+        }
+
+        Tasks.whenAllComplete(writes).addOnSuccessListener(done -> {
+            for (Task<Void> write : writes) {
+                if (!write.isSuccessful() && !isNotFound(write.getException())) {
+                    if (listener != null) listener.onFailure(write.getException().getMessage());
+                    return;
+                }
+            }
+            commitCheckInBatch(entries, end, listener);
+        });
+    }
+
+    private static boolean isNotFound(@Nullable Exception e) {
+        return e instanceof FirebaseFirestoreException
+                && ((FirebaseFirestoreException) e).getCode() == FirebaseFirestoreException.Code.NOT_FOUND;
+    }
+
+    /**
+     * Reads the viewport's cells from {@code events/{eventId}/geo_buckets}; see {@link GeoBuckets}.
+     */
+    @Override
+    public void getLocationBuckets(String eventId, double south, double west, double north, double east,
+                                   OnLocationBucketsListener listener) {
+        GeoBuckets.query(db, eventId, south, west, north, east,
+                listener::onSuccess,
+                e -> listener.onFailure(e.getMessage()));
+    }
+
+    /**
+     * Reads the event's coarsest cells; see {@link GeoBuckets#overview}. Also starts the
+     * one-time recount of events whose entrants joined before the cells existed.
+     */
+    @Override
+    public void getLocationOverview(String eventId, OnLocationBucketsListener listener) {
+        GeoBuckets.rebuildOnce(db);
+        GeoBuckets.overview(db, eventId,
+                listener::onSuccess,
+                e -> listener.onFailure(e.getMessage()));
+    }
+
+    /**
+     * Looks up the current user's profile, served from {@link UserProfileCache} when possible.
+     *
+     * @param deviceId device/user identifier to look up.
+     * @param listener callback with id, name, and role if found.
+     */
+    @Override
+    public void getCurrentUserInfo(String deviceId, OnUserInfoListener listener) {
+        UserProfileCache.get(db, deviceId,
+                user -> listener.onSuccess(user.getId() != null ? user.getId() : deviceId,
+                        user.getName(), user.getRole()),
+                e -> listener.onFailure(e.getMessage()));
+    }
 }
@@ -4,22 +4,32 @@ import android.util.Log;
 
 import androidx.annotation.Nullable;
 import androidx.lifecycle.LiveData;
-import androidx.lifecycle.MutableLiveData;
 
 import com.example.lotterysystemproject.models.Event;
+import com.example.lotterysystemproject.models.EventSummary;
+import com.example.lotterysystemproject.models.OrganizerStats;
 import com.example.lotterysystemproject.models.User;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.google.firebase.firestore.CollectionReference;
 import com.google.firebase.firestore.DocumentReference;
 import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.SetOptions;
 import com.google.firebase.firestore.WriteBatch;
 import com.google.firebase.storage.FirebaseStorage;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Consumer;
 
 /**
@@ -28,6 +38,9 @@ import java.util.function.Consumer;
  */
 public class FirebaseEventRepository implements EventRepository {
 
+    /** A featured event's random key is re-rolled once it is older than this. */
+    private static final long RANDOM_KEY_REROLL_MS = 24 * 60 * 60 * 1000L;
+
     // ===================== FIREBASE INSTANCES =====================
     private final FirebaseFirestore db;
     private final FirebaseStorage storage;
@@ -70,8 +83,11 @@ public class FirebaseEventRepository implements EventRepository {
     @Override
     public void addUser(User user, RepositoryCallback callback) {
         android.util.Log.d("Firebase", "Saving user: " + user.getId());
+        // Firestore serves its own pending writes, so the next cache miss reads the new profile
+        UserProfileCache.invalidate(user.getId());
         db.collection("users").document(user.getId())
                 .set(user)
+                .addOnSuccessListener(FirestoreUsage.writes(1))
                 .addOnSuccessListener(v -> {
                     android.util.Log.d("Firebase", "User saved successfully: " + user.getId());
                     if (callback != null) callback.onSuccess();
@@ -84,8 +100,10 @@ public class FirebaseEventRepository implements EventRepository {
 
     @Override
     public void updateUser(String userId, Map<String, Object> updates, RepositoryCallback callback) {
+        UserProfileCache.invalidate(userId);
         db.collection("users").document(userId)
                 .update(updates)
+                .addOnSuccessListener(FirestoreUsage.writes(1))
                 .addOnSuccessListener(v -> {
                     if (callback != null) callback.onSuccess();
                 })
@@ -96,25 +114,21 @@ public class FirebaseEventRepository implements EventRepository {
 
     @Override
     public void getUser(String userId, Consumer<User> onSuccess, Consumer<Exception> onError) {
-        db.collection("users").document(userId)
-                .get()
-                .addOnSuccessListener(doc -> {
-                    if (doc.exists()) {
-                        User u = doc.toObject(User.class);
-                        if (onSuccess != null) onSuccess.accept(u);
-                    } else {
-                        if (onError != null) onError.accept(new Exception("User not found"));
-                    }
-                })
-                .addOnFailureListener(e -> {
+        UserProfileCache.get(db, userId,
+                u -> {
+                    if (onSuccess != null) onSuccess.accept(u);
+                },
+                e -> {
                     if (onError != null) onError.accept(e);
                 });
     }
 
     @Override
     public void deleteUser(String userId, RepositoryCallback callback) {
+        UserProfileCache.invalidate(userId);
         db.collection("users").document(userId)
                 .delete()
+                .addOnSuccessListener(FirestoreUsage.writes(1))
                 .addOnSuccessListener(v -> {
                     if (callback != null) callback.onSuccess();
                 })
@@ -129,8 +143,10 @@ public class FirebaseEventRepository implements EventRepository {
         updates.put("role", "organizer");
         updates.put("updatedAt", new Date());
 
+        UserProfileCache.invalidate(userId);
         db.collection("users").document(userId)
                 .update(updates)
+                .addOnSuccessListener(FirestoreUsage.writes(1))
                 .addOnSuccessListener(v -> {
                     if (callback != null) callback.onSuccess();
                 })
@@ -143,44 +159,166 @@ public class FirebaseEventRepository implements EventRepository {
 
     @Override
     public LiveData<List<Event>> getAllEvents() {
-        MutableLiveData<List<Event>> liveData = new MutableLiveData<>();
+        return new SnapshotLiveData<Event>("events", db.collection("events").whereEqualTo("active", true), d -> {
+                    Event e = d.toObject(Event.class);
+                    if (e != null) {
+                        e.setId(d.getId());
+                        EventMetadataCache.put(d.getId(), e);
+                    }
+                    return e;
+                })
+                .onSnapshot(value -> assignMissingRandomKeys(value.getDocuments()))
+                .onError(error -> Log.e("Repository", "Error fetching events", error))
+                .valueOnError(null);
+    }
 
-        db.collection("events")
-                .whereEqualTo("active", true)
-                .addSnapshotListener((value, error) -> {
+    /**
+     * Adds the event, its list summary and its date in the host's organizer_stats
+     * document in one batch, so neither the lists nor the dashboard counters drift
+     * from the events.
+     */
+    @Override
+    public void addEvent(Event event, Consumer<Exception> onError) {
+        DocumentReference eventRef = db.collection("events").document();
+        event.setRandomKey(Math.random());
+        event.setRandomKeyRolledAt(System.currentTimeMillis());
+        event.setSummaryVersion(EventSummary.VERSION);
+
+        WriteBatch batch = db.batch();
+        batch.set(eventRef, event);
+        EventSummaries.set(batch, db, eventRef.getId(), event);
+        int writes = 2;
+
+        if (event.getHostId() != null && !event.getHostId().isEmpty()) {
+            Map<String, Object> dates = new HashMap<>();
+            dates.put(eventRef.getId(), event.getEventDate() != null ? event.getEventDate().getTime() : null);
+
+            Map<String, Object> stats = new HashMap<>();
+            stats.put("eventDates", dates);
+            batch.set(db.collection("organizer_stats").document(event.getHostId()), stats, SetOptions.merge());
+            writes++;
+        }
 
-                    if (error != null) {
-                        liveData.setValue(null);
-                        Log.e("Repository", "Error fetching events", error);
-                        return;
+        batch.commit()
+                .addOnSuccessListener(FirestoreUsage.writes(writes))
+                .addOnFailureListener(e -> {
+                    if (onError != null) {
+                        onError.accept(e);
                     }
+                });
+    }
+
+    @Override
+    public void invalidateEvent(String eventId) {
+        EventMetadataCache.invalidate(eventId);
+    }
+
+    @Override
+    public void getEventsByHost(String hostId, @Nullable Event after, int limit,
+                                Consumer<List<Event>> onSuccess, Consumer<Exception> onError) {
+        OrganizerStatsBackfill.backfillOnce(db);
+        Query query = db.collection("events")
+                .whereEqualTo("hostId", hostId)
+                .orderBy("eventDate", Query.Direction.ASCENDING)
+                .orderBy(FieldPath.documentId(), Query.Direction.ASCENDING);
+
+        // Cursor on (eventDate, id) so events sharing a date are not skipped between pages
+        if (after != null) {
+            query = query.startAfter(after.getEventDate(), after.getId());
+        }
 
+        SingleFlight.get(query.limit(limit))
+                .addOnSuccessListener(q -> {
                     List<Event> out = new ArrayList<>();
-                    for (DocumentSnapshot d : value.getDocuments()) {
+                    for (DocumentSnapshot d : q.getDocuments()) {
                         Event e = d.toObject(Event.class);
                         if (e != null) {
                             e.setId(d.getId());
+                            EventMetadataCache.put(d.getId(), e);
                             out.add(e);
                         }
                     }
-                    liveData.setValue(out);
+                    if (onSuccess != null) onSuccess.accept(out);
+                })
+                .addOnFailureListener(err -> {
+                    if (onError != null) onError.accept(err);
                 });
+    }
 
+    @Override
+    public void getOrganizerStats(String hostId, Consumer<OrganizerStats> onSuccess, Consumer<Exception> onError) {
+        OrganizerStatsBackfill.backfillOnce(db);
+        SingleFlight.get(db.collection("organizer_stats").document(hostId))
+                .addOnSuccessListener(doc -> {
+                    OrganizerStats stats = doc.exists() ? doc.toObject(OrganizerStats.class) : null;
+                    if (onSuccess != null) onSuccess.accept(stats != null ? stats : new OrganizerStats());
+                })
+                .addOnFailureListener(err -> {
+                    if (onError != null) onError.accept(err);
+                });
+    }
+
+    // ===================== EVENT SUMMARY OPERATIONS =====================
 
-        return liveData;
+    @Override
+    public LiveData<List<EventSummary>> getActiveEventSummaries() {
+        EventSummaries.backfillOnce(db);
+        return new SnapshotLiveData<EventSummary>("event-summaries",
+                db.collection(EventSummaries.COLLECTION).whereEqualTo("active", true),
+                FirebaseEventRepository::toSummary)
+                .onError(error -> Log.e("Repository", "Error fetching event summaries", error))
+                .valueOnError(null);
     }
 
     @Override
-    public void addEvent(Event event, Consumer<Exception> onError) {
-        db.collection("events")
-                .add(event)
+    public void getActiveEventSummaries(Consumer<List<EventSummary>> onSuccess, Consumer<Exception> onError) {
+        EventSummaries.backfillOnce(db);
+        SingleFlight.get(db.collection(EventSummaries.COLLECTION)
+                        .whereEqualTo("active", true))
+                .addOnSuccessListener(q -> {
+                    if (onSuccess != null) onSuccess.accept(toSummaries(q.getDocuments()));
+                })
                 .addOnFailureListener(e -> {
-                    if (onError != null) {
-                        onError.accept(e);
-                    }
+                    if (onError != null) onError.accept(e);
+                });
+    }
+
+    @Override
+    public void getEventSummariesByCategory(String category, Consumer<List<EventSummary>> onSuccess,
+                                            Consumer<Exception> onError) {
+        EventSummaries.backfillOnce(db);
+        SingleFlight.get(db.collection(EventSummaries.COLLECTION)
+                        .whereEqualTo("active", true)
+                        .whereArrayContains("categories", category))
+                .addOnSuccessListener(q -> {
+                    if (onSuccess != null) onSuccess.accept(toSummaries(q.getDocuments()));
+                })
+                .addOnFailureListener(e -> {
+                    if (onError != null) onError.accept(e);
                 });
     }
 
+    /**
+     * Parses summary documents, using the document ID as the event ID.
+     */
+    private static List<EventSummary> toSummaries(List<DocumentSnapshot> docs) {
+        List<EventSummary> out = new ArrayList<>();
+        for (DocumentSnapshot d : docs) {
+            EventSummary s = toSummary(d);
+            if (s != null) out.add(s);
+        }
+        return out;
+    }
+
+    @Nullable
+    private static EventSummary toSummary(DocumentSnapshot d) {
+        EventSummary s = d.toObject(EventSummary.class);
+        if (s != null) s.setId(d.getId());
+        return s;
+    }
+
+    // ===================== WAITING LIST OPERATIONS =====================
+
     @Override
     public void joinWaitingList(String eventId, String userId, RepositoryCallback callback) {
         if (eventId == null || eventId.isEmpty() || userId == null || userId.isEmpty()) {
@@ -188,121 +326,128 @@ public class FirebaseEventRepository implements EventRepository {
             return;
         }
 
-        // Step 1: Get the event document
-        db.collection("events").document(eventId).get()
-                .addOnSuccessListener(eventDoc -> {
-                    if (!eventDoc.exists()) {
-                        if (callback != null) callback.onError(new Exception("Event not found"));
-                        return;
-                    }
-
-                    Event event = eventDoc.toObject(Event.class);
-                    if (event == null) {
-                        if (callback != null) callback.onError(new Exception("Failed to parse event"));
-                        return;
-                    }
-
-                    List<String> waitingList = event.getWaitingList();
+        // Step 1: Read the event, the user and any earlier entrant record together;
+        // the user is usually cached
+        ListenableFuture<DocumentSnapshot> eventRead =
+                RepositoryFutures.fromTask(SingleFlight.get(db.collection("events").document(eventId)));
+        ListenableFuture<User> userRead =
+                RepositoryFutures.fromConsumers((ok, err) -> UserProfileCache.get(db, userId, ok, err));
+        ListenableFuture<DocumentSnapshot> entrantRead = RepositoryFutures.fromTask(
+                db.collection("entrants").document(userId + "_" + eventId).get()
+                        .addOnSuccessListener(FirestoreUsage.reads()));
+
+        RepositoryFutures.deliver(
+                Futures.whenAllSucceed(eventRead, userRead, entrantRead).call(() -> null, MoreExecutors.directExecutor()),
+                done -> joinWithReads(eventId, userId, Futures.getUnchecked(eventRead),
+                        Futures.getUnchecked(userRead), Futures.getUnchecked(entrantRead), callback),
+                e -> {
+                    if (callback != null) callback.onError(e);
+                });
+    }
 
-                    // Step 2: Validate event state and capacity
-                    if (!event.isActive()) {
-                        if (callback != null) callback.onError(new Exception("Event is not active"));
-                        return;
-                    }
+    /**
+     * Validates the join against the event just read and writes the entrant record.
+     * A record left from an earlier join is replaced, so its location counts are removed.
+     */
+    private void joinWithReads(String eventId, String userId, DocumentSnapshot eventDoc, User user,
+                               DocumentSnapshot previousEntrant, RepositoryCallback callback) {
+        if (!eventDoc.exists()) {
+            if (callback != null) callback.onError(new Exception("Event not found"));
+            return;
+        }
 
-                    // Check if registration period is open (if dates are set)
-                    Date now = new Date();
-                    if (event.getRegistrationStart() != null && now.before(event.getRegistrationStart())) {
-                        if (callback != null) callback.onError(new Exception("Registration has not started yet"));
-                        return;
-                    }
+        Event event = eventDoc.toObject(Event.class);
+        EventMetadataCache.put(eventId, event);
+        if (event == null) {
+            if (callback != null) callback.onError(new Exception("Failed to parse event"));
+            return;
+        }
 
-                    if (event.getRegistrationEnd() != null && now.after(event.getRegistrationEnd())) {
-                        if (callback != null) callback.onError(new Exception("Registration period has ended"));
-                        return;
-                    }
+        List<String> waitingList = event.getWaitingList();
 
-                    // Check if waiting list has capacity limit (US 02.03.01)
-                    if (waitingList == null) {
-                        waitingList = new ArrayList<>();
-                    }
+        // Step 2: Validate event state and capacity
+        if (!event.isActive()) {
+            if (callback != null) callback.onError(new Exception("Event is not active"));
+            return;
+        }
 
-                    if (event.getMaxWaitingListSize() != 0 &&
-                            event.getMaxWaitingListSize() > 0 &&
-                            waitingList.size() >= event.getMaxWaitingListSize()) {
-                        if (callback != null) callback.onError(new Exception("Waiting list is full"));
-                        return;
-                    }
+        // Check if registration period is open (if dates are set)
+        Date now = new Date();
+        if (event.getRegistrationStart() != null && now.before(event.getRegistrationStart())) {
+            if (callback != null) callback.onError(new Exception("Registration has not started yet"));
+            return;
+        }
 
-                    // Check if user is already on waiting list
-                    if (waitingList.contains(userId)) {
-                        if (callback != null) callback.onError(new Exception("Already on waiting list"));
-                        return;
-                    }
+        if (event.getRegistrationEnd() != null && now.after(event.getRegistrationEnd())) {
+            if (callback != null) callback.onError(new Exception("Registration period has ended"));
+            return;
+        }
 
-                    // Step 3: Get user information for the entrant record
-                    List<String> finalWaitingList = waitingList;
-                    db.collection("users").document(userId).get()
-                            .addOnSuccessListener(userDoc -> {
-                                if (!userDoc.exists()) {
-                                    if (callback != null) callback.onError(new Exception("User not found"));
-                                    return;
-                                }
-
-                                User user = userDoc.toObject(User.class);
-                                if (user == null) {
-                                    if (callback != null) callback.onError(new Exception("Failed to parse user"));
-                                    return;
-                                }
-
-                                // Step 4: Create Entrant record
-                                String entrantId = userId + "_" + eventId;
-                                long currentTime = System.currentTimeMillis();
-
-                                Map<String, Object> entrantData = new HashMap<>();
-                                entrantData.put("id", entrantId);
-                                entrantData.put("userId", userId);
-                                entrantData.put("eventId", eventId);
-                                entrantData.put("name", user.getName() != null ? user.getName() : "");
-                                entrantData.put("email", user.getEmail() != null ? user.getEmail() : "");
-                                entrantData.put("phone", user.getPhone() != null ? user.getPhone() : "");
-                                entrantData.put("status", "WAITING");
-                                entrantData.put("joinedTimestamp", currentTime);
-                                entrantData.put("statusTimestamp", currentTime);
-                                entrantData.put("latitude", 0.0);
-                                entrantData.put("longitude", 0.0);
-
-                                // Step 5: Batch write all updates
-                                WriteBatch batch = db.batch();
+        // Check if waiting list has capacity limit (US 02.03.01)
+        if (waitingList == null) {
+            waitingList = new ArrayList<>();
+        }
 
-                                // Add entrant document
-                                DocumentReference entrantRef = db.collection("entrants").document(entrantId);
-                                batch.set(entrantRef, entrantData);
+        if (event.getMaxWaitingListSize() != 0 &&
+                event.getMaxWaitingListSize() > 0 &&
+                waitingList.size() >= event.getMaxWaitingListSize()) {
+            if (callback != null) callback.onError(new Exception("Waiting list is full"));
+            return;
+        }
 
-                                // Update event's waiting list and count
-                                finalWaitingList.add(userId);
-                                DocumentReference eventRef = db.collection("events").document(eventId);
-                                batch.update(eventRef, "waitingList", finalWaitingList);
-                                batch.update(eventRef, "currentWaitingCount", finalWaitingList.size());
+        // Check if user is already on waiting list
+        if (waitingList.contains(userId)) {
+            if (callback != null) callback.onError(new Exception("Already on waiting list"));
+            return;
+        }
 
-                                // Commit the batch
-                                batch.commit()
-                                        .addOnSuccessListener(aVoid -> {
-                                            Log.d("FirebaseEventRepository",
-                                                    "Successfully joined waiting list: " + userId + " -> " + eventId);
-                                            if (callback != null) callback.onSuccess();
-                                        })
-                                        .addOnFailureListener(e -> {
-                                            Log.e("FirebaseEventRepository",
-                                                    "Failed to join waiting list", e);
-                                            if (callback != null) callback.onError(e);
-                                        });
-                            })
-                            .addOnFailureListener(e -> {
-                                if (callback != null) callback.onError(e);
-                            });
+        // Step 3: Create Entrant record
+        String entrantId = userId + "_" + eventId;
+        long currentTime = System.currentTimeMillis();
+
+        Map<String, Object> entrantData = new HashMap<>();
+        entrantData.put("id", entrantId);
+        entrantData.put("userId", userId);
+        entrantData.put("eventId", eventId);
+        EntrantEventDetails.put(entrantData, event);
+        entrantData.put("name", user.getName() != null ? user.getName() : "");
+        entrantData.put("email", user.getEmail() != null ? user.getEmail() : "");
+        entrantData.put("phone", user.getPhone() != null ? user.getPhone() : "");
+        entrantData.put("status", "WAITING");
+        entrantData.put("joinedTimestamp", currentTime);
+        entrantData.put("statusTimestamp", currentTime);
+        entrantData.put("latitude", 0.0);
+        entrantData.put("longitude", 0.0);
+
+        // Step 4: Batch write all updates
+        WriteBatch batch = db.batch();
+
+        // Add entrant document
+        DocumentReference entrantRef = db.collection("entrants").document(entrantId);
+        batch.set(entrantRef, entrantData);
+        MembershipIndex.record(batch, db, userId, eventId, "WAITING", currentTime);
+        // The new record has no location yet; the old one's cells must not keep counting it
+        int writes = 5;
+        if (previousEntrant.exists()) writes += GeoBuckets.move(batch, db, previousEntrant, null);
+
+        // Update event's waiting list and count
+        waitingList.add(userId);
+        DocumentReference eventRef = db.collection("events").document(eventId);
+        batch.update(eventRef, "waitingList", waitingList);
+        batch.update(eventRef, "currentWaitingCount", waitingList.size());
+        EventSummaries.merge(batch, db, eventId, "currentWaitingCount", waitingList.size());
+
+        // Commit the batch: entrant, index entry, two event fields, the summary and any old cells
+        batch.commit()
+                .addOnSuccessListener(FirestoreUsage.writes(writes))
+                .addOnSuccessListener(aVoid -> {
+                    Log.d("FirebaseEventRepository",
+                            "Successfully joined waiting list: " + userId + " -> " + eventId);
+                    if (callback != null) callback.onSuccess();
                 })
                 .addOnFailureListener(e -> {
+                    Log.e("FirebaseEventRepository",
+                            "Failed to join waiting list", e);
                     if (callback != null) callback.onError(e);
                 });
     }
@@ -315,7 +460,7 @@ public class FirebaseEventRepository implements EventRepository {
         }
 
         // Step 1: Get the event document
-        db.collection("events").document(eventId).get()
+        SingleFlight.get(db.collection("events").document(eventId))
                 .addOnSuccessListener(eventDoc -> {
                     if (!eventDoc.exists()) {
                         if (callback != null) callback.onError(new Exception("Event not found"));
@@ -323,6 +468,7 @@ public class FirebaseEventRepository implements EventRepository {
                     }
 
                     Event event = eventDoc.toObject(Event.class);
+                    EventMetadataCache.put(eventId, event);
                     if (event == null) {
                         if (callback != null) callback.onError(new Exception("Failed to parse event"));
                         return;
@@ -334,32 +480,47 @@ public class FirebaseEventRepository implements EventRepository {
                         return;
                     }
 
-                    // Step 2: Prepare batch updates
-                    WriteBatch batch = db.batch();
-
-                    // Update entrant status to CANCELLED
+                    // Step 2: Read the entrant, whose status and location feed the map counts
                     String entrantId = userId + "_" + eventId;
                     DocumentReference entrantRef = db.collection("entrants").document(entrantId);
-                    Map<String, Object> entrantUpdates = new HashMap<>();
-                    entrantUpdates.put("status", "CANCELLED");
-                    entrantUpdates.put("statusTimestamp", System.currentTimeMillis());
-                    batch.update(entrantRef, entrantUpdates);
-
-                    // Remove user from event's waiting list
-                    waitingList.remove(userId);
-                    DocumentReference eventRef = db.collection("events").document(eventId);
-                    batch.update(eventRef, "waitingList", waitingList);
-                    batch.update(eventRef, "currentWaitingCount", waitingList.size());
-
-                    // Step 3: Commit the batch
-                    batch.commit()
-                            .addOnSuccessListener(aVoid -> {
-                                Log.d("FirebaseEventRepository",
-                                        "Successfully left waiting list: " + userId + " -> " + eventId);
-                                if (callback != null) callback.onSuccess();
+                    entrantRef.get()
+                            .addOnSuccessListener(FirestoreUsage.reads())
+                            .addOnSuccessListener(entrantDoc -> {
+                                // Step 3: Prepare batch updates
+                                WriteBatch batch = db.batch();
+
+                                // Update entrant status to CANCELLED
+                                Map<String, Object> entrantUpdates = new HashMap<>();
+                                entrantUpdates.put("status", "CANCELLED");
+                                entrantUpdates.put("statusTimestamp", System.currentTimeMillis());
+                                batch.update(entrantRef, entrantUpdates);
+                                int writes = 1 + GeoBuckets.move(batch, db, entrantDoc, "CANCELLED");
+                                MembershipIndex.record(batch, db, userId, eventId, "CANCELLED",
+                                        (long) entrantUpdates.get("statusTimestamp"));
+
+                                // Remove user from event's waiting list
+                                waitingList.remove(userId);
+                                DocumentReference eventRef = db.collection("events").document(eventId);
+                                batch.update(eventRef, "waitingList", waitingList);
+                                batch.update(eventRef, "currentWaitingCount", waitingList.size());
+                                EventSummaries.merge(batch, db, eventId, "currentWaitingCount", waitingList.size());
+                                // The index entry, two event fields and the summary
+                                writes += 4;
+
+                                // Step 4: Commit the batch
+                                batch.commit()
+                                        .addOnSuccessListener(FirestoreUsage.writes(writes))
+                                        .addOnSuccessListener(aVoid -> {
+                                            Log.d("FirebaseEventRepository",
+                                                    "Successfully left waiting list: " + userId + " -> " + eventId);
+                                            if (callback != null) callback.onSuccess();
+                                        })
+                                        .addOnFailureListener(e -> {
+                                            Log.e("FirebaseEventRepository", "Failed to leave waiting list", e);
+                                            if (callback != null) callback.onError(e);
+                                        });
                             })
                             .addOnFailureListener(e -> {
-                                Log.e("FirebaseEventRepository", "Failed to leave waiting list", e);
                                 if (callback != null) callback.onError(e);
                             });
                 })
@@ -370,16 +531,16 @@ public class FirebaseEventRepository implements EventRepository {
 
     @Override
     public void getEventsByCategory(String category, Consumer<List<Event>> onSuccess, Consumer<Exception> onError) {
-        db.collection("events")
-                .whereEqualTo("active", true)
-                .whereArrayContains("categories", category)
-                .get()
+        SingleFlight.get(db.collection("events")
+                        .whereEqualTo("active", true)
+                        .whereArrayContains("categories", category))
                 .addOnSuccessListener(q -> {
                     List<Event> out = new ArrayList<>();
                     for (DocumentSnapshot d : q.getDocuments()) {
                         Event e = d.toObject(Event.class);
                         if (e != null) {
                             e.setId(d.getId());
+                            EventMetadataCache.put(d.getId(), e);
                             out.add(e);
                         }
                     }
@@ -395,9 +556,8 @@ public class FirebaseEventRepository implements EventRepository {
             Consumer<List<Event>> onSuccess,
             Consumer<Exception> onError
     ) {
-        db.collection("events")
-                .whereEqualTo("active", true)
-                .get()
+        SingleFlight.get(db.collection("events")
+                        .whereEqualTo("active", true))
                 .addOnSuccessListener(query -> {
                     List<Event> events = new ArrayList<>();
 
@@ -405,6 +565,7 @@ public class FirebaseEventRepository implements EventRepository {
                         Event event = doc.toObject(Event.class);
                         if (event != null) {
                             event.setId(doc.getId());
+                            EventMetadataCache.put(doc.getId(), event);
                             events.add(event);
                         }
                     }
@@ -418,17 +579,17 @@ public class FirebaseEventRepository implements EventRepository {
 
     @Override
     public void getRecentEvents(int limit, Consumer<List<Event>> onSuccess, Consumer<Exception> onError) {
-        db.collection("events")
-                .whereEqualTo("active", true)
-                .orderBy("createdAt", com.google.firebase.firestore.Query.Direction.DESCENDING)
-                .limit(limit)
-                .get()
+        SingleFlight.get(db.collection("events")
+                        .whereEqualTo("active", true)
+                        .orderBy("createdAt", com.google.firebase.firestore.Query.Direction.DESCENDING)
+                        .limit(limit))
                 .addOnSuccessListener(q -> {
                     List<Event> out = new ArrayList<>();
                     for (DocumentSnapshot d : q.getDocuments()) {
                         Event e = d.toObject(Event.class);
                         if (e != null) {
                             e.setId(d.getId());
+                            EventMetadataCache.put(d.getId(), e);
                             out.add(e);
                         }
                     }
@@ -438,4 +599,111 @@ public class FirebaseEventRepository implements EventRepository {
                     if (onError != null) onError.accept(err);
                 });
     }
-}
\ No newline at end of file
+
+    /**
+     * Samples active events by picking a random pivot and reading the events whose
+     * random key follows it, wrapping around to the lowest keys when the pivot is
+     * near the top of the range. Requires a composite index on (active, randomKey).
+     */
+    @Override
+    public void getRandomEvents(int count, Consumer<List<Event>> onSuccess, Consumer<Exception> onError) {
+        double pivot = Math.random();
+        Query active = db.collection("events").whereEqualTo("active", true);
+
+        active.whereGreaterThanOrEqualTo("randomKey", pivot)
+                .orderBy("randomKey")
+                .limit(count)
+                .get()
+                .addOnSuccessListener(FirestoreUsage.reads())
+                .addOnSuccessListener(above -> {
+                    List<DocumentSnapshot> docs = new ArrayList<>(above.getDocuments());
+                    if (docs.size() >= count) {
+                        deliverRandomEvents(docs, onSuccess);
+                        return;
+                    }
+
+                    active.whereLessThan("randomKey", pivot)
+                            .orderBy("randomKey")
+                            .limit(count - docs.size())
+                            .get()
+                            .addOnSuccessListener(FirestoreUsage.reads())
+                            .addOnSuccessListener(below -> {
+                                docs.addAll(below.getDocuments());
+                                deliverRandomEvents(docs, onSuccess);
+                            })
+                            .addOnFailureListener(err -> {
+                                if (onError != null) onError.accept(err);
+                            });
+                })
+                .addOnFailureListener(err -> {
+                    if (onError != null) onError.accept(err);
+                });
+    }
+
+    @Override
+    public void getLiveEventIds(Collection<String> eventIds, Consumer<Set<String>> onSuccess, Consumer<Exception> onError) {
+        EventMetadataCache.getAll(db, eventIds, metadata -> {
+            Set<String> live = new HashSet<>();
+            for (Map.Entry<String, EventMetadataCache.Metadata> entry : metadata.entrySet()) {
+                if (entry.getValue().live) live.add(entry.getKey());
+            }
+            if (onSuccess != null) onSuccess.accept(live);
+        }, err -> {
+            if (onError != null) onError.accept(err);
+        });
+    }
+
+    /**
+     * Parses sampled events and re-rolls the keys of those that have kept the same
+     * key for a day, so the same neighbours are not always featured together.
+     */
+    private void deliverRandomEvents(List<DocumentSnapshot> docs, Consumer<List<Event>> onSuccess) {
+        long now = System.currentTimeMillis();
+        WriteBatch reroll = null;
+        int writes = 0;
+        List<Event> out = new ArrayList<>();
+
+        for (DocumentSnapshot d : docs) {
+            Event e = d.toObject(Event.class);
+            if (e == null) continue;
+            e.setId(d.getId());
+            EventMetadataCache.put(d.getId(), e);
+            out.add(e);
+
+            if (now - e.getRandomKeyRolledAt() >= RANDOM_KEY_REROLL_MS) {
+                if (reroll == null) reroll = db.batch();
+                reroll.update(d.getReference(), "randomKey", Math.random(), "randomKeyRolledAt", now);
+                writes++;
+            }
+        }
+
+        if (reroll != null) {
+            reroll.commit().addOnSuccessListener(FirestoreUsage.writes(writes)).addOnFailureListener(err ->
+                    Log.w("FirebaseEventRepository", "Failed to re-roll random keys", err));
+        }
+        if (onSuccess != null) onSuccess.accept(out);
+    }
+
+    /**
+     * Gives events created before random keys existed a key, so they can be sampled
+     * by {@link #getRandomEvents}. Once written, the key is present in the next
+     * snapshot, so each event is only updated once.
+     */
+    private void assignMissingRandomKeys(List<DocumentSnapshot> docs) {
+        long now = System.currentTimeMillis();
+        WriteBatch batch = null;
+        int writes = 0;
+
+        for (DocumentSnapshot d : docs) {
+            if (d.contains("randomKey")) continue;
+            if (batch == null) batch = db.batch();
+            batch.update(d.getReference(), "randomKey", Math.random(), "randomKeyRolledAt", now);
+            if (++writes == FirestoreLimits.MAX_BATCH_WRITES) break;
+        }
+
+        if (batch != null) {
+            batch.commit().addOnSuccessListener(FirestoreUsage.writes(writes)).addOnFailureListener(err ->
+                    Log.w("FirebaseEventRepository", "Failed to assign random keys", err));
+        }
+    }
+}
@@ -77,10 +77,12 @@ public class FirebaseNotificationRepository implements NotificationRepository {
 
         // Write notification document
         docRef.set(data)
+                .addOnSuccessListener(FirestoreUsage.writes(1))
                 .addOnSuccessListener(v -> {
                     // Add notification id to user's notifications array
                     userDoc(userId)
                             .update("notifications", FieldValue.arrayUnion(docRef.getId()))
+                            .addOnSuccessListener(FirestoreUsage.writes(1))
                             .addOnSuccessListener(u -> {
                                 if (callback != null) callback.onSuccess(null);
                             })
@@ -105,6 +107,7 @@ public class FirebaseNotificationRepository implements NotificationRepository {
 
         userDoc(userId)
                 .get()
+                .addOnSuccessListener(FirestoreUsage.reads())
                 .addOnSuccessListener(doc -> {
                     List<String> ids = getNotificationIdList(doc);
                     if (ids.isEmpty()) {
@@ -130,12 +133,14 @@ public class FirebaseNotificationRepository implements NotificationRepository {
         // Ensure only one listener active at a time
         stopListeningUserNotifications();
 
+        String screen = FirestoreUsage.currentScreen();
         userRegistration = userDoc(userId)
                 .addSnapshotListener((doc, error) -> {
                     if (error != null) {
                         if (listener != null) listener.onError(error);
                         return;
                     }
+                    FirestoreUsage.countSnapshot(screen, doc);
 
                     if (doc == null || !doc.exists()) {
                         if (listener != null) listener.onDataChanged(Collections.emptyList());
@@ -156,6 +161,7 @@ public class FirebaseNotificationRepository implements NotificationRepository {
                     notifications()
                             .whereIn(FieldPath.documentId(), limitedIds)
                             .get()
+                            .addOnSuccessListener(FirestoreUsage.reads())
                             .addOnSuccessListener(snap -> {
                                 List<NotificationItem> items = new ArrayList<>();
                                 for (DocumentSnapshot nDoc : snap.getDocuments()) {
@@ -188,11 +194,13 @@ public class FirebaseNotificationRepository implements NotificationRepository {
         // First: remove id from user notifications array
         userDoc(userId)
                 .update("notifications", FieldValue.arrayRemove(notificationId))
+                .addOnSuccessListener(FirestoreUsage.writes(1))
                 .addOnSuccessListener(v -> {
                     // Second: delete notification document itself
                     notifications()
                             .document(notificationId)
                             .delete()
+                            .addOnSuccessListener(FirestoreUsage.writes(1))
                             .addOnSuccessListener(v2 -> {
                                 if (callback != null) callback.onSuccess(null);
                             })
@@ -251,6 +259,7 @@ public class FirebaseNotificationRepository implements NotificationRepository {
         notifications()
                 .whereIn(FieldPath.documentId(), limitedIds)
                 .get()
+                .addOnSuccessListener(FirestoreUsage.reads())
                 .addOnSuccessListener(snap -> {
                     List<NotificationItem> items = new ArrayList<>();
                     for (DocumentSnapshot nDoc : snap.getDocuments()) {
@@ -355,6 +364,7 @@ public class FirebaseNotificationRepository implements NotificationRepository {
         notifications()
                 .orderBy("timestamp", com.google.firebase.firestore.Query.Direction.DESCENDING)
                 .get()
+                .addOnSuccessListener(FirestoreUsage.reads())
                 .addOnSuccessListener(queryDocumentSnapshots -> {
                     List<NotificationItem> items = new ArrayList<>();
 
@@ -1,20 +1,71 @@
 package com.example.lotterysystemproject.firebasemanager;
 
+import android.content.ContentResolver;
+import android.content.Context;
+import android.content.SharedPreferences;
 import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
 
 import com.example.lotterysystemproject.models.User;
+import com.example.lotterysystemproject.utils.AppExecutors;
+import com.example.lotterysystemproject.utils.ContentAddressedUploader;
+import com.example.lotterysystemproject.utils.FirestoreJson;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.WriteBatch;
 import com.google.firebase.storage.FirebaseStorage;
 import com.google.firebase.storage.StorageReference;
+import com.google.gson.stream.JsonWriter;
 
+import java.io.BufferedWriter;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Firestore Storage implementation of UserRepository.
  */
 public class FirebaseUserRepository implements UserRepository {
 
+    /** Notifications deleted per batch; Firestore allows 500 writes per batch. */
+    private static final int DEACTIVATION_PAGE_SIZE = 400;
+    /**
+     * Entrants deleted per batch. Each may also update its event, its event summary
+     * and four location counts, so at most seven writes each.
+     */
+    private static final int ENTRANT_PAGE_SIZE = 70;
+
+    private static final String DEACTIVATION_PREFS = "DeactivationPrefs";
+    private static final String PHASE_NOTIFICATIONS = "notifications";
+    private static final String PHASE_ENTRANTS = "entrants";
+    private static final String PHASE_MEMBERSHIPS = "memberships";
+    private static final String PHASE_USER = "user";
+
+    /**
+     * Callers waiting on each deactivation running in this process. A second run for the
+     * same user would read the same entrant pages and decrement the counters twice, so it
+     * waits for the running one instead.
+     */
+    private static final Map<String, List<RepositoryCallback<Void>>> runningDeactivations = new HashMap<>();
+
+    /** Documents read per query page while exporting user data. */
+    private static final int EXPORT_PAGE_SIZE = 200;
+
     private final FirebaseFirestore db;
     private final FirebaseStorage storage;
 
@@ -36,6 +87,7 @@ public class FirebaseUserRepository implements UserRepository {
     public void createOrUpdateUser(User user, RepositoryCallback<Void> callback) {
         db.collection("users").document(user.getId())
                 .set(user)
+                .addOnSuccessListener(FirestoreUsage.writes(1))
                 .addOnSuccessListener(v -> {
                     if (callback != null) callback.onSuccess(null);
                 })
@@ -52,8 +104,7 @@ public class FirebaseUserRepository implements UserRepository {
      */
     @Override
     public void getUserById(String userId, RepositoryCallback<User> callback) {
-        db.collection("users").document(userId)
-                .get()
+        SingleFlight.get(db.collection("users").document(userId))
                 .addOnSuccessListener(doc -> {
                     if (doc.exists()) {
                         User user = doc.toObject(User.class);
@@ -79,6 +130,7 @@ public class FirebaseUserRepository implements UserRepository {
     public void deleteUser(String userId, RepositoryCallback<Void> callback) {
         db.collection("users").document(userId)
                 .delete()
+                .addOnSuccessListener(FirestoreUsage.writes(1))
                 .addOnSuccessListener(v -> {
                     if (callback != null) callback.onSuccess(null);
                 })
@@ -97,6 +149,7 @@ public class FirebaseUserRepository implements UserRepository {
         db.collection("users")
                 .whereEqualTo("isActive", true)
                 .get()
+                .addOnSuccessListener(FirestoreUsage.reads())
                 .addOnSuccessListener(querySnapshot -> {
                     List<User> users = new ArrayList<>();
                     querySnapshot.forEach(doc -> {
@@ -121,6 +174,7 @@ public class FirebaseUserRepository implements UserRepository {
     public void updateNotificationPreferences(String userId, boolean enabled, RepositoryCallback<Void> callback) {
         db.collection("users").document(userId)
                 .update("notificationsEnabled", enabled)
+                .addOnSuccessListener(FirestoreUsage.writes(1))
                 .addOnSuccessListener(v -> {
                     if (callback != null) callback.onSuccess(null);
                 })
@@ -131,6 +185,8 @@ public class FirebaseUserRepository implements UserRepository {
 
     /**
      * Uploads a profile picture to Firebase Storage and updates user document with resulting download URL.
+     * The image is stored under its SHA-256 so an identical picture already in storage is reused.
+     * The replaced picture is released once the new URL is stored.
      *
      * @param userId user whose profile picture is being uploaded
      * @param imageUri local URI of image to upload
@@ -138,46 +194,52 @@ public class FirebaseUserRepository implements UserRepository {
      */
     @Override
     public void uploadProfilePicture(String userId, Uri imageUri, RepositoryCallback<String> callback) {
-        StorageReference ref = storage.getReference("profile_pictures/" + userId + ".jpg");
-
-        ref.putFile(imageUri)
-                .addOnSuccessListener(taskSnapshot -> {
-                    ref.getDownloadUrl()
-                            .addOnSuccessListener(uri -> {
-                                String imageUrl = uri.toString();
-                                db.collection("users").document(userId)
-                                        .update("profilePictureUrl", imageUrl)
-                                        .addOnSuccessListener(v -> {
-                                            if (callback != null) callback.onSuccess(imageUrl);
-                                        })
-                                        .addOnFailureListener(e -> {
-                                            if (callback != null) callback.onFailure(e);
-                                        });
-                            })
-                            .addOnFailureListener(e -> {
-                                if (callback != null) callback.onFailure(e);
-                            });
-                })
-                .addOnFailureListener(e -> {
+        StorageReference folder = storage.getReference("profile_pictures");
+        ContentResolver resolver = storage.getApp().getApplicationContext().getContentResolver();
+        DocumentReference userRef = db.collection("users").document(userId);
+
+        ContentAddressedUploader.upload(resolver, folder, imageUri,
+                imageUrl -> userRef.get()
+                        .addOnSuccessListener(FirestoreUsage.reads())
+                        .addOnSuccessListener(doc -> {
+                            String previousUrl = doc.getString("profilePictureUrl");
+                            userRef.update("profilePictureUrl", imageUrl)
+                                    .addOnSuccessListener(FirestoreUsage.writes(1))
+                                    .addOnSuccessListener(v -> {
+                                        if (!imageUrl.equals(previousUrl)) releaseProfilePicture(previousUrl);
+                                        if (callback != null) callback.onSuccess(imageUrl);
+                                    })
+                                    .addOnFailureListener(e -> {
+                                        if (callback != null) callback.onFailure(e);
+                                    });
+                        })
+                        .addOnFailureListener(e -> {
+                            if (callback != null) callback.onFailure(e);
+                        }),
+                e -> {
                     if (callback != null) callback.onFailure(e);
                 });
     }
 
     /**
-     * Deletes the user's profile picture from Firebase Storage and clears the profilePictureUrl field from user document.
+     * Clears the profilePictureUrl field from user document and deletes the picture from Firebase Storage
+     * once no other user references the same (content-addressed) file.
      *
      * @param userId user whose picture should be removed
      * @param callback callback for success/failure
      */
     @Override
     public void deleteProfilePicture(String userId, RepositoryCallback<Void> callback) {
-        StorageReference ref = storage.getReference("profile_pictures/" + userId + ".jpg");
-
-        ref.delete()
-                .addOnSuccessListener(v -> {
+        db.collection("users").document(userId)
+                .get()
+                .addOnSuccessListener(FirestoreUsage.reads())
+                .addOnSuccessListener(doc -> {
+                    String imageUrl = doc.getString("profilePictureUrl");
                     db.collection("users").document(userId)
                             .update("profilePictureUrl", null)
-                            .addOnSuccessListener(v2 -> {
+                            .addOnSuccessListener(FirestoreUsage.writes(1))
+                            .addOnSuccessListener(v -> {
+                                releaseProfilePicture(imageUrl);
                                 if (callback != null) callback.onSuccess(null);
                             })
                             .addOnFailureListener(e -> {
@@ -189,6 +251,29 @@ public class FirebaseUserRepository implements UserRepository {
                 });
     }
 
+    /**
+     * Deletes a stored profile picture if no user document points to it anymore.
+     *
+     * @param imageUrl download URL of the picture, may be null
+     */
+    private void releaseProfilePicture(String imageUrl) {
+        if (imageUrl == null || imageUrl.isEmpty()) return;
+
+        db.collection("users")
+                .whereEqualTo("profilePictureUrl", imageUrl)
+                .limit(1)
+                .get()
+                .addOnSuccessListener(FirestoreUsage.reads())
+                .addOnSuccessListener(snapshot -> {
+                    if (!snapshot.isEmpty()) return;
+                    try {
+                        storage.getReferenceFromUrl(imageUrl).delete();
+                    } catch (IllegalArgumentException ignored) {
+                        // Not a storage URL, nothing to clean up
+                    }
+                });
+    }
+
     /**
      * Performs a search across all active users matching the query against name or email.
      *
@@ -200,6 +285,7 @@ public class FirebaseUserRepository implements UserRepository {
         db.collection("users")
                 .whereEqualTo("isActive", true)
                 .get()
+                .addOnSuccessListener(FirestoreUsage.reads())
                 .addOnSuccessListener(querySnapshot -> {
                     List<User> users = new ArrayList<>();
                     String lowerQuery = query.toLowerCase();
@@ -228,12 +314,14 @@ public class FirebaseUserRepository implements UserRepository {
      */
     @Override
     public void listenToUser(String userId, RepositoryListener<User> listener) {
+        String screen = FirestoreUsage.currentScreen();
         db.collection("users").document(userId)
                 .addSnapshotListener((doc, error) -> {
                     if (error != null) {
                         if (listener != null) listener.onError(error);
                         return;
                     }
+                    FirestoreUsage.countSnapshot(screen, doc);
 
                     if (doc != null && doc.exists()) {
                         User user = doc.toObject(User.class);
@@ -244,9 +332,18 @@ public class FirebaseUserRepository implements UserRepository {
 
     /**
      * Fully deactivates a user account and cleans up associated data.
+     * <p>
+     * Data is deleted in pages so no batch exceeds Firestore's 500-write limit:
+     * notifications first, then entrant records together with their event
+     * counters, then the user's membership index, and the user document last. The current phase is checkpointed
+     * locally, so an interrupted run can be resumed with
+     * {@link #resumePendingDeactivation}. Every page re-queries what is left,
+     * so re-running a finished or partially finished phase is harmless. A call made
+     * while the same user's deactivation is still running waits for that run.
+     * </p>
      *
      * @param userId id of the user to deactivate
-     * @param callback callback invoked after batch commit or on error
+     * @param callback callback invoked after the user document is deleted or on error
      */
     @Override
     public void deactivateAccount(String userId, RepositoryCallback<Void> callback) {
@@ -257,160 +354,360 @@ public class FirebaseUserRepository implements UserRepository {
             return;
         }
 
-        // 1) Fetch all notifications for this user
+        synchronized (runningDeactivations) {
+            List<RepositoryCallback<Void>> waiting = runningDeactivations.get(userId);
+            if (waiting != null) {
+                if (callback != null) waiting.add(callback);
+                return;
+            }
+            waiting = new ArrayList<>();
+            if (callback != null) waiting.add(callback);
+            runningDeactivations.put(userId, waiting);
+        }
+        RepositoryCallback<Void> done = finishingDeactivation(userId);
+
+        String phase = deactivationPrefs().getString(userId, null);
+        if (phase != null) {
+            runDeactivationPhase(userId, phase, done);
+            return;
+        }
+
+        saveDeactivationPhase(userId, PHASE_NOTIFICATIONS);
+        // Hide the profile right away; the document itself is deleted last
+        db.collection("users").document(userId)
+                .update("active", false)
+                .addOnSuccessListener(FirestoreUsage.writes(1))
+                .addOnCompleteListener(t -> runDeactivationPhase(userId, PHASE_NOTIFICATIONS, done));
+    }
+
+    /**
+     * Returns the callback that ends a running deactivation: it lets the next call start
+     * a new run and reports the outcome to every caller that waited on this one.
+     */
+    private static RepositoryCallback<Void> finishingDeactivation(String userId) {
+        return new RepositoryCallback<Void>() {
+            @Override
+            public void onSuccess(Void result) {
+                for (RepositoryCallback<Void> waiting : finish()) waiting.onSuccess(null);
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                for (RepositoryCallback<Void> waiting : finish()) waiting.onFailure(e);
+            }
+
+            private List<RepositoryCallback<Void>> finish() {
+                synchronized (runningDeactivations) {
+                    List<RepositoryCallback<Void>> waiting = runningDeactivations.remove(userId);
+                    return waiting != null ? waiting : new ArrayList<>();
+                }
+            }
+        };
+    }
+
+    /**
+     * Resumes the first deactivation left unfinished on this device.
+     *
+     * @param callback receives the deactivated user id, or null if nothing was pending
+     */
+    @Override
+    public void resumePendingDeactivation(RepositoryCallback<String> callback) {
+        Map<String, ?> pending = deactivationPrefs().getAll();
+        if (pending.isEmpty()) {
+            if (callback != null) callback.onSuccess(null);
+            return;
+        }
+
+        String userId = pending.keySet().iterator().next();
+        deactivateAccount(userId, new RepositoryCallback<Void>() {
+            @Override
+            public void onSuccess(Void result) {
+                if (callback != null) callback.onSuccess(userId);
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                if (callback != null) callback.onFailure(e);
+            }
+        });
+    }
+
+    /**
+     * Runs one deactivation phase and chains the next one.
+     */
+    private void runDeactivationPhase(String userId, String phase, RepositoryCallback<Void> callback) {
+        switch (phase) {
+            case PHASE_NOTIFICATIONS:
+                deleteNotificationPages(userId, () -> {
+                    saveDeactivationPhase(userId, PHASE_ENTRANTS);
+                    runDeactivationPhase(userId, PHASE_ENTRANTS, callback);
+                }, callback);
+                break;
+            case PHASE_ENTRANTS:
+                deleteEntrantPages(userId, () -> {
+                    saveDeactivationPhase(userId, PHASE_MEMBERSHIPS);
+                    runDeactivationPhase(userId, PHASE_MEMBERSHIPS, callback);
+                }, callback);
+                break;
+            case PHASE_MEMBERSHIPS:
+                // A profile re-created on the same device must not inherit old entries
+                new PagedQueryDeleter(db, MembershipIndex.collection(db, userId), DEACTIVATION_PAGE_SIZE, 1).run(
+                        deleted -> { },
+                        () -> {
+                            saveDeactivationPhase(userId, PHASE_USER);
+                            runDeactivationPhase(userId, PHASE_USER, callback);
+                        },
+                        e -> {
+                            if (callback != null) callback.onFailure(e);
+                        });
+                break;
+            default:
+                db.collection("users").document(userId)
+                        .delete()
+                        .addOnSuccessListener(FirestoreUsage.writes(1))
+                        .addOnSuccessListener(aVoid -> {
+                            deactivationPrefs().edit().remove(userId).apply();
+                            if (callback != null) callback.onSuccess(null);
+                        })
+                        .addOnFailureListener(e -> {
+                            if (callback != null) callback.onFailure(e);
+                        });
+                break;
+        }
+    }
+
+    /**
+     * Deletes the user's notifications one page per batch until none are left.
+     */
+    private void deleteNotificationPages(String userId, Runnable onDone, RepositoryCallback<Void> callback) {
         db.collection("notifications")
                 .whereEqualTo("userId", userId)
+                .limit(DEACTIVATION_PAGE_SIZE)
                 .get()
-                .addOnSuccessListener(notifSnap -> {
-
-                    // 2) Then fetch all entrants for this user
-                    db.collection("entrants")
-                            .whereEqualTo("userId", userId)
-                            .get()
-                            .addOnSuccessListener(entrantSnap -> {
-
-                                // 3) Build a batch delete for notifications, entrants, and the user doc
-                                com.google.firebase.firestore.WriteBatch batch = db.batch();
-
-                                // Track events that user was in
-                                java.util.Set<String> affectedEventIds = new java.util.HashSet<>();
-
-                                // Track how many WAITING / ENROLLED entrants removed per event
-                                java.util.Map<String, Integer> waitingCountsByEvent  = new java.util.HashMap<>();
-                                java.util.Map<String, Integer> enrolledCountsByEvent = new java.util.HashMap<>();
-
-                                // Delete notifications
-                                for (com.google.firebase.firestore.DocumentSnapshot doc : notifSnap.getDocuments()) {
-                                    batch.delete(doc.getReference());
-                                }
-
-                                // Delete entrants and collect eventIds
-                                for (com.google.firebase.firestore.DocumentSnapshot doc : entrantSnap.getDocuments()) {
-                                    batch.delete(doc.getReference());
-
-                                    String eventId = doc.getString("eventId");
-                                    if (eventId != null && !eventId.isEmpty()) {
-                                        affectedEventIds.add(eventId);
-
-                                        // Look at status to adjust counters correctly
-                                        String status = doc.getString("status");
-                                        if ("WAITING".equals(status)) {
-                                            int prev = waitingCountsByEvent.containsKey(eventId)
-                                                    ? waitingCountsByEvent.get(eventId) : 0;
-                                            waitingCountsByEvent.put(eventId, prev + 1);
-                                        } else if ("ENROLLED".equals(status)) {
-                                            int prev = enrolledCountsByEvent.containsKey(eventId)
-                                                    ? enrolledCountsByEvent.get(eventId) : 0;
-                                            enrolledCountsByEvent.put(eventId, prev + 1);
-                                        }
-                                    }
-                                }
-
-                                // Remove respective userId from each event waitingList
-                                // and decrement currentWaitingCount / currentEnrolled
-                                for (String eventId : affectedEventIds) {
-                                    com.google.firebase.firestore.DocumentReference eventRef =
-                                            db.collection("events").document(eventId);
-
-                                    java.util.Map<String, Object> eventUpdates = new java.util.HashMap<>();
-
-                                    // remove the userId from the event's waitingList array
-                                    eventUpdates.put(
-                                            "waitingList",
-                                            com.google.firebase.firestore.FieldValue.arrayRemove(userId)
-                                    );
-
-                                    // Decrement waiting count if we removed WAITING entrants for this event
-                                    Integer waitingRemoved = waitingCountsByEvent.get(eventId);
-                                    if (waitingRemoved != null && waitingRemoved > 0) {
-                                        eventUpdates.put(
-                                                "currentWaitingCount",
-                                                com.google.firebase.firestore.FieldValue.increment(-waitingRemoved)
-                                        );
-                                    }
-
-                                    // Decrement enrolled count if we removed ENROLLED entrants for this event
-                                    Integer enrolledRemoved = enrolledCountsByEvent.get(eventId);
-                                    if (enrolledRemoved != null && enrolledRemoved > 0) {
-                                        eventUpdates.put(
-                                                "currentEnrolled",
-                                                com.google.firebase.firestore.FieldValue.increment(-enrolledRemoved)
-                                        );
-                                    }
-
-                                    batch.update(eventRef, eventUpdates);
-                                }
-
-                                // Finally, delete user document itself
-                                com.google.firebase.firestore.DocumentReference userRef =
-                                        db.collection("users").document(userId);
-                                batch.delete(userRef);
-
-                                // 4) Commit the batch
-                                batch.commit()
-                                        .addOnSuccessListener(aVoid -> {
-                                            if (callback != null) {
-                                                callback.onSuccess(null);
-                                            }
-                                        })
-                                        .addOnFailureListener(e -> {
-                                            if (callback != null) {
-                                                callback.onFailure(e);
-                                            }
-                                        });
+                .addOnSuccessListener(FirestoreUsage.reads())
+                .addOnSuccessListener(page -> {
+                    if (page.isEmpty()) {
+                        onDone.run();
+                        return;
+                    }
 
-                            })
+                    WriteBatch batch = db.batch();
+                    for (DocumentSnapshot doc : page.getDocuments()) {
+                        batch.delete(doc.getReference());
+                    }
+                    batch.commit()
+                            .addOnSuccessListener(FirestoreUsage.writes(page.size()))
+                            .addOnSuccessListener(aVoid -> deleteNotificationPages(userId, onDone, callback))
                             .addOnFailureListener(e -> {
-                                if (callback != null) {
-                                    callback.onFailure(e);
-                                }
+                                if (callback != null) callback.onFailure(e);
                             });
+                })
+                .addOnFailureListener(e -> {
+                    if (callback != null) callback.onFailure(e);
+                });
+    }
+
+    /**
+     * Deletes the user's entrant records one page per batch until none are left.
+     * Each batch also removes the user from the affected events and decrements
+     * their counters, so counters are adjusted exactly once per deleted entrant.
+     */
+    private void deleteEntrantPages(String userId, Runnable onDone, RepositoryCallback<Void> callback) {
+        db.collection("entrants")
+                .whereEqualTo("userId", userId)
+                .limit(ENTRANT_PAGE_SIZE)
+                .get()
+                .addOnSuccessListener(FirestoreUsage.reads())
+                .addOnSuccessListener(page -> {
+                    if (page.isEmpty()) {
+                        onDone.run();
+                        return;
+                    }
+
+                    // Track how many WAITING / ENROLLED entrants are removed per event
+                    Map<String, Integer> waitingCountsByEvent = new HashMap<>();
+                    Map<String, Integer> enrolledCountsByEvent = new HashMap<>();
+                    Set<String> affectedEventIds = new HashSet<>();
+                    for (DocumentSnapshot doc : page.getDocuments()) {
+                        String eventId = doc.getString("eventId");
+                        if (eventId == null || eventId.isEmpty()) continue;
+                        affectedEventIds.add(eventId);
+
+                        String status = doc.getString("status");
+                        if ("WAITING".equals(status)) {
+                            waitingCountsByEvent.merge(eventId, 1, Integer::sum);
+                        } else if ("ENROLLED".equals(status)) {
+                            enrolledCountsByEvent.merge(eventId, 1, Integer::sum);
+                        }
+                    }
 
+                    // Events may have been deleted already; updating them would fail the whole batch
+                    findExistingEvents(affectedEventIds, existingEventIds -> {
+                        WriteBatch batch = db.batch();
+                        int writes = 0;
+                        for (DocumentSnapshot doc : page.getDocuments()) {
+                            batch.delete(doc.getReference());
+                            writes++;
+                            if (existingEventIds.contains(doc.getString("eventId"))) {
+                                writes += GeoBuckets.move(batch, db, doc, null);
+                            }
+                        }
+
+                        for (String eventId : existingEventIds) {
+                            Map<String, Object> eventUpdates = new HashMap<>();
+                            eventUpdates.put("waitingList", FieldValue.arrayRemove(userId));
+
+                            Integer waitingRemoved = waitingCountsByEvent.get(eventId);
+                            if (waitingRemoved != null) {
+                                eventUpdates.put("currentWaitingCount", FieldValue.increment(-waitingRemoved));
+                                EventSummaries.merge(batch, db, eventId, "currentWaitingCount",
+                                        FieldValue.increment(-waitingRemoved));
+                                writes++;
+                            }
+                            Integer enrolledRemoved = enrolledCountsByEvent.get(eventId);
+                            if (enrolledRemoved != null) {
+                                eventUpdates.put("currentEnrolled", FieldValue.increment(-enrolledRemoved));
+                            }
+
+                            batch.update(db.collection("events").document(eventId), eventUpdates);
+                            writes++;
+                        }
+
+                        batch.commit()
+                                .addOnSuccessListener(FirestoreUsage.writes(writes))
+                                .addOnSuccessListener(aVoid -> deleteEntrantPages(userId, onDone, callback))
+                                .addOnFailureListener(e -> {
+                                    if (callback != null) callback.onFailure(e);
+                                });
+                    }, callback);
                 })
                 .addOnFailureListener(e -> {
-                    if (callback != null) {
-                        callback.onFailure(e);
+                    if (callback != null) callback.onFailure(e);
+                });
+    }
+
+    /**
+     * Looks up which of the given event ids still exist, using document-id "in" queries.
+     */
+    private void findExistingEvents(Set<String> eventIds, Consumer<Set<String>> onResult,
+                                    RepositoryCallback<Void> callback) {
+        if (eventIds.isEmpty()) {
+            onResult.accept(new HashSet<>());
+            return;
+        }
+
+        List<String> ids = new ArrayList<>(eventIds);
+        List<Task<QuerySnapshot>> lookups = new ArrayList<>();
+        for (List<String> chunk : FirestoreLimits.inQueryChunks(ids)) {
+            lookups.add(db.collection("events")
+                    .whereIn(FieldPath.documentId(), chunk)
+                    .get()
+                    .addOnSuccessListener(FirestoreUsage.reads()));
+        }
+
+        Tasks.whenAllSuccess(lookups)
+                .addOnSuccessListener(results -> {
+                    Set<String> existing = new HashSet<>();
+                    for (Object result : results) {
+                        for (DocumentSnapshot doc : ((QuerySnapshot) result).getDocuments()) {
+                            existing.add(doc.getId());
+                        }
                     }
+                    onResult.accept(existing);
+                })
+                .addOnFailureListener(e -> {
+                    if (callback != null) callback.onFailure(e);
                 });
     }
 
     /**
-     * Exports the given user's data as a JSON string.
+     * SharedPreferences holding one entry per unfinished deactivation: user id to phase.
+     */
+    private SharedPreferences deactivationPrefs() {
+        return storage.getApp().getApplicationContext()
+                .getSharedPreferences(DEACTIVATION_PREFS, Context.MODE_PRIVATE);
+    }
+
+    private void saveDeactivationPhase(String userId, String phase) {
+        deactivationPrefs().edit().putString(userId, phase).apply();
+    }
+
+    /**
+     * Streams everything stored about the user to {@code out} as JSON: the profile
+     * document, every entrant record and every notification. Collections are read
+     * page by page on a background thread and written as they arrive, so memory
+     * use does not grow with the size of the history.
      *
      * @param userId user to export
-     * @param callback callback with JSON string or error
+     * @param out destination stream, closed when the export ends
+     * @param callback callback on the main thread with the number of exported documents or error
      */
     @Override
-    public void exportUserData(String userId, RepositoryCallback<String> callback) {
-        db.collection("users").document(userId)
-                .get()
-                .addOnSuccessListener(doc -> {
-                    if (doc.exists()) {
-                        User user = doc.toObject(User.class);
-                        String jsonData = userToJson(user);
-                        if (callback != null) callback.onSuccess(jsonData);
-                    } else {
-                        if (callback != null) callback.onFailure(new Exception("User not found"));
-                    }
-                })
-                .addOnFailureListener(e -> {
+    public void exportUserData(String userId, OutputStream out, RepositoryCallback<Integer> callback) {
+        Handler mainHandler = new Handler(Looper.getMainLooper());
+
+        AppExecutors.io().execute(() -> {
+            try (JsonWriter writer = new JsonWriter(
+                    new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)))) {
+                writer.setIndent("  ");
+
+                DocumentSnapshot profile = Tasks.await(db.collection("users").document(userId).get()
+                        .addOnSuccessListener(FirestoreUsage.reads()));
+                if (!profile.exists()) {
+                    throw new Exception("User not found");
+                }
+
+                writer.beginObject();
+                writer.name("exportedAt").value(System.currentTimeMillis());
+                writer.name("profile");
+                FirestoreJson.writeDocument(writer, profile.getId(), profile.getData());
+
+                int count = 1;
+                writer.name("entrants");
+                count += exportCollection(writer, db.collection("entrants").whereEqualTo("userId", userId));
+                writer.name("notifications");
+                count += exportCollection(writer, db.collection("notifications").whereEqualTo("userId", userId));
+                writer.endObject();
+                writer.flush();
+
+                int total = count;
+                mainHandler.post(() -> {
+                    if (callback != null) callback.onSuccess(total);
+                });
+            } catch (Exception e) {
+                mainHandler.post(() -> {
                     if (callback != null) callback.onFailure(e);
                 });
+            }
+        });
     }
 
     /**
-     * Helper that formats a User into a basic JSON string.
+     * Writes every document matched by the query as a JSON array, one page at a time.
+     * Must be called off the main thread.
      *
-     * @param user User model to export
-     * @return JSON representation of the user
+     * @return number of documents written
      */
-    private String userToJson(User user) {
-        return "{\n" +
-                "  \"id\": \"" + user.getId() + "\",\n" +
-                "  \"name\": \"" + user.getName() + "\",\n" +
-                "  \"email\": \"" + user.getEmail() + "\",\n" +
-                "  \"phone\": \"" + user.getPhone() + "\",\n" +
-                "  \"role\": \"" + user.getRole() + "\"\n" +
-                "}";
+    private int exportCollection(JsonWriter writer, Query query) throws Exception {
+        int count = 0;
+        DocumentSnapshot last = null;
+        writer.beginArray();
+        while (true) {
+            Query page = query.limit(EXPORT_PAGE_SIZE);
+            if (last != null) {
+                page = page.startAfter(last);
+            }
+
+            List<DocumentSnapshot> docs = Tasks.await(page.get()
+                    .addOnSuccessListener(FirestoreUsage.reads())).getDocuments();
+            for (DocumentSnapshot doc : docs) {
+                FirestoreJson.writeDocument(writer, doc.getId(), doc.getData());
+            }
+            count += docs.size();
+            if (docs.size() < EXPORT_PAGE_SIZE) break;
+            last = docs.get(docs.size() - 1);
+        }
+        writer.endArray();
+        return count;
     }
 }
@@ -0,0 +1,33 @@
+package com.example.lotterysystemproject.firebasemanager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Limits Firestore puts on a single request, shared by every repository that
+ * splits its writes or "in" filters into chunks.
+ */
+final class FirestoreLimits {
+
+    /** Firestore allows at most 500 writes per batch. */
+    static final int MAX_BATCH_WRITES = 500;
+    /** Firestore allows at most 30 values in an "in" filter. */
+    static final int IN_QUERY_LIMIT = 30;
+
+    /** Private constructor to prevent instantiation. */
+    private FirestoreLimits() {}
+
+    /**
+     * Splits values into consecutive chunks small enough for one "in" filter each.
+     *
+     * @param values values to filter on
+     * @return views of {@code values}, at most {@link #IN_QUERY_LIMIT} long
+     */
+    static <T> List<List<T>> inQueryChunks(List<T> values) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int i = 0; i < values.size(); i += IN_QUERY_LIMIT) {
+            chunks.add(values.subList(i, Math.min(i + IN_QUERY_LIMIT, values.size())));
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,426 @@
+package com.example.lotterysystemproject.firebasemanager;
+
+import android.app.Activity;
+import android.app.Application;
+import android.content.pm.ApplicationInfo;
+import android.os.Bundle;
+import android.util.Log;
+import android.widget.Toast;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.fragment.app.Fragment;
+import androidx.fragment.app.FragmentActivity;
+import androidx.fragment.app.FragmentManager;
+
+import com.example.lotterysystemproject.utils.AppExecutors;
+import com.google.android.gms.tasks.OnSuccessListener;
+import com.google.firebase.firestore.DocumentChange;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.QuerySnapshot;
+
+import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Counts Firestore document reads and writes per screen, per app session.
+ * <p>
+ * The current screen is the resumed activity, or {@code Activity/Fragment} while one
+ * of the app's fragments is showing. One-shot reads are attributed to the screen that
+ * started them and counted when they succeed: one per document, one for a query that
+ * matches nothing, and none when served from the local cache. Snapshot listeners are
+ * attributed to the screen or feature that attached them and count only the documents
+ * the server sent in each snapshot, which matches how Firestore bills listeners.
+ * Writes are counted per document when they succeed, so a batch counts every
+ * set, update and delete in it.
+ * </p>
+ * A session lasts from the first started activity to the last stopped one. In
+ * debuggable builds a screen that reads more than the read budget within a session
+ * is logged and shown in a toast once. All counting happens on the main thread.
+ */
+public final class FirestoreUsage {
+
+    private static final String TAG = "FirestoreUsage";
+    private static final String NO_SCREEN = "(no screen)";
+    private static final int MAX_PAST_SESSIONS = 10;
+    /** Fragments from libraries, such as NavHostFragment or SupportMapFragment, are not screens. */
+    private static final String APP_PACKAGE = FirestoreUsage.class.getName()
+            .substring(0, FirestoreUsage.class.getName().indexOf(".firebasemanager.") + 1);
+
+    private static Application app;
+    private static boolean flagOverBudget;
+    private static int readBudget;
+
+    private static String activityScreen = NO_SCREEN;
+    private static String currentScreen = NO_SCREEN;
+    private static int startedActivities;
+
+    private static int sessionNumber = 1;
+    private static long sessionStartMs = System.currentTimeMillis();
+    private static Map<String, Counters> screens = new TreeMap<>();
+    private static final Deque<SessionStats> pastSessions = new ArrayDeque<>();
+
+    /**
+     * Reads and writes attributed to one screen or feature within a session.
+     */
+    public static final class ScreenStats {
+        public final String name;
+        public final long reads;
+        public final long listenerReads;
+        public final long writes;
+        public final boolean overBudget;
+
+        ScreenStats(String name, Counters c) {
+            this.name = name;
+            this.reads = c.reads;
+            this.listenerReads = c.listenerReads;
+            this.writes = c.writes;
+            this.overBudget = c.flagged;
+        }
+
+        /**
+         * @return one-shot and listener reads together
+         */
+        public long totalReads() {
+            return reads + listenerReads;
+        }
+
+        @Override
+        public String toString() {
+            return name + ": reads=" + totalReads() + " (get=" + reads + " listen=" + listenerReads + ")"
+                    + " writes=" + writes + (overBudget ? " OVER BUDGET" : "");
+        }
+    }
+
+    /**
+     * Totals for one app session.
+     */
+    public static final class SessionStats {
+        public final int number;
+        public final long durationMs;
+        public final long reads;
+        public final long writes;
+        public final List<ScreenStats> screens;
+
+        SessionStats(int number, long durationMs, List<ScreenStats> screens) {
+            long r = 0, w = 0;
+            for (ScreenStats s : screens) {
+                r += s.totalReads();
+                w += s.writes;
+            }
+            this.number = number;
+            this.durationMs = durationMs;
+            this.reads = r;
+            this.writes = w;
+            this.screens = Collections.unmodifiableList(screens);
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "session %d: %.1f min reads=%d writes=%d",
+                    number, durationMs / 60000.0, reads, writes);
+        }
+    }
+
+    private static final class Counters {
+        long reads;
+        long listenerReads;
+        long writes;
+        boolean flagged;
+    }
+
+    /** Private constructor to prevent instantiation. */
+    private FirestoreUsage() {}
+
+    // ===================== SETUP =====================
+
+    /**
+     * Starts following activities and fragments to know the current screen. Safe to
+     * call from every entry activity; only the first call has an effect.
+     *
+     * @param activity the activity being created, which becomes the current screen
+     */
+    public static synchronized void install(Activity activity) {
+        if (app != null) return;
+        app = activity.getApplication();
+        flagOverBudget = (app.getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0;
+        ScreenTracker tracker = new ScreenTracker();
+        app.registerActivityLifecycleCallbacks(tracker);
+        // Its own pre-create callback has already run
+        tracker.onActivityPreCreated(activity, null);
+    }
+
+    /**
+     * Sets how many documents one screen may read per session before it is flagged.
+     * Only debuggable builds flag screens.
+     *
+     * @param budget reads allowed per screen and session; 0 turns flagging off
+     */
+    public static synchronized void setReadBudget(int budget) {
+        readBudget = Math.max(0, budget);
+    }
+
+    /**
+     * @return the read budget per screen and session, or 0 when flagging is off
+     */
+    public static synchronized int getReadBudget() {
+        return readBudget;
+    }
+
+    // ===================== COUNTING =====================
+
+    /**
+     * @return the screen reads started now are attributed to
+     */
+    public static synchronized String currentScreen() {
+        return currentScreen;
+    }
+
+    /**
+     * Returns a success listener for a one-shot {@code get()} that counts the documents
+     * it read against the current screen. Add it where the read is started:
+     * {@code query.get().addOnSuccessListener(FirestoreUsage.reads())}.
+     */
+    public static OnSuccessListener<Object> reads() {
+        String screen = currentScreen();
+        return result -> {
+            long count = 0;
+            if (result instanceof QuerySnapshot) {
+                QuerySnapshot q = (QuerySnapshot) result;
+                if (!q.getMetadata().isFromCache()) count = Math.max(1, q.size());
+            } else if (result instanceof DocumentSnapshot) {
+                if (!((DocumentSnapshot) result).getMetadata().isFromCache()) count = 1;
+            }
+            if (count > 0) add(screen, count, false);
+        };
+    }
+
+    /**
+     * Counts the documents a query listener received from the server in one snapshot.
+     * Snapshots served from the cache and the device's own pending writes cost nothing.
+     *
+     * @param screen   screen or feature that attached the listener
+     * @param snapshot the snapshot delivered, may be null
+     */
+    public static void countSnapshot(String screen, @Nullable QuerySnapshot snapshot) {
+        if (snapshot == null || snapshot.getMetadata().isFromCache()) return;
+        long count = 0;
+        for (DocumentChange change : snapshot.getDocumentChanges()) {
+            if (!change.getDocument().getMetadata().hasPendingWrites()) count++;
+        }
+        if (count > 0) add(screen, count, true);
+    }
+
+    /**
+     * Counts one document delivered to a document listener by the server.
+     *
+     * @param screen   screen or feature that attached the listener
+     * @param snapshot the snapshot delivered, may be null
+     */
+    public static void countSnapshot(String screen, @Nullable DocumentSnapshot snapshot) {
+        if (snapshot == null || snapshot.getMetadata().isFromCache()
+                || snapshot.getMetadata().hasPendingWrites()) return;
+        add(screen, 1, true);
+    }
+
+    /**
+     * Returns a success listener that counts the documents a write changed against the
+     * current screen. Pass the number of operations in a batch, or 1 for a single
+     * document: {@code batch.commit().addOnSuccessListener(FirestoreUsage.writes(ops))}.
+     *
+     * @param docs documents set, updated or deleted by the write
+     */
+    public static OnSuccessListener<Object> writes(int docs) {
+        String screen = currentScreen();
+        return result -> {
+            if (docs <= 0) return;
+            synchronized (FirestoreUsage.class) {
+                counters(screen).writes += docs;
+            }
+        };
+    }
+
+    private static void add(String screen, long count, boolean listener) {
+        String warning = null;
+        synchronized (FirestoreUsage.class) {
+            Counters c = counters(screen);
+            if (listener) c.listenerReads += count;
+            else c.reads += count;
+
+            long total = c.reads + c.listenerReads;
+            if (flagOverBudget && readBudget > 0 && total > readBudget && !c.flagged) {
+                c.flagged = true;
+                warning = screen + " read " + total + " documents this session (budget " + readBudget + ")";
+            }
+        }
+        if (warning != null) {
+            Log.w(TAG, warning);
+            String text = warning;
+            Application context = app;
+            if (context != null) {
+                AppExecutors.mainThread().execute(() -> Toast.makeText(context, text, Toast.LENGTH_LONG).show());
+            }
+        }
+    }
+
+    private static Counters counters(String screen) {
+        Counters c = screens.get(screen);
+        if (c == null) {
+            c = new Counters();
+            screens.put(screen, c);
+        }
+        return c;
+    }
+
+    // ===================== REPORTING =====================
+
+    /**
+     * @return counters of the session in progress
+     */
+    public static synchronized SessionStats currentSession() {
+        return snapshotSession();
+    }
+
+    /**
+     * @return up to the last ten finished sessions, newest first
+     */
+    public static synchronized List<SessionStats> pastSessions() {
+        return new ArrayList<>(pastSessions);
+    }
+
+    /**
+     * @return the current session per screen followed by past session totals
+     */
+    public static synchronized String report() {
+        StringBuilder out = new StringBuilder();
+        SessionStats session = snapshotSession();
+        out.append(session).append(readBudget > 0 ? " budget=" + readBudget : "").append('\n');
+        for (ScreenStats s : session.screens) out.append("  ").append(s).append('\n');
+        for (SessionStats past : pastSessions) out.append(past).append('\n');
+        return out.toString();
+    }
+
+    private static SessionStats snapshotSession() {
+        List<ScreenStats> list = new ArrayList<>();
+        for (Map.Entry<String, Counters> e : screens.entrySet()) {
+            list.add(new ScreenStats(e.getKey(), e.getValue()));
+        }
+        return new SessionStats(sessionNumber, System.currentTimeMillis() - sessionStartMs, list);
+    }
+
+    private static void endSession() {
+        SessionStats finished = snapshotSession();
+        Log.i(TAG, finished.toString());
+        pastSessions.addFirst(finished);
+        while (pastSessions.size() > MAX_PAST_SESSIONS) pastSessions.removeLast();
+
+        sessionNumber++;
+        sessionStartMs = System.currentTimeMillis();
+        screens = new TreeMap<>();
+    }
+
+    // ===================== SCREEN TRACKING =====================
+
+    private static String name(Fragment fragment) {
+        return fragment.requireActivity().getClass().getSimpleName() + "/" + fragment.getClass().getSimpleName();
+    }
+
+    private static boolean isAppFragment(Fragment fragment) {
+        return fragment.getClass().getName().startsWith(APP_PACKAGE);
+    }
+
+    /**
+     * Follows the activity and fragment lifecycles. Screens switch before
+     * {@code onViewCreated} and before LiveData observers start, so reads and
+     * listeners set up there are attributed to the screen being shown.
+     */
+    private static final class ScreenTracker extends FragmentManager.FragmentLifecycleCallbacks
+            implements Application.ActivityLifecycleCallbacks {
+
+        private void showActivity(Activity activity) {
+            synchronized (FirestoreUsage.class) {
+                activityScreen = activity.getClass().getSimpleName();
+                currentScreen = activityScreen;
+            }
+        }
+
+        private void showFragment(Fragment f) {
+            if (!isAppFragment(f)) return;
+            synchronized (FirestoreUsage.class) {
+                currentScreen = name(f);
+            }
+        }
+
+        @Override
+        public void onActivityPreCreated(@NonNull Activity activity, @Nullable Bundle savedInstanceState) {
+            showActivity(activity);
+            if (activity instanceof FragmentActivity) {
+                ((FragmentActivity) activity).getSupportFragmentManager()
+                        .registerFragmentLifecycleCallbacks(this, true);
+            }
+        }
+
+        @Override
+        public void onActivityCreated(@NonNull Activity activity, @Nullable Bundle savedInstanceState) {}
+
+        @Override
+        public void onActivityStarted(@NonNull Activity activity) {
+            synchronized (FirestoreUsage.class) {
+                startedActivities++;
+            }
+            showActivity(activity);
+        }
+
+        @Override
+        public void onActivityResumed(@NonNull Activity activity) {
+            showActivity(activity);
+        }
+
+        @Override
+        public void onActivityPaused(@NonNull Activity activity) {}
+
+        @Override
+        public void onActivityStopped(@NonNull Activity activity) {
+            synchronized (FirestoreUsage.class) {
+                // A rotation stops and restarts the activity without leaving the app
+                if (--startedActivities == 0 && !activity.isChangingConfigurations()) {
+                    endSession();
+                }
+            }
+        }
+
+        @Override
+        public void onActivitySaveInstanceState(@NonNull Activity activity, @NonNull Bundle outState) {}
+
+        @Override
+        public void onActivityDestroyed(@NonNull Activity activity) {}
+
+        @Override
+        public void onFragmentCreated(@NonNull FragmentManager fm, @NonNull Fragment f,
+                                      @Nullable Bundle savedInstanceState) {
+            showFragment(f);
+        }
+
+        @Override
+        public void onFragmentResumed(@NonNull FragmentManager fm, @NonNull Fragment f) {
+            showFragment(f);
+        }
+
+        @Override
+        public void onFragmentPaused(@NonNull FragmentManager fm, @NonNull Fragment f) {
+            if (!isAppFragment(f)) return;
+            synchronized (FirestoreUsage.class) {
+                if (!currentScreen.equals(name(f))) return;
+                Fragment parent = f.getParentFragment();
+                currentScreen = parent != null && parent.isResumed() && isAppFragment(parent)
+                        ? name(parent) : activityScreen;
+            }
+        }
+    }
+}
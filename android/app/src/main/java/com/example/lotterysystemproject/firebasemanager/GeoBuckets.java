@@ -0,0 +1,364 @@
+package com.example.lotterysystemproject.firebasemanager;
+
+import androidx.annotation.Nullable;
+
+import com.example.lotterysystemproject.models.GeoBucket;
+import com.example.lotterysystemproject.utils.Geohash;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Maintains per-event counts of entrant locations in geohash cells, stored in
+ * {@code events/{eventId}/geo_buckets/{geohash}} as {@code {geohash, precision,
+ * counts: {STATUS: n}, total}}.
+ * <p>
+ * Every entrant status or location change adds increments for the cells that
+ * contain the entrant, at each of {@link #PRECISIONS}, to the batch that changes
+ * the entrant. A viewport query then picks the finest precision that still
+ * covers the viewport with at most {@link #MAX_CELLS} cells.
+ * </p>
+ * Entrants who joined before the counts existed are counted once by {@link #rebuildOnce}.
+ */
+public final class GeoBuckets {
+
+    static final String COLLECTION = "geo_buckets";
+    /** Cell sizes kept for every entrant, from about 156 km down to about 1.2 km. */
+    static final int[] PRECISIONS = {3, 4, 5, 6};
+    /** Viewport queries never read more cells than this. */
+    static final int MAX_CELLS = 120;
+    /** Bumped when the stored counts must be rebuilt from the entrants. */
+    static final int VERSION = 1;
+
+    private static final String TAG = "GeoBuckets";
+    private static final int REBUILD_EVENT_PAGE_SIZE = 50;
+    private static final int REBUILD_ENTRANT_PAGE_SIZE = 500;
+
+    private static final PagedMigration rebuild =
+            new PagedMigration(TAG, COLLECTION, VERSION, "events", REBUILD_EVENT_PAGE_SIZE);
+
+    /** Private constructor to prevent instantiation. */
+    private GeoBuckets() {}
+
+    static CollectionReference collection(FirebaseFirestore db, String eventId) {
+        return db.collection("events").document(eventId).collection(COLLECTION);
+    }
+
+    // ===================== WRITES =====================
+
+    /**
+     * Moves one entrant between statuses in the cells containing its location.
+     * Does nothing for entrants without a location.
+     *
+     * @param batch   batch carrying the entrant update
+     * @param eventId the entrant's event document ID
+     * @param lat     the entrant's latitude, 0 if unknown
+     * @param lng     the entrant's longitude, 0 if unknown
+     * @param from    previous status name, or null when the entrant enters the counts
+     * @param to      new status name, or null when the entrant leaves the counts
+     * @return the number of writes added to the batch
+     */
+    static int move(WriteBatch batch, FirebaseFirestore db, @Nullable String eventId,
+                    double lat, double lng, @Nullable String from, @Nullable String to) {
+        if (eventId == null || (lat == 0.0 && lng == 0.0)) return 0;
+        if (from == null && to == null) return 0;
+        if (from != null && from.equals(to)) return 0;
+
+        String hash = Geohash.encode(lat, lng, PRECISIONS[PRECISIONS.length - 1]);
+        for (int precision : PRECISIONS) {
+            String cell = hash.substring(0, precision);
+
+            Map<String, Object> counts = new HashMap<>();
+            if (from != null) counts.put(from, FieldValue.increment(-1));
+            if (to != null) counts.put(to, FieldValue.increment(1));
+
+            Map<String, Object> data = new HashMap<>();
+            data.put("geohash", cell);
+            data.put("precision", precision);
+            data.put("counts", counts);
+            if (from == null) data.put("total", FieldValue.increment(1));
+            if (to == null) data.put("total", FieldValue.increment(-1));
+
+            batch.set(collection(db, eventId).document(cell), data, SetOptions.merge());
+        }
+        return PRECISIONS.length;
+    }
+
+    /**
+     * Moves the entrant described by a document to a new status, using its stored
+     * event, location and current status.
+     *
+     * @param entrantDoc the entrant as last read
+     * @param to         new status name, or null when the entrant is deleted
+     * @return the number of writes added to the batch
+     */
+    static int move(WriteBatch batch, FirebaseFirestore db, DocumentSnapshot entrantDoc, @Nullable String to) {
+        Double lat = entrantDoc.getDouble("latitude");
+        Double lng = entrantDoc.getDouble("longitude");
+        return move(batch, db, entrantDoc.getString("eventId"),
+                lat != null ? lat : 0.0, lng != null ? lng : 0.0,
+                entrantDoc.getString("status"), to);
+    }
+
+    /**
+     * Stores a new location for an entrant, moving it out of the cells of its old location.
+     *
+     * @param entrantDoc the entrant as last read, holding the old location and status
+     * @param lat        new latitude
+     * @param lng        new longitude
+     * @return task completing when the batch is committed
+     */
+    public static Task<Void> updateLocation(FirebaseFirestore db, DocumentSnapshot entrantDoc,
+                                            double lat, double lng) {
+        WriteBatch batch = db.batch();
+        batch.update(entrantDoc.getReference(), "latitude", lat, "longitude", lng);
+        int writes = 1;
+
+        String status = entrantDoc.getString("status");
+        if (status != null) {
+            writes += move(batch, db, entrantDoc, null);
+            writes += move(batch, db, entrantDoc.getString("eventId"), lat, lng, null, status);
+        }
+        return batch.commit().addOnSuccessListener(FirestoreUsage.writes(writes));
+    }
+
+    /**
+     * Changes an entrant's status and its location counts together. The entrant is
+     * read first, from the local cache when offline, to learn its previous status.
+     *
+     * @param entrantId entrant document ID
+     * @param status    new status name
+     * @param timestamp status change time in milliseconds
+     * @return task completing when the batch is committed
+     */
+    public static Task<Void> updateStatus(FirebaseFirestore db, String entrantId, String status, long timestamp) {
+        return db.collection("entrants").document(entrantId).get()
+                .addOnSuccessListener(FirestoreUsage.reads())
+                .continueWithTask(read -> {
+                    DocumentSnapshot doc = read.getResult();
+                    WriteBatch batch = db.batch();
+                    batch.update(doc.getReference(), "status", status, "statusTimestamp", timestamp);
+                    int writes = 1 + move(batch, db, doc, status);
+                    return batch.commit().addOnSuccessListener(FirestoreUsage.writes(writes));
+                });
+    }
+
+    // ===================== READS =====================
+
+    /**
+     * Picks the finest precision that covers a viewport with at most {@link #MAX_CELLS} cells.
+     */
+    static int precisionFor(double south, double west, double north, double east) {
+        for (int i = PRECISIONS.length - 1; i > 0; i--) {
+            if (Geohash.estimateCells(south, west, north, east, PRECISIONS[i]) <= MAX_CELLS) {
+                return PRECISIONS[i];
+            }
+        }
+        return PRECISIONS[0];
+    }
+
+    /**
+     * Loads the non-empty cells of an event inside a viewport, with document-id
+     * "in" queries of 30 cells each.
+     *
+     * @param eventId   event document ID
+     * @param onSuccess receives the cells holding at least one entrant
+     * @param onError   receives the first read failure
+     */
+    static void query(FirebaseFirestore db, String eventId,
+                      double south, double west, double north, double east,
+                      Consumer<List<GeoBucket>> onSuccess, Consumer<Exception> onError) {
+        int precision = precisionFor(south, west, north, east);
+        List<String> cells = Geohash.cover(south, west, north, east, precision);
+        if (cells.size() > MAX_CELLS) {
+            // Only a viewport wider than the coarsest cells gets here; keep the read bounded
+            cells = cells.subList(0, MAX_CELLS);
+        }
+
+        List<Task<QuerySnapshot>> lookups = new ArrayList<>();
+        for (List<String> chunk : FirestoreLimits.inQueryChunks(cells)) {
+            lookups.add(SingleFlight.get(collection(db, eventId).whereIn(FieldPath.documentId(), chunk)));
+        }
+
+        Tasks.whenAllSuccess(lookups)
+                .addOnSuccessListener(results -> {
+                    List<GeoBucket> buckets = new ArrayList<>();
+                    for (Object result : results) {
+                        for (DocumentSnapshot doc : ((QuerySnapshot) result).getDocuments()) {
+                            GeoBucket bucket = doc.toObject(GeoBucket.class);
+                            if (bucket == null || bucket.getTotal() <= 0) continue;
+                            bucket.setGeohash(doc.getId());
+                            buckets.add(bucket);
+                        }
+                    }
+                    onSuccess.accept(buckets);
+                })
+                .addOnFailureListener(onError::accept);
+    }
+
+    /**
+     * Loads every non-empty cell of an event at the coarsest precision. Entrants are
+     * rarely spread over more than a few such cells, so this gives the located
+     * entrant count, the status counts and the rough extent in a handful of reads.
+     *
+     * @param eventId   event document ID
+     * @param onSuccess receives the cells holding at least one entrant
+     * @param onError   receives the read failure
+     */
+    static void overview(FirebaseFirestore db, String eventId,
+                         Consumer<List<GeoBucket>> onSuccess, Consumer<Exception> onError) {
+        SingleFlight.get(collection(db, eventId).whereEqualTo("precision", PRECISIONS[0]))
+                .addOnSuccessListener(snapshot -> {
+                    List<GeoBucket> buckets = new ArrayList<>();
+                    for (DocumentSnapshot doc : snapshot.getDocuments()) {
+                        GeoBucket bucket = doc.toObject(GeoBucket.class);
+                        if (bucket == null || bucket.getTotal() <= 0) continue;
+                        bucket.setGeohash(doc.getId());
+                        buckets.add(bucket);
+                    }
+                    onSuccess.accept(buckets);
+                })
+                .addOnFailureListener(onError::accept);
+    }
+
+    // ===================== REBUILD =====================
+
+    /**
+     * Recounts the cells of every event from its entrants, once per process. A marker
+     * in {@code migrations/geo_buckets} records the finished version, so after the
+     * first complete run this costs a single document read.
+     * <p>
+     * Each event's cells are overwritten with fresh counts, so an interrupted run can
+     * simply start again. A status change committed while its event is being recounted
+     * may be missed; bumping {@link #VERSION} runs the recount once more.
+     * </p>
+     *
+     * @param db Firestore instance
+     */
+    static void rebuildOnce(FirebaseFirestore db) {
+        rebuild.runOnce(db, () -> (events, onDone) -> rebuildEvents(db, events, 0, onDone));
+    }
+
+    /**
+     * Recounts a page of events one at a time.
+     */
+    private static void rebuildEvents(FirebaseFirestore db, List<DocumentSnapshot> events, int index,
+                                      Runnable onDone) {
+        if (index == events.size()) {
+            onDone.run();
+            return;
+        }
+        DocumentSnapshot event = events.get(index);
+        Runnable next = () -> rebuildEvents(db, events, index + 1, onDone);
+        // Events being cascade-deleted must not get their cells back
+        if (Boolean.TRUE.equals(event.getBoolean("deleting"))) {
+            next.run();
+            return;
+        }
+        countEntrants(db, event.getId(), null, new HashMap<>(),
+                cells -> writeCells(db, event.getId(), cells, next));
+    }
+
+    /**
+     * Adds up the located entrants of an event, one page at a time.
+     *
+     * @param cells geohash cell to entrants per status, filled in as pages arrive
+     */
+    private static void countEntrants(FirebaseFirestore db, String eventId, @Nullable DocumentSnapshot after,
+                                      Map<String, Map<String, Long>> cells,
+                                      Consumer<Map<String, Map<String, Long>>> onDone) {
+        Query query = db.collection("entrants")
+                .whereEqualTo("eventId", eventId)
+                .orderBy(FieldPath.documentId())
+                .limit(REBUILD_ENTRANT_PAGE_SIZE);
+        if (after != null) query = query.startAfter(after);
+
+        query.get()
+                .addOnSuccessListener(FirestoreUsage.reads())
+                .addOnSuccessListener(page -> {
+                    List<DocumentSnapshot> docs = page.getDocuments();
+                    for (DocumentSnapshot doc : docs) {
+                        Double lat = doc.getDouble("latitude");
+                        Double lng = doc.getDouble("longitude");
+                        String status = doc.getString("status");
+                        if (lat == null || lng == null || status == null) continue;
+                        if (lat == 0.0 && lng == 0.0) continue;
+
+                        String hash = Geohash.encode(lat, lng, PRECISIONS[PRECISIONS.length - 1]);
+                        for (int precision : PRECISIONS) {
+                            cells.computeIfAbsent(hash.substring(0, precision), k -> new HashMap<>())
+                                    .merge(status, 1L, Long::sum);
+                        }
+                    }
+                    if (docs.size() == REBUILD_ENTRANT_PAGE_SIZE) {
+                        countEntrants(db, eventId, docs.get(docs.size() - 1), cells, onDone);
+                    } else {
+                        onDone.accept(cells);
+                    }
+                })
+                .addOnFailureListener(e -> rebuild.fail("Location count entrant query failed", e));
+    }
+
+    /**
+     * Replaces an event's cells with the given counts and deletes cells no entrant is in.
+     */
+    private static void writeCells(FirebaseFirestore db, String eventId,
+                                   Map<String, Map<String, Long>> cells, Runnable onDone) {
+        collection(db, eventId).get()
+                .addOnSuccessListener(FirestoreUsage.reads())
+                .addOnSuccessListener(existing -> {
+                    List<Task<Void>> commits = new ArrayList<>();
+                    WriteBatch batch = db.batch();
+                    int writes = 0;
+
+                    for (Map.Entry<String, Map<String, Long>> cell : cells.entrySet()) {
+                        long total = 0;
+                        for (long count : cell.getValue().values()) total += count;
+
+                        Map<String, Object> data = new HashMap<>();
+                        data.put("geohash", cell.getKey());
+                        data.put("precision", cell.getKey().length());
+                        data.put("counts", cell.getValue());
+                        data.put("total", total);
+                        batch.set(collection(db, eventId).document(cell.getKey()), data);
+
+                        if (++writes == FirestoreLimits.MAX_BATCH_WRITES) {
+                            commits.add(batch.commit().addOnSuccessListener(FirestoreUsage.writes(writes)));
+                            batch = db.batch();
+                            writes = 0;
+                        }
+                    }
+                    for (DocumentSnapshot doc : existing.getDocuments()) {
+                        if (cells.containsKey(doc.getId())) continue;
+                        batch.delete(doc.getReference());
+                        if (++writes == FirestoreLimits.MAX_BATCH_WRITES) {
+                            commits.add(batch.commit().addOnSuccessListener(FirestoreUsage.writes(writes)));
+                            batch = db.batch();
+                            writes = 0;
+                        }
+                    }
+                    if (writes > 0) {
+                        commits.add(batch.commit().addOnSuccessListener(FirestoreUsage.writes(writes)));
+                    }
+
+                    Tasks.whenAll(commits)
+                            .addOnSuccessListener(v -> onDone.run())
+                            .addOnFailureListener(e -> rebuild.fail("Location count write failed", e));
+                })
+                .addOnFailureListener(e -> rebuild.fail("Location count cell query failed", e));
+    }
+}
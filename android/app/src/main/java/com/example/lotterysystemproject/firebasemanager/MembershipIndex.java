@@ -0,0 +1,303 @@
+package com.example.lotterysystemproject.firebasemanager;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+import androidx.lifecycle.LiveData;
+
+import com.example.lotterysystemproject.models.Entrant;
+import com.example.lotterysystemproject.models.Event;
+import com.example.lotterysystemproject.utils.ConflatedLiveData;
+import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-user index of event memberships stored in {@code users/{userId}/memberships/{eventId}}
+ * as {@code {status, updatedAt}}.
+ * <p>
+ * Repositories write an index entry next to every entrant status change. The
+ * device's own index is loaded once into a hash map and kept live with a
+ * snapshot listener, so event cards and the details screen can tell whether the
+ * user joined an event without scanning the lists embedded in each Event.
+ * Entrant records created before the index existed are copied into it once per
+ * device.
+ * </p>
+ * All instance methods must be called on the main thread.
+ */
+public final class MembershipIndex {
+
+    private static final String TAG = "MembershipIndex";
+    private static final String PREFS = "MembershipPrefs";
+    private static final String KEY_BACKFILLED = "backfilled_";
+
+    private static volatile MembershipIndex instance;
+
+    private final FirebaseFirestore db;
+    private final SharedPreferences prefs;
+    private final ConflatedLiveData<Map<String, Entrant.Status>> memberships =
+            new ConflatedLiveData<>("memberships");
+
+    private String userId;
+    /** User whose index {@link #current} holds; null until the listener's first snapshot. */
+    private String loadedUserId;
+    private ListenerRegistration registration;
+    private Map<String, Entrant.Status> current = Collections.emptyMap();
+
+    private MembershipIndex(Context context) {
+        db = FirebaseFirestore.getInstance();
+        prefs = context.getApplicationContext().getSharedPreferences(PREFS, Context.MODE_PRIVATE);
+    }
+
+    /**
+     * Returns the process-wide membership index.
+     *
+     * @param context any context; only the application context is retained
+     * @return shared MembershipIndex
+     */
+    public static MembershipIndex getInstance(Context context) {
+        if (instance == null) {
+            synchronized (MembershipIndex.class) {
+                if (instance == null) {
+                    instance = new MembershipIndex(context);
+                }
+            }
+        }
+        return instance;
+    }
+
+    // ===================== WRITES =====================
+
+    /**
+     * Gets the index entry of a user for an event.
+     */
+    static DocumentReference ref(FirebaseFirestore db, String userId, String eventId) {
+        return collection(db, userId).document(eventId);
+    }
+
+    /**
+     * Gets all index entries of a user, for deleting them with the user.
+     */
+    static CollectionReference collection(FirebaseFirestore db, String userId) {
+        return db.collection("users").document(userId).collection("memberships");
+    }
+
+    /**
+     * Gets the index entry belonging to an entrant record, for deleting it with the
+     * record. Returns null for records without a user or event.
+     */
+    @Nullable
+    static DocumentReference refFor(FirebaseFirestore db, DocumentSnapshot entrantDoc) {
+        String userId = entrantDoc.getString("userId");
+        String eventId = entrantDoc.getString("eventId");
+        if (userId == null || userId.isEmpty() || eventId == null || eventId.isEmpty()) return null;
+        return ref(db, userId, eventId);
+    }
+
+    private static Map<String, Object> entry(String status, long timestamp) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("status", status);
+        data.put("updatedAt", timestamp);
+        return data;
+    }
+
+    /**
+     * Adds an index entry write to a batch that also changes the entrant record.
+     *
+     * @param batch     batch carrying the entrant update
+     * @param userId    the entrant's user ID
+     * @param eventId   the event document ID
+     * @param status    new entrant status name
+     * @param timestamp status change time in milliseconds
+     */
+    static void record(WriteBatch batch, FirebaseFirestore db, String userId, String eventId,
+                       String status, long timestamp) {
+        batch.set(ref(db, userId, eventId), entry(status, timestamp), SetOptions.merge());
+    }
+
+    /**
+     * Writes an index entry on its own, for status changes that are not batched.
+     * A failure is only logged; the entrant record stays authoritative.
+     *
+     * @param userId    the entrant's user ID, ignored if null
+     * @param eventId   the event document ID, ignored if null
+     * @param status    new entrant status name
+     * @param timestamp status change time in milliseconds
+     */
+    public static void record(FirebaseFirestore db, @Nullable String userId, @Nullable String eventId,
+                              String status, long timestamp) {
+        if (userId == null || eventId == null) return;
+        ref(db, userId, eventId)
+                .set(entry(status, timestamp), SetOptions.merge())
+                .addOnSuccessListener(FirestoreUsage.writes(1))
+                .addOnFailureListener(e -> Log.w(TAG, "Failed to index " + userId + " -> " + eventId, e));
+    }
+
+    // ===================== READS =====================
+
+    /**
+     * Starts listening to a user's index. Calling it again for the same user does nothing;
+     * a different user replaces the previous listener.
+     *
+     * @param userId the device's user ID, ignored if null or empty
+     */
+    public void start(@Nullable String userId) {
+        if (userId == null || userId.isEmpty() || userId.equals(this.userId)) return;
+        stop();
+        this.userId = userId;
+
+        registration = collection(db, userId)
+                .addSnapshotListener((snapshot, error) -> {
+                    if (error != null) {
+                        Log.w(TAG, "Membership listener failed", error);
+                        return;
+                    }
+                    if (snapshot == null) return;
+                    FirestoreUsage.countSnapshot(TAG, snapshot);
+
+                    Map<String, Entrant.Status> map = new HashMap<>();
+                    for (DocumentSnapshot doc : snapshot.getDocuments()) {
+                        Entrant.Status status = parseStatus(doc.getString("status"));
+                        if (status != null) map.put(doc.getId(), status);
+                    }
+                    current = map;
+                    loadedUserId = userId;
+                    memberships.offer(map);
+                });
+
+        if (!prefs.getBoolean(KEY_BACKFILLED + userId, false)) {
+            backfill(userId);
+        }
+    }
+
+    /**
+     * Stops listening and forgets the loaded index.
+     */
+    public void stop() {
+        if (registration != null) {
+            registration.remove();
+            registration = null;
+        }
+        userId = null;
+        loadedUserId = null;
+        current = Collections.emptyMap();
+    }
+
+    /**
+     * @return the loaded index (event ID to status), updated on every change
+     */
+    public LiveData<Map<String, Entrant.Status>> getMemberships() {
+        return memberships;
+    }
+
+    /**
+     * Checks whether a user is on an event's waiting list. Answered from the index
+     * when it has been loaded for that user, otherwise from the event's own list.
+     *
+     * @param event  the event to check
+     * @param userId the user to check
+     * @return true if the user is waiting or invited
+     */
+    public boolean isOnWaitingList(Event event, String userId) {
+        if (!isLoadedFor(userId)) return event.isUserOnWaitingList(userId);
+        return isOnWaitingList(event.getId(), userId);
+    }
+
+    /**
+     * Checks whether a user is on an event's waiting list, for screens that only
+     * hold an event summary. Answers false until the index has loaded for that user;
+     * observe {@link #getMemberships()} to refresh once it has.
+     *
+     * @param eventId the event document ID
+     * @param userId  the user to check
+     * @return true if the user is waiting or invited
+     */
+    public boolean isOnWaitingList(String eventId, String userId) {
+        if (!isLoadedFor(userId)) return false;
+        Entrant.Status status = current.get(eventId);
+        return status == Entrant.Status.WAITING || status == Entrant.Status.INVITED;
+    }
+
+    /**
+     * Checks whether a user is a confirmed participant of an event. Answered from
+     * the index when it has been loaded for that user, otherwise from the event.
+     *
+     * @param event  the event to check
+     * @param userId the user to check
+     * @return true if the user is enrolled
+     */
+    public boolean isParticipant(Event event, String userId) {
+        if (!isLoadedFor(userId)) return event.isUserParticipant(userId);
+        return isParticipant(event.getId(), userId);
+    }
+
+    /**
+     * Checks whether a user is a confirmed participant of an event, for screens
+     * that only hold an event summary. Answers false until the index has loaded.
+     *
+     * @param eventId the event document ID
+     * @param userId  the user to check
+     * @return true if the user is enrolled
+     */
+    public boolean isParticipant(String eventId, String userId) {
+        if (!isLoadedFor(userId)) return false;
+        return current.get(eventId) == Entrant.Status.ENROLLED;
+    }
+
+    private boolean isLoadedFor(String userId) {
+        return userId != null && userId.equals(loadedUserId);
+    }
+
+    /**
+     * Copies the user's existing entrant records into the index, once per device.
+     */
+    private void backfill(String userId) {
+        db.collection("entrants")
+                .whereEqualTo("userId", userId)
+                .get()
+                .addOnSuccessListener(FirestoreUsage.reads())
+                .addOnSuccessListener(snapshot -> {
+                    List<DocumentSnapshot> docs = snapshot.getDocuments();
+                    WriteBatch batch = db.batch();
+                    int writes = 0;
+                    for (DocumentSnapshot doc : docs) {
+                        String eventId = doc.getString("eventId");
+                        String status = doc.getString("status");
+                        if (eventId == null || parseStatus(status) == null) continue;
+                        Long ts = doc.getLong("statusTimestamp");
+                        record(batch, db, userId, eventId, status, ts != null ? ts : 0L);
+                        if (++writes == FirestoreLimits.MAX_BATCH_WRITES) {
+                            batch.commit().addOnSuccessListener(FirestoreUsage.writes(writes));
+                            batch = db.batch();
+                            writes = 0;
+                        }
+                    }
+                    batch.commit()
+                            .addOnSuccessListener(FirestoreUsage.writes(writes))
+                            .addOnSuccessListener(v -> prefs.edit().putBoolean(KEY_BACKFILLED + userId, true).apply())
+                            .addOnFailureListener(e -> Log.w(TAG, "Membership backfill failed", e));
+                })
+                .addOnFailureListener(e -> Log.w(TAG, "Membership backfill query failed", e));
+    }
+
+    @Nullable
+    private static Entrant.Status parseStatus(@Nullable String raw) {
+        if (raw == null) return null;
+        try {
+            return Entrant.Status.valueOf(raw);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.lotterysystemproject.firebasemanager;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Brings events created before organizer dashboards existed up to date.
+ * <p>
+ * Older events store their organizer's email as {@code hostId}, and their organizers
+ * have no {@code organizer_stats} document. {@link #backfillOnce} rewrites each such
+ * {@code hostId} to the user ID with that email, on the event and its summary, and
+ * then writes every organizer's event dates from the events it saw that are still listed.
+ * A marker in {@code migrations/organizer_stats} records the finished version.
+ * </p>
+ * Every step overwrites with values read from the events, so an interrupted run can
+ * simply start again.
+ */
+final class OrganizerStatsBackfill {
+
+    private static final String TAG = "OrganizerStatsBackfill";
+    /** Bumped when the stats must be rebuilt from the events. */
+    static final int VERSION = 1;
+    /** Two writes per event (the event and its summary) keeps a page under the 500-write limit. */
+    private static final int PAGE_SIZE = 200;
+
+    private static final PagedMigration backfill =
+            new PagedMigration(TAG, "organizer_stats", VERSION, "events", PAGE_SIZE);
+
+    /** Private constructor to prevent instantiation. */
+    private OrganizerStatsBackfill() {}
+
+    /**
+     * Migrates host IDs and builds organizer stats, once per process. After the first
+     * complete run this costs a single document read.
+     *
+     * @param db Firestore instance
+     */
+    static void backfillOnce(FirebaseFirestore db) {
+        backfill.runOnce(db, () -> new StatsPass(db));
+    }
+
+    /**
+     * One run of the backfill, collecting every organizer's event dates across pages.
+     */
+    private static final class StatsPass implements PagedMigration.Pass {
+
+        private final FirebaseFirestore db;
+        /** Emails already looked up; null values mark emails with no user. */
+        private final Map<String, String> userIdsByEmail = new HashMap<>();
+        /** Host ID to event ID to event date, filled in as pages arrive. */
+        private final Map<String, Map<String, Object>> datesByHost = new HashMap<>();
+
+        StatsPass(FirebaseFirestore db) {
+            this.db = db;
+        }
+
+        /**
+         * Rewrites the email host IDs on one page and records each event's date.
+         */
+        @Override
+        public void migratePage(List<DocumentSnapshot> docs, Runnable onDone) {
+            lookUpEmails(docs, () -> {
+                WriteBatch batch = db.batch();
+                int writes = 0;
+                for (DocumentSnapshot doc : docs) {
+                    // Events being cascade-deleted are already gone from the stats
+                    if (Boolean.TRUE.equals(doc.getBoolean("deleting"))) continue;
+                    String hostId = doc.getString("hostId");
+                    if (hostId == null || hostId.isEmpty()) continue;
+
+                    if (isEmail(hostId)) {
+                        String userId = userIdsByEmail.get(hostId);
+                        if (userId == null) continue;
+                        hostId = userId;
+                        batch.update(doc.getReference(), "hostId", userId);
+                        EventSummaries.merge(batch, db, doc.getId(), "hostId", userId);
+                        writes += 2;
+                    }
+
+                    Date date = doc.getDate("eventDate");
+                    datesByHost.computeIfAbsent(hostId, k -> new HashMap<>())
+                            .put(doc.getId(), date != null ? date.getTime() : null);
+                }
+
+                Task<Void> commit = writes == 0 ? Tasks.<Void>forResult(null)
+                        : batch.commit().addOnSuccessListener(FirestoreUsage.writes(writes));
+                commit.addOnSuccessListener(v -> onDone.run())
+                        .addOnFailureListener(e -> backfill.fail("Host ID migration batch failed", e));
+            });
+        }
+
+        /**
+         * Looks up the user ID of every email host on the page that was not looked up yet.
+         */
+        private void lookUpEmails(List<DocumentSnapshot> docs, Runnable onDone) {
+            Map<String, Task<QuerySnapshot>> lookups = new HashMap<>();
+            for (DocumentSnapshot doc : docs) {
+                String hostId = doc.getString("hostId");
+                if (hostId == null || !isEmail(hostId)) continue;
+                if (userIdsByEmail.containsKey(hostId) || lookups.containsKey(hostId)) continue;
+                lookups.put(hostId, SingleFlight.get(db.collection("users").whereEqualTo("email", hostId).limit(1)));
+            }
+            if (lookups.isEmpty()) {
+                onDone.run();
+                return;
+            }
+
+            Tasks.whenAllSuccess(new ArrayList<>(lookups.values()))
+                    .addOnSuccessListener(results -> {
+                        for (Map.Entry<String, Task<QuerySnapshot>> lookup : lookups.entrySet()) {
+                            List<DocumentSnapshot> users = lookup.getValue().getResult().getDocuments();
+                            userIdsByEmail.put(lookup.getKey(), users.isEmpty() ? null : users.get(0).getId());
+                        }
+                        onDone.run();
+                    })
+                    .addOnFailureListener(e -> backfill.fail("Organizer email lookup failed", e));
+        }
+
+        /**
+         * Re-reads the collected events, since an admin may have deleted some while the
+         * pages were read, then writes the stats of the events still listed.
+         */
+        @Override
+        public void finish(Runnable onDone) {
+            List<String> eventIds = new ArrayList<>();
+            for (Map<String, Object> dates : datesByHost.values()) eventIds.addAll(dates.keySet());
+
+            List<Task<QuerySnapshot>> lookups = new ArrayList<>();
+            for (List<String> chunk : FirestoreLimits.inQueryChunks(eventIds)) {
+                lookups.add(db.collection("events")
+                        .whereIn(FieldPath.documentId(), chunk)
+                        .get()
+                        .addOnSuccessListener(FirestoreUsage.reads()));
+            }
+
+            Tasks.whenAllSuccess(lookups)
+                    .addOnSuccessListener(results -> {
+                        Set<String> listed = new HashSet<>();
+                        for (Object result : results) {
+                            for (DocumentSnapshot doc : ((QuerySnapshot) result).getDocuments()) {
+                                if (!Boolean.TRUE.equals(doc.getBoolean("deleting"))) listed.add(doc.getId());
+                            }
+                        }
+                        writeStats(listed, onDone);
+                    })
+                    .addOnFailureListener(e -> backfill.fail("Organizer event recheck failed", e));
+        }
+
+        /**
+         * Writes every organizer's event dates. Dates are merged, so events created while
+         * the migration ran keep their entry; events no longer listed lose theirs.
+         */
+        private void writeStats(Set<String> listed, Runnable onDone) {
+            List<Task<Void>> commits = new ArrayList<>();
+            WriteBatch batch = db.batch();
+            int writes = 0;
+            for (Map.Entry<String, Map<String, Object>> host : datesByHost.entrySet()) {
+                for (Map.Entry<String, Object> date : host.getValue().entrySet()) {
+                    if (!listed.contains(date.getKey())) date.setValue(FieldValue.delete());
+                }
+                Map<String, Object> stats = new HashMap<>();
+                stats.put("eventDates", host.getValue());
+                // Earlier versions kept a separate counter that drifted from eventDates
+                stats.put("totalEvents", FieldValue.delete());
+                batch.set(db.collection("organizer_stats").document(host.getKey()), stats, SetOptions.merge());
+
+                if (++writes == FirestoreLimits.MAX_BATCH_WRITES) {
+                    commits.add(batch.commit().addOnSuccessListener(FirestoreUsage.writes(writes)));
+                    batch = db.batch();
+                    writes = 0;
+                }
+            }
+            if (writes > 0) commits.add(batch.commit().addOnSuccessListener(FirestoreUsage.writes(writes)));
+
+            Tasks.whenAll(commits)
+                    .addOnSuccessListener(v -> onDone.run())
+                    .addOnFailureListener(e -> backfill.fail("Organizer stats write failed", e));
+        }
+    }
+
+    private static boolean isEmail(String hostId) {
+        return hostId.indexOf('@') > 0;
+    }
+}
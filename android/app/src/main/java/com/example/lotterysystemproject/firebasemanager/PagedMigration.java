@@ -0,0 +1,131 @@
+package com.example.lotterysystemproject.firebasemanager;
+
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Runs a data migration over every document of a collection, once per process.
+ * <p>
+ * A marker in {@code migrations/{name}} records the finished version, so after the
+ * first complete run a migration costs a single document read. Documents are read
+ * one page at a time in document ID order and handed to a {@link Pass}; the next
+ * page is read once the pass reports the page done. A failure logs, abandons the
+ * run and lets the next {@link #runOnce} start again from the first page, so every
+ * pass must be safe to repeat.
+ * </p>
+ */
+final class PagedMigration {
+
+    /**
+     * One run of a migration. A new pass is created for every run, so it can collect
+     * state across pages.
+     */
+    interface Pass {
+        /**
+         * Migrates one page of documents, then runs {@code onDone}. On failure call
+         * {@link #fail} instead.
+         */
+        void migratePage(List<DocumentSnapshot> docs, Runnable onDone);
+
+        /**
+         * Runs after the last page, before the marker is written. On failure call
+         * {@link #fail} instead of {@code onDone}.
+         */
+        default void finish(Runnable onDone) {
+            onDone.run();
+        }
+    }
+
+    private final String tag;
+    private final String name;
+    private final int version;
+    private final String collection;
+    private final int pageSize;
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    /**
+     * @param tag        log tag for failures
+     * @param name       marker document ID in {@code migrations}
+     * @param version    version recorded once the migration completes
+     * @param collection collection whose documents are migrated
+     * @param pageSize   documents handed to the pass at once
+     */
+    PagedMigration(String tag, String name, int version, String collection, int pageSize) {
+        this.tag = tag;
+        this.name = name;
+        this.version = version;
+        this.collection = collection;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Starts the migration unless it already started in this process or the marker
+     * records this version as finished.
+     *
+     * @param db      Firestore instance
+     * @param newPass creates the pass for this run
+     */
+    void runOnce(FirebaseFirestore db, Supplier<Pass> newPass) {
+        if (!started.compareAndSet(false, true)) return;
+
+        DocumentReference marker = db.collection("migrations").document(name);
+        marker.get()
+                .addOnSuccessListener(FirestoreUsage.reads())
+                .addOnSuccessListener(doc -> {
+                    Long recorded = doc.getLong("version");
+                    if (recorded != null && recorded >= version) return;
+                    runPage(db, marker, newPass.get(), null);
+                })
+                .addOnFailureListener(e -> fail("Migration check failed for " + name, e));
+    }
+
+    private void runPage(FirebaseFirestore db, DocumentReference marker, Pass pass,
+                         @Nullable DocumentSnapshot after) {
+        Query query = db.collection(collection).orderBy(FieldPath.documentId()).limit(pageSize);
+        if (after != null) query = query.startAfter(after);
+
+        query.get()
+                .addOnSuccessListener(FirestoreUsage.reads())
+                .addOnSuccessListener(page -> {
+                    List<DocumentSnapshot> docs = page.getDocuments();
+                    pass.migratePage(docs, () -> {
+                        if (docs.size() == pageSize) {
+                            runPage(db, marker, pass, docs.get(docs.size() - 1));
+                        } else {
+                            pass.finish(() -> markDone(marker));
+                        }
+                    });
+                })
+                .addOnFailureListener(e -> fail("Migration query failed for " + name, e));
+    }
+
+    private void markDone(DocumentReference marker) {
+        Map<String, Object> done = new HashMap<>();
+        done.put("version", version);
+        done.put("completedAt", System.currentTimeMillis());
+        marker.set(done)
+                .addOnSuccessListener(FirestoreUsage.writes(1))
+                .addOnFailureListener(e -> Log.w(tag, "Failed to record migration " + name, e));
+    }
+
+    /**
+     * Logs a failed step and lets the next {@link #runOnce} try again.
+     */
+    void fail(String message, Exception e) {
+        Log.w(tag, message, e);
+        started.set(false);
+    }
+}
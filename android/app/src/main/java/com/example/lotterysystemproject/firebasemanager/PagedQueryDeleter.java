@@ -0,0 +1,157 @@
+package com.example.lotterysystemproject.firebasemanager;
+
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+
+/**
+ * Deletes every document matched by a query, one page per WriteBatch.
+ * <p>
+ * Pages are read one after another with a document cursor, while up to
+ * {@code maxInFlight} batch commits run at the same time. Because the cursor
+ * never revisits a page, concurrent batches never overlap. Running a new
+ * deleter over the same query after an interruption picks up whatever is left.
+ * </p>
+ * Callbacks run on the main thread, like all Firestore task listeners.
+ */
+class PagedQueryDeleter {
+
+    private final FirebaseFirestore db;
+    private final Query query;
+    private final int pageSize;
+    private final int maxInFlight;
+
+    private DocumentSnapshot lastDoc;
+    private boolean fetching = false;
+    private boolean exhausted = false;
+    private boolean finished = false;
+    private int inFlight = 0;
+    private int deleted = 0;
+
+    private Function<DocumentSnapshot, DocumentReference> related;
+    private IntConsumer onProgress;
+    private Runnable onDone;
+    private Consumer<Exception> onError;
+
+    /**
+     * @param db          Firestore instance used to create batches
+     * @param query       documents to delete; must not have a limit or cursor
+     * @param pageSize    documents per batch, at most 500
+     * @param maxInFlight maximum number of batch commits running at once
+     */
+    PagedQueryDeleter(FirebaseFirestore db, Query query, int pageSize, int maxInFlight) {
+        this.db = db;
+        this.query = query;
+        this.pageSize = pageSize;
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Also deletes one related document per matched document, in the same batch, so
+     * both disappear together. Each page then commits up to twice {@code pageSize}
+     * writes, so the page size must be at most 250.
+     *
+     * @param related gives the related document, or null when there is none
+     * @return this deleter
+     */
+    PagedQueryDeleter alsoDelete(Function<DocumentSnapshot, DocumentReference> related) {
+        this.related = related;
+        return this;
+    }
+
+    /**
+     * Starts deleting.
+     *
+     * @param onProgress receives the running total of deleted documents, may be null
+     * @param onDone     called once every page has been committed
+     * @param onError    called once on the first failure; no further pages are read
+     */
+    void run(IntConsumer onProgress, Runnable onDone, Consumer<Exception> onError) {
+        this.onProgress = onProgress;
+        this.onDone = onDone;
+        this.onError = onError;
+        pump();
+    }
+
+    /**
+     * Reads the next page if a commit slot is free, or finishes when nothing is left.
+     */
+    private void pump() {
+        if (finished) return;
+
+        if (exhausted) {
+            if (inFlight == 0) {
+                finished = true;
+                onDone.run();
+            }
+            return;
+        }
+
+        if (fetching || inFlight >= maxInFlight) return;
+        fetchNextPage();
+    }
+
+    private void fetchNextPage() {
+        fetching = true;
+        Query page = query.limit(pageSize);
+        if (lastDoc != null) {
+            page = page.startAfter(lastDoc);
+        }
+
+        page.get()
+                .addOnSuccessListener(FirestoreUsage.reads())
+                .addOnSuccessListener(snapshot -> {
+                    fetching = false;
+                    List<DocumentSnapshot> docs = snapshot.getDocuments();
+                    if (docs.size() < pageSize) {
+                        exhausted = true;
+                    }
+                    if (!docs.isEmpty()) {
+                        lastDoc = docs.get(docs.size() - 1);
+                        commitPage(docs);
+                    }
+                    pump();
+                })
+                .addOnFailureListener(this::fail);
+    }
+
+    private void commitPage(List<DocumentSnapshot> docs) {
+        WriteBatch batch = db.batch();
+        int writes = 0;
+        for (DocumentSnapshot doc : docs) {
+            batch.delete(doc.getReference());
+            writes++;
+            if (related != null) {
+                DocumentReference other = related.apply(doc);
+                if (other != null) {
+                    batch.delete(other);
+                    writes++;
+                }
+            }
+        }
+
+        inFlight++;
+        batch.commit()
+                .addOnSuccessListener(FirestoreUsage.writes(writes))
+                .addOnSuccessListener(aVoid -> {
+                    inFlight--;
+                    deleted += docs.size();
+                    if (onProgress != null && !finished) onProgress.accept(deleted);
+                    pump();
+                })
+                .addOnFailureListener(this::fail);
+    }
+
+    private void fail(Exception e) {
+        if (finished) return;
+        finished = true;
+        onError.accept(e);
+    }
+}
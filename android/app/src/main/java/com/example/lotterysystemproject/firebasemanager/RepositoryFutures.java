@@ -0,0 +1,581 @@
+package com.example.lotterysystemproject.firebasemanager;
+
+import android.net.Uri;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.lotterysystemproject.models.Entrant;
+import com.example.lotterysystemproject.models.Event;
+import com.example.lotterysystemproject.models.EventSummary;
+import com.example.lotterysystemproject.models.GeoBucket;
+import com.example.lotterysystemproject.models.NotificationItem;
+import com.example.lotterysystemproject.models.OrganizerStats;
+import com.example.lotterysystemproject.models.User;
+import com.google.android.gms.tasks.Task;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Future-returning variants of the repository methods, and adapters between
+ * futures and the repositories' callback styles.
+ * <p>
+ * Independent reads can be started together and combined with
+ * {@link Futures#whenAllSucceed}, instead of nesting one callback inside another.
+ * Futures complete on the thread of the underlying callback, which for Firestore
+ * is the main thread; {@code deliver} calls the callback on that same thread.
+ * </p>
+ * <pre>
+ * ListenableFuture&lt;User&gt; user = RepositoryFutures.users().getUserById(id);
+ * RepositoryFutures.deliver(user, callback);
+ * </pre>
+ */
+public final class RepositoryFutures {
+
+    /**
+     * An operation that reports through a {@code Consumer} pair.
+     *
+     * @param <T> result type
+     */
+    public interface ConsumerCall<T> {
+        void start(Consumer<T> onSuccess, Consumer<Exception> onError);
+    }
+
+    /**
+     * An operation that reports through a {@link RepositoryCallback}.
+     *
+     * @param <T> result type
+     */
+    public interface CallbackCall<T> {
+        void start(RepositoryCallback<T> callback);
+    }
+
+    /** Private constructor to prevent instantiation. */
+    private RepositoryFutures() {}
+
+    // ===================== TO FUTURES =====================
+
+    /**
+     * @return a future completing with the task's result or failure
+     */
+    public static <T> ListenableFuture<T> fromTask(Task<T> task) {
+        SettableFuture<T> future = SettableFuture.create();
+        task.addOnSuccessListener(future::set)
+                .addOnFailureListener(future::setException)
+                .addOnCanceledListener(() -> future.cancel(false));
+        return future;
+    }
+
+    /**
+     * @return a future completing with the result passed to either consumer
+     */
+    public static <T> ListenableFuture<T> fromConsumers(ConsumerCall<T> call) {
+        SettableFuture<T> future = SettableFuture.create();
+        call.start(future::set, future::setException);
+        return future;
+    }
+
+    /**
+     * @return a future completing with the result passed to the callback
+     */
+    public static <T> ListenableFuture<T> fromCallback(CallbackCall<T> call) {
+        SettableFuture<T> future = SettableFuture.create();
+        call.start(new RepositoryCallback<T>() {
+            @Override
+            public void onSuccess(T result) {
+                future.set(result);
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                future.setException(e);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * @return a future completing when the event repository callback does
+     */
+    public static ListenableFuture<Void> fromEventCallback(Consumer<EventRepository.RepositoryCallback> call) {
+        SettableFuture<Void> future = SettableFuture.create();
+        call.accept(new EventRepository.RepositoryCallback() {
+            @Override
+            public void onSuccess() {
+                future.set(null);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                future.setException(e);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * @return a future completing when the admin callback does
+     */
+    public static ListenableFuture<Void> fromAdminCallback(Consumer<AdminRepository.AdminCallback> call) {
+        SettableFuture<Void> future = SettableFuture.create();
+        call.accept(new AdminRepository.AdminCallback() {
+            @Override
+            public void onSuccess() {
+                future.set(null);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                future.setException(e);
+            }
+        });
+        return future;
+    }
+
+    // ===================== TO CALLBACKS =====================
+
+    /**
+     * Reports a future's outcome to a {@link RepositoryCallback}.
+     */
+    public static <T> void deliver(ListenableFuture<T> future, @Nullable RepositoryCallback<T> callback) {
+        if (callback == null) return;
+        deliver(future, callback::onSuccess, callback::onFailure);
+    }
+
+    /**
+     * Reports a future's outcome to an event repository callback.
+     */
+    public static void deliver(ListenableFuture<?> future, @Nullable EventRepository.RepositoryCallback callback) {
+        if (callback == null) return;
+        deliver(future, result -> callback.onSuccess(), callback::onError);
+    }
+
+    /**
+     * Reports a future's outcome to a {@code Consumer} pair. Guava drops exceptions
+     * thrown by a callback, so one thrown by {@code onSuccess} is reported to
+     * {@code onError} instead of leaving the caller waiting forever.
+     */
+    public static <T> void deliver(ListenableFuture<T> future,
+                                   @Nullable Consumer<? super T> onSuccess,
+                                   @Nullable Consumer<Exception> onError) {
+        Futures.addCallback(future, new FutureCallback<T>() {
+            @Override
+            public void onSuccess(T result) {
+                try {
+                    if (onSuccess != null) onSuccess.accept(result);
+                } catch (RuntimeException e) {
+                    if (onError != null) onError.accept(e);
+                }
+            }
+
+            @Override
+            public void onFailure(@NonNull Throwable t) {
+                if (onError != null) onError.accept(asException(t));
+            }
+        }, MoreExecutors.directExecutor());
+    }
+
+    /**
+     * @return the throwable itself if it is an exception, otherwise wrapped in one
+     */
+    static Exception asException(Throwable t) {
+        return t instanceof Exception ? (Exception) t : new Exception(t);
+    }
+
+    // ===================== REPOSITORY VARIANTS =====================
+
+    /** @return future variants of the provided event repository */
+    public static Events events() {
+        return new Events(RepositoryProvider.getEventRepository());
+    }
+
+    /** @return future variants of the provided user repository */
+    public static Users users() {
+        return new Users(RepositoryProvider.getUserRepository());
+    }
+
+    /** @return future variants of the provided entrant repository */
+    public static Entrants entrants() {
+        return new Entrants(RepositoryProvider.getEntrantRepository());
+    }
+
+    /** @return future variants of the provided notification repository */
+    public static Notifications notifications() {
+        return new Notifications(RepositoryProvider.getNotificationRepository());
+    }
+
+    /** @return future variants of the provided admin repository */
+    public static Admin admin() {
+        return new Admin(RepositoryProvider.getAdminRepository());
+    }
+
+    /**
+     * Future variants of {@link EventRepository}. Listeners and LiveData are left out, as is
+     * {@code addEvent}, which only reports failures.
+     */
+    public static final class Events {
+        private final EventRepository repository;
+
+        public Events(EventRepository repository) {
+            this.repository = repository;
+        }
+
+        public ListenableFuture<Void> addUser(User user) {
+            return fromEventCallback(cb -> repository.addUser(user, cb));
+        }
+
+        public ListenableFuture<Void> updateUser(String userId, Map<String, Object> updates) {
+            return fromEventCallback(cb -> repository.updateUser(userId, updates, cb));
+        }
+
+        public ListenableFuture<User> getUser(String userId) {
+            return fromConsumers((ok, err) -> repository.getUser(userId, ok, err));
+        }
+
+        public ListenableFuture<Void> deleteUser(String userId) {
+            return fromEventCallback(cb -> repository.deleteUser(userId, cb));
+        }
+
+        public ListenableFuture<Void> updateUserRoleToOrganizer(String userId) {
+            return fromEventCallback(cb -> repository.updateUserRoleToOrganizer(userId, cb));
+        }
+
+        public ListenableFuture<List<Event>> getEventsByCategory(String category) {
+            return fromConsumers((ok, err) -> repository.getEventsByCategory(category, ok, err));
+        }
+
+        public ListenableFuture<List<Event>> getActiveEvents() {
+            return fromConsumers(repository::getActiveEvents);
+        }
+
+        public ListenableFuture<List<Event>> getRecentEvents(int limit) {
+            return fromConsumers((ok, err) -> repository.getRecentEvents(limit, ok, err));
+        }
+
+        public ListenableFuture<List<Event>> getRandomEvents(int count) {
+            return fromConsumers((ok, err) -> repository.getRandomEvents(count, ok, err));
+        }
+
+        public ListenableFuture<List<Event>> getEventsByHost(String hostId, @Nullable Event after, int limit) {
+            return fromConsumers((ok, err) -> repository.getEventsByHost(hostId, after, limit, ok, err));
+        }
+
+        public ListenableFuture<OrganizerStats> getOrganizerStats(String hostId) {
+            return fromConsumers((ok, err) -> repository.getOrganizerStats(hostId, ok, err));
+        }
+
+        public ListenableFuture<List<EventSummary>> getActiveEventSummaries() {
+            return fromConsumers(repository::getActiveEventSummaries);
+        }
+
+        public ListenableFuture<List<EventSummary>> getEventSummariesByCategory(String category) {
+            return fromConsumers((ok, err) -> repository.getEventSummariesByCategory(category, ok, err));
+        }
+
+        public ListenableFuture<Void> joinWaitingList(String eventId, String userId) {
+            return fromEventCallback(cb -> repository.joinWaitingList(eventId, userId, cb));
+        }
+
+        public ListenableFuture<Void> leaveWaitingList(String eventId, String userId) {
+            return fromEventCallback(cb -> repository.leaveWaitingList(eventId, userId, cb));
+        }
+    }
+
+    /**
+     * Future variants of {@link UserRepository}. Listeners are left out.
+     */
+    public static final class Users {
+        private final UserRepository repository;
+
+        public Users(UserRepository repository) {
+            this.repository = repository;
+        }
+
+        public ListenableFuture<Void> createOrUpdateUser(User user) {
+            return fromCallback(cb -> repository.createOrUpdateUser(user, cb));
+        }
+
+        public ListenableFuture<User> getUserById(String userId) {
+            return fromCallback(cb -> repository.getUserById(userId, cb));
+        }
+
+        public ListenableFuture<Void> deleteUser(String userId) {
+            return fromCallback(cb -> repository.deleteUser(userId, cb));
+        }
+
+        public ListenableFuture<List<User>> getAllUsers() {
+            return fromCallback(repository::getAllUsers);
+        }
+
+        public ListenableFuture<Void> updateNotificationPreferences(String userId, boolean enabled) {
+            return fromCallback(cb -> repository.updateNotificationPreferences(userId, enabled, cb));
+        }
+
+        public ListenableFuture<String> uploadProfilePicture(String userId, Uri imageUri) {
+            return fromCallback(cb -> repository.uploadProfilePicture(userId, imageUri, cb));
+        }
+
+        public ListenableFuture<Void> deleteProfilePicture(String userId) {
+            return fromCallback(cb -> repository.deleteProfilePicture(userId, cb));
+        }
+
+        public ListenableFuture<List<User>> searchUsers(String query) {
+            return fromCallback(cb -> repository.searchUsers(query, cb));
+        }
+
+        public ListenableFuture<Void> deactivateAccount(String userId) {
+            return fromCallback(cb -> repository.deactivateAccount(userId, cb));
+        }
+
+        public ListenableFuture<String> resumePendingDeactivation() {
+            return fromCallback(repository::resumePendingDeactivation);
+        }
+
+        public ListenableFuture<Integer> exportUserData(String userId, OutputStream out) {
+            return fromCallback(cb -> repository.exportUserData(userId, out, cb));
+        }
+    }
+
+    /**
+     * Future variants of {@link EntrantRepository}. LiveData is left out.
+     */
+    public static final class Entrants {
+
+        /**
+         * One page of entrants and the cursor for the next.
+         */
+        public static final class Page {
+            public final List<Entrant> entrants;
+            @Nullable public final String nextCursor;
+
+            Page(List<Entrant> entrants, @Nullable String nextCursor) {
+                this.entrants = entrants;
+                this.nextCursor = nextCursor;
+            }
+        }
+
+        /**
+         * The identity reported by {@link EntrantRepository#getCurrentUserInfo}.
+         */
+        public static final class CurrentUser {
+            public final String hostId;
+            public final String hostName;
+            public final String role;
+
+            CurrentUser(String hostId, String hostName, String role) {
+                this.hostId = hostId;
+                this.hostName = hostName;
+                this.role = role;
+            }
+        }
+
+        private final EntrantRepository repository;
+
+        public Entrants(EntrantRepository repository) {
+            this.repository = repository;
+        }
+
+        public ListenableFuture<Page> getEntrantsPage(String eventId, @Nullable List<Entrant.Status> statuses,
+                                                      @Nullable String cursor, int limit) {
+            SettableFuture<Page> future = SettableFuture.create();
+            repository.getEntrantsPage(eventId, statuses, cursor, limit, new EntrantRepository.OnEntrantPageListener() {
+                @Override
+                public void onPage(List<Entrant> page, @Nullable String nextCursor) {
+                    future.set(new Page(page, nextCursor));
+                }
+
+                @Override
+                public void onFailure(String error) {
+                    future.setException(new Exception(error));
+                }
+            });
+            return future;
+        }
+
+        public ListenableFuture<List<GeoBucket>> getLocationBuckets(String eventId, double south, double west,
+                                                                    double north, double east) {
+            SettableFuture<List<GeoBucket>> future = SettableFuture.create();
+            repository.getLocationBuckets(eventId, south, west, north, east,
+                    new EntrantRepository.OnLocationBucketsListener() {
+                        @Override
+                        public void onSuccess(List<GeoBucket> buckets) {
+                            future.set(buckets);
+                        }
+
+                        @Override
+                        public void onFailure(String error) {
+                            future.setException(new Exception(error));
+                        }
+                    });
+            return future;
+        }
+
+        public ListenableFuture<List<Entrant>> drawLottery(String eventId, int count) {
+            SettableFuture<List<Entrant>> future = SettableFuture.create();
+            repository.drawLottery(eventId, count, new EntrantRepository.OnLotteryCompleteListener() {
+                @Override
+                public void onComplete(List<Entrant> winners) {
+                    future.set(winners);
+                }
+
+                @Override
+                public void onFailure(String error) {
+                    future.setException(new Exception(error));
+                }
+            });
+            return future;
+        }
+
+        public ListenableFuture<Void> cancelEntrant(String entrantId) {
+            SettableFuture<Void> future = SettableFuture.create();
+            repository.cancelEntrant(entrantId, actionListener(future));
+            return future;
+        }
+
+        public ListenableFuture<Entrant> drawReplacement(String eventId) {
+            SettableFuture<Entrant> future = SettableFuture.create();
+            repository.drawReplacement(eventId, new EntrantRepository.OnReplacementDrawnListener() {
+                @Override
+                public void onSuccess(Entrant replacement) {
+                    future.set(replacement);
+                }
+
+                @Override
+                public void onFailure(String error) {
+                    future.setException(new Exception(error));
+                }
+            });
+            return future;
+        }
+
+        public ListenableFuture<Void> checkInEntrants(Map<String, Long> checkIns) {
+            SettableFuture<Void> future = SettableFuture.create();
+            repository.checkInEntrants(checkIns, actionListener(future));
+            return future;
+        }
+
+        public ListenableFuture<CurrentUser> getCurrentUserInfo(String deviceId) {
+            SettableFuture<CurrentUser> future = SettableFuture.create();
+            repository.getCurrentUserInfo(deviceId, new EntrantRepository.OnUserInfoListener() {
+                @Override
+                public void onSuccess(String hostId, String hostName, String role) {
+                    future.set(new CurrentUser(hostId, hostName, role));
+                }
+
+                @Override
+                public void onFailure(String error) {
+                    future.setException(new Exception(error));
+                }
+            });
+            return future;
+        }
+
+        private static EntrantRepository.OnActionCompleteListener actionListener(SettableFuture<Void> future) {
+            return new EntrantRepository.OnActionCompleteListener() {
+                @Override
+                public void onSuccess() {
+                    future.set(null);
+                }
+
+                @Override
+                public void onFailure(String error) {
+                    future.setException(new Exception(error));
+                }
+            };
+        }
+    }
+
+    /**
+     * Future variants of {@link NotificationRepository}. Listeners are left out.
+     */
+    public static final class Notifications {
+        private final NotificationRepository repository;
+
+        public Notifications(NotificationRepository repository) {
+            this.repository = repository;
+        }
+
+        public ListenableFuture<Void> createNotification(String userId, NotificationItem item) {
+            return fromCallback(cb -> repository.createNotification(userId, item, cb));
+        }
+
+        public ListenableFuture<List<NotificationItem>> getNotificationsForUser(String userId) {
+            return fromCallback(cb -> repository.getNotificationsForUser(userId, cb));
+        }
+
+        public ListenableFuture<Void> deleteNotification(String userId, String notificationId) {
+            return fromCallback(cb -> repository.deleteNotification(userId, notificationId, cb));
+        }
+
+        public ListenableFuture<List<NotificationItem>> getAllNotifications() {
+            return fromCallback(repository::getAllNotifications);
+        }
+    }
+
+    /**
+     * Future variants of {@link AdminRepository}. Listeners are left out.
+     */
+    public static final class Admin {
+        private final AdminRepository repository;
+
+        public Admin(AdminRepository repository) {
+            this.repository = repository;
+        }
+
+        public ListenableFuture<Void> addEvent(Event event) {
+            return fromAdminCallback(cb -> repository.addEvent(event, cb));
+        }
+
+        public ListenableFuture<List<Event>> getAllEvents() {
+            return fromConsumers(repository::getAllEvents);
+        }
+
+        public ListenableFuture<Void> deleteEvent(String eventId,
+                                                  @Nullable AdminRepository.DeleteProgressListener progress) {
+            return fromAdminCallback(cb -> repository.deleteEvent(eventId, progress, cb));
+        }
+
+        public ListenableFuture<Void> resumeEventDeletions(@Nullable AdminRepository.DeleteProgressListener progress) {
+            return fromAdminCallback(cb -> repository.resumeEventDeletions(progress, cb));
+        }
+
+        public ListenableFuture<Void> deleteUser(String userId) {
+            return fromAdminCallback(cb -> repository.deleteUser(userId, cb));
+        }
+
+        public ListenableFuture<List<String>> getAllImages() {
+            return fromConsumers(repository::getAllImages);
+        }
+
+        public ListenableFuture<Void> deleteImage(String imageUrl) {
+            return fromAdminCallback(cb -> repository.deleteImage(imageUrl, cb));
+        }
+
+        /**
+         * Completes with the number of images deleted, or fails with the error the repository reports.
+         */
+        public ListenableFuture<Integer> deleteMultipleImages(List<String> imageUrls) {
+            SettableFuture<Integer> future = SettableFuture.create();
+            repository.deleteMultipleImages(imageUrls, (deleted, error) -> {
+                if (error != null) {
+                    future.setException(error);
+                } else {
+                    future.set(deleted);
+                }
+            });
+            return future;
+        }
+
+        public ListenableFuture<List<User>> getAllOrganizers() {
+            return fromConsumers(repository::getAllOrganizers);
+        }
+    }
+}
@@ -0,0 +1,364 @@
+package com.example.lotterysystemproject.firebasemanager;
+
+import com.example.lotterysystemproject.utils.AppExecutors;
+import com.example.lotterysystemproject.utils.ConflatedLiveData;
+import com.example.lotterysystemproject.utils.LatencyHistogram;
+import com.example.lotterysystemproject.utils.TtlLruCache;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Times repository calls made through decorators created by {@link RepositoryProvider}.
+ * <p>
+ * A decorated repository counts every call per method, the calls still waiting for
+ * their callback, and how many ended in an error. A call ends when its callback is
+ * first invoked: a {@code RepositoryCallback}, an {@code On*Listener}, an
+ * {@code AdminCallback}, the {@code BiConsumer} of {@code deleteMultipleImages}, or
+ * either consumer of an {@code onSuccess}/{@code onError} pair, where the last
+ * consumer is the error one. For listeners this is the time to the first result.
+ * Calls with no such callback end when the method returns.
+ * </p>
+ * Decoration uses {@link Proxy}, so it costs a reflective call per method and is
+ * meant for debugging sessions, not for every user.
+ */
+public final class RepositoryMetrics {
+
+    private static final Map<String, MethodMetrics> methods = new ConcurrentHashMap<>();
+
+    /**
+     * Counters for one repository method since process start.
+     */
+    public static final class Stats {
+        public final String name;
+        public final long calls;
+        public final long errors;
+        public final int inFlight;
+        public final int maxInFlight;
+        public final double meanMs;
+        public final long p50Ms;
+        public final long p95Ms;
+        public final long p99Ms;
+        public final long maxMs;
+        /** Completed calls per bucket of {@link LatencyHistogram#BOUNDS_MS}. */
+        public final long[] buckets;
+
+        Stats(String name, long calls, long errors, int inFlight, int maxInFlight, LatencyHistogram latency) {
+            this.name = name;
+            this.calls = calls;
+            this.errors = errors;
+            this.inFlight = inFlight;
+            this.maxInFlight = maxInFlight;
+            this.meanMs = latency.getMeanMs();
+            this.p50Ms = latency.percentileMs(0.50);
+            this.p95Ms = latency.percentileMs(0.95);
+            this.p99Ms = latency.percentileMs(0.99);
+            this.maxMs = latency.getMaxMs();
+            this.buckets = latency.getCounts();
+        }
+
+        /**
+         * @return share of completed calls that failed, between 0 and 1
+         */
+        public double errorRate() {
+            long completed = calls - inFlight;
+            return completed == 0 ? 0 : (double) errors / completed;
+        }
+
+        @Override
+        public String toString() {
+            return name + ": calls=" + calls + " inFlight=" + inFlight + " maxInFlight=" + maxInFlight
+                    + String.format(Locale.US, " errors=%d (%.1f%%) mean=%.1fms",
+                    errors, errorRate() * 100, meanMs)
+                    + " p50=" + p50Ms + "ms p95=" + p95Ms + "ms p99=" + p99Ms + "ms max=" + maxMs + "ms";
+        }
+    }
+
+    /** Private constructor to prevent instantiation. */
+    private RepositoryMetrics() {}
+
+    // ===================== DECORATION =====================
+
+    /**
+     * Wraps a repository so every call through {@code type} is timed.
+     *
+     * @param type     the repository interface, whose simple name prefixes the method names
+     * @param delegate the repository doing the work
+     * @return a repository with the same behaviour as {@code delegate}
+     */
+    static <T> T wrap(Class<T> type, T delegate) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                new TimedRepository(type.getSimpleName(), delegate)));
+    }
+
+    /**
+     * @return the repository behind a decorator made by {@link #wrap}, or the argument itself
+     */
+    static Object unwrap(Object repository) {
+        if (repository != null && Proxy.isProxyClass(repository.getClass())) {
+            InvocationHandler handler = Proxy.getInvocationHandler(repository);
+            if (handler instanceof TimedRepository) return ((TimedRepository) handler).delegate;
+        }
+        return repository;
+    }
+
+    // ===================== REPORTING =====================
+
+    /**
+     * @return counters for every method called so far, sorted by name
+     */
+    public static List<Stats> getStats() {
+        List<Stats> stats = new ArrayList<>();
+        for (MethodMetrics m : new TreeMap<>(methods).values()) {
+            stats.add(m.stats());
+        }
+        return stats;
+    }
+
+    /**
+     * Forgets all method counters. Calls in flight at that moment are not counted.
+     */
+    public static void reset() {
+        methods.clear();
+    }
+
+    /**
+     * Builds a plain-text report of the repository timings together with the executor,
+     * read-coalescing, cache, LiveData and Firestore usage counters kept elsewhere.
+     *
+     * @return the report, one counter set per line
+     */
+    public static String report() {
+        StringBuilder out = new StringBuilder();
+        out.append("== Repository calls ==\n");
+        List<Stats> stats = getStats();
+        if (stats.isEmpty()) out.append("(none; enable timing and use the app)\n");
+        for (Stats s : stats) out.append(s).append('\n');
+
+        out.append("\n== Executors ==\n");
+        for (AppExecutors.Stats s : AppExecutors.getStats()) out.append(s).append('\n');
+
+        out.append("\n== Read coalescing ==\n")
+                .append("started=").append(SingleFlight.getStartedCount())
+                .append(" shared=").append(SingleFlight.getSharedCount()).append('\n');
+
+        out.append("\n== Caches ==\n");
+        for (TtlLruCache.Stats s : RepositoryProvider.getCacheStats()) out.append(s).append('\n');
+
+        out.append("\n== LiveData ==\n")
+                .append("attachedListeners=").append(SnapshotLiveData.getAttachedCount())
+                .append(" unchangedSnapshots=").append(SnapshotLiveData.getUnchangedSnapshotCount()).append('\n');
+        for (ConflatedLiveData.Stats s : ConflatedLiveData.getStats()) out.append(s).append('\n');
+
+        out.append("\n== Firestore usage ==\n").append(FirestoreUsage.report());
+        return out.toString();
+    }
+
+    /**
+     * Writes the report and the raw latency buckets to a new file in {@code dir}.
+     * Blocks on disk IO, so call it off the main thread.
+     *
+     * @param dir directory to write to; created if missing
+     * @return the file written
+     * @throws IOException if the file cannot be written
+     */
+    public static File dumpToFile(File dir) throws IOException {
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Cannot create " + dir);
+        }
+        String stamp = new SimpleDateFormat("yyyyMMdd-HHmmss", Locale.US).format(new Date());
+        File file = new File(dir, "repository-metrics-" + stamp + ".txt");
+
+        try (Writer w = new FileWriter(file)) {
+            w.write(report());
+
+            // Raw buckets, tab separated, for adding up histograms across devices
+            w.write("\n== Latency buckets (ms upper bounds) ==\nmethod\tcalls\terrors");
+            for (long bound : LatencyHistogram.BOUNDS_MS) w.write("\t" + bound);
+            w.write("\tmore\n");
+            for (Stats s : getStats()) {
+                w.write(s.name + "\t" + s.calls + "\t" + s.errors);
+                for (long count : s.buckets) w.write("\t" + count);
+                w.write("\n");
+            }
+        }
+        return file;
+    }
+
+    // ===================== INTERNALS =====================
+
+    /**
+     * Counters for one method, guarded by its own lock.
+     */
+    private static final class MethodMetrics {
+        private final String name;
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private long calls;
+        private long errors;
+        private int inFlight;
+        private int maxInFlight;
+
+        MethodMetrics(String name) {
+            this.name = name;
+        }
+
+        synchronized void started() {
+            calls++;
+            maxInFlight = Math.max(maxInFlight, ++inFlight);
+        }
+
+        synchronized void finished(long ms, boolean error) {
+            inFlight--;
+            if (error) errors++;
+            latency.record(ms);
+        }
+
+        synchronized Stats stats() {
+            return new Stats(name, calls, errors, inFlight, maxInFlight, latency);
+        }
+    }
+
+    /**
+     * One timed call; only the first completion counts.
+     */
+    private static final class Call {
+        private final MethodMetrics metrics;
+        private final long startNanos = System.nanoTime();
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        Call(MethodMetrics metrics) {
+            this.metrics = metrics;
+            metrics.started();
+        }
+
+        void finish(boolean error) {
+            if (done.compareAndSet(false, true)) {
+                metrics.finished((System.nanoTime() - startNanos) / 1_000_000, error);
+            }
+        }
+    }
+
+    /**
+     * Proxy handler that times each call and wraps its completion callbacks.
+     */
+    private static final class TimedRepository implements InvocationHandler {
+        private final String prefix;
+        private final Object delegate;
+
+        TimedRepository(String prefix, Object delegate) {
+            this.prefix = prefix;
+            this.delegate = delegate;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                return invokeOn(delegate, method, args);
+            }
+
+            String name = prefix + "." + method.getName();
+            Call call = new Call(methods.computeIfAbsent(name, MethodMetrics::new));
+            Object[] timedArgs = args == null ? null : args.clone();
+            boolean async = false;
+
+            if (args != null) {
+                Class<?>[] types = method.getParameterTypes();
+                int consumers = 0;
+                int lastConsumer = -1;
+                for (int i = 0; i < types.length; i++) {
+                    if (types[i] == Consumer.class) {
+                        consumers++;
+                        lastConsumer = i;
+                    }
+                }
+
+                for (int i = 0; i < types.length; i++) {
+                    Object arg = args[i];
+                    if (arg == null) continue;
+                    if (types[i] == Consumer.class && consumers >= 2) {
+                        boolean isError = i == lastConsumer;
+                        timedArgs[i] = timedConsumer(call, (Consumer<Object>) arg, isError);
+                        if (!isError) async = true;
+                    } else if (types[i] == BiConsumer.class) {
+                        timedArgs[i] = timedBiConsumer(call, (BiConsumer<Object, Object>) arg);
+                        async = true;
+                    } else if (isCompletionCallback(types[i])) {
+                        timedArgs[i] = timedCallback(call, types[i], arg);
+                        async = true;
+                    }
+                }
+            }
+
+            try {
+                Object result = invokeOn(delegate, method, timedArgs);
+                if (!async) call.finish(false);
+                return result;
+            } catch (Throwable t) {
+                call.finish(true);
+                throw t;
+            }
+        }
+    }
+
+    private static Consumer<Object> timedConsumer(Call call, Consumer<Object> target, boolean isError) {
+        return value -> {
+            call.finish(isError);
+            target.accept(value);
+        };
+    }
+
+    private static BiConsumer<Object, Object> timedBiConsumer(Call call, BiConsumer<Object, Object> target) {
+        return (value, error) -> {
+            call.finish(error != null);
+            target.accept(value, error);
+        };
+    }
+
+    /**
+     * A completion callback is a repository interface with an {@code onError} or
+     * {@code onFailure} method; progress listeners have neither and are passed through.
+     */
+    private static boolean isCompletionCallback(Class<?> type) {
+        if (!type.isInterface()) return false;
+        for (Method m : type.getMethods()) {
+            if (m.getName().equals("onError") || m.getName().equals("onFailure")) return true;
+        }
+        return false;
+    }
+
+    private static Object timedCallback(Call call, Class<?> type, Object target) {
+        return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getDeclaringClass() != Object.class) {
+                String name = method.getName();
+                call.finish(name.equals("onError") || name.equals("onFailure"));
+            }
+            return invokeOn(target, method, args);
+        });
+    }
+
+    private static Object invokeOn(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
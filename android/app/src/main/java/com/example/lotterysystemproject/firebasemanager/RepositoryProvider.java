@@ -1,5 +1,10 @@
 package com.example.lotterysystemproject.firebasemanager;
 
+import com.example.lotterysystemproject.utils.TtlLruCache;
+
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Factory class that provides the appropriate repository implementations.
  * This allows for easy switching between mock and Firebase modes.
@@ -15,6 +20,8 @@ public class RepositoryProvider {
     private static UserRepository userRepositoryInstance;
     private static NotificationRepository notificationRepository;
 
+    /** Whether repositories created from now on are wrapped with {@link RepositoryMetrics}. */
+    private static volatile boolean instrumented = false;
 
     /**
      * Returns the singleton instance of the EventRepository.
@@ -25,7 +32,8 @@ public class RepositoryProvider {
             synchronized (RepositoryProvider.class) {
                 if (eventRepositoryInstance == null) {
                     if (USE_FIREBASE) {
-                        eventRepositoryInstance = new FirebaseEventRepository();
+                        eventRepositoryInstance = instrument(EventRepository.class,
+                                new CachedEventRepository(new FirebaseEventRepository()));
                     }
                 }
             }
@@ -42,7 +50,8 @@ public class RepositoryProvider {
             synchronized (RepositoryProvider.class) {
                 if (userRepositoryInstance == null) {
                     if (USE_FIREBASE) {
-                        userRepositoryInstance = new FirebaseUserRepository();
+                        userRepositoryInstance = instrument(UserRepository.class,
+                                new CachedUserRepository(new FirebaseUserRepository()));
                     }
                 }
             }
@@ -59,7 +68,7 @@ public class RepositoryProvider {
             synchronized (RepositoryProvider.class) {
                 if (adminRepositoryInstance == null) {
                     if (USE_FIREBASE) {
-                        adminRepositoryInstance = new FirebaseAdminRepository();
+                        adminRepositoryInstance = instrument(AdminRepository.class, new FirebaseAdminRepository());
                     }
                 }
             }
@@ -76,7 +85,7 @@ public class RepositoryProvider {
             synchronized (RepositoryProvider.class) {
                 if (entrantRepositoryInstance == null) {
                     if (USE_FIREBASE) {
-                        entrantRepositoryInstance = new FirebaseEntrantRepository();
+                        entrantRepositoryInstance = instrument(EntrantRepository.class, new FirebaseEntrantRepository());
                     }
                 }
             }
@@ -90,11 +99,62 @@ public class RepositoryProvider {
      */
     public static synchronized NotificationRepository getNotificationRepository() {
         if (notificationRepository == null) {
-            notificationRepository = new FirebaseNotificationRepository();
+            notificationRepository = instrument(NotificationRepository.class,
+                    new CachedNotificationRepository(new FirebaseNotificationRepository()));
         }
         return notificationRepository;
     }
 
+    /**
+     * Collects the hit and miss counters of every repository read cache created so far.
+     * @return one entry per cache, in no particular order.
+     */
+    public static List<TtlLruCache.Stats> getCacheStats() {
+        List<TtlLruCache.Stats> stats = new ArrayList<>();
+        stats.add(UserProfileCache.getStats());
+        stats.add(EventMetadataCache.getStats());
+        synchronized (RepositoryProvider.class) {
+            Object events = RepositoryMetrics.unwrap(eventRepositoryInstance);
+            if (events instanceof CachedEventRepository) {
+                stats.addAll(((CachedEventRepository) events).getCacheStats());
+            }
+            Object notifications = RepositoryMetrics.unwrap(notificationRepository);
+            if (notifications instanceof CachedNotificationRepository) {
+                stats.add(((CachedNotificationRepository) notifications).getCacheStats());
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Turns call timing on or off for all five repositories. The current instances are
+     * dropped so the next lookup builds them with or without the timing decorator;
+     * callers still holding an old instance keep using it until they look it up again.
+     * @param enabled true to time every repository call, see {@link RepositoryMetrics}.
+     */
+    public static void setInstrumentationEnabled(boolean enabled) {
+        synchronized (RepositoryProvider.class) {
+            if (instrumented == enabled) return;
+            instrumented = enabled;
+            eventRepositoryInstance = null;
+            adminRepositoryInstance = null;
+            entrantRepositoryInstance = null;
+            userRepositoryInstance = null;
+            notificationRepository = null;
+        }
+    }
+
+    /**
+     * @return true if repositories are wrapped with the timing decorator.
+     */
+    public static boolean isInstrumentationEnabled() {
+        return instrumented;
+    }
+
+    private static <T> T instrument(Class<T> type, T repository) {
+        return instrumented ? RepositoryMetrics.wrap(type, repository) : repository;
+    }
+
     /**
      * Legacy method for backward compatibility.
      * @deprecated Use getEventRepository() instead.
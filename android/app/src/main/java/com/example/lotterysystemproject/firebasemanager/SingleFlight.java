@@ -0,0 +1,81 @@
+package com.example.lotterysystemproject.firebasemanager;
+
+import com.google.android.gms.tasks.Task;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent identical Firestore reads into one request.
+ * <p>
+ * While a get for a document or query is in flight, asking for the same
+ * document or an equal query returns the running task instead of starting
+ * another read; every caller's listeners receive the one result. The entry is
+ * dropped when the task completes, so later calls read again. Document
+ * references and queries compare by path, filters, ordering and limits.
+ * </p>
+ * Snapshots are immutable and {@code toObject} builds a new model for each
+ * caller, so sharing a result never shares mutable state.
+ */
+public final class SingleFlight {
+
+    private static final Map<Object, Task<?>> inFlight = new HashMap<>();
+    private static long started;
+    private static long shared;
+
+    /** Private constructor to prevent instantiation. */
+    private SingleFlight() {}
+
+    /**
+     * Reads a document, joining a read of the same document already in flight.
+     */
+    static Task<DocumentSnapshot> get(DocumentReference ref) {
+        return run(ref, ref::get);
+    }
+
+    /**
+     * Runs a query, joining an equal query already in flight.
+     */
+    static Task<QuerySnapshot> get(Query query) {
+        return run(query, query::get);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static synchronized <T> Task<T> run(Object key, Supplier<Task<T>> start) {
+        Task<T> running = (Task<T>) inFlight.get(key);
+        if (running != null) {
+            shared++;
+            return running;
+        }
+
+        Task<T> task = start.get();
+        task.addOnSuccessListener(FirestoreUsage.reads());
+        started++;
+        inFlight.put(key, task);
+        task.addOnCompleteListener(done -> {
+            synchronized (SingleFlight.class) {
+                inFlight.remove(key, task);
+            }
+        });
+        return task;
+    }
+
+    /**
+     * @return reads started through this class since process start
+     */
+    public static synchronized long getStartedCount() {
+        return started;
+    }
+
+    /**
+     * @return calls that joined a read already in flight instead of starting one
+     */
+    public static synchronized long getSharedCount() {
+        return shared;
+    }
+}
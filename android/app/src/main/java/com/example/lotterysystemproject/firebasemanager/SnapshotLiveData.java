@@ -0,0 +1,206 @@
+package com.example.lotterysystemproject.firebasemanager;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.Nullable;
+
+import com.example.lotterysystemproject.utils.ConflatedLiveData;
+import com.google.firebase.firestore.DocumentChange;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestoreException;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * LiveData backed by a query whose snapshot listener is attached only while someone
+ * is observing.
+ * <p>
+ * Observers go inactive when their activity or fragment stops, so once the app is in
+ * the background the listener is removed, after a short delay that rides out
+ * configuration changes. When an observer starts again the listener is re-attached:
+ * Firestore resumes the query from the last snapshot it saw and sends only the
+ * documents changed since. Only the documents a snapshot reports as added, modified
+ * or removed are mapped again; after a re-attach, documents whose data did not change
+ * keep the model built for them last time, and a snapshot that changes nothing is not
+ * emitted at all.
+ * </p>
+ * Values are emitted at most once per frame, as with {@link ConflatedLiveData}. All
+ * methods must be called on the main thread.
+ *
+ * @param <T> model built from each document
+ */
+public final class SnapshotLiveData<T> extends ConflatedLiveData<List<T>> {
+
+    /** Long enough to survive a rotation, short enough to stop soon after the app is hidden. */
+    private static final long DETACH_DELAY_MS = 5000;
+
+    private static final AtomicInteger attached = new AtomicInteger();
+    private static final AtomicLong unchangedSnapshots = new AtomicLong();
+
+    private final Query query;
+    private final Function<DocumentSnapshot, T> mapper;
+    private final Handler main = new Handler(Looper.getMainLooper());
+    private final Runnable detach = this::detach;
+
+    private Consumer<QuerySnapshot> onSnapshot;
+    private Consumer<Exception> onError;
+    private boolean emitOnError;
+    private List<T> errorValue;
+
+    private ListenerRegistration registration;
+    /** Screen that attached the listener, charged for the documents it receives. */
+    private String screen;
+    private final Map<String, DocumentSnapshot> lastDocs = new HashMap<>();
+    private final Map<String, T> lastModels = new HashMap<>();
+    /** Set on attach: a new listener's first snapshot lists every document as added. */
+    private boolean replaying;
+    /** Emit the next snapshot even if it changes nothing, e.g. the first one or after an error value. */
+    private boolean emitNext = true;
+
+    /**
+     * @param name   label for the emission counters, e.g. {@code "entrants"}
+     * @param query  the query to listen to
+     * @param mapper builds a model from a document; a null result leaves the document out
+     */
+    SnapshotLiveData(String name, Query query, Function<DocumentSnapshot, T> mapper) {
+        super(name);
+        this.query = query;
+        this.mapper = mapper;
+    }
+
+    /**
+     * Runs {@code hook} with every snapshot received, before it is turned into models.
+     */
+    SnapshotLiveData<T> onSnapshot(Consumer<QuerySnapshot> hook) {
+        this.onSnapshot = hook;
+        return this;
+    }
+
+    /**
+     * Reports listener failures to {@code hook}. The listener is re-attached the next
+     * time an observer becomes active.
+     */
+    SnapshotLiveData<T> onError(Consumer<Exception> hook) {
+        this.onError = hook;
+        return this;
+    }
+
+    /**
+     * Emits {@code value} when the listener fails.
+     */
+    SnapshotLiveData<T> valueOnError(@Nullable List<T> value) {
+        this.emitOnError = true;
+        this.errorValue = value;
+        return this;
+    }
+
+    @Override
+    protected void onActive() {
+        super.onActive();
+        main.removeCallbacks(detach);
+        if (registration == null) {
+            screen = FirestoreUsage.currentScreen();
+            replaying = true;
+            registration = query.addSnapshotListener(this::onEvent);
+            attached.incrementAndGet();
+        }
+    }
+
+    @Override
+    protected void onInactive() {
+        super.onInactive();
+        main.postDelayed(detach, DETACH_DELAY_MS);
+    }
+
+    private void detach() {
+        if (registration != null) {
+            registration.remove();
+            registration = null;
+            attached.decrementAndGet();
+        }
+    }
+
+    private void onEvent(@Nullable QuerySnapshot snapshot, @Nullable FirebaseFirestoreException error) {
+        if (error != null) {
+            // A failed listener delivers nothing more; let the next activation start a new one
+            detach();
+            emitNext = true;
+            if (onError != null) onError.accept(error);
+            if (emitOnError) offer(errorValue);
+            return;
+        }
+        if (snapshot == null) return;
+        FirestoreUsage.countSnapshot(screen, snapshot);
+        if (onSnapshot != null) onSnapshot.accept(snapshot);
+
+        boolean changed = false;
+        Set<String> present = replaying ? new HashSet<>() : null;
+        for (DocumentChange change : snapshot.getDocumentChanges()) {
+            DocumentSnapshot doc = change.getDocument();
+            String id = doc.getId();
+            if (change.getType() == DocumentChange.Type.REMOVED) {
+                lastDocs.remove(id);
+                lastModels.remove(id);
+                changed = true;
+                continue;
+            }
+
+            if (present != null) present.add(id);
+            DocumentSnapshot previous = lastDocs.get(id);
+            lastDocs.put(id, doc);
+            // Only a replay re-sends documents already held, so only then is data compared
+            if (replaying && previous != null && Objects.equals(previous.getData(), doc.getData())) continue;
+            lastModels.put(id, mapper.apply(doc));
+            changed = true;
+        }
+        if (present != null) {
+            // Documents that left the query while the listener was detached
+            changed |= lastDocs.keySet().retainAll(present);
+            lastModels.keySet().retainAll(present);
+            replaying = false;
+        }
+
+        if (!changed && !emitNext) {
+            unchangedSnapshots.incrementAndGet();
+            return;
+        }
+        emitNext = false;
+
+        List<DocumentSnapshot> docs = snapshot.getDocuments();
+        List<T> out = new ArrayList<>(docs.size());
+        for (DocumentSnapshot doc : docs) {
+            T model = lastModels.get(doc.getId());
+            if (model != null) out.add(model);
+        }
+        offer(out);
+    }
+
+    /**
+     * @return snapshot listeners currently attached through this class
+     */
+    public static int getAttachedCount() {
+        return attached.get();
+    }
+
+    /**
+     * @return snapshots that matched the previous one and were not emitted,
+     * typically the replay after a listener is re-attached
+     */
+    public static long getUnchangedSnapshotCount() {
+        return unchangedSnapshots.get();
+    }
+}
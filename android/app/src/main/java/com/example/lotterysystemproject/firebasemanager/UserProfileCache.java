@@ -0,0 +1,111 @@
+package com.example.lotterysystemproject.firebasemanager;
+
+import android.util.Log;
+
+import com.example.lotterysystemproject.models.User;
+import com.example.lotterysystemproject.utils.TtlLruCache;
+import com.google.firebase.firestore.FirebaseFirestore;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Process-wide cache of user profiles keyed by user ID.
+ * <p>
+ * Every repository that needs a user's profile (the user repository itself,
+ * joining a waiting list, organizer lookups) reads through this cache, so a
+ * profile is fetched once per session instead of once per flow. Any write to a
+ * user document made through the repositories drops its entry, and
+ * {@link #watch} keeps the current user's entry live with a snapshot listener.
+ * </p>
+ */
+public final class UserProfileCache {
+
+    private static final String TAG = "UserProfileCache";
+
+    private static final int MAX_USERS = 200;
+    private static final long USER_TTL_MS = 5 * 60 * 1000L;
+    private static final long USER_STALE_MS = 30 * 60 * 1000L;
+
+    private static final TtlLruCache<String, User> users =
+            new TtlLruCache<>("users", MAX_USERS, USER_TTL_MS, USER_STALE_MS);
+    private static final Set<String> watched = ConcurrentHashMap.newKeySet();
+
+    /** Private constructor to prevent instantiation. */
+    private UserProfileCache() {}
+
+    /**
+     * Keeps a user's profile current for the rest of the process by listening to
+     * their document. Calling it again for the same user does nothing.
+     *
+     * @param userId the user to keep fresh, normally the device's own user
+     */
+    public static void watch(String userId) {
+        if (userId == null || userId.isEmpty() || !watched.add(userId)) return;
+
+        // CachedUserRepository stores every snapshot in the cache
+        RepositoryProvider.getUserRepository().listenToUser(userId, new RepositoryListener<User>() {
+            @Override
+            public void onDataChanged(User data) {}
+
+            @Override
+            public void onError(Exception e) {
+                Log.w(TAG, "Profile listener failed for " + userId, e);
+                watched.remove(userId);
+            }
+        });
+    }
+
+    /**
+     * Serves a profile from memory, or loads it with a document get.
+     *
+     * @param db        Firestore instance to read from on a miss
+     * @param userId    user document ID
+     * @param onSuccess receives the profile
+     * @param onError   receives "User not found" or the read failure
+     */
+    static void get(FirebaseFirestore db, String userId, Consumer<User> onSuccess, Consumer<Exception> onError) {
+        users.load(userId,
+                (ok, err) -> SingleFlight.get(db.collection("users").document(userId))
+                        .addOnSuccessListener(doc -> {
+                            User user = doc.exists() ? doc.toObject(User.class) : null;
+                            if (user != null) {
+                                ok.accept(user);
+                            } else {
+                                err.accept(new Exception("User not found"));
+                            }
+                        })
+                        .addOnFailureListener(err::accept),
+                onSuccess, onError);
+    }
+
+    /**
+     * Serves a profile from memory, or loads it with the given loader.
+     */
+    static void get(String userId, TtlLruCache.Loader<User> loader,
+                    Consumer<User> onSuccess, Consumer<Exception> onError) {
+        users.load(userId, loader, onSuccess, onError);
+    }
+
+    /**
+     * Stores a profile received from a listener.
+     */
+    static void put(String userId, User user) {
+        if (userId != null) users.put(userId, user);
+    }
+
+    /**
+     * Drops a profile after its document was written or deleted.
+     */
+    static void invalidate(String userId) {
+        if (userId != null) users.invalidate(userId);
+    }
+
+    /**
+     * @return hit and miss counters of the profile cache
+     */
+    static TtlLruCache.Stats getStats() {
+        return users.getStats();
+    }
+}
@@ -4,6 +4,7 @@ import android.net.Uri;
 
 import com.example.lotterysystemproject.models.User;
 
+import java.io.OutputStream;
 import java.util.List;
 
 public interface UserRepository {
@@ -43,8 +44,12 @@ public interface UserRepository {
     void deactivateAccount(String userId,
                            RepositoryCallback<Void> callback);
 
-    // Export user data (GDPR compliance)
-    void exportUserData(String userId,
-                        RepositoryCallback<String> callback);
+    // Finish a deactivation interrupted by process death; result is the user id or null
+    void resumePendingDeactivation(RepositoryCallback<String> callback);
+
+    // Export user data (GDPR compliance): profile, entrant records and notifications
+    // streamed as JSON to out, which is closed afterwards; result is the record count
+    void exportUserData(String userId, OutputStream out,
+                        RepositoryCallback<Integer> callback);
 }
 
@@ -11,14 +11,16 @@ import android.widget.Toast;
 import androidx.lifecycle.LifecycleOwner;
 
 import com.bumptech.glide.Glide;
-import com.example.lotterysystemproject.models.Event;
+import com.example.lotterysystemproject.models.EventSummary;
 import com.example.lotterysystemproject.firebasemanager.EventRepository;
+import com.example.lotterysystemproject.firebasemanager.MembershipIndex;
 import com.example.lotterysystemproject.firebasemanager.RepositoryProvider;
 import com.example.lotterysystemproject.R;
 import com.google.android.material.button.MaterialButton;
 import android.content.SharedPreferences;
 
 import java.text.SimpleDateFormat;
+import java.util.List;
 import java.util.Locale;
 
 /**
@@ -33,7 +35,9 @@ public class EventListHelper {
     private final EventRepository eventFirebase;
     private final SimpleDateFormat dateFormat;
     private final LifecycleOwner lifecycleOwner;
+    private final MembershipIndex membershipIndex;
     private Runnable onEventsLoaded;
+    private List<EventSummary> lastEvents;
 
     /**
      * Constructs a new EventListHelper.
@@ -49,36 +53,52 @@ public class EventListHelper {
         this.lifecycleOwner = lifecycleOwner;
         this.onEventsLoaded = onEventsLoaded;
         this.eventFirebase = RepositoryProvider.getInstance();
+        this.membershipIndex = MembershipIndex.getInstance(context);
         this.dateFormat = new SimpleDateFormat("MMM dd, yyyy 'at' hh:mm a", Locale.getDefault());
     }
 
     /**
-     * Loads all events from Firestore and populates the container.
+     * Loads the summaries of all active events from Firestore and populates the container.
+     * Cards are redrawn when either the events or the user's memberships change.
      */
     public void loadEvents() {
-        eventFirebase.getAllEvents().observe(lifecycleOwner, events -> {
-            container.removeAllViews();
+        membershipIndex.start(getCurrentUserId());
 
-            if (events == null) {
-                showErrorState("Failed to load events");
-                if (onEventsLoaded != null) onEventsLoaded.run();
-                return;
-            }
+        eventFirebase.getActiveEventSummaries().observe(lifecycleOwner, events -> {
+            lastEvents = events;
+            renderEvents();
+        });
 
-            if (events.isEmpty()) {
-                showEmptyState();
-                if (onEventsLoaded != null) onEventsLoaded.run();
-                return;
-            }
+        membershipIndex.getMemberships().observe(lifecycleOwner, memberships -> {
+            if (lastEvents != null) renderEvents();
+        });
+    }
 
-            for (Event event : events) {
-                View eventCardView = createEventCard(event);
-                eventCardView.setTag(event.getId());
-                container.addView(eventCardView);
-            }
+    /**
+     * Rebuilds the event cards from the last loaded events.
+     */
+    private void renderEvents() {
+        container.removeAllViews();
 
+        if (lastEvents == null) {
+            showErrorState("Failed to load events");
             if (onEventsLoaded != null) onEventsLoaded.run();
-        });
+            return;
+        }
+
+        if (lastEvents.isEmpty()) {
+            showEmptyState();
+            if (onEventsLoaded != null) onEventsLoaded.run();
+            return;
+        }
+
+        for (EventSummary event : lastEvents) {
+            View eventCardView = createEventCard(event);
+            eventCardView.setTag(event.getId());
+            container.addView(eventCardView);
+        }
+
+        if (onEventsLoaded != null) onEventsLoaded.run();
     }
 
     /**
@@ -93,10 +113,10 @@ public class EventListHelper {
 
     /**
      * Creates a view for a single event card.
-     * @param event The event data to display.
+     * @param event The event summary to display.
      * @return A View representing the event card.
      */
-    private View createEventCard(Event event) {
+    private View createEventCard(EventSummary event) {
         LayoutInflater inflater = LayoutInflater.from(context);
         View cardView = inflater.inflate(R.layout.entrant_item_event_card, container, false);
 
@@ -141,11 +161,11 @@ public class EventListHelper {
         // Handle join waiting list button click
         String userId = getCurrentUserId();
         if (userId != null && !userId.isEmpty()) {
-            // Check if user is already on waiting list
-            if (event.isUserOnWaitingList(userId)) {
+            // Check the membership index rather than the event's embedded lists
+            if (membershipIndex.isOnWaitingList(event.getId(), userId)) {
                 joinButton.setText("On Waiting List");
                 joinButton.setEnabled(false);
-            } else if (event.isUserParticipant(userId)) {
+            } else if (membershipIndex.isParticipant(event.getId(), userId)) {
                 joinButton.setText("Already Participating");
                 joinButton.setEnabled(false);
             } else {
@@ -167,7 +187,7 @@ public class EventListHelper {
      * @param userId The ID of the user joining.
      * @param button The button that was clicked, to update its state.
      */
-    private void joinWaitingList(Event event, String userId, MaterialButton button) {
+    private void joinWaitingList(EventSummary event, String userId, MaterialButton button) {
         button.setEnabled(false);
         button.setText("Joining...");
 
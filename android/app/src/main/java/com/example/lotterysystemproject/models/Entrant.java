@@ -1,5 +1,7 @@
 package com.example.lotterysystemproject.models;
 
+import java.util.Date;
+
 /**
  * Represents an entrant in an event lottery.
  * This class stores information about a user who has entered a lottery for an event,
@@ -25,6 +27,10 @@ public class Entrant {
     private String id;
     /** The unique identifier of the event the entrant is registered for. */
     private String eventId;
+    /** Copy of the event's name taken at join time, so history needs no event read. */
+    private String eventName;
+    /** Copy of the event's date taken at join time. */
+    private Date eventDate;
     /** The name of the entrant. */
     private String name;
     /** The email address of the entrant. */
@@ -37,6 +43,8 @@ public class Entrant {
     private long joinedTimestamp;  // When they joined waiting list
     /** The timestamp when the entrant's status was last updated. */
     private long statusTimestamp;  // When status last changed
+    /** The timestamp when the entrant was checked in at the door, 0 if not checked in. */
+    private long checkedInTimestamp;
     
     // ===================== GEOLOCATION FIELDS =====================
     /** The latitude coordinate where the entrant joined the waiting list. */
@@ -87,6 +95,28 @@ public class Entrant {
      */
     public void setEventId(String eventId) { this.eventId = eventId; }
 
+    /**
+     * Gets the name of the event, as copied onto the entrant record.
+     * @return The event name, or null if it was not recorded.
+     */
+    public String getEventName() { return eventName; }
+    /**
+     * Sets the name of the event copied onto the entrant record.
+     * @param eventName The event name.
+     */
+    public void setEventName(String eventName) { this.eventName = eventName; }
+
+    /**
+     * Gets the date of the event, as copied onto the entrant record.
+     * @return The event date, or null if it was not recorded.
+     */
+    public Date getEventDate() { return eventDate; }
+    /**
+     * Sets the date of the event copied onto the entrant record.
+     * @param eventDate The event date.
+     */
+    public void setEventDate(Date eventDate) { this.eventDate = eventDate; }
+
     /**
      * Gets the name of the entrant.
      * @return The entrant's name.
@@ -156,6 +186,23 @@ public class Entrant {
      */
     public void setStatusTimestamp(long timestamp) { this.statusTimestamp = timestamp; }
 
+    /**
+     * Gets the timestamp when the entrant was checked in at the event.
+     * @return The check-in timestamp in milliseconds, or 0 if not checked in.
+     */
+    public long getCheckedInTimestamp() { return checkedInTimestamp; }
+    /**
+     * Sets the timestamp when the entrant was checked in at the event.
+     * @param timestamp The check-in timestamp in milliseconds.
+     */
+    public void setCheckedInTimestamp(long timestamp) { this.checkedInTimestamp = timestamp; }
+
+    /**
+     * Checks if the entrant has been checked in at the event.
+     * @return true if a check-in timestamp is recorded
+     */
+    public boolean isCheckedIn() { return checkedInTimestamp > 0; }
+
     // ===================== GEOLOCATION GETTERS/SETTERS =====================
 
     /**
@@ -58,6 +58,13 @@ public class Event {
     private Date createdAt;
     private Date updatedAt;
 
+    // Featured sampling
+    private double randomKey; // Uniform sort key in [0, 1), re-rolled periodically
+    private long randomKeyRolledAt; // When randomKey was last assigned, in milliseconds
+
+    // List projection
+    private int summaryVersion; // EventSummary.VERSION of the event_summaries document, 0 if none
+
     /**
      * Empty constructor for Firebase deserialization.
      */
@@ -180,6 +187,15 @@ public class Event {
     public Date getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(Date updatedAt) { this.updatedAt = updatedAt; }
 
+    public double getRandomKey() { return randomKey; }
+    public void setRandomKey(double randomKey) { this.randomKey = randomKey; }
+
+    public long getRandomKeyRolledAt() { return randomKeyRolledAt; }
+    public void setRandomKeyRolledAt(long randomKeyRolledAt) { this.randomKeyRolledAt = randomKeyRolledAt; }
+
+    public int getSummaryVersion() { return summaryVersion; }
+    public void setSummaryVersion(int summaryVersion) { this.summaryVersion = summaryVersion; }
+
     // ============ HELPER METHODS ============
 
     /**
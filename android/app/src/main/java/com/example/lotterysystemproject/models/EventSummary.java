@@ -0,0 +1,107 @@
+package com.example.lotterysystemproject.models;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Compact projection of an Event stored in {@code event_summaries/{eventId}}.
+ * Holds only what list screens display or filter on, so browsing never
+ * downloads the entrant id arrays embedded in the full event document.
+ */
+public class EventSummary {
+
+    /** Bumped when the projected fields change, so existing summaries are rewritten. */
+    public static final int VERSION = 1;
+
+    private String id;
+    private String name;
+    private String description;
+    private String hostName;
+    private String hostId;
+    private String location;
+    private List<String> categories;
+    private Date eventDate;
+    private String eventTime;
+    private String posterImageUrl;
+    private boolean active;
+    private int currentWaitingCount;
+    private int maxWaitingListSize;
+    private Date createdAt;
+
+    /**
+     * Empty constructor for Firebase deserialization.
+     */
+    public EventSummary() {
+        this.categories = new ArrayList<>();
+    }
+
+    /**
+     * Builds the summary of an event.
+     * @param eventId The event document ID.
+     * @param event The full event.
+     * @return The summary to store next to the event.
+     */
+    public static EventSummary from(String eventId, Event event) {
+        EventSummary s = new EventSummary();
+        s.id = eventId;
+        s.name = event.getName();
+        s.description = event.getDescription();
+        s.hostName = event.getHostName();
+        s.hostId = event.getHostId();
+        s.location = event.getLocation();
+        s.categories = event.getCategories() != null ? new ArrayList<>(event.getCategories()) : new ArrayList<>();
+        s.eventDate = event.getEventDate();
+        s.eventTime = event.getEventTime();
+        s.posterImageUrl = event.getPosterImageUrl();
+        s.active = event.isActive();
+        s.currentWaitingCount = event.getWaitingList() != null ? event.getWaitingList().size() : 0;
+        s.maxWaitingListSize = event.getMaxWaitingListSize();
+        s.createdAt = event.getCreatedAt();
+        return s;
+    }
+
+    // ============ GETTERS AND SETTERS ============
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+
+    public String getHostName() { return hostName; }
+    public void setHostName(String hostName) { this.hostName = hostName; }
+
+    public String getHostId() { return hostId; }
+    public void setHostId(String hostId) { this.hostId = hostId; }
+
+    public String getLocation() { return location; }
+    public void setLocation(String location) { this.location = location; }
+
+    public List<String> getCategories() { return categories; }
+    public void setCategories(List<String> categories) { this.categories = categories; }
+
+    public Date getEventDate() { return eventDate; }
+    public void setEventDate(Date eventDate) { this.eventDate = eventDate; }
+
+    public String getEventTime() { return eventTime; }
+    public void setEventTime(String eventTime) { this.eventTime = eventTime; }
+
+    public String getPosterImageUrl() { return posterImageUrl; }
+    public void setPosterImageUrl(String posterImageUrl) { this.posterImageUrl = posterImageUrl; }
+
+    public boolean isActive() { return active; }
+    public void setActive(boolean active) { this.active = active; }
+
+    public int getCurrentWaitingCount() { return currentWaitingCount; }
+    public void setCurrentWaitingCount(int currentWaitingCount) { this.currentWaitingCount = currentWaitingCount; }
+
+    public int getMaxWaitingListSize() { return maxWaitingListSize; }
+    public void setMaxWaitingListSize(int maxWaitingListSize) { this.maxWaitingListSize = maxWaitingListSize; }
+
+    public Date getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Date createdAt) { this.createdAt = createdAt; }
+}
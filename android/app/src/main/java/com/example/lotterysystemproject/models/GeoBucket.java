@@ -0,0 +1,65 @@
+package com.example.lotterysystemproject.models;
+
+import com.example.lotterysystemproject.utils.Geohash;
+import com.google.firebase.firestore.Exclude;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Number of entrants of an event who joined from one geohash cell, stored in
+ * {@code events/{eventId}/geo_buckets/{geohash}}. Every cell is kept at a few
+ * precisions so a map can load a viewport at any zoom from a handful of documents.
+ */
+public class GeoBucket {
+
+    private String geohash;
+    private int precision;
+    private Map<String, Long> counts; // Entrant.Status name to number of entrants
+    private long total;
+
+    /**
+     * Empty constructor for Firebase deserialization.
+     */
+    public GeoBucket() {
+        this.counts = new HashMap<>();
+    }
+
+    public String getGeohash() { return geohash; }
+    public void setGeohash(String geohash) { this.geohash = geohash; }
+
+    public int getPrecision() { return precision; }
+    public void setPrecision(int precision) { this.precision = precision; }
+
+    public Map<String, Long> getCounts() { return counts; }
+    public void setCounts(Map<String, Long> counts) { this.counts = counts != null ? counts : new HashMap<>(); }
+
+    public long getTotal() { return total; }
+    public void setTotal(long total) { this.total = total; }
+
+    /**
+     * @param status entrant status to count
+     * @return number of entrants in this cell with that status
+     */
+    @Exclude
+    public long getCount(Entrant.Status status) {
+        Long count = counts.get(status.name());
+        return count != null ? Math.max(count, 0) : 0;
+    }
+
+    /**
+     * @return latitude of the cell's center
+     */
+    @Exclude
+    public double getCenterLatitude() {
+        return Geohash.center(geohash)[0];
+    }
+
+    /**
+     * @return longitude of the cell's center
+     */
+    @Exclude
+    public double getCenterLongitude() {
+        return Geohash.center(geohash)[1];
+    }
+}
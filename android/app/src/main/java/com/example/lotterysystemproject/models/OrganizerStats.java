@@ -0,0 +1,74 @@
+package com.example.lotterysystemproject.models;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-organizer event counters stored in {@code organizer_stats/{hostId}}.
+ * Keeps the date of every event the organizer hosts so the dashboard header
+ * can be computed from a single document read, whatever the current time is.
+ */
+public class OrganizerStats {
+
+    /** Events starting within this window are counted as active. */
+    public static final long ACTIVE_WINDOW_MS = 24 * 60 * 60 * 1000L;
+
+    private Map<String, Long> eventDates;
+
+    /** Required empty constructor for Firestore deserialization. */
+    public OrganizerStats() {
+        this.eventDates = new HashMap<>();
+    }
+
+    /**
+     * Gets the event dates keyed by event ID.
+     * @return Map of event ID to event date in milliseconds.
+     */
+    public Map<String, Long> getEventDates() { return eventDates; }
+    /**
+     * Sets the event dates keyed by event ID.
+     * @param eventDates Map of event ID to event date in milliseconds.
+     */
+    public void setEventDates(Map<String, Long> eventDates) {
+        this.eventDates = eventDates != null ? eventDates : new HashMap<>();
+    }
+
+    /**
+     * Counts events that have already taken place.
+     * @param now Current time in milliseconds.
+     * @return Number of past events.
+     */
+    public int countPast(long now) {
+        int count = 0;
+        for (Long date : eventDates.values()) {
+            if (date != null && date < now) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Counts events taking place within the next {@link #ACTIVE_WINDOW_MS}.
+     * @param now Current time in milliseconds.
+     * @return Number of active events.
+     */
+    public int countActive(long now) {
+        int count = 0;
+        for (Long date : eventDates.values()) {
+            if (date != null && date >= now && date <= now + ACTIVE_WINDOW_MS) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Counts events taking place after the active window.
+     * @param now Current time in milliseconds.
+     * @return Number of upcoming events.
+     */
+    public int countUpcoming(long now) {
+        int count = 0;
+        for (Long date : eventDates.values()) {
+            if (date != null && date > now + ACTIVE_WINDOW_MS) count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,253 @@
+package com.example.lotterysystemproject.utils;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process-wide executors for work that must stay off the main thread.
+ * <ul>
+ *     <li>{@link #io()}: a small fixed pool for disk, network and blocking Firebase calls.</li>
+ *     <li>{@link #compute()}: one thread per core for CPU-bound work such as hashing,
+ *     diffing and filtering.</li>
+ *     <li>{@link #mainThread()}: posts to the main looper.</li>
+ *     <li>{@link #serial(String)}: runs the tasks given under one key one at a time, in
+ *     order, on the IO pool, for work that owns state such as an open file.</li>
+ * </ul>
+ * Every executor counts the tasks queued and run, and how long they waited and ran;
+ * see {@link #getStats()}.
+ */
+public final class AppExecutors {
+
+    /** IO threads; blocking calls mostly wait, but more threads would only contend for the disk. */
+    private static final int IO_THREADS = 4;
+    private static final int COMPUTE_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+    private static final long IDLE_TIMEOUT_SECONDS = 30;
+
+    private static final InstrumentedExecutor IO =
+            new InstrumentedExecutor("io", newPool("app-io", IO_THREADS));
+    private static final InstrumentedExecutor COMPUTE =
+            new InstrumentedExecutor("compute", newPool("app-compute", COMPUTE_THREADS));
+    private static final Map<String, InstrumentedExecutor> SERIAL = new ConcurrentHashMap<>();
+
+    /** Created on first use so the class can load where no main looper exists. */
+    private static final class MainHolder {
+        static final InstrumentedExecutor MAIN = new InstrumentedExecutor("main",
+                new Handler(Looper.getMainLooper())::post);
+    }
+
+    /**
+     * Counters for one executor since process start.
+     */
+    public static final class Stats {
+        public final String name;
+        public final long submitted;
+        public final long completed;
+        public final int queued;
+        public final int maxQueued;
+        public final long totalWaitMs;
+        public final long totalRunMs;
+        public final long maxRunMs;
+
+        Stats(String name, long submitted, long completed, int queued, int maxQueued,
+              long totalWaitMs, long totalRunMs, long maxRunMs) {
+            this.name = name;
+            this.submitted = submitted;
+            this.completed = completed;
+            this.queued = queued;
+            this.maxQueued = maxQueued;
+            this.totalWaitMs = totalWaitMs;
+            this.totalRunMs = totalRunMs;
+            this.maxRunMs = maxRunMs;
+        }
+
+        /**
+         * @return mean time a task waited before starting, in milliseconds
+         */
+        public double averageWaitMs() {
+            return completed == 0 ? 0 : (double) totalWaitMs / completed;
+        }
+
+        /**
+         * @return mean time a task ran, in milliseconds
+         */
+        public double averageRunMs() {
+            return completed == 0 ? 0 : (double) totalRunMs / completed;
+        }
+
+        @Override
+        public String toString() {
+            return name + ": submitted=" + submitted + " completed=" + completed
+                    + " queued=" + queued + " maxQueued=" + maxQueued
+                    + String.format(Locale.US, " wait=%.1fms run=%.1fms", averageWaitMs(), averageRunMs())
+                    + " maxRun=" + maxRunMs + "ms";
+        }
+    }
+
+    /** Private constructor to prevent instantiation. */
+    private AppExecutors() {}
+
+    /**
+     * @return the shared pool for disk, network and blocking calls
+     */
+    public static Executor io() {
+        return IO;
+    }
+
+    /**
+     * @return the shared pool for CPU-bound work, one thread per core
+     */
+    public static Executor compute() {
+        return COMPUTE;
+    }
+
+    /**
+     * @return an executor that posts to the main thread
+     */
+    public static Executor mainThread() {
+        return MainHolder.MAIN;
+    }
+
+    /**
+     * Returns the serial executor for a key. Tasks given to it run one at a time, in
+     * submission order, each seeing the effects of the previous one; they borrow
+     * threads from the IO pool, so an idle key costs nothing.
+     *
+     * @param key name of the work, e.g. {@code "roster-export"}
+     * @return the same executor for every call with this key
+     */
+    public static Executor serial(String key) {
+        return SERIAL.computeIfAbsent(key,
+                k -> new InstrumentedExecutor("serial:" + k, new SerialExecutor(IO)));
+    }
+
+    /**
+     * @return counters for every executor used so far
+     */
+    public static List<Stats> getStats() {
+        List<Stats> stats = new ArrayList<>();
+        stats.add(IO.stats());
+        stats.add(COMPUTE.stats());
+        stats.add(MainHolder.MAIN.stats());
+        for (InstrumentedExecutor executor : SERIAL.values()) {
+            stats.add(executor.stats());
+        }
+        return stats;
+    }
+
+    private static ThreadPoolExecutor newPool(String name, int threads) {
+        AtomicInteger count = new AtomicInteger();
+        ThreadFactory factory = runnable -> {
+            Thread thread = new Thread(() -> {
+                android.os.Process.setThreadPriority(android.os.Process.THREAD_PRIORITY_BACKGROUND);
+                runnable.run();
+            }, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads,
+                IDLE_TIMEOUT_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), factory);
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    /**
+     * Runs tasks one after another on a delegate executor.
+     */
+    static final class SerialExecutor implements Executor {
+        private final Executor delegate;
+        private final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+        private Runnable active;
+
+        SerialExecutor(Executor delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public synchronized void execute(Runnable task) {
+            tasks.add(() -> {
+                try {
+                    task.run();
+                } finally {
+                    scheduleNext();
+                }
+            });
+            if (active == null) {
+                scheduleNext();
+            }
+        }
+
+        private synchronized void scheduleNext() {
+            active = tasks.poll();
+            if (active != null) {
+                delegate.execute(active);
+            }
+        }
+    }
+
+    /**
+     * Wraps an executor to count queued tasks and time how long each waits and runs.
+     */
+    static final class InstrumentedExecutor implements Executor {
+        private final String name;
+        private final Executor delegate;
+        private final AtomicLong submitted = new AtomicLong();
+        private final AtomicLong completed = new AtomicLong();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicInteger maxQueued = new AtomicInteger();
+        private final AtomicLong totalWaitNanos = new AtomicLong();
+        private final AtomicLong totalRunNanos = new AtomicLong();
+        private final AtomicLong maxRunNanos = new AtomicLong();
+
+        InstrumentedExecutor(String name, Executor delegate) {
+            this.name = name;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            long enqueuedAt = System.nanoTime();
+            submitted.incrementAndGet();
+            maxQueued.accumulateAndGet(queued.incrementAndGet(), Math::max);
+
+            try {
+                delegate.execute(() -> {
+                    long startedAt = System.nanoTime();
+                    queued.decrementAndGet();
+                    totalWaitNanos.addAndGet(startedAt - enqueuedAt);
+                    try {
+                        task.run();
+                    } finally {
+                        long ran = System.nanoTime() - startedAt;
+                        totalRunNanos.addAndGet(ran);
+                        maxRunNanos.accumulateAndGet(ran, Math::max);
+                        completed.incrementAndGet();
+                    }
+                });
+            } catch (RuntimeException e) {
+                queued.decrementAndGet();
+                throw e;
+            }
+        }
+
+        Stats stats() {
+            return new Stats(name, submitted.get(), completed.get(), queued.get(), maxQueued.get(),
+                    TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.get()),
+                    TimeUnit.NANOSECONDS.toMillis(totalRunNanos.get()),
+                    TimeUnit.NANOSECONDS.toMillis(maxRunNanos.get()));
+        }
+    }
+}
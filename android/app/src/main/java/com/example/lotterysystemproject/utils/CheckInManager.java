@@ -0,0 +1,228 @@
+package com.example.lotterysystemproject.utils;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.example.lotterysystemproject.firebasemanager.EntrantRepository;
+import com.example.lotterysystemproject.firebasemanager.RepositoryProvider;
+import com.example.lotterysystemproject.models.Entrant;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Offline door check-in for organizers.
+ * <p>
+ * The ENROLLED entrant ids of an event are cached in SharedPreferences whenever
+ * the organizer views the event, so tickets can be validated at the door with
+ * no network. Admitted check-ins are queued locally and written to Firestore in
+ * batches as soon as a network is available.
+ * </p>
+ * All methods must be called on the main thread.
+ */
+public final class CheckInManager {
+
+    private static final String TAG = "CheckInManager";
+    private static final String PREFS = "CheckInPrefs";
+    private static final String KEY_ROSTER = "roster_";
+    private static final String KEY_CHECKED = "checked_";
+    /** Queued check-ins, stored as "entrantId|timestamp". */
+    private static final String KEY_PENDING = "pending_checkins";
+    private static final String SEPARATOR = "|";
+
+    private static volatile CheckInManager instance;
+
+    private final SharedPreferences prefs;
+    private final ConnectivityManager connectivityManager;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Map<String, CheckInRoster> rosters = new HashMap<>();
+    private final EntrantRepository repository;
+
+    private ConnectivityManager.NetworkCallback networkCallback;
+    private boolean syncing = false;
+
+    private CheckInManager(Context context) {
+        Context appContext = context.getApplicationContext();
+        prefs = appContext.getSharedPreferences(PREFS, Context.MODE_PRIVATE);
+        connectivityManager = appContext.getSystemService(ConnectivityManager.class);
+        repository = RepositoryProvider.getEntrantRepository();
+    }
+
+    /**
+     * Returns the process-wide check-in manager.
+     *
+     * @param context any context; only the application context is retained
+     * @return shared CheckInManager
+     */
+    public static CheckInManager getInstance(Context context) {
+        if (instance == null) {
+            synchronized (CheckInManager.class) {
+                if (instance == null) {
+                    instance = new CheckInManager(context);
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Replaces the cached roster of an event with the ENROLLED entrants from a
+     * fresh entrant list. Check-ins already recorded on the server or locally are kept.
+     * A null list, which the entrant listener emits when it fails, keeps the cached roster.
+     *
+     * @param eventId  event the entrants belong to
+     * @param entrants current entrant list for the event, or null if it could not be loaded
+     */
+    public void refreshRoster(String eventId, List<Entrant> entrants) {
+        if (eventId == null || entrants == null) return;
+
+        Set<String> enrolled = new HashSet<>();
+        Set<String> checkedIn = new HashSet<>(prefs.getStringSet(KEY_CHECKED + eventId, new HashSet<>()));
+        for (Entrant entrant : entrants) {
+            if (entrant.getStatus() != Entrant.Status.ENROLLED || entrant.getId() == null) continue;
+            // Ignore entrants of other events if the caller passes a mixed list
+            if (entrant.getEventId() != null && !eventId.equals(entrant.getEventId())) continue;
+            enrolled.add(entrant.getId());
+            if (entrant.isCheckedIn()) {
+                checkedIn.add(entrant.getId());
+            }
+        }
+
+        prefs.edit()
+                .putStringSet(KEY_ROSTER + eventId, enrolled)
+                .putStringSet(KEY_CHECKED + eventId, checkedIn)
+                .apply();
+        rosters.put(eventId, new CheckInRoster(eventId, enrolled, checkedIn));
+    }
+
+    /**
+     * Returns the cached roster for an event, loading it from disk on first use.
+     *
+     * @param eventId event to look up
+     * @return roster, empty if the event was never viewed online
+     */
+    @NonNull
+    public CheckInRoster getRoster(String eventId) {
+        CheckInRoster roster = rosters.get(eventId);
+        if (roster == null) {
+            roster = new CheckInRoster(eventId,
+                    prefs.getStringSet(KEY_ROSTER + eventId, new HashSet<>()),
+                    prefs.getStringSet(KEY_CHECKED + eventId, new HashSet<>()));
+            rosters.put(eventId, roster);
+        }
+        return roster;
+    }
+
+    /**
+     * Validates a scanned ticket against the cached roster. Admitted entrants are
+     * persisted locally and queued for upload.
+     *
+     * @param eventId   event being checked in at the door
+     * @param ticketRaw raw text of the scanned ticket QR code
+     * @return validation result
+     */
+    public CheckInRoster.Result checkIn(String eventId, String ticketRaw) {
+        String entrantId = QRCodeGenerator.extractTicketEntrantId(ticketRaw);
+        String ticketEventId = QRCodeGenerator.extractEventId(ticketRaw);
+
+        CheckInRoster roster = getRoster(eventId);
+        CheckInRoster.Result result = roster.checkIn(ticketEventId, entrantId);
+        if (result != CheckInRoster.Result.ADMITTED) {
+            return result;
+        }
+
+        Set<String> pending = new HashSet<>(prefs.getStringSet(KEY_PENDING, new HashSet<>()));
+        pending.add(entrantId + SEPARATOR + System.currentTimeMillis());
+        prefs.edit()
+                .putStringSet(KEY_CHECKED + eventId, roster.getCheckedIn())
+                .putStringSet(KEY_PENDING, pending)
+                .apply();
+
+        syncPending();
+        return result;
+    }
+
+    /**
+     * @return number of check-ins waiting to be uploaded
+     */
+    public int getPendingCount() {
+        return prefs.getStringSet(KEY_PENDING, new HashSet<>()).size();
+    }
+
+    /**
+     * Uploads all queued check-ins in batches. Entries are removed from the queue
+     * only after their batch is committed; a failed sync is retried on the next
+     * check-in or when the network comes back.
+     */
+    public void syncPending() {
+        if (syncing) return;
+
+        Set<String> queued = new HashSet<>(prefs.getStringSet(KEY_PENDING, new HashSet<>()));
+        if (queued.isEmpty()) return;
+
+        Map<String, Long> checkIns = new HashMap<>();
+        for (String entry : queued) {
+            int split = entry.lastIndexOf(SEPARATOR);
+            if (split <= 0) continue;
+            try {
+                checkIns.put(entry.substring(0, split), Long.parseLong(entry.substring(split + 1)));
+            } catch (NumberFormatException e) {
+                Log.w(TAG, "Dropping malformed check-in entry: " + entry);
+            }
+        }
+
+        syncing = true;
+        repository.checkInEntrants(checkIns, new EntrantRepository.OnActionCompleteListener() {
+            @Override
+            public void onSuccess() {
+                syncing = false;
+                // Keep anything queued while this sync was in flight
+                Set<String> remaining = new HashSet<>(prefs.getStringSet(KEY_PENDING, new HashSet<>()));
+                remaining.removeAll(queued);
+                prefs.edit().putStringSet(KEY_PENDING, remaining).apply();
+                Log.d(TAG, "Synced " + checkIns.size() + " check-ins");
+            }
+
+            @Override
+            public void onFailure(String error) {
+                syncing = false;
+                Log.w(TAG, "Check-in sync failed, will retry: " + error);
+            }
+        });
+    }
+
+    /**
+     * Starts syncing queued check-ins whenever a network becomes available.
+     * Call when the door scanner is opened.
+     */
+    public void startNetworkSync() {
+        if (networkCallback != null || connectivityManager == null) return;
+
+        networkCallback = new ConnectivityManager.NetworkCallback() {
+            @Override
+            public void onAvailable(@NonNull Network network) {
+                mainHandler.post(CheckInManager.this::syncPending);
+            }
+        };
+        connectivityManager.registerDefaultNetworkCallback(networkCallback);
+    }
+
+    /**
+     * Stops listening for connectivity changes. Call when the door scanner is closed.
+     */
+    public void stopNetworkSync() {
+        if (networkCallback == null) return;
+        connectivityManager.unregisterNetworkCallback(networkCallback);
+        networkCallback = null;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.lotterysystemproject.utils;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * In-memory roster used to validate tickets at the door without network access.
+ * Holds the entrant ids that are ENROLLED in one event and the ids already
+ * checked in, so every validation is a pair of hash set lookups.
+ */
+public class CheckInRoster {
+
+    /**
+     * Outcome of validating a scanned ticket.
+     */
+    public enum Result {
+        /** Entrant is enrolled and was not checked in before. */
+        ADMITTED,
+        /** Entrant is enrolled but already came through the door. */
+        ALREADY_CHECKED_IN,
+        /** Ticket does not belong to an enrolled entrant of this event. */
+        NOT_ON_ROSTER
+    }
+
+    private final String eventId;
+    private final Set<String> enrolled;
+    private final Set<String> checkedIn;
+
+    /**
+     * @param eventId   event this roster belongs to
+     * @param enrolled  entrant ids allowed in
+     * @param checkedIn entrant ids already checked in
+     */
+    public CheckInRoster(String eventId, Collection<String> enrolled, Collection<String> checkedIn) {
+        this.eventId = eventId;
+        this.enrolled = new HashSet<>(enrolled);
+        this.checkedIn = new HashSet<>(checkedIn);
+    }
+
+    public String getEventId() {
+        return eventId;
+    }
+
+    /**
+     * Validates a ticket and, if admitted, marks the entrant as checked in.
+     *
+     * @param ticketEventId event id encoded in the ticket
+     * @param entrantId     entrant id encoded in the ticket
+     * @return validation result
+     */
+    public Result checkIn(String ticketEventId, String entrantId) {
+        if (entrantId == null || !eventId.equals(ticketEventId) || !enrolled.contains(entrantId)) {
+            return Result.NOT_ON_ROSTER;
+        }
+        return checkedIn.add(entrantId) ? Result.ADMITTED : Result.ALREADY_CHECKED_IN;
+    }
+
+    /** @return number of enrolled entrants on the roster */
+    public int getEnrolledCount() {
+        return enrolled.size();
+    }
+
+    /** @return number of entrants checked in so far */
+    public int getCheckedInCount() {
+        return checkedIn.size();
+    }
+
+    /** @return copy of the enrolled entrant ids */
+    public Set<String> getEnrolled() {
+        return new HashSet<>(enrolled);
+    }
+
+    /** @return copy of the checked-in entrant ids */
+    public Set<String> getCheckedIn() {
+        return new HashSet<>(checkedIn);
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.lotterysystemproject.utils;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.view.Choreographer;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MediatorLiveData;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * LiveData that emits at most once per frame, or once per interval, keeping only the
+ * newest value.
+ * <p>
+ * Snapshot listeners can fire many times in a burst, for example once per winner
+ * while a lottery draw commits. Values given to {@link #offer(Object)} are held
+ * until the next frame; a value offered while another is still pending replaces it
+ * and is counted as dropped, so observers only rebuild for the state that is
+ * current when the frame is drawn.
+ * </p>
+ * Values are counted per name across instances; see {@link #getStats()}. All
+ * instance methods must be called on the main thread.
+ *
+ * @param <T> type of the value
+ */
+public class ConflatedLiveData<T> extends MediatorLiveData<T> {
+
+    private static final Map<String, Counters> COUNTERS = new ConcurrentHashMap<>();
+
+    /**
+     * Decides when a pending value is emitted.
+     */
+    public interface Pacer {
+        /**
+         * Runs {@code flush} on the main thread at the next allowed moment.
+         */
+        void schedule(Runnable flush);
+    }
+
+    /**
+     * Counters for every instance sharing one name, since process start.
+     */
+    public static final class Stats {
+        public final String name;
+        public final long offered;
+        public final long emitted;
+        public final long dropped;
+
+        Stats(String name, long offered, long emitted, long dropped) {
+            this.name = name;
+            this.offered = offered;
+            this.emitted = emitted;
+            this.dropped = dropped;
+        }
+
+        @Override
+        public String toString() {
+            return name + ": offered=" + offered + " emitted=" + emitted + " dropped=" + dropped;
+        }
+    }
+
+    private final Pacer pacer;
+    private final Counters counters;
+    private final Runnable flush = this::flush;
+
+    private boolean scheduled;
+    private T pending;
+
+    /**
+     * Creates a LiveData that emits at most once per display frame.
+     *
+     * @param name label for the counters, e.g. {@code "entrants"}
+     */
+    public ConflatedLiveData(String name) {
+        this(name, perFrame());
+    }
+
+    /**
+     * @param name  label for the counters
+     * @param pacer when to emit a pending value; see {@link #perFrame()} and {@link #every(long)}
+     */
+    public ConflatedLiveData(String name, Pacer pacer) {
+        this.pacer = pacer;
+        this.counters = COUNTERS.computeIfAbsent(name, Counters::new);
+    }
+
+    /**
+     * Returns a LiveData that follows {@code source} at most once per frame.
+     *
+     * @param name   label for the counters
+     * @param source the LiveData to follow
+     * @return conflated view of the source
+     */
+    public static <T> LiveData<T> conflate(String name, LiveData<T> source) {
+        ConflatedLiveData<T> out = new ConflatedLiveData<>(name);
+        out.addSource(source, out::offer);
+        return out;
+    }
+
+    /**
+     * Emits on the next display frame.
+     */
+    public static Pacer perFrame() {
+        return flush -> Choreographer.getInstance().postFrameCallback(frameTimeNanos -> flush.run());
+    }
+
+    /**
+     * Emits no sooner than {@code intervalMs} after the previous emission.
+     *
+     * @param intervalMs minimum spacing between emissions
+     */
+    public static Pacer every(long intervalMs) {
+        return new IntervalPacer(intervalMs);
+    }
+
+    /**
+     * Queues a value for the next emission, replacing any value still pending.
+     *
+     * @param value the new value; null is passed on like any other value
+     */
+    public void offer(T value) {
+        counters.offered.incrementAndGet();
+        pending = value;
+        if (scheduled) {
+            counters.dropped.incrementAndGet();
+            return;
+        }
+        scheduled = true;
+        pacer.schedule(flush);
+    }
+
+    private void flush() {
+        T value = pending;
+        pending = null;
+        scheduled = false;
+        counters.emitted.incrementAndGet();
+        setValue(value);
+    }
+
+    /**
+     * @return counters for every name used so far
+     */
+    public static List<Stats> getStats() {
+        List<Stats> stats = new ArrayList<>();
+        for (Counters c : COUNTERS.values()) {
+            stats.add(new Stats(c.name, c.offered.get(), c.emitted.get(), c.dropped.get()));
+        }
+        return stats;
+    }
+
+    private static final class Counters {
+        final String name;
+        final AtomicLong offered = new AtomicLong();
+        final AtomicLong emitted = new AtomicLong();
+        final AtomicLong dropped = new AtomicLong();
+
+        Counters(String name) {
+            this.name = name;
+        }
+    }
+
+    /**
+     * Posts to the main looper, delayed so emissions stay at least an interval apart.
+     */
+    private static final class IntervalPacer implements Pacer {
+        private final Handler main = new Handler(Looper.getMainLooper());
+        private final long intervalMs;
+        private long lastRunMs = -1;
+
+        IntervalPacer(long intervalMs) {
+            this.intervalMs = intervalMs;
+        }
+
+        @Override
+        public void schedule(Runnable flush) {
+            long delay = lastRunMs < 0 ? 0
+                    : Math.max(0, lastRunMs + intervalMs - SystemClock.uptimeMillis());
+            main.postDelayed(() -> {
+                lastRunMs = SystemClock.uptimeMillis();
+                flush.run();
+            }, delay);
+        }
+    }
+}
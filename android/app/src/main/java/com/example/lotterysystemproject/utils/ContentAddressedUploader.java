@@ -0,0 +1,150 @@
+package com.example.lotterysystemproject.utils;
+
+import android.content.ContentResolver;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.google.firebase.storage.StorageException;
+import com.google.firebase.storage.StorageMetadata;
+import com.google.firebase.storage.StorageReference;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.function.Consumer;
+
+/**
+ * Uploads images to Firebase Storage under a content-addressed path.
+ * <p>
+ * The image bytes are hashed with SHA-256 while they are read from the
+ * picked Uri, and stored as {@code <folder>/<sha256>.jpg}. If an object with
+ * that name already exists the upload is skipped and the existing download
+ * URL is returned, so re-using the same poster or profile picture costs a
+ * metadata lookup instead of a full upload.
+ * </p>
+ */
+public final class ContentAddressedUploader {
+
+    private static final String TAG = "ContentAddressedUpload";
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    private ContentAddressedUploader() {}
+
+    /**
+     * Hashes the image at {@code imageUri} and uploads it into {@code folder}
+     * unless an identical image is already stored there.
+     *
+     * @param resolver  resolver used to open the picked image
+     * @param folder    storage folder, e.g. {@code event_posters}
+     * @param imageUri  local image to upload
+     * @param onSuccess receives the download URL of the stored image (main thread)
+     * @param onError   receives any read, hash or storage failure (main thread)
+     */
+    public static void upload(ContentResolver resolver,
+                              StorageReference folder,
+                              Uri imageUri,
+                              Consumer<String> onSuccess,
+                              Consumer<Exception> onError) {
+        Handler mainHandler = new Handler(Looper.getMainLooper());
+        // Hashing reads the whole image, so keep it off the main thread
+        AppExecutors.io().execute(() -> {
+            byte[] bytes;
+            String hash;
+            try (InputStream in = resolver.openInputStream(imageUri)) {
+                if (in == null) {
+                    throw new IOException("Unable to open " + imageUri);
+                }
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                hash = sha256Hex(in, out);
+                bytes = out.toByteArray();
+            } catch (IOException e) {
+                mainHandler.post(() -> {
+                    if (onError != null) onError.accept(e);
+                });
+                return;
+            }
+
+            mainHandler.post(() -> uploadIfAbsent(folder.child(hash + ".jpg"), bytes, onSuccess, onError));
+        });
+    }
+
+    /**
+     * Looks up the object's metadata and only uploads when it does not exist yet.
+     */
+    private static void uploadIfAbsent(StorageReference ref,
+                                       byte[] bytes,
+                                       Consumer<String> onSuccess,
+                                       Consumer<Exception> onError) {
+        ref.getMetadata()
+                .addOnSuccessListener(metadata -> {
+                    Log.d(TAG, "Reusing existing object " + ref.getPath());
+                    resolveDownloadUrl(ref, onSuccess, onError);
+                })
+                .addOnFailureListener(e -> {
+                    if (!(e instanceof StorageException)
+                            || ((StorageException) e).getErrorCode() != StorageException.ERROR_OBJECT_NOT_FOUND) {
+                        if (onError != null) onError.accept(e);
+                        return;
+                    }
+
+                    StorageMetadata metadata = new StorageMetadata.Builder()
+                            .setContentType("image/jpeg")
+                            .build();
+                    ref.putBytes(bytes, metadata)
+                            .addOnSuccessListener(t -> resolveDownloadUrl(ref, onSuccess, onError))
+                            .addOnFailureListener(err -> {
+                                if (onError != null) onError.accept(err);
+                            });
+                });
+    }
+
+    private static void resolveDownloadUrl(StorageReference ref,
+                                           Consumer<String> onSuccess,
+                                           Consumer<Exception> onError) {
+        ref.getDownloadUrl()
+                .addOnSuccessListener(uri -> {
+                    if (onSuccess != null) onSuccess.accept(uri.toString());
+                })
+                .addOnFailureListener(e -> {
+                    if (onError != null) onError.accept(e);
+                });
+    }
+
+    /**
+     * Copies {@code in} to {@code out} while computing the SHA-256 of the bytes read.
+     *
+     * @param in  source stream, read to the end but not closed
+     * @param out destination for the bytes that were hashed
+     * @return lowercase hex digest of the copied bytes
+     * @throws IOException if reading or writing fails
+     */
+    public static String sha256Hex(InputStream in, OutputStream out) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to ship SHA-256
+            throw new IllegalStateException(e);
+        }
+
+        DigestInputStream digestIn = new DigestInputStream(in, digest);
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = digestIn.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+
+        StringBuilder hex = new StringBuilder(64);
+        for (byte b : digest.digest()) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16));
+            hex.append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+}
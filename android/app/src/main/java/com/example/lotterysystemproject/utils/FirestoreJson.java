@@ -0,0 +1,89 @@
+package com.example.lotterysystemproject.utils;
+
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.GeoPoint;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes Firestore document data to a Gson {@link JsonWriter} without building
+ * an intermediate JSON tree, so large exports can be streamed straight to disk.
+ */
+public final class FirestoreJson {
+
+    /** Private constructor to prevent instantiation. */
+    private FirestoreJson() {}
+
+    /**
+     * Writes a document's fields as a JSON object, with its ID under "id".
+     *
+     * @param writer destination writer
+     * @param id     document ID
+     * @param data   document fields, may be null
+     * @throws IOException if writing fails
+     */
+    public static void writeDocument(JsonWriter writer, String id, Map<String, Object> data) throws IOException {
+        writer.beginObject();
+        writer.name("id").value(id);
+        if (data != null) {
+            for (Map.Entry<String, Object> field : data.entrySet()) {
+                if ("id".equals(field.getKey())) continue;
+                writer.name(field.getKey());
+                writeValue(writer, field.getValue());
+            }
+        }
+        writer.endObject();
+    }
+
+    /**
+     * Writes a single Firestore value. Timestamps and dates become epoch
+     * milliseconds, geo points become {lat, lng} objects and references their path.
+     *
+     * @param writer destination writer
+     * @param value  value read from a DocumentSnapshot
+     * @throws IOException if writing fails
+     */
+    public static void writeValue(JsonWriter writer, Object value) throws IOException {
+        if (value == null) {
+            writer.nullValue();
+        } else if (value instanceof String) {
+            writer.value((String) value);
+        } else if (value instanceof Boolean) {
+            writer.value((Boolean) value);
+        } else if (value instanceof Number) {
+            writer.value((Number) value);
+        } else if (value instanceof Timestamp) {
+            writer.value(((Timestamp) value).toDate().getTime());
+        } else if (value instanceof Date) {
+            writer.value(((Date) value).getTime());
+        } else if (value instanceof GeoPoint) {
+            GeoPoint point = (GeoPoint) value;
+            writer.beginObject();
+            writer.name("lat").value(point.getLatitude());
+            writer.name("lng").value(point.getLongitude());
+            writer.endObject();
+        } else if (value instanceof DocumentReference) {
+            writer.value(((DocumentReference) value).getPath());
+        } else if (value instanceof Map) {
+            writer.beginObject();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                writer.name(String.valueOf(entry.getKey()));
+                writeValue(writer, entry.getValue());
+            }
+            writer.endObject();
+        } else if (value instanceof List) {
+            writer.beginArray();
+            for (Object item : (List<?>) value) {
+                writeValue(writer, item);
+            }
+            writer.endArray();
+        } else {
+            writer.value(value.toString());
+        }
+    }
+}
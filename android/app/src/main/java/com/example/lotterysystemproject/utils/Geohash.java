@@ -0,0 +1,166 @@
+package com.example.lotterysystemproject.utils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Minimal geohash encoder used to bucket coordinates into grid cells.
+ * Each extra character splits a cell into 32 smaller ones, so a cell's
+ * geohash is a prefix of the geohash of every point inside it.
+ */
+public final class Geohash {
+
+    private static final char[] BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+
+    /** Private constructor to prevent instantiation. */
+    private Geohash() {}
+
+    /**
+     * Encodes a coordinate.
+     *
+     * @param lat       latitude in degrees
+     * @param lng       longitude in degrees
+     * @param precision number of characters
+     * @return the geohash of the cell containing the point
+     */
+    public static String encode(double lat, double lng, int precision) {
+        double minLat = -90, maxLat = 90;
+        double minLng = -180, maxLng = 180;
+        StringBuilder hash = new StringBuilder(precision);
+        boolean evenBit = true;
+        int bit = 0;
+        int ch = 0;
+
+        while (hash.length() < precision) {
+            if (evenBit) {
+                double mid = (minLng + maxLng) / 2;
+                if (lng >= mid) {
+                    ch |= 1 << (4 - bit);
+                    minLng = mid;
+                } else {
+                    maxLng = mid;
+                }
+            } else {
+                double mid = (minLat + maxLat) / 2;
+                if (lat >= mid) {
+                    ch |= 1 << (4 - bit);
+                    minLat = mid;
+                } else {
+                    maxLat = mid;
+                }
+            }
+            evenBit = !evenBit;
+
+            if (++bit == 5) {
+                hash.append(BASE32[ch]);
+                bit = 0;
+                ch = 0;
+            }
+        }
+        return hash.toString();
+    }
+
+    /**
+     * Decodes a geohash into the bounds of its cell.
+     *
+     * @param hash geohash string
+     * @return {south, west, north, east} in degrees
+     */
+    public static double[] bounds(String hash) {
+        double minLat = -90, maxLat = 90;
+        double minLng = -180, maxLng = 180;
+        boolean evenBit = true;
+
+        for (int i = 0; i < hash.length(); i++) {
+            int value = indexOf(hash.charAt(i));
+            for (int bit = 4; bit >= 0; bit--) {
+                boolean set = ((value >> bit) & 1) == 1;
+                if (evenBit) {
+                    double mid = (minLng + maxLng) / 2;
+                    if (set) minLng = mid; else maxLng = mid;
+                } else {
+                    double mid = (minLat + maxLat) / 2;
+                    if (set) minLat = mid; else maxLat = mid;
+                }
+                evenBit = !evenBit;
+            }
+        }
+        return new double[]{minLat, minLng, maxLat, maxLng};
+    }
+
+    /**
+     * @param hash geohash string
+     * @return {latitude, longitude} of the cell's center
+     */
+    public static double[] center(String hash) {
+        double[] b = bounds(hash);
+        return new double[]{(b[0] + b[2]) / 2, (b[1] + b[3]) / 2};
+    }
+
+    /**
+     * @return height of a cell at the given precision, in degrees of latitude
+     */
+    public static double cellHeight(int precision) {
+        return 180.0 / (1L << (5 * precision / 2));
+    }
+
+    /**
+     * @return width of a cell at the given precision, in degrees of longitude
+     */
+    public static double cellWidth(int precision) {
+        return 360.0 / (1L << ((5 * precision + 1) / 2));
+    }
+
+    /**
+     * Estimates how many cells of a precision a bounding box touches, without listing them.
+     */
+    public static long estimateCells(double south, double west, double north, double east, int precision) {
+        double width = west <= east ? east - west : 360 - (west - east);
+        long rows = (long) Math.ceil((north - south) / cellHeight(precision)) + 1;
+        long cols = (long) Math.ceil(width / cellWidth(precision)) + 1;
+        return rows * cols;
+    }
+
+    /**
+     * Lists the cells of a precision that cover a bounding box. A box whose west
+     * edge is greater than its east edge crosses the antimeridian.
+     *
+     * @return geohashes of the covering cells
+     */
+    public static List<String> cover(double south, double west, double north, double east, int precision) {
+        Set<String> cells = new LinkedHashSet<>();
+        if (west > east) {
+            addCover(cells, south, west, north, 180, precision);
+            addCover(cells, south, -180, north, east, precision);
+        } else {
+            addCover(cells, south, west, north, east, precision);
+        }
+        return new ArrayList<>(cells);
+    }
+
+    private static void addCover(Set<String> cells, double south, double west, double north, double east,
+                                 int precision) {
+        double height = cellHeight(precision);
+        double width = cellWidth(precision);
+
+        // Stepping one cell at a time from the south-west corner visits every row and
+        // column; the last step is clamped so the north and east edges are included
+        for (double lat = south; ; lat += height) {
+            double rowLat = Math.min(lat, north);
+            for (double lng = west; ; lng += width) {
+                cells.add(encode(rowLat, Math.min(lng, east), precision));
+                if (lng >= east) break;
+            }
+            if (lat >= north) break;
+        }
+    }
+
+    private static int indexOf(char c) {
+        for (int i = 0; i < BASE32.length; i++) {
+            if (BASE32[i] == c) return i;
+        }
+        throw new IllegalArgumentException("Invalid geohash character: " + c);
+    }
+}
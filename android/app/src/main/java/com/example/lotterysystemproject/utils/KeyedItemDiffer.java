@@ -0,0 +1,101 @@
+package com.example.lotterysystemproject.utils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiPredicate;
+
+/**
+ * Tracks a set of items by key and turns each new full snapshot into the small
+ * list of changes needed to bring a display layer up to date.
+ * <p>
+ * An item whose content changed is reported as its old instance removed and its
+ * new instance added. Unchanged items keep the instance first reported, so a
+ * later removal always names the object the layer actually holds.
+ * </p>
+ * Not thread-safe; confine each instance to a single thread.
+ *
+ * @param <V> item type
+ */
+public final class KeyedItemDiffer<V> {
+
+    /**
+     * Changes produced by one snapshot.
+     *
+     * @param <V> item type
+     */
+    public static final class Diff<V> {
+        public final List<V> added;
+        public final List<V> removed;
+
+        Diff(List<V> added, List<V> removed) {
+            this.added = added;
+            this.removed = removed;
+        }
+
+        /**
+         * @return true if the snapshot changed nothing
+         */
+        public boolean isEmpty() {
+            return added.isEmpty() && removed.isEmpty();
+        }
+    }
+
+    private final BiPredicate<V, V> sameContent;
+    private Map<String, V> items = new HashMap<>();
+
+    /**
+     * @param sameContent returns true when two instances for the same key display the same
+     */
+    public KeyedItemDiffer(BiPredicate<V, V> sameContent) {
+        this.sameContent = sameContent;
+    }
+
+    /**
+     * Replaces the tracked items with a new snapshot.
+     *
+     * @param next every item that should now be displayed, by key
+     * @return the items to add to and remove from the layer
+     */
+    public Diff<V> update(Map<String, V> next) {
+        List<V> added = new ArrayList<>();
+        List<V> removed = new ArrayList<>();
+        Map<String, V> kept = new HashMap<>(next.size() * 4 / 3 + 1);
+
+        for (Map.Entry<String, V> entry : next.entrySet()) {
+            V old = items.remove(entry.getKey());
+            if (old != null && sameContent.test(old, entry.getValue())) {
+                kept.put(entry.getKey(), old);
+                continue;
+            }
+            if (old != null) removed.add(old);
+            added.add(entry.getValue());
+            kept.put(entry.getKey(), entry.getValue());
+        }
+        // Whatever is left was not in the snapshot
+        removed.addAll(items.values());
+
+        items = kept;
+        return new Diff<>(added, removed);
+    }
+
+    /**
+     * Forgets every tracked item.
+     *
+     * @return the items that were tracked, for removal from the layer
+     */
+    public Collection<V> clear() {
+        Collection<V> all = items.values();
+        items = new HashMap<>();
+        return all;
+    }
+
+    /**
+     * @return number of tracked items
+     */
+    public int size() {
+        return items.size();
+    }
+}
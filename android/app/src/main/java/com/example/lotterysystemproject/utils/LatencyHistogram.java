@@ -0,0 +1,82 @@
+package com.example.lotterysystemproject.utils;
+
+import java.util.Arrays;
+
+/**
+ * Counts latencies into fixed millisecond buckets, from which percentiles are
+ * estimated as the upper bound of the bucket they fall in.
+ * <p>
+ * The bucket bounds are fixed so histograms from different methods and devices
+ * can be added up during offline analysis. Not thread-safe; callers synchronize.
+ * </p>
+ */
+public final class LatencyHistogram {
+
+    /** Upper bounds in milliseconds; a last, open bucket holds everything slower. */
+    public static final long[] BOUNDS_MS = {10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000};
+
+    private final long[] counts = new long[BOUNDS_MS.length + 1];
+    private long total;
+    private long sumMs;
+    private long maxMs;
+
+    /**
+     * Adds one latency.
+     *
+     * @param ms the latency in milliseconds
+     */
+    public void record(long ms) {
+        int i = 0;
+        while (i < BOUNDS_MS.length && ms > BOUNDS_MS[i]) i++;
+        counts[i]++;
+        total++;
+        sumMs += ms;
+        maxMs = Math.max(maxMs, ms);
+    }
+
+    /**
+     * @return latencies recorded so far
+     */
+    public long getCount() {
+        return total;
+    }
+
+    /**
+     * @return mean latency in milliseconds, or 0 when nothing was recorded
+     */
+    public double getMeanMs() {
+        return total == 0 ? 0 : (double) sumMs / total;
+    }
+
+    /**
+     * @return slowest latency recorded, in milliseconds
+     */
+    public long getMaxMs() {
+        return maxMs;
+    }
+
+    /**
+     * Estimates a percentile as the upper bound of the bucket it falls in. For the
+     * open last bucket the slowest latency seen is returned instead.
+     *
+     * @param fraction percentile as a fraction in (0, 1], e.g. 0.95
+     * @return the estimate in milliseconds, or 0 when nothing was recorded
+     */
+    public long percentileMs(double fraction) {
+        if (total == 0) return 0;
+        long rank = (long) Math.ceil(fraction * total);
+        long seen = 0;
+        for (int i = 0; i < BOUNDS_MS.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) return Math.min(BOUNDS_MS[i], maxMs);
+        }
+        return maxMs;
+    }
+
+    /**
+     * @return count per bucket, one more entry than {@link #BOUNDS_MS}
+     */
+    public long[] getCounts() {
+        return Arrays.copyOf(counts, counts.length);
+    }
+}
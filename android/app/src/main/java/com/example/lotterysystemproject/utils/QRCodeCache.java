@@ -0,0 +1,147 @@
+package com.example.lotterysystemproject.utils;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.util.LruCache;
+
+import com.google.common.hash.Hashing;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * Two-level cache for QR code bitmaps generated by {@link QRCodeGenerator}.
+ * <p>
+ * Bitmaps are kept in an in-memory LRU (bounded by bytes) and persisted as PNG
+ * files in the app cache directory, keyed by payload and size. Misses are
+ * generated on a background thread and delivered on the main thread, so
+ * showing the same event's QR code again does not re-encode it.
+ * </p>
+ */
+public final class QRCodeCache {
+
+    private static final String TAG = "QRCodeCache";
+    private static final String DISK_DIR = "qr_codes";
+
+    private static volatile QRCodeCache instance;
+
+    private final LruCache<String, Bitmap> memoryCache;
+    private final File diskDir;
+    /** One render at a time, so two requests for the same code never write its file together. */
+    private final Executor executor = AppExecutors.serial("qr-cache");
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private QRCodeCache(Context context) {
+        // Use 1/16th of the available heap for QR bitmaps
+        int maxKb = (int) (Runtime.getRuntime().maxMemory() / 1024 / 16);
+        memoryCache = new LruCache<String, Bitmap>(maxKb) {
+            @Override
+            protected int sizeOf(String key, Bitmap bitmap) {
+                return bitmap.getByteCount() / 1024;
+            }
+        };
+        diskDir = new File(context.getApplicationContext().getCacheDir(), DISK_DIR);
+    }
+
+    /**
+     * Returns the process-wide cache instance.
+     *
+     * @param context any context; only the application context is retained
+     * @return shared QRCodeCache
+     */
+    public static QRCodeCache getInstance(Context context) {
+        if (instance == null) {
+            synchronized (QRCodeCache.class) {
+                if (instance == null) {
+                    instance = new QRCodeCache(context);
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Loads the QR code for {@code payload} at the given size.
+     * Memory hits are delivered synchronously; disk hits and fresh renders are
+     * produced on a background thread and delivered on the main thread.
+     *
+     * @param payload text to encode
+     * @param size    width and height in pixels
+     * @param onReady receives the bitmap, or null if encoding failed
+     */
+    public void load(String payload, int size, Consumer<Bitmap> onReady) {
+        if (payload == null) {
+            onReady.accept(null);
+            return;
+        }
+
+        String key = key(payload, size);
+        Bitmap cached = memoryCache.get(key);
+        if (cached != null) {
+            onReady.accept(cached);
+            return;
+        }
+
+        executor.execute(() -> {
+            Bitmap bitmap = readFromDisk(key);
+            if (bitmap == null) {
+                bitmap = QRCodeGenerator.generateQRCode(payload, size, size);
+                if (bitmap != null) {
+                    writeToDisk(key, bitmap);
+                }
+            }
+            if (bitmap != null) {
+                memoryCache.put(key, bitmap);
+            }
+
+            Bitmap result = bitmap;
+            mainHandler.post(() -> onReady.accept(result));
+        });
+    }
+
+    /**
+     * Drops all in-memory entries. Disk entries are left for the OS to evict.
+     */
+    public void clearMemory() {
+        memoryCache.evictAll();
+    }
+
+    /**
+     * Builds a file-name safe cache key from payload and size.
+     */
+    private static String key(String payload, int size) {
+        return Hashing.sha256()
+                .hashString(size + ":" + payload, StandardCharsets.UTF_8)
+                .toString();
+    }
+
+    private Bitmap readFromDisk(String key) {
+        File file = new File(diskDir, key + ".png");
+        if (!file.exists()) {
+            return null;
+        }
+        return BitmapFactory.decodeFile(file.getAbsolutePath());
+    }
+
+    private void writeToDisk(String key, Bitmap bitmap) {
+        if (!diskDir.exists() && !diskDir.mkdirs()) {
+            Log.w(TAG, "Unable to create " + diskDir);
+            return;
+        }
+
+        File file = new File(diskDir, key + ".png");
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            bitmap.compress(Bitmap.CompressFormat.PNG, 100, out);
+        } catch (IOException e) {
+            Log.w(TAG, "Failed to write QR code to disk cache", e);
+        }
+    }
+}
@@ -9,6 +9,7 @@ import androidx.annotation.Nullable;
 
 import com.google.zxing.BarcodeFormat;
 import com.google.zxing.WriterException;
+import com.google.zxing.common.BitArray;
 import com.google.zxing.common.BitMatrix;
 import com.google.zxing.qrcode.QRCodeWriter;
 
@@ -21,6 +22,7 @@ public class QRCodeGenerator {
 
     /**
      * Generates a QR code bitmap from the given text.
+     * Pixels are rendered into a single buffer and copied with one setPixels call.
      *
      * @param text   The text to encode in the QR code.
      * @param width  Desired width of the QR code bitmap.
@@ -31,14 +33,11 @@ public class QRCodeGenerator {
         QRCodeWriter writer = new QRCodeWriter();
         try {
             BitMatrix bitMatrix = writer.encode(text, BarcodeFormat.QR_CODE, width, height);
-            Bitmap bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.RGB_565);
-
-            for (int x = 0; x < width; x++) {
-                for (int y = 0; y < height; y++) {
-                    bitmap.setPixel(x, y, bitMatrix.get(x, y) ? Color.BLACK : Color.WHITE);
-                }
-            }
+            int matrixWidth = bitMatrix.getWidth();
+            int matrixHeight = bitMatrix.getHeight();
 
+            Bitmap bitmap = Bitmap.createBitmap(matrixWidth, matrixHeight, Bitmap.Config.RGB_565);
+            bitmap.setPixels(toPixels(bitMatrix), 0, matrixWidth, 0, 0, matrixWidth, matrixHeight);
             return bitmap;
         } catch (WriterException e) {
             e.printStackTrace();
@@ -46,6 +45,40 @@ public class QRCodeGenerator {
         }
     }
 
+    /**
+     * Converts a BitMatrix into a row-major ARGB pixel buffer.
+     * QR modules span many pixel rows, so a row identical to the previous one
+     * is copied instead of being recomputed bit by bit.
+     *
+     * @param bitMatrix encoded QR matrix
+     * @return pixel buffer of size width * height, black for set bits, white otherwise
+     */
+    public static int[] toPixels(BitMatrix bitMatrix) {
+        int width = bitMatrix.getWidth();
+        int height = bitMatrix.getHeight();
+        int[] pixels = new int[width * height];
+
+        BitArray row = new BitArray(width);
+        BitArray previousRow = new BitArray(width);
+        for (int y = 0; y < height; y++) {
+            row = bitMatrix.getRow(y, row);
+            int offset = y * width;
+
+            if (y > 0 && row.equals(previousRow)) {
+                System.arraycopy(pixels, offset - width, pixels, offset, width);
+            } else {
+                for (int x = 0; x < width; x++) {
+                    pixels[offset + x] = row.get(x) ? Color.BLACK : Color.WHITE;
+                }
+            }
+
+            BitArray swap = previousRow;
+            previousRow = row;
+            row = swap;
+        }
+        return pixels;
+    }
+
     /**
      * Generates encoded promotional QR data for an event.
      *
@@ -68,6 +101,51 @@ public class QRCodeGenerator {
                 .toString();
     }
 
+    /**
+     * Generates the door ticket data for an enrolled entrant.
+     *
+     * @param eventId   The unique ID of the event.
+     * @param entrantId The entrant record ID (userId_eventId).
+     * @return Encoded ticket data string, or null if either ID is missing.
+     */
+    @Nullable
+    public static String generateTicketData(String eventId, String entrantId) {
+        if (eventId == null || eventId.trim().isEmpty()
+                || entrantId == null || entrantId.trim().isEmpty()) {
+            Log.e(TAG, "Cannot generate ticket data: eventId or entrantId is empty");
+            return null;
+        }
+
+        return new Uri.Builder()
+                .scheme("lotterysystem")
+                .authority("ticket")
+                .appendQueryParameter("eventId", eventId)
+                .appendQueryParameter("entrantId", entrantId)
+                .build()
+                .toString();
+    }
+
+    /**
+     * Extracts the entrant ID from ticket data produced by {@link #generateTicketData}.
+     *
+     * @param raw Scanned QR text.
+     * @return The entrant ID, or null if the text is not a ticket.
+     */
+    @Nullable
+    public static String extractTicketEntrantId(String raw) {
+        try {
+            Uri uri = Uri.parse(raw);
+
+            if (!"lotterysystem".equals(uri.getScheme()) || !"ticket".equals(uri.getAuthority())) {
+                return null;
+            }
+
+            return uri.getQueryParameter("entrantId");
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
     public static String extractEventId(String raw) {
         try {
             Uri uri = Uri.parse(raw);
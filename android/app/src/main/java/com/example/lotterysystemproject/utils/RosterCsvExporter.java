@@ -0,0 +1,182 @@
+package com.example.lotterysystemproject.utils;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.Nullable;
+
+import com.example.lotterysystemproject.firebasemanager.EntrantRepository;
+import com.example.lotterysystemproject.models.Entrant;
+import com.opencsv.CSVWriter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Streams an event's entrant roster to CSV.
+ * <p>
+ * Entrants are fetched from {@link EntrantRepository#getEntrantsPage} one page
+ * at a time and each page is written on a background thread before the next one
+ * is requested, so only a single page is ever held in memory regardless of the
+ * roster size. Listener callbacks are delivered on the main thread.
+ * </p>
+ */
+public class RosterCsvExporter {
+
+    /** Entrants fetched per page. */
+    private static final int PAGE_SIZE = 500;
+
+    private static final String[] HEADER = {
+            "Entrant ID", "Name", "Email", "Phone", "Status",
+            "Joined", "Status Changed", "Checked In", "Latitude", "Longitude"
+    };
+
+    /**
+     * Receives export progress on the main thread.
+     */
+    public interface Listener {
+        /** @param rowsWritten number of entrant rows written so far */
+        void onProgress(int rowsWritten);
+        /** @param rowsWritten total number of entrant rows written */
+        void onComplete(int rowsWritten);
+        void onError(Exception e);
+    }
+
+    private static final Executor writerExecutor = AppExecutors.serial("roster-export");
+
+    private final EntrantRepository repository;
+    private final String eventId;
+    private final List<Entrant.Status> statuses;
+    private final OutputStream out;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    /** Accessed only on the writer thread. */
+    private CSVWriter csvWriter;
+    private int rowsWritten = 0;
+    private volatile boolean cancelled = false;
+
+    /**
+     * @param repository source of entrant pages
+     * @param eventId    event whose roster is exported
+     * @param statuses   statuses to include, or null for all
+     * @param out        destination stream, closed when the export ends
+     */
+    public RosterCsvExporter(EntrantRepository repository, String eventId,
+                             @Nullable List<Entrant.Status> statuses, OutputStream out) {
+        this.repository = repository;
+        this.eventId = eventId;
+        this.statuses = statuses;
+        this.out = out;
+    }
+
+    /**
+     * Starts the export. Must be called on the main thread.
+     *
+     * @param listener receives progress, completion or failure
+     */
+    public void start(Listener listener) {
+        writerExecutor.execute(() -> {
+            try {
+                csvWriter = new CSVWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+                csvWriter.writeNext(HEADER);
+                mainHandler.post(() -> requestPage(null, listener));
+            } catch (Exception e) {
+                finish(e, listener);
+            }
+        });
+    }
+
+    /**
+     * Stops the export after the page currently being written; the file is closed as-is.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    private void requestPage(@Nullable String cursor, Listener listener) {
+        repository.getEntrantsPage(eventId, statuses, cursor, PAGE_SIZE, new EntrantRepository.OnEntrantPageListener() {
+            @Override
+            public void onPage(List<Entrant> page, @Nullable String nextCursor) {
+                writerExecutor.execute(() -> {
+                    try {
+                        for (Entrant entrant : page) {
+                            csvWriter.writeNext(toRow(entrant));
+                        }
+                        rowsWritten += page.size();
+                    } catch (Exception e) {
+                        finish(e, listener);
+                        return;
+                    }
+
+                    if (nextCursor == null || cancelled) {
+                        finish(null, listener);
+                        return;
+                    }
+
+                    int progress = rowsWritten;
+                    mainHandler.post(() -> {
+                        listener.onProgress(progress);
+                        requestPage(nextCursor, listener);
+                    });
+                });
+            }
+
+            @Override
+            public void onFailure(String error) {
+                writerExecutor.execute(() -> finish(new Exception(error), listener));
+            }
+        });
+    }
+
+    /**
+     * Closes the writer and reports the outcome. Runs on the writer thread.
+     */
+    private void finish(@Nullable Exception error, Listener listener) {
+        Exception failure = error;
+        try {
+            if (csvWriter != null) {
+                csvWriter.close();
+            } else {
+                out.close();
+            }
+        } catch (IOException e) {
+            if (failure == null) failure = e;
+        }
+
+        Exception result = failure;
+        int total = rowsWritten;
+        mainHandler.post(() -> {
+            if (result != null) {
+                listener.onError(result);
+            } else {
+                listener.onComplete(total);
+            }
+        });
+    }
+
+    private static String[] toRow(Entrant e) {
+        return new String[]{
+                e.getId(),
+                e.getName(),
+                e.getEmail(),
+                e.getPhone(),
+                e.getStatus() != null ? e.getStatus().name() : "",
+                formatTime(e.getJoinedTimestamp()),
+                formatTime(e.getStatusTimestamp()),
+                formatTime(e.getCheckedInTimestamp()),
+                e.hasLocation() ? String.valueOf(e.getLatitude()) : "",
+                e.hasLocation() ? String.valueOf(e.getLongitude()) : ""
+        };
+    }
+
+    /** Formats epoch milliseconds as ISO-8601, or empty when unset. */
+    private static String formatTime(long millis) {
+        return millis > 0 ? Instant.ofEpochMilli(millis).toString() : "";
+    }
+}
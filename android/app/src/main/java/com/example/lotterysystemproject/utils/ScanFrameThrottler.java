@@ -0,0 +1,85 @@
+package com.example.lotterysystemproject.utils;
+
+/**
+ * Decides which camera frames are worth sending to the barcode detector.
+ * <p>
+ * Keeps an exponential moving average of detector inference time and, after
+ * each analysed frame, waits long enough that the detector is busy for at most
+ * {@code maxDutyCycle} of wall-clock time. Slow devices therefore skip more
+ * frames instead of running the detector back to back.
+ * </p>
+ * Not thread-safe; call from the camera analysis thread only.
+ */
+public class ScanFrameThrottler {
+
+    /** Weight of the newest sample in the moving average. */
+    private static final double EMA_ALPHA = 0.3;
+
+    private final double maxDutyCycle;
+    private final long maxIntervalMs;
+
+    private double avgInferenceMs = -1;
+    private long nextAllowedMs = 0;
+    private int analyzedFrames = 0;
+    private int skippedFrames = 0;
+
+    /**
+     * @param maxDutyCycle  fraction of time (0, 1] the detector may be busy
+     * @param maxIntervalMs upper bound on the wait between analysed frames
+     */
+    public ScanFrameThrottler(double maxDutyCycle, long maxIntervalMs) {
+        if (maxDutyCycle <= 0 || maxDutyCycle > 1) {
+            throw new IllegalArgumentException("maxDutyCycle must be in (0, 1]");
+        }
+        this.maxDutyCycle = maxDutyCycle;
+        this.maxIntervalMs = maxIntervalMs;
+    }
+
+    /**
+     * Returns whether the frame arriving at {@code nowMs} should be analysed.
+     * Skipped frames are counted.
+     *
+     * @param nowMs current monotonic time in milliseconds
+     * @return true to analyse the frame, false to drop it
+     */
+    public boolean shouldAnalyze(long nowMs) {
+        if (nowMs < nextAllowedMs) {
+            skippedFrames++;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Records how long the detector took on an analysed frame and schedules
+     * the next frame that may be analysed.
+     *
+     * @param finishedAtMs time the detector finished, in milliseconds
+     * @param inferenceMs  detector run time for this frame
+     */
+    public void onFrameAnalyzed(long finishedAtMs, long inferenceMs) {
+        analyzedFrames++;
+        avgInferenceMs = avgInferenceMs < 0
+                ? inferenceMs
+                : EMA_ALPHA * inferenceMs + (1 - EMA_ALPHA) * avgInferenceMs;
+
+        // Busy for avg, idle for avg * (1 - duty) / duty keeps the detector at the target duty cycle
+        long idleMs = (long) (avgInferenceMs * (1 - maxDutyCycle) / maxDutyCycle);
+        nextAllowedMs = finishedAtMs + Math.min(idleMs, maxIntervalMs);
+    }
+
+    /** @return moving average of detector inference time, or -1 before the first frame */
+    public double getAverageInferenceMs() {
+        return avgInferenceMs;
+    }
+
+    /** @return number of frames sent to the detector */
+    public int getAnalyzedFrames() {
+        return analyzedFrames;
+    }
+
+    /** @return number of frames dropped by the throttle */
+    public int getSkippedFrames() {
+        return skippedFrames;
+    }
+}
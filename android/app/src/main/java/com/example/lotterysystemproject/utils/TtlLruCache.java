@@ -0,0 +1,293 @@
+package com.example.lotterysystemproject.utils;
+
+import android.os.SystemClock;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Size-bounded, least-recently-used in-memory cache with a per-entry time to live.
+ * <p>
+ * An entry is <em>fresh</em> for {@code ttlMs} after it was stored and then
+ * <em>stale</em> for a further {@code staleMs}. {@link #load} serves fresh entries
+ * directly; stale entries are served immediately while a single background load
+ * refreshes them (stale-while-revalidate). Entries older than both windows, or
+ * evicted because the cache is full, count as misses. Concurrent misses for the
+ * same key share a single load. A load that was started before an invalidation
+ * still answers its callers but does not store its value.
+ * </p>
+ * All methods are thread-safe.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public final class TtlLruCache<K, V> {
+
+    /**
+     * Asynchronous source of a value, in the repositories' Consumer callback style.
+     *
+     * @param <V> value type
+     */
+    public interface Loader<V> {
+        void load(Consumer<V> onSuccess, Consumer<Exception> onError);
+    }
+
+    /**
+     * Point-in-time copy of the cache counters.
+     */
+    public static final class Stats {
+        public final String name;
+        public final long hits;
+        public final long staleHits;
+        public final long misses;
+        public final long evictions;
+        public final int size;
+
+        Stats(String name, long hits, long staleHits, long misses, long evictions, int size) {
+            this.name = name;
+            this.hits = hits;
+            this.staleHits = staleHits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.size = size;
+        }
+
+        /**
+         * @return share of lookups served from memory, fresh or stale, between 0 and 1
+         */
+        public double hitRate() {
+            long total = hits + staleHits + misses;
+            return total == 0 ? 0 : (double) (hits + staleHits) / total;
+        }
+
+        @Override
+        public String toString() {
+            return name + ": hits=" + hits + " stale=" + staleHits + " misses=" + misses
+                    + " evictions=" + evictions + " size=" + size;
+        }
+    }
+
+    private static final class Entry<V> {
+        final V value;
+        final long storedAt;
+
+        Entry(V value, long storedAt) {
+            this.value = value;
+            this.storedAt = storedAt;
+        }
+    }
+
+    private static final class Waiter<V> {
+        final Consumer<V> onSuccess;
+        final Consumer<Exception> onError;
+
+        Waiter(Consumer<V> onSuccess, Consumer<Exception> onError) {
+            this.onSuccess = onSuccess;
+            this.onError = onError;
+        }
+    }
+
+    private final String name;
+    private final int maxSize;
+    private final long ttlMs;
+    private final long staleMs;
+    private final LongSupplier clock;
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private final Set<K> revalidating = new HashSet<>();
+    /** Callbacks waiting on an in-flight load, keyed by the key being loaded. */
+    private final Map<K, List<Waiter<V>>> loading = new HashMap<>();
+
+    /** Bumped by every invalidation, so loads started before it do not store their value. */
+    private long generation;
+    private long hits;
+    private long staleHits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * @param name    label used in {@link Stats}
+     * @param maxSize maximum number of entries kept
+     * @param ttlMs   how long an entry is served without reloading
+     * @param staleMs how long after expiry an entry is still served while reloading
+     */
+    public TtlLruCache(String name, int maxSize, long ttlMs, long staleMs) {
+        this(name, maxSize, ttlMs, staleMs, SystemClock::elapsedRealtime);
+    }
+
+    /**
+     * @param clock monotonic time source in milliseconds; replaceable for tests
+     */
+    public TtlLruCache(String name, int maxSize, long ttlMs, long staleMs, LongSupplier clock) {
+        this.name = name;
+        this.maxSize = maxSize;
+        this.ttlMs = ttlMs;
+        this.staleMs = staleMs;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Returns a value if it is still fresh, without touching the hit/miss counters.
+     *
+     * @param key key to look up
+     * @return the fresh value, or null
+     */
+    public synchronized V getIfFresh(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null || clock.getAsLong() - entry.storedAt >= ttlMs) return null;
+        return entry.value;
+    }
+
+    /**
+     * Stores a value, evicting the least recently used entry if the cache is full.
+     *
+     * @param key   key to store under
+     * @param value value to store; null removes the key
+     */
+    public synchronized void put(K key, V value) {
+        if (value == null) {
+            entries.remove(key);
+            return;
+        }
+        entries.put(key, new Entry<>(value, clock.getAsLong()));
+        while (entries.size() > maxSize) {
+            Iterator<K> eldest = entries.keySet().iterator();
+            eldest.next();
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Stores a value read by a load that started at {@code startedAt}, unless the cache
+     * was invalidated since, in which case the value may predate the change.
+     *
+     * @param key       key to store under
+     * @param value     value to store
+     * @param startedAt {@link #generation()} when the read was started
+     */
+    public synchronized void put(K key, V value, long startedAt) {
+        if (startedAt == generation) put(key, value);
+    }
+
+    /**
+     * @return the current invalidation generation, to pass to {@link #put(Object, Object, long)}
+     */
+    public synchronized long generation() {
+        return generation;
+    }
+
+    /**
+     * Drops a single entry so the next lookup reloads it.
+     *
+     * @param key key to drop
+     */
+    public synchronized void invalidate(K key) {
+        generation++;
+        entries.remove(key);
+    }
+
+    /**
+     * Drops every entry.
+     */
+    public synchronized void invalidateAll() {
+        generation++;
+        entries.clear();
+    }
+
+    /**
+     * Serves a value from memory when possible, otherwise from the loader.
+     * Loader failures are reported only when no cached value was delivered.
+     *
+     * @param key       key to look up
+     * @param loader    source used on a miss or to revalidate a stale entry
+     * @param onSuccess receives the cached or loaded value
+     * @param onError   receives a loader failure on a miss
+     */
+    public void load(K key, Loader<V> loader, Consumer<V> onSuccess, Consumer<Exception> onError) {
+        V cached;
+        boolean refresh;
+        boolean startLoad = false;
+        long startedAt;
+        synchronized (this) {
+            startedAt = generation;
+            Entry<V> entry = entries.get(key);
+            long age = entry != null ? clock.getAsLong() - entry.storedAt : Long.MAX_VALUE;
+            if (age < ttlMs) {
+                hits++;
+                cached = entry.value;
+                refresh = false;
+            } else if (age < ttlMs + staleMs) {
+                staleHits++;
+                cached = entry.value;
+                refresh = revalidating.add(key);
+            } else {
+                if (entry != null) entries.remove(key);
+                misses++;
+                cached = null;
+                refresh = false;
+
+                List<Waiter<V>> waiters = loading.get(key);
+                if (waiters == null) {
+                    waiters = new ArrayList<>();
+                    loading.put(key, waiters);
+                    startLoad = true;
+                }
+                waiters.add(new Waiter<>(onSuccess, onError));
+            }
+        }
+
+        if (cached == null) {
+            if (startLoad) {
+                loader.load(value -> {
+                    put(key, value, startedAt);
+                    for (Waiter<V> waiter : takeWaiters(key)) waiter.onSuccess.accept(value);
+                }, e -> {
+                    for (Waiter<V> waiter : takeWaiters(key)) waiter.onError.accept(e);
+                });
+            }
+            return;
+        }
+
+        onSuccess.accept(cached);
+        if (refresh) {
+            loader.load(value -> {
+                synchronized (this) {
+                    revalidating.remove(key);
+                }
+                put(key, value, startedAt);
+            }, e -> {
+                synchronized (this) {
+                    revalidating.remove(key);
+                }
+            });
+        }
+    }
+
+    private synchronized List<Waiter<V>> takeWaiters(K key) {
+        List<Waiter<V>> waiters = loading.remove(key);
+        return waiters != null ? waiters : new ArrayList<>();
+    }
+
+    /**
+     * @return a snapshot of the hit, miss and eviction counters
+     */
+    public synchronized Stats getStats() {
+        return new Stats(name, hits, staleHits, misses, evictions, entries.size());
+    }
+
+    /**
+     * @return the cache's label
+     */
+    public String getName() {
+        return name;
+    }
+}
@@ -38,6 +38,14 @@ public class EntrantViewModel extends ViewModel {
         entrantsLiveData = repository.getEntrants(eventId);
     }
 
+    /**
+     * Returns the ID of the event whose entrants are loaded.
+     * @return The current event ID, or null if none was loaded.
+     */
+    public String getCurrentEventId() {
+        return currentEventId;
+    }
+
     /**
      * Returns LiveData of entrants.
      * @return LiveData containing list of entrants.
@@ -1,11 +1,15 @@
 package com.example.lotterysystemproject.viewmodels;
 
 import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.ViewModel;
 
 import com.example.lotterysystemproject.firebasemanager.RepositoryProvider;
 import com.example.lotterysystemproject.models.Event;
 import com.example.lotterysystemproject.firebasemanager.EventRepository;
+import com.example.lotterysystemproject.models.OrganizerStats;
+
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -13,9 +17,18 @@ import java.util.List;
  * Provides access to all events and supports creating new events.
  */
 public class EventViewModel extends ViewModel {
+    /** Number of hosted events fetched per page on the organizer dashboard. */
+    private static final int HOSTED_PAGE_SIZE = 20;
+
     private EventRepository repository;
     private LiveData<List<Event>> events;
 
+    private final MutableLiveData<List<Event>> hostedEvents = new MutableLiveData<>(new ArrayList<>());
+    private final MutableLiveData<OrganizerStats> organizerStats = new MutableLiveData<>();
+    private String hostId;
+    private boolean loadingHostedPage = false;
+    private boolean hostedEventsExhausted = false;
+
     /**
      * Initializes the EventViewModel and loads events from the repository.
      */
@@ -31,6 +44,59 @@ public class EventViewModel extends ViewModel {
      */
     public LiveData<List<Event>> getEvents() {return events;}
 
+    /**
+     * Returns the pages of events hosted by the organizer loaded so far.
+     *
+     * @return LiveData list of the organizer's events ordered by event date.
+     */
+    public LiveData<List<Event>> getHostedEvents() {return hostedEvents;}
+
+    /**
+     * Returns the organizer's dashboard counters.
+     *
+     * @return LiveData holding the latest {@link OrganizerStats}.
+     */
+    public LiveData<OrganizerStats> getOrganizerStats() {return organizerStats;}
+
+    /**
+     * Reloads the organizer's counters and the first page of their events.
+     *
+     * @param hostId the organizer's user ID
+     */
+    public void loadHostedEvents(String hostId) {
+        this.hostId = hostId;
+        hostedEventsExhausted = false;
+        loadingHostedPage = false;
+        hostedEvents.setValue(new ArrayList<>());
+
+        repository.getOrganizerStats(hostId, organizerStats::setValue,
+                e -> organizerStats.setValue(new OrganizerStats()));
+        loadNextHostedPage();
+    }
+
+    /**
+     * Appends the next page of hosted events, if any remain and none is in flight.
+     */
+    public void loadNextHostedPage() {
+        if (hostId == null || loadingHostedPage || hostedEventsExhausted) return;
+        loadingHostedPage = true;
+
+        String requestedHost = hostId;
+        List<Event> current = hostedEvents.getValue() != null ? hostedEvents.getValue() : new ArrayList<>();
+        Event last = current.isEmpty() ? null : current.get(current.size() - 1);
+
+        repository.getEventsByHost(requestedHost, last, HOSTED_PAGE_SIZE, page -> {
+            // Ignore pages for a host that was replaced while loading
+            if (!requestedHost.equals(hostId)) return;
+            loadingHostedPage = false;
+            hostedEventsExhausted = page.size() < HOSTED_PAGE_SIZE;
+
+            List<Event> merged = new ArrayList<>(current);
+            merged.addAll(page);
+            hostedEvents.setValue(merged);
+        }, e -> loadingHostedPage = false);
+    }
+
     /**
      * Creates and adds a new event.
      */
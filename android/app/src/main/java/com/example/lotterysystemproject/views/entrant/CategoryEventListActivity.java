@@ -17,7 +17,7 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.example.lotterysystemproject.R;
 import com.example.lotterysystemproject.adapters.CategoryEventAdapter;
 import com.example.lotterysystemproject.firebasemanager.EventRepository;
-import com.example.lotterysystemproject.models.Event;
+import com.example.lotterysystemproject.models.EventSummary;
 import com.google.android.material.chip.Chip;
 import com.google.android.material.chip.ChipGroup;
 
@@ -48,8 +48,8 @@ public class CategoryEventListActivity extends AppCompatActivity {
     private TextView categoryTitle;
 
     private String category;
-    private List<Event> allEvents = new ArrayList<>();
-    private List<Event> filteredEvents = new ArrayList<>();
+    private List<EventSummary> allEvents = new ArrayList<>();
+    private List<EventSummary> filteredEvents = new ArrayList<>();
 
     // Current filter state
     private String currentSort = "recency"; // recency, distance
@@ -135,8 +135,8 @@ public class CategoryEventListActivity extends AppCompatActivity {
     private void loadCategoryEvents() {
         showLoading(true);
 
-        eventRepository.getEventsByCategory(category,
-                (Consumer<List<Event>>) events -> runOnUiThread(() -> {
+        eventRepository.getEventSummariesByCategory(category,
+                (Consumer<List<EventSummary>>) events -> runOnUiThread(() -> {
                     showLoading(false);
 
                     if (events == null || events.isEmpty()) {
@@ -208,7 +208,7 @@ public class CategoryEventListActivity extends AppCompatActivity {
     /**
      * Handle event card click.
      */
-    private void onEventCardClicked(Event event) {
+    private void onEventCardClicked(EventSummary event) {
         if (event == null || event.getId() == null) return;
         startActivity(new android.content.Intent(this, EventDetailsActivity.class)
                 .putExtra("eventId", event.getId()));
@@ -89,6 +89,8 @@ public class DeleteProfileActivity extends AppCompatActivity {
             return;
         }
 
+        // Deactivation takes several round trips; a second tap must not start another run
+        btnDelete.setEnabled(false);
         repo.deactivateAccount(userId, new RepositoryCallback<Void>() {
             @Override
             public void onSuccess(Void result) {
@@ -105,6 +107,7 @@ public class DeleteProfileActivity extends AppCompatActivity {
 
             @Override
             public void onFailure(Exception e) {
+                btnDelete.setEnabled(true);
                 Toast.makeText(DeleteProfileActivity.this,
                         "Delete failed: " + e.getMessage(),
                         Toast.LENGTH_LONG).show();
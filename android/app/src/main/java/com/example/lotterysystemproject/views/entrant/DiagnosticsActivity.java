@@ -0,0 +1,131 @@
+package com.example.lotterysystemproject.views.entrant;
+
+import android.app.Activity;
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.content.pm.ApplicationInfo;
+import android.os.Bundle;
+import android.util.Log;
+import android.widget.Button;
+import android.widget.TextView;
+import android.widget.Toast;
+
+import androidx.annotation.Nullable;
+import androidx.appcompat.app.AppCompatActivity;
+
+import com.example.lotterysystemproject.R;
+import com.example.lotterysystemproject.firebasemanager.FirestoreUsage;
+import com.example.lotterysystemproject.firebasemanager.RepositoryMetrics;
+import com.example.lotterysystemproject.firebasemanager.RepositoryProvider;
+import com.example.lotterysystemproject.utils.AppExecutors;
+import com.google.android.material.appbar.MaterialToolbar;
+import com.google.android.material.materialswitch.MaterialSwitch;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Debug screen showing repository call timings, executor queues, cache hit rates,
+ * LiveData counters and Firestore reads per screen, with a button to save them to a
+ * file for offline analysis.
+ * <p>
+ * Only reachable from the settings screen of debuggable builds. Saved reports go to
+ * the app's external files directory, which {@code adb pull} can read without root.
+ * </p>
+ */
+public class DiagnosticsActivity extends AppCompatActivity {
+
+    private static final String TAG = "DiagnosticsActivity";
+    private static final String PREFS = "DiagnosticsPrefs";
+    private static final String KEY_TIME_REPOSITORIES = "time_repositories";
+    /** Documents one screen may read per session before debug builds flag it. */
+    private static final int READ_BUDGET_PER_SCREEN = 200;
+
+    private TextView report;
+
+    /**
+     * Starts counting Firestore usage per screen and re-applies the timing switch saved
+     * on this device, so a debugging session can measure calls made right after launch.
+     * Release builds only count usage. Call it from {@code onCreate} of every entry activity.
+     *
+     * @param activity the activity being created
+     */
+    public static void applySavedSettings(Activity activity) {
+        FirestoreUsage.install(activity);
+        if (!isAvailable(activity)) return;
+        FirestoreUsage.setReadBudget(READ_BUDGET_PER_SCREEN);
+        RepositoryProvider.setInstrumentationEnabled(prefs(activity).getBoolean(KEY_TIME_REPOSITORIES, false));
+    }
+
+    /**
+     * @param context any context
+     * @return true if this build is debuggable and the screen may be shown
+     */
+    public static boolean isAvailable(Context context) {
+        return (context.getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0;
+    }
+
+    private static SharedPreferences prefs(Context context) {
+        return context.getApplicationContext().getSharedPreferences(PREFS, Context.MODE_PRIVATE);
+    }
+
+    @Override
+    protected void onCreate(@Nullable Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_diagnostics);
+
+        MaterialToolbar toolbar = findViewById(R.id.diagnostics_toolbar);
+        toolbar.setNavigationOnClickListener(v -> finish());
+
+        report = findViewById(R.id.diagnostics_report);
+
+        MaterialSwitch timeRepositories = findViewById(R.id.switch_time_repositories);
+        timeRepositories.setChecked(RepositoryProvider.isInstrumentationEnabled());
+        timeRepositories.setOnCheckedChangeListener((button, checked) -> {
+            prefs(this).edit().putBoolean(KEY_TIME_REPOSITORIES, checked).apply();
+            RepositoryProvider.setInstrumentationEnabled(checked);
+        });
+
+        Button refresh = findViewById(R.id.btn_refresh_diagnostics);
+        refresh.setOnClickListener(v -> showReport());
+
+        Button reset = findViewById(R.id.btn_reset_diagnostics);
+        reset.setOnClickListener(v -> {
+            RepositoryMetrics.reset();
+            showReport();
+        });
+
+        Button dump = findViewById(R.id.btn_dump_diagnostics);
+        dump.setOnClickListener(v -> saveReport());
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        showReport();
+    }
+
+    private void showReport() {
+        report.setText(RepositoryMetrics.report());
+    }
+
+    private void saveReport() {
+        File dir = getExternalFilesDir("diagnostics");
+        if (dir == null) dir = new File(getFilesDir(), "diagnostics");
+        File target = dir;
+
+        AppExecutors.io().execute(() -> {
+            String message;
+            try {
+                message = "Saved to " + RepositoryMetrics.dumpToFile(target).getAbsolutePath();
+            } catch (IOException e) {
+                Log.w(TAG, "Failed to save diagnostics", e);
+                message = "Failed to save: " + e.getMessage();
+            }
+            String toast = message;
+            AppExecutors.mainThread().execute(() -> {
+                if (!isFinishing()) Toast.makeText(this, toast, Toast.LENGTH_LONG).show();
+            });
+        });
+    }
+}
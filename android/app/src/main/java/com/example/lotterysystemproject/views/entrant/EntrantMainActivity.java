@@ -28,7 +28,6 @@ import android.widget.Toast;
 import com.example.lotterysystemproject.R;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import com.example.lotterysystemproject.models.Event;
 /**
@@ -42,6 +41,8 @@ import com.example.lotterysystemproject.models.Event;
 public class EntrantMainActivity extends AppCompatActivity {
 
     private static final String TAG = "EntrantMainActivity";
+    /** Number of events shown in the featured carousel. */
+    private static final int FEATURED_COUNT = 5;
     private EventViewsBinding binding;
     private EventListHelper eventListHelper;
     private EventRepository eventRepository;
@@ -156,14 +157,67 @@ public class EntrantMainActivity extends AppCompatActivity {
     }
 
     /**
-     * Loads 5 featured events with proper validation against Firebase.
-     * Always fetches fresh data to ensure deleted events are removed.
+     * Loads featured events. The sample is kept for the rest of the day and only
+     * redrawn from Firebase once FeaturedEventsManager says it is due, which costs
+     * one read per featured event regardless of how many events exist.
      */
     private void loadFeaturedEvents() {
         Log.d(TAG, "Loading featured events");
 
-        // Always fetch from Firebase to ensure we have valid, non-deleted events
-        eventRepository.getActiveEvents(
+        if (!featuredEventsManager.shouldUpdate()) {
+            List<Event> cached = featuredEventsManager.loadFeaturedEvents();
+            if (!cached.isEmpty()) {
+                showCachedFeaturedEvents(cached);
+                return;
+            }
+        }
+
+        loadRandomFeaturedEvents();
+    }
+
+    /**
+     * Shows today's featured events without the ones deleted or deactivated since
+     * they were picked, and picks a new set if none of them are left.
+     */
+    private void showCachedFeaturedEvents(List<Event> cached) {
+        List<String> ids = new ArrayList<>();
+        for (Event event : cached) {
+            ids.add(event.getId());
+        }
+
+        eventRepository.getLiveEventIds(ids,
+                live -> {
+                    List<Event> events = new ArrayList<>();
+                    for (Event event : cached) {
+                        if (live.contains(event.getId())) events.add(event);
+                    }
+                    if (events.isEmpty()) {
+                        loadRandomFeaturedEvents();
+                        return;
+                    }
+
+                    Log.d(TAG, "Using " + events.size() + " cached featured events");
+                    runOnUiThread(() -> {
+                        bindFeaturedEvents(events);
+                        binding.featuredEventsCard.setVisibility(View.VISIBLE);
+                    });
+                },
+                error -> {
+                    // Offline: today's list is the best there is
+                    Log.w(TAG, "Failed to check cached featured events", error);
+                    runOnUiThread(() -> {
+                        bindFeaturedEvents(cached);
+                        binding.featuredEventsCard.setVisibility(View.VISIBLE);
+                    });
+                }
+        );
+    }
+
+    /**
+     * Picks a new random set of featured events and saves it for the rest of the day.
+     */
+    private void loadRandomFeaturedEvents() {
+        eventRepository.getRandomEvents(FEATURED_COUNT,
                 events -> {
                     if (events == null || events.isEmpty()) {
                         Log.w(TAG, "No active events found");
@@ -171,18 +225,13 @@ public class EntrantMainActivity extends AppCompatActivity {
                         return;
                     }
 
-                    // Shuffle and pick 5
-                    Collections.shuffle(events);
-                    List<Event> selected = events.size() > 5 ? events.subList(0, 5) : events;
-
-                    Log.d(TAG, "Selected " + selected.size() + " featured events");
+                    Log.d(TAG, "Selected " + events.size() + " featured events");
 
-                    // Save for quick subsequent loads (optional - consider removing if causing issues)
-                    featuredEventsManager.saveFeaturedEvents(selected);
+                    featuredEventsManager.saveFeaturedEvents(events);
 
                     // Bind to UI
                     runOnUiThread(() -> {
-                        bindFeaturedEvents(selected);
+                        bindFeaturedEvents(events);
                         binding.featuredEventsCard.setVisibility(View.VISIBLE);
                     });
                 },
@@ -2,6 +2,7 @@ package com.example.lotterysystemproject.views.entrant;
 
 import android.app.Activity;
 import android.content.Intent;
+import android.net.Uri;
 import android.os.Bundle;
 import android.util.Log;
 import android.view.LayoutInflater;
@@ -17,10 +18,14 @@ import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
 
 import com.example.lotterysystemproject.firebasemanager.EventRepository;
+import com.example.lotterysystemproject.firebasemanager.RepositoryCallback;
 import com.example.lotterysystemproject.firebasemanager.RepositoryProvider;
 import com.example.lotterysystemproject.R;
 import com.example.lotterysystemproject.views.organizer.OrganizerMainActivity;
 
+import java.io.FileNotFoundException;
+import java.io.OutputStream;
+
 /**
  * Represents entrant’s profile screen displayed within the profile navigation section of the app.
  * Allows users to view their personal information (name, email, phone), access account settings,
@@ -46,6 +51,15 @@ public class EntrantProfileFragment extends Fragment {
                     }
             );
 
+    // Lets the user pick where the JSON export is saved
+    private final ActivityResultLauncher<String> exportDataLauncher =
+            registerForActivityResult(
+                    new ActivityResultContracts.CreateDocument("application/json"),
+                    uri -> {
+                        if (uri != null) exportUserData(uri);
+                    }
+            );
+
     /**
      * Inflates the fragment’s layout.
      * @param inflater  LayoutInflater used to inflate the layout XML
@@ -81,6 +95,9 @@ public class EntrantProfileFragment extends Fragment {
             deleteProfileLauncher.launch(i); // or use startActivityForResult pattern below if callback wanted
         });
 
+        Button exportBtn = v.findViewById(R.id.btn_export_data);
+        exportBtn.setOnClickListener(click -> exportDataLauncher.launch("my_lottery_data.json"));
+
         Button organizerSignUpBtn = v.findViewById(R.id.btn_organizer_signup);
         organizerSignUpBtn.setOnClickListener(click -> {
             String userId = resolveUserId();
@@ -153,6 +170,42 @@ public class EntrantProfileFragment extends Fragment {
         if (tvPhone != null) tvPhone.setText(phone == null || phone.isEmpty() ? "—" : phone);
     }
 
+    /**
+     * Streams the user's profile, entrant records and notifications as JSON to the chosen document.
+     * @param uri Document picked through the Storage Access Framework
+     */
+    private void exportUserData(@NonNull Uri uri) {
+        OutputStream out;
+        try {
+            out = requireContext().getContentResolver().openOutputStream(uri);
+        } catch (FileNotFoundException e) {
+            out = null;
+        }
+        if (out == null) {
+            Toast.makeText(requireContext(), "Unable to open export file", Toast.LENGTH_SHORT).show();
+            return;
+        }
+
+        Toast.makeText(requireContext(), "Exporting your data...", Toast.LENGTH_SHORT).show();
+        RepositoryProvider.getUserRepository().exportUserData(resolveUserId(), out,
+                new RepositoryCallback<Integer>() {
+                    @Override
+                    public void onSuccess(Integer records) {
+                        if (getContext() == null) return;
+                        Toast.makeText(getContext(), "Exported " + records + " records",
+                                Toast.LENGTH_SHORT).show();
+                    }
+
+                    @Override
+                    public void onFailure(Exception e) {
+                        Log.e("ExportData", "Export failed", e);
+                        if (getContext() == null) return;
+                        Toast.makeText(getContext(), "Export failed: " + e.getMessage(),
+                                Toast.LENGTH_LONG).show();
+                    }
+                });
+    }
+
     /**
      * Retrieves the current user’s unique identifier.
      * Uses a mock device ID for local testing purposes.
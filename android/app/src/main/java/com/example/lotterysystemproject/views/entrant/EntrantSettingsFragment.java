@@ -1,5 +1,6 @@
 package com.example.lotterysystemproject.views.entrant;
 
+import android.content.Intent;
 import android.os.Bundle;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -38,6 +39,7 @@ public class EntrantSettingsFragment extends Fragment {
     /**
      * Called after the fragment’s view hierarchy is created.
      * Initializes toolbar and sets back navigation click listener to return to the previous screen.
+     * Debuggable builds also get a button to the diagnostics screen.
      * @param v Root view of fragment
      * @param savedInstanceState Previous instance state if re-created
      */
@@ -48,5 +50,12 @@ public class EntrantSettingsFragment extends Fragment {
         toolbar.setNavigationOnClickListener(back ->
                 Navigation.findNavController(v).navigateUp()
         );
+
+        if (DiagnosticsActivity.isAvailable(requireContext())) {
+            View diagnostics = v.findViewById(R.id.btn_diagnostics);
+            diagnostics.setVisibility(View.VISIBLE);
+            diagnostics.setOnClickListener(btn ->
+                    startActivity(new Intent(requireContext(), DiagnosticsActivity.class)));
+        }
     }
 }
\ No newline at end of file
@@ -18,6 +18,9 @@ import com.example.lotterysystemproject.R;
 import com.example.lotterysystemproject.controllers.AdminUserProfileDialog;
 import com.example.lotterysystemproject.models.Event;
 import com.example.lotterysystemproject.firebasemanager.EventRepository;
+import com.example.lotterysystemproject.firebasemanager.FirestoreUsage;
+import com.example.lotterysystemproject.firebasemanager.GeoBuckets;
+import com.example.lotterysystemproject.firebasemanager.MembershipIndex;
 import com.example.lotterysystemproject.firebasemanager.RepositoryProvider;
 import com.example.lotterysystemproject.databinding.EventDetailsBinding;
 import com.example.lotterysystemproject.views.entrant.EntryCriteriaDialogue;
@@ -65,6 +68,8 @@ public class EventDetailsActivity extends AppCompatActivity implements OnMapRead
     @Override
     protected void onCreate(@Nullable Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        // Deep links open this screen without going through the launcher
+        DiagnosticsActivity.applySavedSettings(this);
         binding = EventDetailsBinding.inflate(getLayoutInflater());
         setContentView(binding.getRoot());
 
@@ -90,6 +95,11 @@ public class EventDetailsActivity extends AppCompatActivity implements OnMapRead
         }
 
         // Fetch the event from the firebase
+        MembershipIndex membershipIndex = MembershipIndex.getInstance(this);
+        membershipIndex.start(getCurrentUserId());
+        membershipIndex.getMemberships().observe(this, memberships -> {
+            if (event != null && !requestInProgress) updateJoinButton();
+        });
         loadEventDetails();
 
         // Back button
@@ -192,7 +202,7 @@ public class EventDetailsActivity extends AppCompatActivity implements OnMapRead
             return;
         }
 
-        if (!event.isUserOnWaitingList(userId)) {
+        if (!MembershipIndex.getInstance(this).isOnWaitingList(event, userId)) {
             // User is NOT on the waiting list - JOIN action
             requestInProgress = true;
             binding.joinWaitingListButton.setEnabled(false);
@@ -373,18 +383,14 @@ public class EventDetailsActivity extends AppCompatActivity implements OnMapRead
                 .whereEqualTo("userId", userId) // Ensure your Entrant documents actually have a "userId" field
                 .limit(1)
                 .get()
+                .addOnSuccessListener(FirestoreUsage.reads())
                 .addOnSuccessListener(querySnapshot -> {
                     if (!querySnapshot.isEmpty()) {
                         // Get the document reference
                         com.google.firebase.firestore.DocumentSnapshot document = querySnapshot.getDocuments().get(0);
 
-                        // Create update map
-                        java.util.Map<String, Object> updates = new java.util.HashMap<>();
-                        updates.put("latitude", latitude);
-                        updates.put("longitude", longitude);
-
-                        // Update the existing entrant document
-                        document.getReference().update(updates)
+                        // Update the existing entrant document and the map's location counts
+                        GeoBuckets.updateLocation(db, document, latitude, longitude)
                                 .addOnSuccessListener(aVoid -> {
                                     android.util.Log.d("EventDetails", "Geolocation saved successfully");
                                 })
@@ -480,7 +486,7 @@ public class EventDetailsActivity extends AppCompatActivity implements OnMapRead
      */
     private void updateJoinButton() {
         String userId = getCurrentUserId();
-        boolean isUserOnWaitingList = event.isUserOnWaitingList(userId);
+        boolean isUserOnWaitingList = MembershipIndex.getInstance(this).isOnWaitingList(event, userId);
         int count = event.getWaitingList() != null ? event.getWaitingList().size() : 0;
 
         if (isUserOnWaitingList) {
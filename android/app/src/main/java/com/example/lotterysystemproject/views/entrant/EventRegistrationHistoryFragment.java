@@ -16,11 +16,11 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.lotterysystemproject.R;
 import com.example.lotterysystemproject.controllers.EventHistoryAdapter;
+import com.example.lotterysystemproject.firebasemanager.EntrantEventDetails;
+import com.example.lotterysystemproject.firebasemanager.FirestoreUsage;
 import com.example.lotterysystemproject.models.DeviceIdentityManager;
 import com.example.lotterysystemproject.models.Entrant;
 import com.example.lotterysystemproject.models.EventHistoryItem;
-import com.google.android.gms.tasks.Task;
-import com.google.android.gms.tasks.Tasks;
 import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.ListenerRegistration;
@@ -29,7 +29,9 @@ import java.util.Date;
 
 import java.text.DateFormat;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Displays the entrant’s registration history for past and current events.
@@ -104,7 +106,7 @@ public class EventRegistrationHistoryFragment extends Fragment {
 
     /**
      * Attaches a Firestore listener for all entrants belonging to this user
-     * and builds EventHistoryItems from entrant + event data.
+     * and builds EventHistoryItems from the entrant records.
      */
     private void listenForHistory(String userId) {
         if (userId == null || userId.isEmpty()) {
@@ -115,9 +117,11 @@ public class EventRegistrationHistoryFragment extends Fragment {
         showLoading();
 
         // Listen to all entrants for this user
+        String screen = FirestoreUsage.currentScreen();
         entrantsListener = db.collection("entrants")
                 .whereEqualTo("userId", userId)
                 .addSnapshotListener((snapshots, error) -> {
+                    FirestoreUsage.countSnapshot(screen, snapshots);
                     if (!isAdded()) return; // fragment no longer attached
 
                     hideLoading();
@@ -135,120 +139,122 @@ public class EventRegistrationHistoryFragment extends Fragment {
     }
 
     /**
-     * Builds the EventHistoryItem list by:
-     *  - reading entrant docs for this user
-     *  - fetching each related event to get the event name
+     * Builds the EventHistoryItem list from the entrant docs for this user.
+     * Event names are read from the entrant records; records that predate
+     * that field are backfilled with one batched event lookup.
      */
     private void buildHistoryFromEntrants(@NonNull QuerySnapshot snapshots) {
-        final List<Entrant> entrantList = new ArrayList<>();
-        final List<Task<DocumentSnapshot>> eventTasks = new ArrayList<>();
         final List<DocumentSnapshot> entrantDocs = new ArrayList<>();
+        boolean needsBackfill = false;
 
-        // Collect entrants + prepare event fetch operations
         for (DocumentSnapshot doc : snapshots.getDocuments()) {
-            Entrant entrant = doc.toObject(Entrant.class);
-            if (entrant == null) continue;
-
-            // Ensure Firestore document id preservation
-            entrant.setId(doc.getId());
-
-            String eventId = entrant.getEventId();
+            String eventId = doc.getString("eventId");
             if (eventId == null || eventId.isEmpty()) continue;
 
-            entrantList.add(entrant);
             entrantDocs.add(doc);
-            eventTasks.add(db.collection("events").document(eventId).get());
+            if (!EntrantEventDetails.isFilled(doc)) needsBackfill = true;
         }
 
         // If no events show empty state
-        if (eventTasks.isEmpty()) {
+        if (entrantDocs.isEmpty()) {
             historyItems.clear();
             adapter.notifyDataSetChanged();
             showEmpty();
             return;
         }
 
-        // Wait for all event lookups to finish
-        Tasks.whenAllSuccess(eventTasks)
-                .addOnSuccessListener(results -> {
-                    historyItems.clear();
-
-                    DateFormat dateFormat = android.text.format.DateFormat.getMediumDateFormat(requireContext());
-
-                    for (int i = 0; i < results.size(); i++) {
-                        DocumentSnapshot eventDoc = (DocumentSnapshot) results.get(i);
-                        Entrant entrant = entrantList.get(i);
-                        DocumentSnapshot entrantDoc = entrantDocs.get(i);
-
-                        // Event name (fallback to eventId if missing)
-                        String eventName = "Event";
-                        if (eventDoc != null && eventDoc.exists()) {
-                            String name = eventDoc.getString("name");
-                            if (name != null && !name.isEmpty()) {
-                                eventName = name;
-                            }
-                        }
-
-                        // Status: use enum if present, otherwise string
-                        String statusLabel;
-                        if (entrant.getStatus() != null) {
-                            switch (entrant.getStatus()) {
-                                case WAITING:
-                                    statusLabel = "On Waiting List";
-                                    break;
-                                case INVITED:
-                                    statusLabel = "Invited";
-                                    break;
-                                case ENROLLED:
-                                    statusLabel = "Enrolled";
-                                    break;
-                                case CANCELLED:
-                                default:
-                                    statusLabel = "Cancelled / Declined";
-                                    break;
-                            }
-                        } else {
-                            statusLabel = "Unknown";
-                        }
-
-                        // Use raw Firestore timestamps
-                        Long statusTs = entrantDoc.getLong("statusTimestamp");
-                        Long joinedTs = entrantDoc.getLong("joinedTimestamp");
-
-                        long ts = 0L;
-                        if (statusTs != null && statusTs > 0) {
-                            ts = statusTs;
-                        } else if (joinedTs != null && joinedTs > 0) {
-                            ts = joinedTs;
-                        }
-
-                        String dateStr;
-                        if (ts > 0) {
-                            dateStr = dateFormat.format(new Date(ts));
-                        } else {
-                            dateStr = "-";
-                        }
-
-                        // Create history entry
-                        historyItems.add(
-                                new EventHistoryItem(
-                                        eventName,
-                                        statusLabel,
-                                        dateStr
-                                )
-                        );
-                    }
+        if (!needsBackfill) {
+            renderHistory(entrantDocs, Collections.emptyMap());
+            return;
+        }
 
-                    adapter.notifyDataSetChanged();
-                    updateVisibility();
-                })
-                .addOnFailureListener(e -> {
+        EntrantEventDetails.backfill(db, entrantDocs,
+                names -> {
+                    if (isAdded()) renderHistory(entrantDocs, names);
+                },
+                e -> {
+                    if (!isAdded()) return;
                     historyItems.clear();
                     adapter.notifyDataSetChanged();
                     showEmpty();
                 });
     }
 
+    /**
+     * Converts entrant docs into history rows.
+     *
+     * @param entrantDocs entrant documents with an event ID
+     * @param backfilledNames event names looked up for records without a copied name
+     */
+    private void renderHistory(List<DocumentSnapshot> entrantDocs, Map<String, String> backfilledNames) {
+        historyItems.clear();
+
+        DateFormat dateFormat = android.text.format.DateFormat.getMediumDateFormat(requireContext());
+
+        for (DocumentSnapshot entrantDoc : entrantDocs) {
+            Entrant entrant = entrantDoc.toObject(Entrant.class);
+            if (entrant == null) continue;
+
+            // Event name (fallback if missing)
+            String name = EntrantEventDetails.isFilled(entrantDoc)
+                    ? entrant.getEventName()
+                    : backfilledNames.get(entrant.getEventId());
+            String eventName = name != null && !name.isEmpty() ? name : "Event";
+
+            // Status: use enum if present, otherwise string
+            String statusLabel;
+            if (entrant.getStatus() != null) {
+                switch (entrant.getStatus()) {
+                    case WAITING:
+                        statusLabel = "On Waiting List";
+                        break;
+                    case INVITED:
+                        statusLabel = "Invited";
+                        break;
+                    case ENROLLED:
+                        statusLabel = "Enrolled";
+                        break;
+                    case CANCELLED:
+                    default:
+                        statusLabel = "Cancelled / Declined";
+                        break;
+                }
+            } else {
+                statusLabel = "Unknown";
+            }
+
+            // Use raw Firestore timestamps
+            Long statusTs = entrantDoc.getLong("statusTimestamp");
+            Long joinedTs = entrantDoc.getLong("joinedTimestamp");
+
+            long ts = 0L;
+            if (statusTs != null && statusTs > 0) {
+                ts = statusTs;
+            } else if (joinedTs != null && joinedTs > 0) {
+                ts = joinedTs;
+            }
+
+            String dateStr;
+            if (ts > 0) {
+                dateStr = dateFormat.format(new Date(ts));
+            } else {
+                dateStr = "-";
+            }
+
+            // Create history entry
+            historyItems.add(
+                    new EventHistoryItem(
+                            eventName,
+                            statusLabel,
+                            dateStr
+                    )
+            );
+        }
+
+        adapter.notifyDataSetChanged();
+        updateVisibility();
+    }
+
     /** Shows the loading spinner. */
     private void showLoading() {
         if (progress != null) progress.setVisibility(View.VISIBLE);
@@ -9,6 +9,7 @@ import android.widget.TextView;
 import androidx.annotation.Nullable;
 import androidx.appcompat.app.AppCompatActivity;
 
+import com.example.lotterysystemproject.firebasemanager.FirestoreUsage;
 import com.example.lotterysystemproject.models.DeviceIdentityManager;
 import com.example.lotterysystemproject.models.Entrant;
 import com.google.firebase.firestore.FirebaseFirestore;
@@ -44,10 +45,12 @@ public class EventsHistoryActivity extends AppCompatActivity {
         progress.setVisibility(View.VISIBLE);
 
         // Listen to entrants collection filtered by userId
+        String screen = FirestoreUsage.currentScreen();
         entrantsListener = db.collection("entrants")
                 .whereEqualTo("userId", uid)
                 .orderBy("statusTimestamp", Query.Direction.DESCENDING)
                 .addSnapshotListener((snapshots, error) -> {
+                    FirestoreUsage.countSnapshot(screen, snapshots);
                     progress.setVisibility(View.GONE);
 
                     if (error != null) {
@@ -94,6 +97,7 @@ public class EventsHistoryActivity extends AppCompatActivity {
 
                 if (entrant.getEventId() != null) {
                     db.collection("events").document(entrant.getEventId()).get()
+                            .addOnSuccessListener(FirestoreUsage.reads())
                             .addOnSuccessListener(eventDoc -> {
                                 if (eventDoc.exists()) {
                                     String eventName = eventDoc.getString("name");
@@ -12,6 +12,9 @@ import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.lotterysystemproject.R;
+import com.example.lotterysystemproject.firebasemanager.FirestoreUsage;
+import com.example.lotterysystemproject.firebasemanager.GeoBuckets;
+import com.example.lotterysystemproject.firebasemanager.MembershipIndex;
 import com.example.lotterysystemproject.models.NotificationItem;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.FieldValue;
@@ -148,24 +151,24 @@ public class NotificationsAdapter extends RecyclerView.Adapter<NotificationsAdap
                 long now = System.currentTimeMillis();
 
                 // Mark entrant as enrolled
-                db.collection("entrants")
-                        .document(entrantIdFromNotif)
-                        .update("status", "ENROLLED",
-                                "statusTimestamp", now)
+                GeoBuckets.updateStatus(db, entrantIdFromNotif, "ENROLLED", now)
                         .addOnSuccessListener(aVoid -> {
+                            MembershipIndex.record(db, item.getUserId(), eventIdFromNotif, "ENROLLED", now);
 
                             // Increment event's currentEnrolled if we have eventId
                             if (eventIdFromNotif != null) {
                                 db.collection("events")
                                         .document(eventIdFromNotif)
-                                        .update("currentEnrolled", FieldValue.increment(1));
+                                        .update("currentEnrolled", FieldValue.increment(1))
+                                        .addOnSuccessListener(FirestoreUsage.writes(1));
                             }
 
                             // Persist decision in notification document
                             db.collection("notifications")
                                     .document(item.getId())
                                     .update("decision",
-                                            NotificationItem.Decision.ACCEPTED.name());
+                                            NotificationItem.Decision.ACCEPTED.name())
+                                    .addOnSuccessListener(FirestoreUsage.writes(1));
 
                             // Update in-memory object
                             item.setDecision(NotificationItem.Decision.ACCEPTED);
@@ -187,17 +190,16 @@ public class NotificationsAdapter extends RecyclerView.Adapter<NotificationsAdap
                 long now = System.currentTimeMillis();
 
                 // Mark entrant as cancelled
-                db.collection("entrants")
-                        .document(entrantIdFromNotif)
-                        .update("status", "CANCELLED",
-                                "statusTimestamp", now)
+                GeoBuckets.updateStatus(db, entrantIdFromNotif, "CANCELLED", now)
 
                         // Persist decision in notification document
                         .addOnSuccessListener(aVoid -> {
+                            MembershipIndex.record(db, item.getUserId(), eventIdFromNotif, "CANCELLED", now);
                             db.collection("notifications")
                                     .document(item.getId())
                                     .update("decision",
-                                            NotificationItem.Decision.DECLINED.name());
+                                            NotificationItem.Decision.DECLINED.name())
+                                    .addOnSuccessListener(FirestoreUsage.writes(1));
 
                             item.setDecision(NotificationItem.Decision.DECLINED);
                             notifyItemChanged(holder.getBindingAdapterPosition());
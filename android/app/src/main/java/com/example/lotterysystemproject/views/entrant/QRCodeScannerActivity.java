@@ -3,7 +3,9 @@ package com.example.lotterysystemproject.views.entrant;
 import android.Manifest;
 import android.content.Intent;
 import android.content.pm.PackageManager;
+import android.graphics.ImageFormat;
 import android.os.Bundle;
+import android.os.SystemClock;
 import android.util.Log;
 import android.util.Size;
 import android.view.View;
@@ -15,45 +17,88 @@ import androidx.camera.core.CameraSelector;
 import androidx.camera.core.ImageAnalysis;
 import androidx.camera.core.ImageProxy;
 import androidx.camera.core.Preview;
+import androidx.camera.core.resolutionselector.ResolutionSelector;
+import androidx.camera.core.resolutionselector.ResolutionStrategy;
 import androidx.camera.lifecycle.ProcessCameraProvider;
 import androidx.core.app.ActivityCompat;
 import androidx.core.content.ContextCompat;
 
 import com.example.lotterysystemproject.databinding.ActivityQrScannerBinding;
+import com.example.lotterysystemproject.utils.AppExecutors;
+import com.example.lotterysystemproject.utils.CheckInManager;
+import com.example.lotterysystemproject.utils.CheckInRoster;
 import com.example.lotterysystemproject.utils.QRCodeGenerator;
+import com.example.lotterysystemproject.utils.ScanFrameThrottler;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.mlkit.vision.barcode.BarcodeScanner;
+import com.google.mlkit.vision.barcode.BarcodeScannerOptions;
 import com.google.mlkit.vision.barcode.BarcodeScanning;
 import com.google.mlkit.vision.barcode.common.Barcode;
 import com.google.mlkit.vision.common.InputImage;
 
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.Executor;
 
 import kotlin.internal.InlineOnly;
 
 public class QRCodeScannerActivity extends AppCompatActivity {
 
+    /** Intent extra holding the event ID; when present the scanner validates door tickets. */
+    public static final String EXTRA_CHECK_IN_EVENT_ID = "checkInEventId";
+    /** Pause after a ticket result so the same ticket is not read again immediately. */
+    private static final long CHECK_IN_RESUME_DELAY_MS = 1500;
+
     private ActivityQrScannerBinding binding;
-    private boolean scanned = false;
+    private volatile boolean scanned = false;
     private static final String TAG = "QRCodeScanner";
-    private ExecutorService cameraExecutor;
+    private Executor cameraExecutor;
     private BarcodeScanner barcodeScanner;
     private static final int CAMERA_PERMISSION_REQUEST = 200;
 
+    /** Analysis frames are requested at roughly 720p; QR codes do not need more. */
+    private static final Size ANALYSIS_RESOLUTION = new Size(1280, 720);
+    /** Side of the centred square region that is scanned, as a fraction of the shorter frame side. */
+    private static final float ROI_FRACTION = 0.7f;
+    /** Keep the detector busy at most half of the time; wait at most 500 ms between frames. */
+    private final ScanFrameThrottler throttler = new ScanFrameThrottler(0.5, 500);
+
+    /** Reused NV21 buffer holding the cropped region (camera thread only). */
+    private byte[] roiBuffer;
+    /** Time the camera was bound, used to report time-to-first-decode. */
+    private volatile long cameraBoundAtMs;
+    /** Set once time-to-first-decode is logged; {@link #scanned} resets after every ticket. */
+    private volatile boolean firstDecodeLogged;
+
+    /** Event being checked in at the door, or null in event-scanning mode. */
+    private String checkInEventId;
+    private CheckInManager checkInManager;
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         binding = ActivityQrScannerBinding.inflate(getLayoutInflater());
         setContentView(binding.getRoot());
 
-        // Initialize barcode scanner
-        barcodeScanner = BarcodeScanning.getClient();
+        // Initialize barcode scanner, restricted to QR codes so the detector skips other formats
+        BarcodeScannerOptions options = new BarcodeScannerOptions.Builder()
+                .setBarcodeFormats(Barcode.FORMAT_QR_CODE)
+                .build();
+        barcodeScanner = BarcodeScanning.getClient(options);
+
+        // Frames are analyzed one at a time on the shared pool; CameraX stops sending them on destroy
+        cameraExecutor = AppExecutors.serial("qr-scanner");
 
-        // Initialize camera executor
-        cameraExecutor = Executors.newSingleThreadExecutor();
+        checkInEventId = getIntent().getStringExtra(EXTRA_CHECK_IN_EVENT_ID);
+        if (checkInEventId != null) {
+            checkInManager = CheckInManager.getInstance(this);
+            checkInManager.startNetworkSync();
+            checkInManager.syncPending();
+            binding.scanTitle.setText("Scan Ticket");
+        }
 
         if (checkCameraPermission()) {
             startCamera();
@@ -132,7 +177,14 @@ public class QRCodeScannerActivity extends AppCompatActivity {
         // Camera selector - use back camera
         CameraSelector cameraSelector = CameraSelector.DEFAULT_BACK_CAMERA;
 
+        ResolutionSelector resolutionSelector = new ResolutionSelector.Builder()
+                .setResolutionStrategy(new ResolutionStrategy(
+                        ANALYSIS_RESOLUTION,
+                        ResolutionStrategy.FALLBACK_RULE_CLOSEST_LOWER_THEN_HIGHER))
+                .build();
+
         ImageAnalysis imageAnalysis = new ImageAnalysis.Builder()
+                .setResolutionSelector(resolutionSelector)
                 .setBackpressureStrategy(ImageAnalysis.STRATEGY_KEEP_ONLY_LATEST)
                 .build();
 
@@ -142,6 +194,8 @@ public class QRCodeScannerActivity extends AppCompatActivity {
         try {
             cameraProvider.unbindAll();
             cameraProvider.bindToLifecycle(this, cameraSelector, preview, imageAnalysis);
+            cameraBoundAtMs = SystemClock.elapsedRealtime();
+            firstDecodeLogged = false;
         } catch (Exception e) {
             Log.e(TAG, "Camera binding failed", e);
             Toast.makeText(this, "Failed to bind camera", Toast.LENGTH_SHORT).show();
@@ -149,39 +203,98 @@ public class QRCodeScannerActivity extends AppCompatActivity {
     }
 
     /**
-     * Analyze image for QR codes using ML Kit
+     * Analyze image for QR codes using ML Kit.
+     * Frames are throttled based on measured inference time, and only the
+     * centre of the frame (where the scan frame is drawn) is sent to the detector.
      */
-    @androidx.annotation.OptIn(markerClass = androidx.camera.core.ExperimentalGetImage.class)
     private void analyzeImage(@NonNull ImageProxy imageProxy) {
-        if (scanned) {
+        long startMs = SystemClock.elapsedRealtime();
+        if (scanned || !throttler.shouldAnalyze(startMs)) {
             imageProxy.close();
             return;
         }
 
-        android.media.Image mediaImage = imageProxy.getImage();
-
-        if (mediaImage != null) {
-            InputImage image = InputImage.fromMediaImage(
-                    mediaImage,
-                    imageProxy.getImageInfo().getRotationDegrees()
-            );
-
-            // Scan for barcodes
-            barcodeScanner.process(image)
-                    .addOnSuccessListener(barcodes -> {
-                        if (!barcodes.isEmpty() && !scanned) {
-                            processQRCode(barcodes);
-                        }
-                    })
-                    .addOnFailureListener(e -> {
-                        Log.e(TAG, "Barcode scanning failed", e);
-                    })
-                    .addOnCompleteListener(task -> {
-                        imageProxy.close();
-                    });
-        } else {
+        InputImage image = cropCenter(imageProxy);
+        if (image == null) {
             imageProxy.close();
+            return;
         }
+
+        // Scan for barcodes; listeners stay on the camera thread so the throttler is single-threaded
+        barcodeScanner.process(image)
+                .addOnSuccessListener(cameraExecutor, barcodes -> {
+                    if (!barcodes.isEmpty() && !scanned) {
+                        logFirstDecode();
+                        processQRCode(barcodes);
+                    }
+                })
+                .addOnFailureListener(cameraExecutor, e -> {
+                    Log.e(TAG, "Barcode scanning failed", e);
+                })
+                .addOnCompleteListener(cameraExecutor, task -> {
+                    long endMs = SystemClock.elapsedRealtime();
+                    throttler.onFrameAnalyzed(endMs, endMs - startMs);
+                    imageProxy.close();
+                });
+    }
+
+    /**
+     * Copies the centred square region of the luminance plane into an NV21
+     * buffer. Barcode detection only needs luminance, so chroma is left neutral.
+     *
+     * @param imageProxy YUV_420_888 frame from CameraX
+     * @return InputImage of the cropped region, or null if the frame is unusable
+     */
+    private InputImage cropCenter(@NonNull ImageProxy imageProxy) {
+        if (imageProxy.getFormat() != ImageFormat.YUV_420_888) {
+            return null;
+        }
+
+        int frameWidth = imageProxy.getWidth();
+        int frameHeight = imageProxy.getHeight();
+        // NV21 needs even dimensions
+        int side = ((int) (Math.min(frameWidth, frameHeight) * ROI_FRACTION)) & ~1;
+        int left = ((frameWidth - side) / 2) & ~1;
+        int top = ((frameHeight - side) / 2) & ~1;
+
+        int lumaSize = side * side;
+        int nv21Size = lumaSize + lumaSize / 2;
+        if (roiBuffer == null || roiBuffer.length != nv21Size) {
+            roiBuffer = new byte[nv21Size];
+            Arrays.fill(roiBuffer, lumaSize, nv21Size, (byte) 128);
+        }
+
+        ImageProxy.PlaneProxy yPlane = imageProxy.getPlanes()[0];
+        ByteBuffer yBuffer = yPlane.getBuffer();
+        int rowStride = yPlane.getRowStride();
+        for (int row = 0; row < side; row++) {
+            yBuffer.position((top + row) * rowStride + left);
+            yBuffer.get(roiBuffer, row * side, side);
+        }
+
+        return InputImage.fromByteArray(
+                roiBuffer,
+                side,
+                side,
+                imageProxy.getImageInfo().getRotationDegrees(),
+                InputImage.IMAGE_FORMAT_NV21
+        );
+    }
+
+    /**
+     * Logs time-to-first-decode together with frame throttling statistics, once per
+     * camera binding.
+     */
+    private void logFirstDecode() {
+        if (firstDecodeLogged) return;
+        firstDecodeLogged = true;
+        long elapsed = SystemClock.elapsedRealtime() - cameraBoundAtMs;
+        Log.i(TAG, String.format(Locale.US,
+                "First decode after %d ms (analysed %d frames, skipped %d, avg inference %.1f ms)",
+                elapsed,
+                throttler.getAnalyzedFrames() + 1,
+                throttler.getSkippedFrames(),
+                throttler.getAverageInferenceMs()));
     }
 
     /**
@@ -207,6 +320,11 @@ public class QRCodeScannerActivity extends AppCompatActivity {
 
         runOnUiThread(() -> {
 
+            if (checkInEventId != null) {
+                handleTicket(qrData);
+                return;
+            }
+
             String eventId = QRCodeGenerator.extractEventId(qrData);
 
             if (eventId == null) {
@@ -227,11 +345,36 @@ public class QRCodeScannerActivity extends AppCompatActivity {
 
 
 
+    /**
+     * Validates a door ticket against the locally cached roster and resumes
+     * scanning after a short pause. Works without network access.
+     */
+    private void handleTicket(String qrData) {
+        CheckInRoster.Result result = checkInManager.checkIn(checkInEventId, qrData);
+        CheckInRoster roster = checkInManager.getRoster(checkInEventId);
+
+        String message;
+        switch (result) {
+            case ADMITTED:
+                message = "✓ Checked in (" + roster.getCheckedInCount() + "/" + roster.getEnrolledCount() + ")";
+                break;
+            case ALREADY_CHECKED_IN:
+                message = "Already checked in";
+                break;
+            default:
+                message = "✗ Ticket not valid for this event";
+                break;
+        }
+        Toast.makeText(this, message, Toast.LENGTH_SHORT).show();
+
+        binding.getRoot().postDelayed(() -> scanned = false, CHECK_IN_RESUME_DELAY_MS);
+    }
+
     @Override
     protected void onDestroy() {
         super.onDestroy();
-        if (cameraExecutor != null) {
-            cameraExecutor.shutdown();
+        if (checkInManager != null) {
+            checkInManager.stopNetworkSync();
         }
         if (barcodeScanner != null) {
             barcodeScanner.close();
@@ -19,7 +19,8 @@ import androidx.cardview.widget.CardView;
 import com.example.lotterysystemproject.R;
 import com.example.lotterysystemproject.firebasemanager.EventRepository;
 import com.example.lotterysystemproject.firebasemanager.RepositoryProvider;
-import com.example.lotterysystemproject.models.Event;
+import com.example.lotterysystemproject.models.EventSummary;
+import com.example.lotterysystemproject.utils.AppExecutors;
 
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
@@ -52,8 +53,10 @@ public class SearchResultsActivity extends AppCompatActivity {
     // Data
     private EventRepository eventRepository;
     private String searchQuery;
-    private List<Event> allEvents;
-    private List<Event> filteredEvents;
+    private List<EventSummary> allEvents;
+    private List<EventSummary> filteredEvents;
+    // Incremented per filter pass so results of an older pass are dropped
+    private int filterGeneration;
 
     // Filter state
     private Date filterDate = null;
@@ -112,12 +115,12 @@ public class SearchResultsActivity extends AppCompatActivity {
     }
 
     /**
-     * Perform the initial search by fetching all active events and filtering by keywords
+     * Perform the initial search by fetching all active event summaries and filtering by keywords
      */
     private void performSearch() {
         showLoading(true);
 
-        eventRepository.getActiveEvents(
+        eventRepository.getActiveEventSummaries(
                 events -> {
                     allEvents = events;
                     if (events == null || events.isEmpty()) {
@@ -125,16 +128,22 @@ public class SearchResultsActivity extends AppCompatActivity {
                         return;
                     }
 
-                    // Filter by search query keywords
-                    filteredEvents = filterByKeywords(events, searchQuery);
-
-                    runOnUiThread(() -> {
-                        showLoading(false);
-                        if (filteredEvents.isEmpty()) {
-                            showNoResults("No events match your search");
-                        } else {
-                            displayResults(filteredEvents);
-                        }
+                    // Filter by search query keywords off the main thread
+                    String query = searchQuery;
+                    int generation = ++filterGeneration;
+                    AppExecutors.compute().execute(() -> {
+                        List<EventSummary> matches = filterByKeywords(events, query);
+
+                        AppExecutors.mainThread().execute(() -> {
+                            if (isDestroyed() || generation != filterGeneration) return;
+                            filteredEvents = matches;
+                            showLoading(false);
+                            if (filteredEvents.isEmpty()) {
+                                showNoResults("No events match your search");
+                            } else {
+                                displayResults(filteredEvents);
+                            }
+                        });
                     });
                 },
                 error -> {
@@ -156,8 +165,8 @@ public class SearchResultsActivity extends AppCompatActivity {
      * @param query Search query string
      * @return Filtered list of events
      */
-    private List<Event> filterByKeywords(List<Event> events, String query) {
-        List<Event> results = new ArrayList<>();
+    private List<EventSummary> filterByKeywords(List<EventSummary> events, String query) {
+        List<EventSummary> results = new ArrayList<>();
 
         if (query == null || query.trim().isEmpty()) {
             return events;
@@ -166,7 +175,7 @@ public class SearchResultsActivity extends AppCompatActivity {
         // Split query into keywords (words separated by spaces)
         String[] keywords = query.toLowerCase().trim().split("\\s+");
 
-        for (Event event : events) {
+        for (EventSummary event : events) {
             if (matchesKeywords(event, keywords)) {
                 results.add(event);
             }
@@ -178,11 +187,11 @@ public class SearchResultsActivity extends AppCompatActivity {
     /**
      * Check if an event matches any of the keywords in its name or description
      *
-     * @param event Event to check
+     * @param event Event summary to check
      * @param keywords Array of keywords to match
      * @return true if event matches any keyword
      */
-    private boolean matchesKeywords(Event event, String[] keywords) {
+    private boolean matchesKeywords(EventSummary event, String[] keywords) {
         String name = event.getName() != null ? event.getName().toLowerCase() : "";
         String description = event.getDescription() != null ? event.getDescription().toLowerCase() : "";
 
@@ -196,24 +205,45 @@ public class SearchResultsActivity extends AppCompatActivity {
     }
 
     /**
-     * Apply date and time filters to the current filtered results
+     * Apply date and time filters to the current filtered results.
+     * Filtering runs on the compute pool; the UI updates when it finishes.
      */
     private void applyFilters() {
         if (allEvents == null) return;
 
-        // Start with keyword-filtered results
-        filteredEvents = filterByKeywords(allEvents, searchQuery);
+        List<EventSummary> events = allEvents;
+        String query = searchQuery;
+        Date date = filterDate;
+        String time = filterTime;
+        int generation = ++filterGeneration;
 
-        // Apply date filter
-        if (filterDate != null) {
-            filteredEvents = filterByDate(filteredEvents, filterDate);
-        }
+        AppExecutors.compute().execute(() -> {
+            // Start with keyword-filtered results
+            List<EventSummary> results = filterByKeywords(events, query);
 
-        // Apply time filter
-        if (filterTime != null) {
-            filteredEvents = filterByTime(filteredEvents, filterTime);
-        }
+            // Apply date filter
+            if (date != null) {
+                results = filterByDate(results, date);
+            }
 
+            // Apply time filter
+            if (time != null) {
+                results = filterByTime(results, time);
+            }
+
+            List<EventSummary> finalResults = results;
+            AppExecutors.mainThread().execute(() -> {
+                if (isDestroyed() || generation != filterGeneration) return;
+                filteredEvents = finalResults;
+                showFilteredResults();
+            });
+        });
+    }
+
+    /**
+     * Shows the result of the latest filter pass and updates the filter buttons.
+     */
+    private void showFilteredResults() {
         // Update UI
         if (filteredEvents.isEmpty()) {
             showNoResults("No events match your filters");
@@ -236,14 +266,14 @@ public class SearchResultsActivity extends AppCompatActivity {
      * @param targetDate Date to filter by
      * @return Filtered list of events
      */
-    private List<Event> filterByDate(List<Event> events, Date targetDate) {
-        List<Event> results = new ArrayList<>();
+    private List<EventSummary> filterByDate(List<EventSummary> events, Date targetDate) {
+        List<EventSummary> results = new ArrayList<>();
         Calendar targetCal = Calendar.getInstance();
         targetCal.setTime(targetDate);
 
         Calendar eventCal = Calendar.getInstance();
 
-        for (Event event : events) {
+        for (EventSummary event : events) {
             if (event.getEventDate() != null) {
                 eventCal.setTime(event.getEventDate());
 
@@ -266,10 +296,10 @@ public class SearchResultsActivity extends AppCompatActivity {
      * @param targetTime Time string in "HH:mm" format
      * @return Filtered list of events
      */
-    private List<Event> filterByTime(List<Event> events, String targetTime) {
-        List<Event> results = new ArrayList<>();
+    private List<EventSummary> filterByTime(List<EventSummary> events, String targetTime) {
+        List<EventSummary> results = new ArrayList<>();
 
-        for (Event event : events) {
+        for (EventSummary event : events) {
             String eventTime = event.getEventTime();
             if (eventTime != null && !eventTime.isEmpty()) {
                 // Simple string comparison works for "HH:mm" format
@@ -370,7 +400,7 @@ public class SearchResultsActivity extends AppCompatActivity {
      *
      * @param events List of events to display
      */
-    private void displayResults(List<Event> events) {
+    private void displayResults(List<EventSummary> events) {
         resultsContainer.removeAllViews();
         resultsContainer.setVisibility(View.VISIBLE);
         noResultsTextView.setVisibility(View.GONE);
@@ -378,7 +408,7 @@ public class SearchResultsActivity extends AppCompatActivity {
         resultsCountTextView.setText(events.size() + " event(s) found");
         resultsCountTextView.setVisibility(View.VISIBLE);
 
-        for (Event event : events) {
+        for (EventSummary event : events) {
             View eventCard = createEventCard(event);
             resultsContainer.addView(eventCard);
         }
@@ -387,10 +417,10 @@ public class SearchResultsActivity extends AppCompatActivity {
     /**
      * Create a card view for an event
      *
-     * @param event Event to create card for
+     * @param event Event summary to create card for
      * @return View representing the event card
      */
-    private View createEventCard(Event event) {
+    private View createEventCard(EventSummary event) {
         View cardView = getLayoutInflater().inflate(R.layout.item_search_result, resultsContainer, false);
 
         TextView nameText = cardView.findViewById(R.id.event_name);
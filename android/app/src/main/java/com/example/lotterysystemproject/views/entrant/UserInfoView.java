@@ -1,11 +1,18 @@
 package com.example.lotterysystemproject.views.entrant;
 
 import android.os.Bundle;
+import android.util.Log;
 import androidx.annotation.Nullable;
 import androidx.appcompat.app.AppCompatActivity;
 
 import com.example.lotterysystemproject.controllers.UserInfo;
 import com.example.lotterysystemproject.databinding.UserInfoBinding;
+import com.example.lotterysystemproject.firebasemanager.RepositoryCallback;
+import com.example.lotterysystemproject.firebasemanager.RepositoryProvider;
+import com.example.lotterysystemproject.firebasemanager.UserProfileCache;
+import com.example.lotterysystemproject.models.DeviceIdentityManager;
+import com.example.lotterysystemproject.models.ProfilePrefs;
+import com.example.lotterysystemproject.utils.AuthState;
 
 /**
  * View class for the user information sign-up screen.
@@ -30,6 +37,8 @@ public class UserInfoView extends AppCompatActivity {
     @Override
     protected void onCreate(@Nullable Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        // Before any repository is created, so timing covers the launch
+        DiagnosticsActivity.applySavedSettings(this);
 
         binding = UserInfoBinding.inflate(getLayoutInflater());
         setContentView(binding.getRoot());
@@ -38,6 +47,30 @@ public class UserInfoView extends AppCompatActivity {
         binding.buttonSkip.setOnClickListener(v -> controller.handleSkip(this, binding));
         binding.adminLogin.setOnClickListener(v -> controller.navigateToAdminLogin(this));
         binding.buttonOrganizer.setOnClickListener(v -> controller.navigateToOrganizerHome(this));
+
+        resumePendingDeactivation();
+        // Keep this device's profile live so later flows never re-read it
+        UserProfileCache.watch(DeviceIdentityManager.getUserId(this));
+    }
+
+    /**
+     * Finishes an account deletion that was interrupted before it completed,
+     * then clears the local profile just like a normal deletion does.
+     */
+    private void resumePendingDeactivation() {
+        RepositoryProvider.getUserRepository().resumePendingDeactivation(new RepositoryCallback<String>() {
+            @Override
+            public void onSuccess(String userId) {
+                if (userId == null) return;
+                new ProfilePrefs(UserInfoView.this).deleteUser(userId);
+                AuthState.clearUserPrefs(UserInfoView.this);
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                Log.w("UserInfoView", "Resuming account deletion failed", e);
+            }
+        });
     }
 
     @Override
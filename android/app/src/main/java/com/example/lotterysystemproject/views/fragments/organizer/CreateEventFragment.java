@@ -2,6 +2,7 @@ package com.example.lotterysystemproject.views.fragments.organizer;
 
 import android.app.DatePickerDialog;
 import android.app.TimePickerDialog;
+import android.content.Context;
 import android.location.Address;
 import android.location.Geocoder;
 import android.net.Uri;
@@ -36,6 +37,8 @@ import com.example.lotterysystemproject.firebasemanager.UserRepository;
 import com.example.lotterysystemproject.models.DeviceIdentityManager;
 import com.example.lotterysystemproject.models.Event;
 import com.example.lotterysystemproject.models.User;
+import com.example.lotterysystemproject.utils.AppExecutors;
+import com.example.lotterysystemproject.utils.ContentAddressedUploader;
 import com.example.lotterysystemproject.viewmodels.EventViewModel;
 import com.google.android.libraries.places.api.Places;
 import com.google.android.libraries.places.api.model.AutocompletePrediction;
@@ -56,8 +59,6 @@ import java.util.Calendar;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * Fragment that allows organizers to create new events.
@@ -475,7 +476,7 @@ public class CreateEventFragment extends Fragment {
                 Date date = regEndDate.getTime();
                 String eventTime = "5:00PM";
 
-                Event newEvent = new Event(eventId, name, description, result.getName(), result.getEmail(), date, eventTime, location, finalCapacity);
+                Event newEvent = new Event(eventId, name, description, result.getName(), deviceId, date, eventTime, location, finalCapacity);
 
                 newEvent.setRegistrationStart(regStartDate.getTime());
                 newEvent.setRegistrationEnd(regEndDate.getTime());
@@ -512,16 +513,18 @@ public class CreateEventFragment extends Fragment {
     /**
      * Determines if Geocoding is needed, then proceeds to upload/save.
      * Use background thread for Geocoding to prevent UI freeze/Crash.
+     * The event is still saved if the organizer leaves the screen meanwhile,
+     * so everything after this point uses the application context.
      */
     private void processEventCreation(Event event) {
+        Context appContext = requireContext().getApplicationContext();
         // If coordinates are missing (0,0) but we have a location string (manual entry),
         // try to geocode it on a background thread.
         if ((event.getLatitude() == 0 && event.getLongitude() == 0) &&
                 event.getLocation() != null && !event.getLocation().isEmpty()) {
 
-            ExecutorService executor = Executors.newSingleThreadExecutor();
-            executor.execute(() -> {
-                Geocoder geocoder = new Geocoder(getContext(), Locale.getDefault());
+            Geocoder geocoder = new Geocoder(appContext, Locale.getDefault());
+            AppExecutors.io().execute(() -> {
                 try {
                     List<Address> addresses = geocoder.getFromLocationName(event.getLocation(), 1);
                     if (addresses != null && !addresses.isEmpty()) {
@@ -534,43 +537,39 @@ public class CreateEventFragment extends Fragment {
                 }
 
                 // Proceed to next step on Main Thread
-                if (getActivity() != null) {
-                    getActivity().runOnUiThread(() -> uploadPosterAndFinalize(event));
-                }
+                AppExecutors.mainThread().execute(() -> uploadPosterAndFinalize(appContext, event));
             });
         } else {
             // Coordinates already set (via Places) or location empty
-            uploadPosterAndFinalize(event);
+            uploadPosterAndFinalize(appContext, event);
         }
     }
 
     /**
      * Uploads the poster (if selected) and then saves the event to ViewModel.
+     * Posters are stored by content hash, so re-using an image skips the upload.
      */
-    private void uploadPosterAndFinalize(Event event) {
+    private void uploadPosterAndFinalize(Context appContext, Event event) {
         if (selectedImageUri != null) {
-            StorageReference ref = FirebaseStorage.getInstance()
-                    .getReference("event_posters/" + event.getId() + ".jpg");
-
-            ref.putFile(selectedImageUri)
-                    .addOnSuccessListener(t -> {
-                        ref.getDownloadUrl().addOnSuccessListener(url -> {
-                            event.setPosterImageUrl(url.toString());
-                            saveEventToViewModel(event);
-                        });
-                    })
-                    .addOnFailureListener(e -> {
-                        Toast.makeText(getContext(), "Poster upload failed: " + e.getMessage(), Toast.LENGTH_LONG).show();
+            StorageReference folder = FirebaseStorage.getInstance().getReference("event_posters");
+
+            ContentAddressedUploader.upload(appContext.getContentResolver(), folder, selectedImageUri,
+                    url -> {
+                        event.setPosterImageUrl(url);
+                        saveEventToViewModel(appContext, event);
+                    },
+                    e -> {
+                        Toast.makeText(appContext, "Poster upload failed: " + e.getMessage(), Toast.LENGTH_LONG).show();
                     });
         } else {
-            saveEventToViewModel(event);
+            saveEventToViewModel(appContext, event);
         }
     }
 
-    private void saveEventToViewModel(Event event) {
+    private void saveEventToViewModel(Context appContext, Event event) {
         eventViewModel.createEvent(event);
-        Toast.makeText(getContext(), "✓ Event created successfully!", Toast.LENGTH_LONG).show();
-        if (getActivity() != null) {
+        Toast.makeText(appContext, "✓ Event created successfully!", Toast.LENGTH_LONG).show();
+        if (isAdded()) {
             requireActivity().onBackPressed();
         }
     }
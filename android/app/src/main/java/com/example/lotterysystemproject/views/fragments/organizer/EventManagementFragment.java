@@ -1,6 +1,7 @@
 package com.example.lotterysystemproject.views.fragments.organizer;
 
 import android.app.AlertDialog;
+import android.content.Intent;
 import android.net.Uri;
 import android.os.Bundle;
 import android.util.Log;
@@ -22,15 +23,22 @@ import androidx.navigation.Navigation;
 import androidx.viewpager2.widget.ViewPager2;
 
 import com.bumptech.glide.Glide;
+import com.example.lotterysystemproject.firebasemanager.FirestoreUsage;
+import com.example.lotterysystemproject.firebasemanager.RepositoryProvider;
 import com.example.lotterysystemproject.models.Event;
 import com.example.lotterysystemproject.R;
 import com.example.lotterysystemproject.adapters.TabsPagerAdapter;
+import com.example.lotterysystemproject.firebasemanager.EventSummaries;
+import com.example.lotterysystemproject.utils.CheckInManager;
+import com.example.lotterysystemproject.utils.ContentAddressedUploader;
 import com.example.lotterysystemproject.viewmodels.EntrantViewModel;
 import com.example.lotterysystemproject.viewmodels.EventViewModel;
+import com.example.lotterysystemproject.views.entrant.QRCodeScannerActivity;
 import com.google.android.material.dialog.MaterialAlertDialogBuilder;
 import com.google.android.material.tabs.TabLayout;
 import com.google.android.material.tabs.TabLayoutMediator;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.WriteBatch;
 import com.google.firebase.storage.FirebaseStorage;
 import com.google.firebase.storage.StorageReference;
 
@@ -54,6 +62,7 @@ public class EventManagementFragment extends Fragment {
     private TabLayout tabLayout;
     private ViewPager2 viewPager;
     private Button qrCodeButton;
+    private Button checkInButton;
 
     private String eventId;
 
@@ -107,6 +116,7 @@ public class EventManagementFragment extends Fragment {
         tabLayout = view.findViewById(R.id.tab_layout);
         viewPager = view.findViewById(R.id.view_pager);
         qrCodeButton = view.findViewById(R.id.qr_code_button);
+        checkInButton = view.findViewById(R.id.check_in_button);
         eventPoster = view.findViewById(R.id.event_poster);
         editPosterButton = view.findViewById(R.id.edit_poster_button);
 
@@ -116,6 +126,9 @@ public class EventManagementFragment extends Fragment {
         // Load and display event details
         loadEventDetails();
 
+        // Keep the offline door roster in sync while the event is open
+        cacheCheckInRoster();
+
         // Navigate back
         backButton.setOnClickListener(v -> requireActivity().onBackPressed());
 
@@ -129,6 +142,13 @@ public class EventManagementFragment extends Fragment {
             );
         });
 
+        // Open the door scanner in check-in mode
+        checkInButton.setOnClickListener(v -> {
+            Intent intent = new Intent(requireContext(), QRCodeScannerActivity.class);
+            intent.putExtra(QRCodeScannerActivity.EXTRA_CHECK_IN_EVENT_ID, eventId);
+            startActivity(intent);
+        });
+
         // Edit poster
         editPosterButton.setOnClickListener(v -> showPosterUpdateDialog());
 
@@ -174,6 +194,16 @@ public class EventManagementFragment extends Fragment {
         });
     }
 
+    /**
+     * Caches the enrolled entrants of this event so tickets can be validated
+     * at the door without a network connection.
+     */
+    private void cacheCheckInRoster() {
+        CheckInManager checkInManager = CheckInManager.getInstance(requireContext());
+        entrantViewModel.getEntrants().observe(getViewLifecycleOwner(), entrants ->
+                checkInManager.refreshRoster(eventId, entrants));
+    }
+
     /**
      * Displays the details of the specified event, including name, date, location, and enrollment count.
      *
@@ -191,7 +221,7 @@ public class EventManagementFragment extends Fragment {
         }
 
         eventNameHeader.setText(event.getName());
-        eventDate.setText("📅 " + dateFormat.format(event.getEventDate()));
+        eventDate.setText("📅 " + (event.getEventDate() != null ? dateFormat.format(event.getEventDate()) : "Date TBD"));
         eventLocation.setText("📍 " + event.getLocation());
         eventEnrollment.setText("👥 " + event.getCurrentEnrolled() + "/" + event.getMaxCapacity() + " enrolled");
     }
@@ -226,36 +256,28 @@ public class EventManagementFragment extends Fragment {
 
         // Show loading dialog
         showLoadingDialog();
-        // Upload to Firebase storage
-        StorageReference storageReference = FirebaseStorage.getInstance().getReference();
-        StorageReference posterRef = storageReference.child("event_posters/" + eventId + "_" + System.currentTimeMillis() + ".jpg");
-
-
-        posterRef.putFile(imageUri)
-                .addOnSuccessListener(taskSnapshot -> {
-                    // Get download URL
-                    posterRef.getDownloadUrl().addOnSuccessListener(downloadUrl -> {
-                        updatePosterUrlInFirestore(downloadUrl.toString());
-                    }).addOnFailureListener(e -> {
-                        dismissLoadingDialog();
-                        Toast.makeText(requireContext(), "Failed to download url: " + e.getMessage(), Toast.LENGTH_LONG).show();
+        // Upload to Firebase storage (stored by content hash, identical images are reused)
+        StorageReference postersFolder = FirebaseStorage.getInstance().getReference("event_posters");
 
-                    });
-                })
-                .addOnFailureListener(e -> {
+        ContentAddressedUploader.upload(requireContext().getContentResolver(), postersFolder, imageUri,
+                this::updatePosterUrlInFirestore,
+                e -> {
                     dismissLoadingDialog();
                     Toast.makeText(requireContext(), "Failed to update poster: " + e.getMessage(), Toast.LENGTH_LONG).show();
-
                 });
 
     }
 
     private void updatePosterUrlInFirestore(String newPosterUrl)  {
-        FirebaseFirestore.getInstance()
-                .collection("events")
-                .document(eventId)
-                .update("posterImageUrl", newPosterUrl)
+        FirebaseFirestore db = FirebaseFirestore.getInstance();
+        WriteBatch batch = db.batch();
+        batch.update(db.collection("events").document(eventId), "posterImageUrl", newPosterUrl);
+        EventSummaries.merge(batch, db, eventId, "posterImageUrl", newPosterUrl);
+
+        batch.commit()
+                .addOnSuccessListener(FirestoreUsage.writes(2))
                 .addOnSuccessListener(aVoid -> {
+                    RepositoryProvider.getEventRepository().invalidateEvent(eventId);
                     dismissLoadingDialog();
 
                     // Update UI with new image
@@ -264,7 +286,7 @@ public class EventManagementFragment extends Fragment {
                             .into(eventPoster);
 
                     // Delete old poster from storage
-                    deleteOldPoster();
+                    deleteOldPoster(currentPosterUrl, newPosterUrl);
 
                     // Update current poster
                     currentPosterUrl = newPosterUrl;
@@ -306,23 +328,39 @@ public class EventManagementFragment extends Fragment {
     }
 
     /**
-     * Deletes the old poster from Firebase Storage
+     * Deletes the old poster from Firebase Storage.
+     * Posters are content-addressed and may be shared by several events, so the
+     * file is only removed once no other event references it.
      */
-    private void deleteOldPoster() {
-        if (currentPosterUrl != null && !currentPosterUrl.isEmpty()) {
-            try {
-                StorageReference oldPosterRef  = FirebaseStorage.getInstance().getReferenceFromUrl(currentPosterUrl);
-                oldPosterRef.delete()
-                        .addOnSuccessListener(aVoid ->
-                                Log.d("EventManagement", "Old poster deleted successfully"))
-                        .addOnFailureListener(e ->
-                                Log.e("EventManagement", "Failed to delete old poster", e));
-            } catch (Exception e) {
-                Log.e("EventManagement", "Error parsing old poster URL", e);
-            }
-
+    private void deleteOldPoster(String oldPosterUrl, String newPosterUrl) {
+        if (oldPosterUrl == null || oldPosterUrl.isEmpty() || oldPosterUrl.equals(newPosterUrl)) {
+            return;
         }
 
+        FirebaseFirestore.getInstance()
+                .collection("events")
+                .whereEqualTo("posterImageUrl", oldPosterUrl)
+                .limit(1)
+                .get()
+                .addOnSuccessListener(FirestoreUsage.reads())
+                .addOnSuccessListener(snapshot -> {
+                    if (!snapshot.isEmpty()) {
+                        Log.d("EventManagement", "Old poster still used by another event, keeping it");
+                        return;
+                    }
+                    try {
+                        StorageReference oldPosterRef  = FirebaseStorage.getInstance().getReferenceFromUrl(oldPosterUrl);
+                        oldPosterRef.delete()
+                                .addOnSuccessListener(aVoid ->
+                                        Log.d("EventManagement", "Old poster deleted successfully"))
+                                .addOnFailureListener(e ->
+                                        Log.e("EventManagement", "Failed to delete old poster", e));
+                    } catch (Exception e) {
+                        Log.e("EventManagement", "Error parsing old poster URL", e);
+                    }
+                })
+                .addOnFailureListener(e ->
+                        Log.e("EventManagement", "Failed to check old poster usage", e));
     }
 
     @Override
@@ -5,6 +5,10 @@ import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.DisplayMetrics;
+import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -15,12 +19,18 @@ import android.widget.Toast;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
+import androidx.lifecycle.LiveData;
 import androidx.lifecycle.ViewModelProvider;
 
 import com.example.lotterysystemproject.R;
+import com.example.lotterysystemproject.firebasemanager.EntrantRepository;
+import com.example.lotterysystemproject.firebasemanager.RepositoryProvider;
 import com.example.lotterysystemproject.models.Entrant;
 import com.example.lotterysystemproject.models.Event;
-import com.example.lotterysystemproject.viewmodels.EntrantViewModel;
+import com.example.lotterysystemproject.models.GeoBucket;
+import com.example.lotterysystemproject.utils.AppExecutors;
+import com.example.lotterysystemproject.utils.Geohash;
+import com.example.lotterysystemproject.utils.KeyedItemDiffer;
 import com.example.lotterysystemproject.viewmodels.EventViewModel;
 import com.google.android.gms.maps.CameraUpdateFactory;
 import com.google.android.gms.maps.GoogleMap;
@@ -30,42 +40,98 @@ import com.google.android.gms.maps.model.BitmapDescriptor;
 import com.google.android.gms.maps.model.BitmapDescriptorFactory;
 import com.google.android.gms.maps.model.LatLng;
 import com.google.android.gms.maps.model.LatLngBounds;
+import com.google.android.gms.maps.model.Marker;
 import com.google.android.gms.maps.model.MarkerOptions;
+import com.google.android.gms.maps.model.TileOverlay;
+import com.google.android.gms.maps.model.TileOverlayOptions;
 import com.google.maps.android.clustering.ClusterManager;
 import com.google.maps.android.clustering.ClusterItem;
+import com.google.maps.android.clustering.algo.NonHierarchicalViewBasedAlgorithm;
 import com.google.maps.android.clustering.view.DefaultClusterRenderer;
+import com.google.maps.android.heatmaps.HeatmapTileProvider;
+import com.google.maps.android.heatmaps.WeightedLatLng;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executor;
 
 /**
  * Fragment displaying a map of where entrants joined the waiting list.
  * Shows markers for each entrant location, clustered when zoomed out.
  * Color-coded by status: waiting (blue), invited (orange), enrolled (green).
+ * <p>
+ * The map first reads the event's coarsest geohash cells, which count its located
+ * entrants in a few reads. Events with more than {@link #HEATMAP_THRESHOLD} of them
+ * are drawn as a heatmap of the counts per cell in the visible region, reloaded
+ * whenever the camera settles, without reading any entrant. Smaller events listen
+ * to at most that many entrants and show one marker each; updates are diffed by
+ * entrant ID on a background thread, so only the markers that were added, moved
+ * or changed status are touched.
+ * </p>
  */
 public class MapViewFragment extends Fragment implements OnMapReadyCallback {
 
+    /** Above this many located entrants the markers are replaced by a heatmap. */
+    private static final int HEATMAP_THRESHOLD = 5000;
+    private static final int HEATMAP_RADIUS = 30;
+
     private GoogleMap googleMap;
     private ClusterManager<EntrantClusterItem> clusterManager;
-    private EntrantViewModel entrantViewModel;
     private EventViewModel eventViewModel;
     private String eventId;
     private Event currentEvent;
     private LinearLayout emptyStateText;
     private View mapContainer;
 
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    // Updates are diffed in order on one serial executor; the differ is replaced per view
+    private final Executor layerExecutor = AppExecutors.serial("map-layer");
+    private KeyedItemDiffer<EntrantClusterItem> layerItems;
+    private TileOverlay heatmapOverlay;
+    private boolean heatmapMode;
+    // Incremented per viewport load so a slow response can't replace a newer one
+    private int bucketRequest;
+    private Marker eventMarker;
+    private boolean cameraFitted;
+    private boolean summaryShown;
+
+    /**
+     * Changes to apply to the map for one entrants update, computed off the main thread.
+     */
+    private static final class LayerUpdate {
+        final List<EntrantClusterItem> added;
+        final List<EntrantClusterItem> removed;
+        @Nullable final LatLngBounds bounds; // null when no entrant has a location
+        final Map<Entrant.Status, Integer> statusCounts;
+        final int located;
+
+        LayerUpdate(List<EntrantClusterItem> added, List<EntrantClusterItem> removed,
+                    @Nullable LatLngBounds bounds,
+                    Map<Entrant.Status, Integer> statusCounts, int located) {
+            this.added = added;
+            this.removed = removed;
+            this.bounds = bounds;
+            this.statusCounts = statusCounts;
+            this.located = located;
+        }
+    }
+
     /**
      * Cluster item representing an entrant's location on the map.
      */
     private static class EntrantClusterItem implements ClusterItem {
+        private final String entrantId;
         private final LatLng position;
         private final String title;
         private final String snippet;
         private final Entrant.Status status;
 
-        public EntrantClusterItem(double lat, double lng, String name, Entrant.Status status) {
+        public EntrantClusterItem(String entrantId, double lat, double lng, String name, Entrant.Status status) {
+            this.entrantId = entrantId;
             this.position = new LatLng(lat, lng);
             this.title = name;
             this.snippet = "Status: " + status.name();
@@ -99,6 +165,15 @@ public class MapViewFragment extends Fragment implements OnMapReadyCallback {
         public Entrant.Status getStatus() {
             return status;
         }
+
+        /**
+         * @return true if both items would draw the same marker
+         */
+        boolean sameAs(EntrantClusterItem other) {
+            return position.equals(other.position)
+                    && status == other.status
+                    && Objects.equals(title, other.title);
+        }
     }
 
     /**
@@ -167,8 +242,12 @@ public class MapViewFragment extends Fragment implements OnMapReadyCallback {
         emptyStateText = view.findViewById(R.id.empty_state_text);
         mapContainer = view.findViewById(R.id.map_container);
 
-        // Initialize ViewModels
-        entrantViewModel = new ViewModelProvider(requireActivity()).get(EntrantViewModel.class);
+        layerItems = new KeyedItemDiffer<>(EntrantClusterItem::sameAs);
+        cameraFitted = false;
+        summaryShown = false;
+        heatmapMode = false;
+
+        // Initialize ViewModel
         eventViewModel = new ViewModelProvider(requireActivity()).get(EventViewModel.class);
 
         // Initialize map
@@ -185,7 +264,7 @@ public class MapViewFragment extends Fragment implements OnMapReadyCallback {
     }
 
     /**
-     * Loads the current event to get its center coordinates.
+     * Keeps track of the current event for centering the map.
      */
     private void loadEventDetails() {
         eventViewModel.getEvents().observe(getViewLifecycleOwner(), events -> {
@@ -193,10 +272,6 @@ public class MapViewFragment extends Fragment implements OnMapReadyCallback {
                 for (Event event : events) {
                     if (event.getId().equals(eventId)) {
                         currentEvent = event;
-                        if (googleMap != null) {
-                            // Reload markers if map is already ready
-                            loadEntrantLocations();
-                        }
                         break;
                     }
                 }
@@ -215,93 +290,223 @@ public class MapViewFragment extends Fragment implements OnMapReadyCallback {
         // Setup cluster manager
         setupClusterManager();
 
-        // Load entrant locations
-        loadEntrantLocations();
+        // Pick heatmap or markers once for the lifetime of this view
+        loadLocationOverview();
     }
 
     /**
-     * Initializes the cluster manager for grouping nearby markers.
+     * Initializes the cluster manager for grouping nearby markers. The view-based
+     * algorithm only clusters the items inside the visible region, which keeps
+     * re-clustering cheap with tens of thousands of points.
      */
     private void setupClusterManager() {
         clusterManager = new ClusterManager<>(requireContext(), googleMap);
+        DisplayMetrics metrics = getResources().getDisplayMetrics();
+        clusterManager.setAlgorithm(new NonHierarchicalViewBasedAlgorithm<>(
+                (int) (metrics.widthPixels / metrics.density),
+                (int) (metrics.heightPixels / metrics.density)));
         clusterManager.setRenderer(new StatusClusterRenderer(googleMap, clusterManager));
 
-        googleMap.setOnCameraIdleListener(clusterManager);
+        googleMap.setOnCameraIdleListener(() -> {
+            clusterManager.onCameraIdle();
+            if (heatmapMode) loadHeatmapBuckets();
+        });
         googleMap.setOnMarkerClickListener(clusterManager);
     }
 
     /**
-     * Loads all entrants with geolocation data and displays them on the map.
+     * Counts the event's located entrants from its coarsest cells, then shows a heatmap
+     * for large events and markers for the rest. If the cells cannot be read the
+     * markers are used, which are bounded too.
      */
-    private void loadEntrantLocations() {
-        if (googleMap == null) return;
+    private void loadLocationOverview() {
+        if (eventId == null) return;
+        RepositoryProvider.getEntrantRepository().getLocationOverview(eventId,
+                new EntrantRepository.OnLocationBucketsListener() {
+                    @Override
+                    public void onSuccess(List<GeoBucket> buckets) {
+                        if (!isAdded() || googleMap == null) return;
+                        long located = 0;
+                        for (GeoBucket bucket : buckets) located += bucket.getTotal();
+                        if (located > HEATMAP_THRESHOLD) {
+                            showHeatmapOverview(buckets, (int) located);
+                        } else {
+                            observeEntrantLocations();
+                        }
+                    }
 
-        entrantViewModel.getEntrants().observe(getViewLifecycleOwner(), entrants -> {
-            if (entrants == null || entrants.isEmpty()) {
-                showEmptyState();
-                return;
-            }
+                    @Override
+                    public void onFailure(String error) {
+                        Log.e("MapViewFragment", "Failed to load location overview: " + error);
+                        if (isAdded() && googleMap != null) observeEntrantLocations();
+                    }
+                });
+    }
 
-            // Filter entrants with valid location data
-            List<Entrant> entrantsWithLocation = new ArrayList<>();
-            for (Entrant entrant : entrants) {
-                if (entrant.getLatitude() != 0.0 && entrant.getLongitude() != 0.0) {
-                    entrantsWithLocation.add(entrant);
-                }
+    /**
+     * Switches to the heatmap, framing the cells that hold entrants and summarizing
+     * their counts.
+     */
+    private void showHeatmapOverview(List<GeoBucket> buckets, int located) {
+        heatmapMode = true;
+        Map<Entrant.Status, Integer> statusCounts = new HashMap<>();
+        LatLngBounds.Builder boundsBuilder = new LatLngBounds.Builder();
+        for (GeoBucket bucket : buckets) {
+            for (Entrant.Status status : Entrant.Status.values()) {
+                long count = bucket.getCount(status);
+                if (count > 0) statusCounts.merge(status, (int) count, Integer::sum);
             }
+            double[] cell = Geohash.bounds(bucket.getGeohash());
+            boundsBuilder.include(new LatLng(cell[0], cell[1]));
+            boundsBuilder.include(new LatLng(cell[2], cell[3]));
+        }
 
-            if (entrantsWithLocation.isEmpty()) {
-                showEmptyState();
-                return;
-            }
+        emptyStateText.setVisibility(View.GONE);
+        mapContainer.setVisibility(View.VISIBLE);
+        cameraFitted = true;
+        try {
+            googleMap.moveCamera(CameraUpdateFactory.newLatLngBounds(boundsBuilder.build(), 100));
+        } catch (Exception e) {
+            centerOnEventLocation();
+        }
+        summaryShown = true;
+        showLocationSummary(statusCounts, located);
+        loadHeatmapBuckets();
+    }
 
-            // Hide empty state and show map
-            emptyStateText.setVisibility(View.GONE);
-            mapContainer.setVisibility(View.VISIBLE);
-
-            // Clear existing markers
-            clusterManager.clearItems();
-
-            // Add markers for each entrant
-            LatLngBounds.Builder boundsBuilder = new LatLngBounds.Builder();
-            boolean hasValidBounds = false;
-
-            for (Entrant entrant : entrantsWithLocation) {
-                double lat = entrant.getLatitude();
-                double lng = entrant.getLongitude();
-
-                // Validate coordinates
-                if (lat >= -90 && lat <= 90 && lng >= -180 && lng <= 180) {
-                    EntrantClusterItem item = new EntrantClusterItem(
-                            lat,
-                            lng,
-                            entrant.getName() != null ? entrant.getName() : "Anonymous",
-                            entrant.getStatus()
-                    );
-                    clusterManager.addItem(item);
-                    boundsBuilder.include(new LatLng(lat, lng));
-                    hasValidBounds = true;
-                }
-            }
+    /**
+     * Listens to at most {@link #HEATMAP_THRESHOLD} entrants and hands every update to
+     * the layer thread, which works out what changed and posts the result back to the map.
+     */
+    private void observeEntrantLocations() {
+        LiveData<List<Entrant>> entrantsLiveData =
+                RepositoryProvider.getEntrantRepository().getEntrants(eventId, HEATMAP_THRESHOLD);
+        entrantsLiveData.observe(getViewLifecycleOwner(), entrants -> {
+            List<Entrant> snapshot = entrants != null ? entrants : Collections.emptyList();
+            KeyedItemDiffer<EntrantClusterItem> differ = layerItems;
+            ClusterManager<EntrantClusterItem> target = clusterManager;
+
+            layerExecutor.execute(() -> {
+                LayerUpdate update = computeLayer(differ, snapshot);
+                mainHandler.post(() -> applyLayer(target, update));
+            });
+        });
+    }
+
+    /**
+     * Builds the marker changes for a list of entrants. Runs on the layer thread.
+     */
+    private static LayerUpdate computeLayer(KeyedItemDiffer<EntrantClusterItem> differ, List<Entrant> entrants) {
+        Map<String, EntrantClusterItem> next = new HashMap<>();
+        Map<Entrant.Status, Integer> statusCounts = new HashMap<>();
+        LatLngBounds.Builder boundsBuilder = new LatLngBounds.Builder();
 
-            // Cluster the markers
-            clusterManager.cluster();
+        for (Entrant entrant : entrants) {
+            double lat = entrant.getLatitude();
+            double lng = entrant.getLongitude();
+            Entrant.Status status = entrant.getStatus();
 
-            // Zoom to show all markers, or center on event location
-            if (hasValidBounds) {
-                try {
-                    LatLngBounds bounds = boundsBuilder.build();
-                    googleMap.animateCamera(CameraUpdateFactory.newLatLngBounds(bounds, 100));
-                } catch (Exception e) {
-                    centerOnEventLocation();
-                }
-            } else {
+            // Skip entrants without a valid location
+            if (entrant.getId() == null || status == null || lat == 0.0 || lng == 0.0) continue;
+            if (lat < -90 || lat > 90 || lng < -180 || lng > 180) continue;
+
+            EntrantClusterItem item = new EntrantClusterItem(entrant.getId(), lat, lng,
+                    entrant.getName() != null ? entrant.getName() : "Anonymous", status);
+            next.put(entrant.getId(), item);
+            statusCounts.put(status, statusCounts.getOrDefault(status, 0) + 1);
+            boundsBuilder.include(item.getPosition());
+        }
+
+        LatLngBounds bounds = next.isEmpty() ? null : boundsBuilder.build();
+
+        KeyedItemDiffer.Diff<EntrantClusterItem> diff = differ.update(next);
+        return new LayerUpdate(diff.added, diff.removed, bounds, statusCounts, next.size());
+    }
+
+    /**
+     * Applies a computed update to the map. Updates computed for a previous view are dropped.
+     */
+    private void applyLayer(ClusterManager<EntrantClusterItem> target, LayerUpdate update) {
+        if (!isAdded() || googleMap == null || target != clusterManager) return;
+
+        if (!update.removed.isEmpty()) clusterManager.removeItems(update.removed);
+        if (!update.added.isEmpty()) clusterManager.addItems(update.added);
+        if (!update.removed.isEmpty() || !update.added.isEmpty()) clusterManager.cluster();
+
+        if (update.located == 0) {
+            showEmptyState();
+            return;
+        }
+
+        // Hide empty state and show map
+        emptyStateText.setVisibility(View.GONE);
+        mapContainer.setVisibility(View.VISIBLE);
+
+        // Zoom to show all entrants the first time only, so later updates don't move the camera
+        if (!cameraFitted) {
+            cameraFitted = true;
+            try {
+                googleMap.animateCamera(CameraUpdateFactory.newLatLngBounds(update.bounds, 100));
+            } catch (Exception e) {
                 centerOnEventLocation();
             }
+        }
 
-            // Show summary
-            showLocationSummary(entrantsWithLocation);
-        });
+        if (!summaryShown) {
+            summaryShown = true;
+            showLocationSummary(update.statusCounts, update.located);
+        }
+    }
+
+    /**
+     * Loads the entrant counts per geohash cell for the visible region and draws them
+     * as a weighted heatmap. The cell size follows the zoom level, so each load is a
+     * few reads however many entrants the event has.
+     */
+    private void loadHeatmapBuckets() {
+        if (googleMap == null || eventId == null) return;
+
+        LatLngBounds visible = googleMap.getProjection().getVisibleRegion().latLngBounds;
+        int request = ++bucketRequest;
+
+        RepositoryProvider.getEntrantRepository().getLocationBuckets(eventId,
+                visible.southwest.latitude, visible.southwest.longitude,
+                visible.northeast.latitude, visible.northeast.longitude,
+                new EntrantRepository.OnLocationBucketsListener() {
+                    @Override
+                    public void onSuccess(List<GeoBucket> buckets) {
+                        if (!isAdded() || googleMap == null || request != bucketRequest) return;
+                        showHeatmap(buckets);
+                    }
+
+                    @Override
+                    public void onFailure(String error) {
+                        Log.e("MapViewFragment", "Failed to load location buckets: " + error);
+                    }
+                });
+    }
+
+    /**
+     * Replaces the heatmap overlay with one built from the given cells, or removes it when null.
+     */
+    private void showHeatmap(@Nullable List<GeoBucket> buckets) {
+        if (heatmapOverlay != null) {
+            heatmapOverlay.remove();
+            heatmapOverlay = null;
+        }
+        if (buckets == null || buckets.isEmpty()) return;
+
+        List<WeightedLatLng> points = new ArrayList<>(buckets.size());
+        for (GeoBucket bucket : buckets) {
+            points.add(new WeightedLatLng(
+                    new LatLng(bucket.getCenterLatitude(), bucket.getCenterLongitude()),
+                    bucket.getTotal()));
+        }
+        HeatmapTileProvider heatmap = new HeatmapTileProvider.Builder()
+                .weightedData(points)
+                .radius(HEATMAP_RADIUS)
+                .build();
+        heatmapOverlay = googleMap.addTileOverlay(new TileOverlayOptions().tileProvider(heatmap));
     }
 
     /**
@@ -313,11 +518,13 @@ public class MapViewFragment extends Fragment implements OnMapReadyCallback {
             googleMap.moveCamera(CameraUpdateFactory.newLatLngZoom(eventLocation, 12f));
 
             // Add marker for event location
-            googleMap.addMarker(new MarkerOptions()
-                    .position(eventLocation)
-                    .title(currentEvent.getName())
-                    .snippet("Event Location")
-                    .icon(BitmapDescriptorFactory.defaultMarker(BitmapDescriptorFactory.HUE_RED)));
+            if (eventMarker == null) {
+                eventMarker = googleMap.addMarker(new MarkerOptions()
+                        .position(eventLocation)
+                        .title(currentEvent.getName())
+                        .snippet("Event Location")
+                        .icon(BitmapDescriptorFactory.defaultMarker(BitmapDescriptorFactory.HUE_RED)));
+            }
         } else {
             // Default to Edmonton if no event location
             LatLng edmonton = new LatLng(53.5461, -113.4938);
@@ -342,15 +549,9 @@ public class MapViewFragment extends Fragment implements OnMapReadyCallback {
     /**
      * Shows a summary toast with location statistics.
      */
-    private void showLocationSummary(List<Entrant> entrants) {
-        Map<Entrant.Status, Integer> statusCounts = new HashMap<>();
-        for (Entrant entrant : entrants) {
-            Entrant.Status status = entrant.getStatus();
-            statusCounts.put(status, statusCounts.getOrDefault(status, 0) + 1);
-        }
-
+    private void showLocationSummary(Map<Entrant.Status, Integer> statusCounts, int located) {
         StringBuilder summary = new StringBuilder("Locations: ");
-        summary.append(entrants.size()).append(" entrants\n");
+        summary.append(located).append(" entrants\n");
 
         if (statusCounts.containsKey(Entrant.Status.WAITING)) {
             summary.append("🔵 Waiting: ").append(statusCounts.get(Entrant.Status.WAITING)).append("\n");
@@ -364,5 +565,14 @@ public class MapViewFragment extends Fragment implements OnMapReadyCallback {
 
         Toast.makeText(requireContext(), summary.toString().trim(), Toast.LENGTH_LONG).show();
     }
-}
 
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        mainHandler.removeCallbacksAndMessages(null);
+        googleMap = null;
+        clusterManager = null;
+        heatmapOverlay = null;
+        eventMarker = null;
+    }
+}
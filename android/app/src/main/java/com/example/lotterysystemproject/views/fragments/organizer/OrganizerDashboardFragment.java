@@ -17,11 +17,12 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.lotterysystemproject.R;
 import com.example.lotterysystemproject.adapters.EventAdapter;
+import com.example.lotterysystemproject.models.DeviceIdentityManager;
 import com.example.lotterysystemproject.models.Event;
+import com.example.lotterysystemproject.models.OrganizerStats;
 import com.example.lotterysystemproject.viewmodels.EventViewModel;
 
 import java.util.ArrayList;
-import java.util.List;
 
 /**
  * Fragment representing the organizer's main dashboard.
@@ -33,6 +34,9 @@ import java.util.List;
  */
 public class OrganizerDashboardFragment extends Fragment {
 
+    /** Start loading the next page when this many items remain below the viewport. */
+    private static final int PREFETCH_DISTANCE = 5;
+
     /** ViewModel used to manage and observe event data. */
     private EventViewModel eventViewModel;
 
@@ -78,10 +82,22 @@ public class OrganizerDashboardFragment extends Fragment {
         eventAdapter = new EventAdapter(new ArrayList<>(), this::onEventClick);
         eventRecyclerView.setAdapter(eventAdapter);
 
-        // Observe event list changes
-        eventViewModel.getEvents().observe(getViewLifecycleOwner(), events -> {
-            eventAdapter.updateEvents(events);
-            updateStats(events);
+        // Only this organizer's events are fetched, a page at a time
+        eventViewModel.getHostedEvents().observe(getViewLifecycleOwner(), events ->
+                eventAdapter.updateEvents(events));
+        eventViewModel.getOrganizerStats().observe(getViewLifecycleOwner(), this::updateStats);
+        eventViewModel.loadHostedEvents(DeviceIdentityManager.getUserId(requireContext()));
+
+        // Load the next page when the list is scrolled near its end
+        eventRecyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                LinearLayoutManager layoutManager = (LinearLayoutManager) recyclerView.getLayoutManager();
+                if (dy > 0 && layoutManager != null
+                        && layoutManager.findLastVisibleItemPosition() >= eventAdapter.getItemCount() - PREFETCH_DISTANCE) {
+                    eventViewModel.loadNextHostedPage();
+                }
+            }
         });
 
         // Navigate to event creation screen
@@ -111,37 +127,19 @@ public class OrganizerDashboardFragment extends Fragment {
     /**
      * Updates the active, upcoming, and past event counts displayed on the dashboard.
      *
-     * @param events The list of all events managed by the organizer
+     * @param stats The organizer's counters, read from a single document
      */
-    private void updateStats(List<Event> events) {
-        if (events == null || events.isEmpty()) {
+    private void updateStats(OrganizerStats stats) {
+        if (stats == null) {
             activeCount.setText("0");
             upcomingCount.setText("0");
             pastCount.setText("0");
             return;
         }
 
-        int active = 0;
-        int upcoming = 0;
-        int past = 0;
-
         long now = System.currentTimeMillis();
-        long oneDayFromNow = now + (24 * 60 * 60 * 1000); // 24 hours in milliseconds
-
-        for (Event event : events) {
-            long eventTime = event.getEventDate().getTime();
-
-            if (eventTime < now) {
-                past++;
-            } else if (eventTime <= oneDayFromNow) {
-                active++;
-            } else {
-                upcoming++;
-            }
-        }
-
-        activeCount.setText(String.valueOf(active));
-        upcomingCount.setText(String.valueOf(upcoming));
-        pastCount.setText(String.valueOf(past));
+        activeCount.setText(String.valueOf(stats.countActive(now)));
+        upcomingCount.setText(String.valueOf(stats.countUpcoming(now)));
+        pastCount.setText(String.valueOf(stats.countPast(now)));
     }
 }
@@ -1,6 +1,5 @@
 package com.example.lotterysystemproject.views.fragments.organizer;
 
-import android.graphics.Bitmap;
 import android.os.Bundle;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -16,6 +15,7 @@ import androidx.lifecycle.ViewModelProvider;
 
 import com.example.lotterysystemproject.models.Event;
 import com.example.lotterysystemproject.R;
+import com.example.lotterysystemproject.utils.QRCodeCache;
 import com.example.lotterysystemproject.utils.QRCodeGenerator;
 import com.example.lotterysystemproject.viewmodels.EventViewModel;
 
@@ -30,6 +30,9 @@ import com.example.lotterysystemproject.viewmodels.EventViewModel;
  */
 public class QRCodeDisplayFragment extends Fragment {
 
+    /** Pixel size of the rendered QR codes. */
+    private static final int QR_SIZE_PX = 500;
+
     /** Shared ViewModel for accessing event data. */
     private EventViewModel eventViewModel;
 
@@ -117,12 +120,13 @@ public class QRCodeDisplayFragment extends Fragment {
      * @param event The {@link Event} object for which to generate QR codes
      */
     private void generateAndDisplayQRCodes(Event event) {
-        // Generate promotional QR code
+        // Generate promotional QR code (cached, rendered off the main thread)
         String promoData = QRCodeGenerator.generatePromoData(event.getId());
-        Bitmap promoQrBitmap = QRCodeGenerator.generateQRCode(promoData, 500, 500);
-        if (promoQrBitmap != null) {
-            promoQrImage.setImageBitmap(promoQrBitmap);
-        }
+        QRCodeCache.getInstance(requireContext()).load(promoData, QR_SIZE_PX, promoQrBitmap -> {
+            if (promoQrBitmap != null && promoQrImage != null) {
+                promoQrImage.setImageBitmap(promoQrBitmap);
+            }
+        });
 
 
     }
@@ -8,6 +8,7 @@ import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.Button;
+import android.widget.ImageView;
 import android.widget.TextView;
 import android.widget.Toast;
 
@@ -15,6 +16,7 @@ import androidx.activity.result.ActivityResultLauncher;
 import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.appcompat.app.AlertDialog;
 import androidx.fragment.app.Fragment;
 import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.LinearLayoutManager;
@@ -24,16 +26,19 @@ import com.example.lotterysystemproject.R;
 import com.example.lotterysystemproject.adapters.EntrantAdapter;
 import com.example.lotterysystemproject.models.Entrant;
 import com.example.lotterysystemproject.firebasemanager.EntrantRepository;
+import com.example.lotterysystemproject.firebasemanager.RepositoryProvider;
+import com.example.lotterysystemproject.utils.QRCodeCache;
+import com.example.lotterysystemproject.utils.QRCodeGenerator;
+import com.example.lotterysystemproject.utils.RosterCsvExporter;
 import com.example.lotterysystemproject.viewmodels.EntrantViewModel;
 import com.example.lotterysystemproject.viewmodels.EventViewModel;
-import com.opencsv.CSVWriter;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
-import java.nio.charset.StandardCharsets;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -46,6 +51,9 @@ import java.util.List;
  */
 public class SelectedListFragment extends Fragment implements EntrantAdapter.OnEntrantActionListener {
 
+    /** Size of the ticket QR code shown to the organizer. */
+    private static final int TICKET_SIZE_PX = 500;
+
     /** Shared ViewModel for managing entrant data. */
     private EntrantViewModel entrantViewModel;
     private EventViewModel eventViewModel;
@@ -68,6 +76,9 @@ public class SelectedListFragment extends Fragment implements EntrantAdapter.OnE
     /** Currently active entrant filter. Null represents “All”. */
     private Entrant.Status currentFilter = null;
 
+    /** Roster export in progress, or null. */
+    private RosterCsvExporter csvExporter;
+
     /**
      * Inflates the selected entrants layout, initializes UI components,
      * sets up the RecyclerView, and attaches observers and listeners.
@@ -213,6 +224,38 @@ public class SelectedListFragment extends Fragment implements EntrantAdapter.OnE
         });
     }
 
+    /**
+     * Shows the door ticket QR code of an enrolled entrant so it can be shared
+     * or scanned at check-in.
+     *
+     * @param entrant The enrolled entrant
+     */
+    @Override
+    public void onShowTicket(Entrant entrant) {
+        String ticketData = QRCodeGenerator.generateTicketData(entrant.getEventId(), entrant.getId());
+        if (ticketData == null) {
+            Toast.makeText(getContext(), "Unable to create ticket", Toast.LENGTH_SHORT).show();
+            return;
+        }
+
+        ImageView ticketImage = new ImageView(requireContext());
+        int padding = (int) (16 * getResources().getDisplayMetrics().density);
+        ticketImage.setPadding(padding, padding, padding, padding);
+        ticketImage.setAdjustViewBounds(true);
+
+        new AlertDialog.Builder(requireContext())
+                .setTitle("Ticket: " + entrant.getName())
+                .setView(ticketImage)
+                .setPositiveButton("Close", null)
+                .show();
+
+        QRCodeCache.getInstance(requireContext()).load(ticketData, TICKET_SIZE_PX, bitmap -> {
+            if (bitmap != null) {
+                ticketImage.setImageBitmap(bitmap);
+            }
+        });
+    }
+
     // ##################### CSV Exportational magic #################
 
     /** Launcher that writes CSV to file after file picking */
@@ -243,37 +286,69 @@ public class SelectedListFragment extends Fragment implements EntrantAdapter.OnE
     }
 
 
+    /**
+     * Streams the roster for the current filter to the chosen file. Entrants are
+     * paged straight from the repository and written off the main thread; the
+     * export button shows the running row count.
+     */
     private void writeCsvFile(@NonNull Uri uri) {
-        try (OutputStream outputStream = requireContext().getContentResolver().openOutputStream(uri);
-             // 1. Wrap the OutputStream in an OutputStreamWriter to handle character encoding (UTF-8 is best)
-             OutputStreamWriter writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
-             // 2. Pass the Writer to OpenCSV's CSVWriter
-             CSVWriter csvWriter = new CSVWriter(writer)) {
+        String eventId = entrantViewModel.getCurrentEventId();
+        OutputStream outputStream;
+        try {
+            outputStream = requireContext().getContentResolver().openOutputStream(uri);
+        } catch (IOException e) {
+            Log.e("FileHandler", "Error opening CSV file", e);
+            outputStream = null;
+        }
+        if (eventId == null || outputStream == null) {
+            Toast.makeText(getContext(), "Unable to export CSV", Toast.LENGTH_SHORT).show();
+            return;
+        }
 
-            // --- Data to be written ---
+        List<Entrant.Status> statuses = currentFilter == null
+                ? Arrays.asList(Entrant.Status.INVITED, Entrant.Status.ENROLLED, Entrant.Status.CANCELLED)
+                : Collections.singletonList(currentFilter);
 
-            List<Entrant> entrants = entrantViewModel.getFilteredSelected(currentFilter).getValue();
+        exportCsvButton.setEnabled(false);
+        csvExporter = new RosterCsvExporter(RepositoryProvider.getEntrantRepository(), eventId, statuses, outputStream);
+        csvExporter.start(new RosterCsvExporter.Listener() {
+            @Override
+            public void onProgress(int rowsWritten) {
+                exportCsvButton.setText("📥 Exporting... " + rowsWritten + " rows");
+            }
 
-            if(entrants == null) {
-                Toast.makeText(getContext(), "Entrants is null", Toast.LENGTH_SHORT).show();
-                return;
+            @Override
+            public void onComplete(int rowsWritten) {
+                resetExportButton();
+                if (getContext() != null) {
+                    Toast.makeText(getContext(), "Exported " + rowsWritten + " entrants", Toast.LENGTH_SHORT).show();
+                }
             }
 
-            // Write the header
-            csvWriter.writeNext(new String[]{"Name", "Email", "Phone"});
-            for (Entrant e : entrants) {
-                csvWriter.writeNext(new String[]{e.getName(), e.getEmail(), e.getPhone()});
+            @Override
+            public void onError(Exception e) {
+                Log.e("FileHandler", "Error writing CSV file", e);
+                resetExportButton();
+                if (getContext() != null) {
+                    Toast.makeText(getContext(), "CSV export failed: " + e.getMessage(), Toast.LENGTH_SHORT).show();
+                }
             }
+        });
+    }
 
-            Toast.makeText(getContext(),
-                    "Exported CSV",
-                    Toast.LENGTH_SHORT).show();
+    private void resetExportButton() {
+        csvExporter = null;
+        if (exportCsvButton != null) {
+            exportCsvButton.setEnabled(true);
+            exportCsvButton.setText("📥 Export CSV");
+        }
+    }
 
-        } catch (IOException e) {
-            Log.e("FileHandler", "Error writing CSV file", e);
-            // Handle the exception, perhaps show a Toast to the user
-        } catch (Exception e) {
-            Log.e("FileHandler", "Unexpected error", e);
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        if (csvExporter != null) {
+            csvExporter.cancel();
         }
     }
 
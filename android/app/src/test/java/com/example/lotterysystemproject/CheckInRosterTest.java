@@ -0,0 +1,45 @@
+package com.example.lotterysystemproject;
+
+import static org.junit.Assert.assertEquals;
+
+import com.example.lotterysystemproject.utils.CheckInRoster;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+public class CheckInRosterTest {
+
+    private static final String EVENT_ID = "event_1";
+
+    private CheckInRoster roster;
+
+    @Before
+    public void setUp() {
+        roster = new CheckInRoster(EVENT_ID,
+                Arrays.asList("user1_event_1", "user2_event_1"),
+                Collections.singletonList("user2_event_1"));
+    }
+
+    @Test
+    public void enrolledEntrant_isAdmittedOnce() {
+        assertEquals(CheckInRoster.Result.ADMITTED, roster.checkIn(EVENT_ID, "user1_event_1"));
+        assertEquals(CheckInRoster.Result.ALREADY_CHECKED_IN, roster.checkIn(EVENT_ID, "user1_event_1"));
+        assertEquals(2, roster.getCheckedInCount());
+    }
+
+    @Test
+    public void previouslyCheckedInEntrant_isReported() {
+        assertEquals(CheckInRoster.Result.ALREADY_CHECKED_IN, roster.checkIn(EVENT_ID, "user2_event_1"));
+    }
+
+    @Test
+    public void unknownOrForeignTicket_isRejected() {
+        assertEquals(CheckInRoster.Result.NOT_ON_ROSTER, roster.checkIn(EVENT_ID, "user3_event_1"));
+        assertEquals(CheckInRoster.Result.NOT_ON_ROSTER, roster.checkIn("event_2", "user1_event_1"));
+        assertEquals(CheckInRoster.Result.NOT_ON_ROSTER, roster.checkIn(EVENT_ID, null));
+        assertEquals(1, roster.getCheckedInCount());
+    }
+}
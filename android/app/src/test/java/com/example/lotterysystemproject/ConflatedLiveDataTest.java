@@ -0,0 +1,71 @@
+package com.example.lotterysystemproject;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import androidx.arch.core.executor.testing.InstantTaskExecutorRule;
+
+import com.example.lotterysystemproject.utils.ConflatedLiveData;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ConflatedLiveDataTest {
+
+    @Rule
+    public InstantTaskExecutorRule instantTaskExecutorRule = new InstantTaskExecutorRule();
+
+    /** Holds scheduled flushes until the test runs them, standing in for a frame. */
+    private final List<Runnable> frames = new ArrayList<>();
+
+    @Test
+    public void offer_burstEmitsOnlyNewestValue() {
+        ConflatedLiveData<Integer> live = new ConflatedLiveData<>("test-burst", frames::add);
+        List<Integer> seen = new ArrayList<>();
+        live.observeForever(seen::add);
+
+        live.offer(1);
+        live.offer(2);
+        live.offer(3);
+
+        assertEquals(1, frames.size());
+        assertTrue(seen.isEmpty());
+
+        frames.remove(0).run();
+        assertEquals(List.of(3), seen);
+    }
+
+    @Test
+    public void offer_afterFlushSchedulesNextFrame() {
+        ConflatedLiveData<String> live = new ConflatedLiveData<>("test-next", frames::add);
+        List<String> seen = new ArrayList<>();
+        live.observeForever(seen::add);
+
+        live.offer("a");
+        frames.remove(0).run();
+        live.offer("b");
+        frames.remove(0).run();
+
+        assertEquals(List.of("a", "b"), seen);
+    }
+
+    @Test
+    public void getStats_countsDroppedValues() {
+        ConflatedLiveData<Integer> live = new ConflatedLiveData<>("test-stats", frames::add);
+
+        for (int i = 0; i < 5; i++) live.offer(i);
+        frames.remove(0).run();
+
+        for (ConflatedLiveData.Stats stats : ConflatedLiveData.getStats()) {
+            if (!stats.name.equals("test-stats")) continue;
+            assertEquals(5, stats.offered);
+            assertEquals(1, stats.emitted);
+            assertEquals(4, stats.dropped);
+            return;
+        }
+        throw new AssertionError("no stats for test-stats");
+    }
+}
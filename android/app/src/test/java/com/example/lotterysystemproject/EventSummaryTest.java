@@ -0,0 +1,55 @@
+package com.example.lotterysystemproject;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import com.example.lotterysystemproject.models.Event;
+import com.example.lotterysystemproject.models.EventSummary;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+
+public class EventSummaryTest {
+
+    @Test
+    public void from_copiesListFieldsAndCountsWaitingList() {
+        Event event = new Event();
+        event.setId("stored-id");
+        event.setName("Swim Lessons");
+        event.setHostName("Pool");
+        event.setEventDate(new Date(1000));
+        event.setPosterImageUrl("https://example.com/p.png");
+        event.setCategories(new ArrayList<>(Arrays.asList("Sports")));
+        event.setWaitingList(new ArrayList<>(Arrays.asList("usr_a", "usr_b", "usr_c")));
+
+        EventSummary summary = EventSummary.from("doc-id", event);
+
+        assertEquals("doc-id", summary.getId());
+        assertEquals("Swim Lessons", summary.getName());
+        assertEquals("Pool", summary.getHostName());
+        assertEquals(new Date(1000), summary.getEventDate());
+        assertEquals("https://example.com/p.png", summary.getPosterImageUrl());
+        assertEquals(3, summary.getCurrentWaitingCount());
+        assertTrue(summary.isActive());
+        assertEquals(event.getCategories(), summary.getCategories());
+        assertNotSame(event.getCategories(), summary.getCategories());
+    }
+
+    @Test
+    public void from_handlesMissingLists() {
+        Event event = new Event();
+        event.setActive(false);
+        event.setWaitingList(null);
+
+        EventSummary summary = EventSummary.from("doc-id", event);
+
+        assertEquals(0, summary.getCurrentWaitingCount());
+        assertTrue(summary.getCategories().isEmpty());
+        assertFalse(summary.isActive());
+    }
+}
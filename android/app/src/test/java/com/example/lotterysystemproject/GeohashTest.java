@@ -0,0 +1,53 @@
+package com.example.lotterysystemproject;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.example.lotterysystemproject.utils.Geohash;
+
+import org.junit.Test;
+
+import java.util.List;
+
+public class GeohashTest {
+
+    @Test
+    public void encode_matchesReferenceValue() {
+        assertEquals("ezs42", Geohash.encode(42.605, -5.603, 5));
+    }
+
+    @Test
+    public void encode_shorterPrecisionIsPrefix() {
+        String fine = Geohash.encode(53.5461, -113.4938, 6);
+        assertEquals(fine.substring(0, 3), Geohash.encode(53.5461, -113.4938, 3));
+    }
+
+    @Test
+    public void bounds_containEncodedPoint() {
+        double[] b = Geohash.bounds(Geohash.encode(53.5461, -113.4938, 5));
+
+        assertTrue(b[0] <= 53.5461 && 53.5461 <= b[2]);
+        assertTrue(b[1] <= -113.4938 && -113.4938 <= b[3]);
+        assertEquals(Geohash.cellHeight(5), b[2] - b[0], 1e-9);
+        assertEquals(Geohash.cellWidth(5), b[3] - b[1], 1e-9);
+    }
+
+    @Test
+    public void cover_includesCornersAndStaysNearEstimate() {
+        double south = 53.40, west = -113.70, north = 53.70, east = -113.20;
+        List<String> cells = Geohash.cover(south, west, north, east, 5);
+
+        assertTrue(cells.contains(Geohash.encode(south, west, 5)));
+        assertTrue(cells.contains(Geohash.encode(north, east, 5)));
+        assertTrue(cells.contains(Geohash.encode(53.55, -113.45, 5)));
+        assertTrue(cells.size() <= Geohash.estimateCells(south, west, north, east, 5));
+    }
+
+    @Test
+    public void cover_acrossAntimeridianIncludesBothSides() {
+        List<String> cells = Geohash.cover(-1, 179, 1, -179, 3);
+
+        assertTrue(cells.contains(Geohash.encode(0, 179.5, 3)));
+        assertTrue(cells.contains(Geohash.encode(0, -179.5, 3)));
+    }
+}
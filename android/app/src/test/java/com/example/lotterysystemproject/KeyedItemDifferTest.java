@@ -0,0 +1,78 @@
+package com.example.lotterysystemproject;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.example.lotterysystemproject.utils.KeyedItemDiffer;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class KeyedItemDifferTest {
+
+    private KeyedItemDiffer<String[]> differ;
+
+    @Before
+    public void setUp() {
+        // Items are {key, content}; only the content decides whether they changed
+        differ = new KeyedItemDiffer<>((a, b) -> a[1].equals(b[1]));
+    }
+
+    private static Map<String, String[]> snapshot(String... keyContentPairs) {
+        Map<String, String[]> map = new HashMap<>();
+        for (int i = 0; i < keyContentPairs.length; i += 2) {
+            map.put(keyContentPairs[i], new String[]{keyContentPairs[i], keyContentPairs[i + 1]});
+        }
+        return map;
+    }
+
+    @Test
+    public void firstSnapshot_addsEverything() {
+        KeyedItemDiffer.Diff<String[]> diff = differ.update(snapshot("a", "1", "b", "1"));
+
+        assertEquals(2, diff.added.size());
+        assertTrue(diff.removed.isEmpty());
+        assertEquals(2, differ.size());
+    }
+
+    @Test
+    public void unchangedSnapshot_isEmpty() {
+        differ.update(snapshot("a", "1"));
+        assertTrue(differ.update(snapshot("a", "1")).isEmpty());
+    }
+
+    @Test
+    public void changedItem_removesOldInstanceAndAddsNew() {
+        String[] original = differ.update(snapshot("a", "1")).added.get(0);
+        differ.update(snapshot("a", "1"));
+
+        KeyedItemDiffer.Diff<String[]> diff = differ.update(snapshot("a", "2"));
+
+        assertSame(original, diff.removed.get(0));
+        assertEquals("2", diff.added.get(0)[1]);
+    }
+
+    @Test
+    public void missingItem_isRemoved() {
+        differ.update(snapshot("a", "1", "b", "1"));
+
+        KeyedItemDiffer.Diff<String[]> diff = differ.update(snapshot("a", "1"));
+
+        assertTrue(diff.added.isEmpty());
+        assertEquals(1, diff.removed.size());
+        assertEquals("b", diff.removed.get(0)[0]);
+    }
+
+    @Test
+    public void clear_returnsTrackedItems() {
+        differ.update(snapshot("a", "1", "b", "1"));
+
+        assertEquals(2, differ.clear().size());
+        assertEquals(0, differ.size());
+        assertEquals(1, differ.update(snapshot("a", "1")).added.size());
+    }
+}
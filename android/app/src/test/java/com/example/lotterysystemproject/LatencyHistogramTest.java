@@ -0,0 +1,46 @@
+package com.example.lotterysystemproject;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import com.example.lotterysystemproject.utils.LatencyHistogram;
+
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void record_countsIntoBucketByUpperBound() {
+        LatencyHistogram h = new LatencyHistogram();
+        h.record(10);
+        h.record(11);
+        h.record(20000);
+
+        long[] expected = new long[LatencyHistogram.BOUNDS_MS.length + 1];
+        expected[0] = 1;
+        expected[1] = 1;
+        expected[expected.length - 1] = 1;
+        assertArrayEquals(expected, h.getCounts());
+        assertEquals(3, h.getCount());
+        assertEquals(20000, h.getMaxMs());
+    }
+
+    @Test
+    public void percentile_returnsBucketBoundCappedByMax() {
+        LatencyHistogram h = new LatencyHistogram();
+        for (int i = 0; i < 95; i++) h.record(5);
+        for (int i = 0; i < 5; i++) h.record(300);
+
+        assertEquals(10, h.percentileMs(0.50));
+        assertEquals(10, h.percentileMs(0.95));
+        assertEquals(300, h.percentileMs(0.99));
+    }
+
+    @Test
+    public void empty_reportsZero() {
+        LatencyHistogram h = new LatencyHistogram();
+
+        assertEquals(0, h.percentileMs(0.95));
+        assertEquals(0, h.getMeanMs(), 0);
+    }
+}
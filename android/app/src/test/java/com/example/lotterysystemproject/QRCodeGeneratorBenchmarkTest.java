@@ -0,0 +1,78 @@
+package com.example.lotterysystemproject;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import com.example.lotterysystemproject.utils.QRCodeGenerator;
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * JVM micro-benchmark for the pixel rendering in {@link QRCodeGenerator}.
+ * Checks that the row-buffer renderer is not slower than the old per-pixel loop
+ * at print size. Timings depend on the machine, so the benchmark is skipped
+ * unless the unit tests run with {@code -Pbenchmarks}.
+ */
+public class QRCodeGeneratorBenchmarkTest {
+
+    private static final String PAYLOAD = "lotterysystem://event?eventId=event_1731000000000_4242";
+    private static final int PRINT_SIZE = 1200;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 20;
+
+    private static final int BLACK = 0xFF000000;
+    private static final int WHITE = 0xFFFFFFFF;
+
+    /** Keeps the JIT from discarding renders whose result is unused. */
+    private int sink;
+
+    /** The original rendering strategy: one BitMatrix lookup per pixel, column-major. */
+    private static int[] renderPerPixel(BitMatrix matrix) {
+        int width = matrix.getWidth();
+        int height = matrix.getHeight();
+        int[] pixels = new int[width * height];
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                pixels[y * width + x] = matrix.get(x, y) ? BLACK : WHITE;
+            }
+        }
+        return pixels;
+    }
+
+    @Before
+    public void requireBenchmarks() {
+        assumeTrue("Run with -Pbenchmarks", Boolean.getBoolean("benchmarks"));
+    }
+
+    @Test
+    public void toPixels_isNotSlowerThanPerPixelAtPrintSize() throws Exception {
+        BitMatrix matrix = new QRCodeWriter().encode(PAYLOAD, BarcodeFormat.QR_CODE, PRINT_SIZE, PRINT_SIZE);
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            sink += renderPerPixel(matrix)[i];
+            sink += QRCodeGenerator.toPixels(matrix)[i];
+        }
+
+        // The fastest round of each is the least disturbed by GC and scheduling
+        long perPixelNs = Long.MAX_VALUE;
+        long bufferedNs = Long.MAX_VALUE;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            sink += renderPerPixel(matrix)[i];
+            perPixelNs = Math.min(perPixelNs, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            sink += QRCodeGenerator.toPixels(matrix)[i];
+            bufferedNs = Math.min(bufferedNs, System.nanoTime() - start);
+        }
+
+        System.out.printf("QR %dx%d render: per-pixel %.2f ms, row buffer %.2f ms%n",
+                PRINT_SIZE, PRINT_SIZE, perPixelNs / 1e6, bufferedNs / 1e6);
+        assertTrue("row buffer took " + bufferedNs + " ns, per-pixel " + perPixelNs + " ns",
+                bufferedNs <= perPixelNs);
+    }
+}
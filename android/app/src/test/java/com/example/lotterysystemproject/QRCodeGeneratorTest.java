@@ -0,0 +1,66 @@
+package com.example.lotterysystemproject;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import com.example.lotterysystemproject.utils.QRCodeGenerator;
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+
+import org.junit.Test;
+
+/**
+ * Checks that the row-buffer renderer in {@link QRCodeGenerator} draws exactly
+ * what a plain per-pixel loop over the {@link BitMatrix} draws.
+ */
+public class QRCodeGeneratorTest {
+
+    private static final String PAYLOAD = "lotterysystem://event?eventId=event_1731000000000_4242";
+    private static final int PRINT_SIZE = 1200;
+
+    private static final int BLACK = 0xFF000000;
+    private static final int WHITE = 0xFFFFFFFF;
+
+    /** Reference rendering: one BitMatrix lookup per pixel. */
+    private static int[] renderPerPixel(BitMatrix matrix) {
+        int width = matrix.getWidth();
+        int height = matrix.getHeight();
+        int[] pixels = new int[width * height];
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                pixels[y * width + x] = matrix.get(x, y) ? BLACK : WHITE;
+            }
+        }
+        return pixels;
+    }
+
+    @Test
+    public void toPixels_matchesPerPixelRendering() throws Exception {
+        BitMatrix matrix = new QRCodeWriter().encode(PAYLOAD, BarcodeFormat.QR_CODE, 500, 500);
+
+        int[] fast = QRCodeGenerator.toPixels(matrix);
+
+        assertEquals(matrix.getWidth() * matrix.getHeight(), fast.length);
+        assertArrayEquals(renderPerPixel(matrix), fast);
+    }
+
+    @Test
+    public void toPixels_matchesPerPixelRenderingAtPrintSize() throws Exception {
+        BitMatrix matrix = new QRCodeWriter().encode(PAYLOAD, BarcodeFormat.QR_CODE, PRINT_SIZE, PRINT_SIZE);
+
+        assertArrayEquals(renderPerPixel(matrix), QRCodeGenerator.toPixels(matrix));
+    }
+
+    @Test
+    public void toPixels_keepsRowsOfNonSquareMatrix() {
+        BitMatrix matrix = new BitMatrix(7, 4);
+        matrix.set(0, 0);
+        matrix.set(6, 0);
+        matrix.set(3, 1);
+        matrix.set(6, 2);
+        matrix.set(6, 3); // same as the row above, so it is copied
+
+        assertArrayEquals(renderPerPixel(matrix), QRCodeGenerator.toPixels(matrix));
+    }
+}
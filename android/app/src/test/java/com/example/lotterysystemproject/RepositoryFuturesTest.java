@@ -0,0 +1,66 @@
+package com.example.lotterysystemproject;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.example.lotterysystemproject.firebasemanager.EventRepository;
+import com.example.lotterysystemproject.firebasemanager.RepositoryFutures;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+public class RepositoryFuturesTest {
+
+    @Test
+    public void fromConsumers_completesWithResult() throws Exception {
+        ListenableFuture<String> future = RepositoryFutures.fromConsumers((ok, err) -> ok.accept("done"));
+
+        assertTrue(future.isDone());
+        assertEquals("done", future.get());
+    }
+
+    @Test
+    public void fromCallback_failureReachesConsumerPair() {
+        Exception failure = new Exception("boom");
+        ListenableFuture<String> future = RepositoryFutures.fromCallback(cb -> cb.onFailure(failure));
+
+        AtomicReference<Exception> received = new AtomicReference<>();
+        RepositoryFutures.deliver(future, result -> { }, received::set);
+
+        assertSame(failure, received.get());
+    }
+
+    @Test
+    public void deliver_reportsSuccessToEventCallback() {
+        AtomicReference<String> outcome = new AtomicReference<>();
+        RepositoryFutures.deliver(Futures.immediateFuture("ignored"), new EventRepository.RepositoryCallback() {
+            @Override
+            public void onSuccess() {
+                outcome.set("success");
+            }
+
+            @Override
+            public void onError(Exception e) {
+                outcome.set("error");
+            }
+        });
+
+        assertEquals("success", outcome.get());
+    }
+
+    @Test
+    public void deliver_reportsExceptionThrownOnSuccess() {
+        IllegalStateException thrown = new IllegalStateException("bad document");
+
+        AtomicReference<Exception> received = new AtomicReference<>();
+        RepositoryFutures.deliver(Futures.immediateFuture("read"), result -> {
+            throw thrown;
+        }, received::set);
+
+        assertSame(thrown, received.get());
+    }
+}
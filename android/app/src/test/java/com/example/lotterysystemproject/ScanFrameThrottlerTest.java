@@ -0,0 +1,75 @@
+package com.example.lotterysystemproject;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.example.lotterysystemproject.utils.ScanFrameThrottler;
+
+import org.junit.Test;
+
+public class ScanFrameThrottlerTest {
+
+    @Test
+    public void firstFrame_isAnalyzed() {
+        ScanFrameThrottler throttler = new ScanFrameThrottler(0.5, 500);
+
+        assertTrue(throttler.shouldAnalyze(0));
+        assertEquals(-1, throttler.getAverageInferenceMs(), 0);
+    }
+
+    @Test
+    public void halfDutyCycle_waitsAsLongAsInference() {
+        ScanFrameThrottler throttler = new ScanFrameThrottler(0.5, 500);
+        throttler.onFrameAnalyzed(1000, 40);
+
+        assertFalse(throttler.shouldAnalyze(1039));
+        assertTrue(throttler.shouldAnalyze(1040));
+        assertEquals(1, throttler.getAnalyzedFrames());
+        assertEquals(1, throttler.getSkippedFrames());
+    }
+
+    @Test
+    public void quarterDutyCycle_waitsThreeTimesInference() {
+        ScanFrameThrottler throttler = new ScanFrameThrottler(0.25, 500);
+        throttler.onFrameAnalyzed(1000, 40);
+
+        assertFalse(throttler.shouldAnalyze(1119));
+        assertTrue(throttler.shouldAnalyze(1120));
+    }
+
+    @Test
+    public void fullDutyCycle_neverWaits() {
+        ScanFrameThrottler throttler = new ScanFrameThrottler(1.0, 500);
+        throttler.onFrameAnalyzed(1000, 40);
+
+        assertTrue(throttler.shouldAnalyze(1000));
+        assertEquals(0, throttler.getSkippedFrames());
+    }
+
+    @Test
+    public void wait_isCappedAtMaxInterval() {
+        ScanFrameThrottler throttler = new ScanFrameThrottler(0.1, 200);
+        throttler.onFrameAnalyzed(1000, 100); // uncapped wait would be 900 ms
+
+        assertFalse(throttler.shouldAnalyze(1199));
+        assertTrue(throttler.shouldAnalyze(1200));
+    }
+
+    @Test
+    public void average_weightsNewestSampleByThirtyPercent() {
+        ScanFrameThrottler throttler = new ScanFrameThrottler(0.5, 500);
+        throttler.onFrameAnalyzed(1000, 100);
+        throttler.onFrameAnalyzed(2000, 0);
+
+        // 0.3 * 0 + 0.7 * 100
+        assertEquals(70, throttler.getAverageInferenceMs(), 1e-9);
+        assertFalse(throttler.shouldAnalyze(2069));
+        assertTrue(throttler.shouldAnalyze(2070));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void zeroDutyCycle_isRejected() {
+        new ScanFrameThrottler(0, 500);
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.lotterysystemproject;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import com.example.lotterysystemproject.utils.TtlLruCache;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+public class TtlLruCacheTest {
+
+    private static final long TTL = 1000;
+    private static final long STALE = 5000;
+
+    private long now;
+    private int loads;
+    private TtlLruCache<String, String> cache;
+
+    @Before
+    public void setUp() {
+        now = 0;
+        loads = 0;
+        cache = new TtlLruCache<>("test", 2, TTL, STALE, () -> now);
+    }
+
+    private TtlLruCache.Loader<String> loader(String value) {
+        return (ok, err) -> {
+            loads++;
+            ok.accept(value);
+        };
+    }
+
+    private String load(String key, TtlLruCache.Loader<String> loader) {
+        List<String> out = new ArrayList<>();
+        cache.load(key, loader, out::add, e -> { });
+        return out.isEmpty() ? null : out.get(0);
+    }
+
+    @Test
+    public void freshEntry_isServedWithoutLoading() {
+        assertEquals("a1", load("a", loader("a1")));
+        now = TTL - 1;
+        assertEquals("a1", load("a", loader("a2")));
+
+        assertEquals(1, loads);
+        assertEquals(1, cache.getStats().hits);
+        assertEquals(1, cache.getStats().misses);
+    }
+
+    @Test
+    public void staleEntry_isServedThenRevalidatedOnce() {
+        load("a", loader("a1"));
+        now = TTL + 1;
+
+        List<Consumer<String>> pending = new ArrayList<>();
+        TtlLruCache.Loader<String> slow = (ok, err) -> {
+            loads++;
+            pending.add(ok);
+        };
+        assertEquals("a1", load("a", slow));
+        assertEquals("a1", load("a", slow));
+        assertEquals(2, loads);
+
+        pending.get(0).accept("a2");
+        assertEquals("a2", cache.getIfFresh("a"));
+        assertEquals(2, cache.getStats().staleHits);
+    }
+
+    @Test
+    public void expiredEntry_isReloaded() {
+        load("a", loader("a1"));
+        now = TTL + STALE;
+        assertEquals("a2", load("a", loader("a2")));
+        assertEquals(2, cache.getStats().misses);
+    }
+
+    @Test
+    public void leastRecentlyUsedEntry_isEvicted() {
+        cache.put("a", "a1");
+        cache.put("b", "b1");
+        cache.getIfFresh("a");
+        cache.put("c", "c1");
+
+        assertEquals("a1", cache.getIfFresh("a"));
+        assertNull(cache.getIfFresh("b"));
+        assertEquals(1, cache.getStats().evictions);
+    }
+
+    @Test
+    public void loadFailure_isReportedOnMiss() {
+        List<Exception> errors = new ArrayList<>();
+        cache.load("a", (ok, err) -> err.accept(new Exception("offline")), v -> { }, errors::add);
+
+        assertEquals(1, errors.size());
+        assertNull(cache.getIfFresh("a"));
+    }
+
+    @Test
+    public void concurrentMisses_shareOneLoad() {
+        List<Consumer<String>> pending = new ArrayList<>();
+        TtlLruCache.Loader<String> slow = (ok, err) -> {
+            loads++;
+            pending.add(ok);
+        };
+        List<String> results = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            cache.load("a", slow, results::add, e -> { });
+        }
+        assertEquals(1, loads);
+
+        pending.get(0).accept("a1");
+        assertEquals(3, results.size());
+        assertEquals("a1", results.get(2));
+    }
+
+    @Test
+    public void loadStartedBeforeInvalidate_doesNotStoreItsValue() {
+        List<Consumer<String>> pending = new ArrayList<>();
+        List<String> out = new ArrayList<>();
+        cache.load("a", (ok, err) -> pending.add(ok), out::add, e -> { });
+
+        cache.invalidate("a");
+        pending.get(0).accept("before");
+
+        assertEquals("before", out.get(0));
+        assertNull(cache.getIfFresh("a"));
+    }
+
+    @Test
+    public void revalidationStartedBeforeInvalidateAll_doesNotStoreItsValue() {
+        load("a", loader("a1"));
+        now = TTL + 1;
+
+        List<Consumer<String>> pending = new ArrayList<>();
+        assertEquals("a1", load("a", (ok, err) -> pending.add(ok)));
+        cache.invalidateAll();
+        pending.get(0).accept("a2");
+
+        assertNull(cache.getIfFresh("a"));
+    }
+}